@@ -0,0 +1,134 @@
+package com.techisthoughts.ia.movieclassification.application.service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.springframework.stereotype.Service;
+import com.techisthoughts.ia.movieclassification.domain.port.LexicalIndexPort;
+import com.techisthoughts.ia.movieclassification.domain.port.LexicalIndexPort.LexicalMatch;
+import com.techisthoughts.ia.movieclassification.domain.port.VectorDatabasePort;
+import com.techisthoughts.ia.movieclassification.domain.port.VectorDatabasePort.SimilarityResult;
+
+/**
+ * Application service combining keyword and vector retrieval.
+ *
+ * Both retrievers rank their own candidates to the same depth and the rankings are merged with
+ * reciprocal rank fusion: each document scores {@code sum(1 / (k + rank))} over the lists it
+ * appears in. Only ranks are used, so BM25 scores and cosine similarities never have to be put
+ * on one scale. The fused score orders the results and is reported as {@code fusedScore} in
+ * their metadata; {@code similarity} stays the cosine to the query.
+ *
+ * Keyword hits the vector side did not return must clear a relevance floor of their own: a
+ * BM25 score of at least {@link #MIN_LEXICAL_SCORE_RATIO} of the best keyword hit and, when
+ * their stored embedding can be read, the same minimum cosine as the vector hits.
+ */
+@Service
+public class HybridRetrievalService {
+
+    /**
+     * Rank offset of reciprocal rank fusion; damps the weight of the very first ranks
+     */
+    public static final int RRF_K = 60;
+
+    /**
+     * Minimum BM25 score of a keyword-only hit, relative to the best keyword hit
+     */
+    public static final double MIN_LEXICAL_SCORE_RATIO = 0.5;
+
+    private static final Map<String, Object> CHUNKS = Map.of("type", "chunk");
+
+    private final VectorDatabasePort vectorDatabase;
+    private final LexicalIndexPort lexicalIndex;
+
+    public HybridRetrievalService(VectorDatabasePort vectorDatabase, LexicalIndexPort lexicalIndex) {
+        this.vectorDatabase = vectorDatabase;
+        this.lexicalIndex = lexicalIndex;
+    }
+
+    /**
+     * Fuse the {@code limit} diversified vector results (MMR over {@code candidates}) with the
+     * top {@code limit} BM25 matches over chunk text. Results add {@code retrieval} (vector,
+     * lexical or both) and {@code fusedScore} to their metadata; the similarity of a keyword-only
+     * hit is its stored embedding's cosine to the query, or 0 when that is not available.
+     */
+    public List<SimilarityResult> retrieve(String query, List<Double> queryEmbedding, int limit,
+                                           double minSimilarity, int candidates, double lambda) {
+        List<SimilarityResult> vectorResults = queryEmbedding.isEmpty()
+            ? List.of()
+            : vectorDatabase.findDiverse(queryEmbedding, minSimilarity, limit, candidates, lambda);
+        List<LexicalMatch> lexicalResults = lexicalIndex.search(query, limit, CHUNKS);
+        return fuse(vectorResults, lexicalResults, queryEmbedding, minSimilarity, limit);
+    }
+
+    /**
+     * Reciprocal rank fusion of two ranked lists, best first
+     */
+    private List<SimilarityResult> fuse(List<SimilarityResult> vectorResults, List<LexicalMatch> lexicalResults,
+                                        List<Double> queryEmbedding, double minSimilarity, int limit) {
+        Map<String, Double> scores = new HashMap<>();
+        Map<String, Double> similarities = new HashMap<>();
+        Map<String, Map<String, Object>> metadata = new LinkedHashMap<>();
+        Map<String, String> sources = new HashMap<>();
+        for (int rank = 0; rank < vectorResults.size(); rank++) {
+            SimilarityResult result = vectorResults.get(rank);
+            scores.merge(result.id(), 1.0 / (RRF_K + rank + 1), Double::sum);
+            similarities.putIfAbsent(result.id(), result.similarity());
+            metadata.putIfAbsent(result.id(), result.metadata());
+            sources.put(result.id(), "vector");
+        }
+        double minLexicalScore = lexicalResults.isEmpty() ? 0.0 : lexicalResults.get(0).score() * MIN_LEXICAL_SCORE_RATIO;
+        for (int rank = 0; rank < lexicalResults.size(); rank++) {
+            LexicalMatch match = lexicalResults.get(rank);
+            if (!similarities.containsKey(match.id())) {
+                if (match.score() < minLexicalScore) {
+                    continue;
+                }
+                double similarity = storedSimilarity(match.id(), queryEmbedding);
+                if (!Double.isNaN(similarity) && similarity < minSimilarity) {
+                    continue;
+                }
+                similarities.put(match.id(), Double.isNaN(similarity) ? 0.0 : similarity);
+            }
+            scores.merge(match.id(), 1.0 / (RRF_K + rank + 1), Double::sum);
+            metadata.putIfAbsent(match.id(), match.metadata());
+            sources.merge(match.id(), "lexical", (vector, lexical) -> "both");
+        }
+
+        List<SimilarityResult> fused = new ArrayList<>(scores.size());
+        metadata.forEach((id, values) -> {
+            Map<String, Object> tagged = new LinkedHashMap<>(values != null ? values : Map.of());
+            tagged.put("retrieval", sources.get(id));
+            tagged.put("fusedScore", scores.get(id));
+            fused.add(new SimilarityResult(id, similarities.get(id), tagged));
+        });
+        fused.sort(Comparator.comparingDouble((SimilarityResult result) -> scores.get(result.id())).reversed());
+        return fused.size() > limit ? new ArrayList<>(fused.subList(0, Math.max(limit, 0))) : fused;
+    }
+
+    /**
+     * Cosine between the query and the embedding stored under the id, or NaN when either is missing
+     */
+    private double storedSimilarity(String id, List<Double> queryEmbedding) {
+        if (queryEmbedding.isEmpty()) {
+            return Double.NaN;
+        }
+        VectorDatabasePort.EmbeddingData stored = vectorDatabase.getEmbedding(id);
+        if (stored == null || stored.embedding().size() != queryEmbedding.size()) {
+            return Double.NaN;
+        }
+        double dot = 0.0;
+        double queryNorm = 0.0;
+        double storedNorm = 0.0;
+        for (int i = 0; i < queryEmbedding.size(); i++) {
+            double a = queryEmbedding.get(i);
+            double b = stored.embedding().get(i);
+            dot += a * b;
+            queryNorm += a * a;
+            storedNorm += b * b;
+        }
+        return queryNorm > 0.0 && storedNorm > 0.0 ? dot / Math.sqrt(queryNorm * storedNorm) : 0.0;
+    }
+}
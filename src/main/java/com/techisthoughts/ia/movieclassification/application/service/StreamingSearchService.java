@@ -0,0 +1,70 @@
+package com.techisthoughts.ia.movieclassification.application.service;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import com.techisthoughts.ia.movieclassification.domain.port.VectorDatabasePort;
+import com.techisthoughts.ia.movieclassification.domain.port.VectorDatabasePort.SimilarityResult;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.FluxSink;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Application service exposing vector search as reactive streams.
+ *
+ * The scan runs on the bounded-elastic scheduler, never on an event-loop thread, and reports
+ * through {@link VectorDatabasePort#streamSimilar}. Snapshots are emitted with the LATEST
+ * overflow strategy, so a slow subscriber only sees the freshest top results, and cancelling
+ * the subscription stops the scan at the next window.
+ */
+@Service
+public class StreamingSearchService {
+
+    private static final Logger logger = LoggerFactory.getLogger(StreamingSearchService.class);
+
+    private final VectorDatabasePort vectorDatabase;
+
+    public StreamingSearchService(VectorDatabasePort vectorDatabase) {
+        this.vectorDatabase = vectorDatabase;
+    }
+
+    /**
+     * Progressively refined top results; the last snapshot is the final answer
+     */
+    public Flux<List<SimilarityResult>> streamSnapshots(List<Double> queryEmbedding, int limit,
+                                                        Map<String, Object> filter) {
+        float[] query = new float[queryEmbedding.size()];
+        for (int i = 0; i < query.length; i++) {
+            query[i] = queryEmbedding.get(i).floatValue();
+        }
+        return Flux.<List<SimilarityResult>>create(sink -> {
+            AtomicBoolean cancelled = new AtomicBoolean();
+            sink.onDispose(() -> cancelled.set(true));
+            try {
+                vectorDatabase.streamSimilar(query, limit, filter, (results, complete) -> {
+                    if (cancelled.get()) {
+                        return false;
+                    }
+                    sink.next(results);
+                    return true;
+                });
+                sink.complete();
+            } catch (RuntimeException e) {
+                logger.error("Streaming search failed", e);
+                sink.error(e);
+            }
+        }, FluxSink.OverflowStrategy.LATEST).subscribeOn(Schedulers.boundedElastic());
+    }
+
+    /**
+     * Final top results, emitted one by one once the scan completes
+     */
+    public Flux<SimilarityResult> findSimilar(List<Double> queryEmbedding, int limit, Map<String, Object> filter) {
+        return streamSnapshots(queryEmbedding, limit, filter)
+            .last(List.of())
+            .flatMapIterable(results -> results);
+    }
+}
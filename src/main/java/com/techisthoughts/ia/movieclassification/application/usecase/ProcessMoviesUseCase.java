@@ -14,6 +14,7 @@ import com.techisthoughts.ia.movieclassification.domain.model.Movie;
 import com.techisthoughts.ia.movieclassification.domain.model.MovieChunk;
 import com.techisthoughts.ia.movieclassification.domain.model.Question;
 import com.techisthoughts.ia.movieclassification.domain.port.LLMServicePort;
+import com.techisthoughts.ia.movieclassification.domain.port.LexicalIndexPort;
 import com.techisthoughts.ia.movieclassification.domain.port.MovieRepositoryPort;
 import com.techisthoughts.ia.movieclassification.domain.port.VectorDatabasePort;
 
@@ -29,17 +30,20 @@ public class ProcessMoviesUseCase {
 
     private final MovieRepositoryPort movieRepository;
     private final VectorDatabasePort vectorDatabase;
+    private final LexicalIndexPort lexicalIndex;
     private final LLMServicePort llmService;
     private final ChunkingService chunkingService;
     private final QuestionGenerationService questionGenerationService;
 
     public ProcessMoviesUseCase(MovieRepositoryPort movieRepository,
                                VectorDatabasePort vectorDatabase,
+                               LexicalIndexPort lexicalIndex,
                                LLMServicePort llmService,
                                ChunkingService chunkingService,
                                QuestionGenerationService questionGenerationService) {
         this.movieRepository = movieRepository;
         this.vectorDatabase = vectorDatabase;
+        this.lexicalIndex = lexicalIndex;
         this.llmService = llmService;
         this.chunkingService = chunkingService;
         this.questionGenerationService = questionGenerationService;
@@ -127,6 +131,10 @@ public class ProcessMoviesUseCase {
                 List<List<Double>> embeddings = llmService.createEmbeddings(textsToEmbed);
 
                 if (!embeddings.isEmpty()) {
+                    VectorDatabasePort chunkCollection =
+                        vectorDatabase.collection(VectorDatabasePort.chunkCollection(chunk.getChunkType().getValue()));
+                    VectorDatabasePort questionCollection = vectorDatabase.collection(VectorDatabasePort.QUESTIONS);
+
                     // Store chunk embedding
                     Map<String, Object> chunkMetadata = Map.of(
                         "type", "chunk",
@@ -135,7 +143,8 @@ public class ProcessMoviesUseCase {
                         "movieCount", chunk.getMovieCount(),
                         "genre", chunk.getGenre() != null ? chunk.getGenre() : "unknown"
                     );
-                    vectorDatabase.storeEmbedding(chunk.getChunkId(), embeddings.get(0), chunkMetadata);
+                    chunkCollection.storeEmbedding(chunk.getChunkId(), embeddings.get(0), chunkMetadata);
+                    lexicalIndex.index(chunk.getChunkId(), chunk.getContent(), chunkMetadata);
                     embeddingsCreated.incrementAndGet();
 
                     // Store question embeddings
@@ -151,7 +160,7 @@ public class ProcessMoviesUseCase {
                             "difficulty", question.getDifficulty().getValue(),
                             "category", question.getCategory() != null ? question.getCategory() : "general"
                         );
-                        vectorDatabase.storeEmbedding(question.getQuestionId(), questionEmbedding, questionMetadata);
+                        questionCollection.storeEmbedding(question.getQuestionId(), questionEmbedding, questionMetadata);
                         embeddingsCreated.incrementAndGet();
                     }
                 }
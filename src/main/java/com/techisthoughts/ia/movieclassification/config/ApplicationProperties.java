@@ -1,5 +1,9 @@
 package com.techisthoughts.ia.movieclassification.config;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.context.annotation.Configuration;
 
@@ -10,6 +14,7 @@ public class ApplicationProperties {
     private Movie movie = new Movie();
     private Embedding embedding = new Embedding();
     private Search search = new Search();
+    private Vector vector = new Vector();
 
     public Movie getMovie() {
         return movie;
@@ -35,6 +40,14 @@ public class ApplicationProperties {
         this.search = search;
     }
 
+    public Vector getVector() {
+        return vector;
+    }
+
+    public void setVector(Vector vector) {
+        this.vector = vector;
+    }
+
     public static class Movie {
         private Data data = new Data();
 
@@ -91,4 +104,586 @@ public class ApplicationProperties {
             this.maxLimit = maxLimit;
         }
     }
+
+    public static class Vector {
+        private String backend = "memory";
+        private String quantization = "none";
+        private String precision = "float32";
+        private int rerankFactor = 4;
+        private Hnsw hnsw = new Hnsw();
+        private Ivf ivf = new Ivf();
+        private Pq pq = new Pq();
+        private Mapped mapped = new Mapped();
+        private Wal wal = new Wal();
+        private Scan scan = new Scan();
+        private Compaction compaction = new Compaction();
+        private Projection projection = new Projection();
+        private Dedup dedup = new Dedup();
+        private Planner planner = new Planner();
+        private Map<String, Collection> collections = new HashMap<>();
+        private Cluster cluster = new Cluster();
+
+        public String getBackend() {
+            return backend;
+        }
+
+        public void setBackend(String backend) {
+            this.backend = backend;
+        }
+
+        public String getQuantization() {
+            return quantization;
+        }
+
+        public void setQuantization(String quantization) {
+            this.quantization = quantization;
+        }
+
+        public String getPrecision() {
+            return precision;
+        }
+
+        public void setPrecision(String precision) {
+            this.precision = precision;
+        }
+
+        public int getRerankFactor() {
+            return rerankFactor;
+        }
+
+        public void setRerankFactor(int rerankFactor) {
+            this.rerankFactor = rerankFactor;
+        }
+
+        public Hnsw getHnsw() {
+            return hnsw;
+        }
+
+        public void setHnsw(Hnsw hnsw) {
+            this.hnsw = hnsw;
+        }
+
+        public Ivf getIvf() {
+            return ivf;
+        }
+
+        public void setIvf(Ivf ivf) {
+            this.ivf = ivf;
+        }
+
+        public Pq getPq() {
+            return pq;
+        }
+
+        public void setPq(Pq pq) {
+            this.pq = pq;
+        }
+
+        public Mapped getMapped() {
+            return mapped;
+        }
+
+        public void setMapped(Mapped mapped) {
+            this.mapped = mapped;
+        }
+
+        public Wal getWal() {
+            return wal;
+        }
+
+        public void setWal(Wal wal) {
+            this.wal = wal;
+        }
+
+        public Scan getScan() {
+            return scan;
+        }
+
+        public void setScan(Scan scan) {
+            this.scan = scan;
+        }
+
+        public Compaction getCompaction() {
+            return compaction;
+        }
+
+        public void setCompaction(Compaction compaction) {
+            this.compaction = compaction;
+        }
+
+        public Projection getProjection() {
+            return projection;
+        }
+
+        public void setProjection(Projection projection) {
+            this.projection = projection;
+        }
+
+        public Dedup getDedup() {
+            return dedup;
+        }
+
+        public void setDedup(Dedup dedup) {
+            this.dedup = dedup;
+        }
+
+        public Planner getPlanner() {
+            return planner;
+        }
+
+        public void setPlanner(Planner planner) {
+            this.planner = planner;
+        }
+
+        public Map<String, Collection> getCollections() {
+            return collections;
+        }
+
+        public void setCollections(Map<String, Collection> collections) {
+            this.collections = collections;
+        }
+
+        public Cluster getCluster() {
+            return cluster;
+        }
+
+        public void setCluster(Cluster cluster) {
+            this.cluster = cluster;
+        }
+
+        public static class Hnsw {
+            private int m = 16;
+            private int efConstruction = 200;
+            private int efSearch = 64;
+            private int exactSearchThreshold = 2000;
+
+            public int getM() {
+                return m;
+            }
+
+            public void setM(int m) {
+                this.m = m;
+            }
+
+            public int getEfConstruction() {
+                return efConstruction;
+            }
+
+            public void setEfConstruction(int efConstruction) {
+                this.efConstruction = efConstruction;
+            }
+
+            public int getEfSearch() {
+                return efSearch;
+            }
+
+            public void setEfSearch(int efSearch) {
+                this.efSearch = efSearch;
+            }
+
+            public int getExactSearchThreshold() {
+                return exactSearchThreshold;
+            }
+
+            public void setExactSearchThreshold(int exactSearchThreshold) {
+                this.exactSearchThreshold = exactSearchThreshold;
+            }
+        }
+
+        public static class Ivf {
+            private int lists = 256;
+            private int nprobe = 8;
+            private int minTrainingSize = 10000;
+            private double retrainGrowthFactor = 2.0;
+            private int trainingSampleSize = 65536;
+
+            public int getLists() {
+                return lists;
+            }
+
+            public void setLists(int lists) {
+                this.lists = lists;
+            }
+
+            public int getNprobe() {
+                return nprobe;
+            }
+
+            public void setNprobe(int nprobe) {
+                this.nprobe = nprobe;
+            }
+
+            public int getMinTrainingSize() {
+                return minTrainingSize;
+            }
+
+            public void setMinTrainingSize(int minTrainingSize) {
+                this.minTrainingSize = minTrainingSize;
+            }
+
+            public double getRetrainGrowthFactor() {
+                return retrainGrowthFactor;
+            }
+
+            public void setRetrainGrowthFactor(double retrainGrowthFactor) {
+                this.retrainGrowthFactor = retrainGrowthFactor;
+            }
+
+            public int getTrainingSampleSize() {
+                return trainingSampleSize;
+            }
+
+            public void setTrainingSampleSize(int trainingSampleSize) {
+                this.trainingSampleSize = trainingSampleSize;
+            }
+        }
+
+        public static class Pq {
+            private int subvectors = 64;
+            private int trainingSize = 10000;
+            private int trainingSampleSize = 65536;
+
+            public int getSubvectors() {
+                return subvectors;
+            }
+
+            public void setSubvectors(int subvectors) {
+                this.subvectors = subvectors;
+            }
+
+            public int getTrainingSize() {
+                return trainingSize;
+            }
+
+            public void setTrainingSize(int trainingSize) {
+                this.trainingSize = trainingSize;
+            }
+
+            public int getTrainingSampleSize() {
+                return trainingSampleSize;
+            }
+
+            public void setTrainingSampleSize(int trainingSampleSize) {
+                this.trainingSampleSize = trainingSampleSize;
+            }
+        }
+
+        public static class Mapped {
+            private String directory = "./data/vectors";
+            private int segmentRows = 16384;
+            private long flushIntervalMs = 30000;
+
+            public String getDirectory() {
+                return directory;
+            }
+
+            public void setDirectory(String directory) {
+                this.directory = directory;
+            }
+
+            public int getSegmentRows() {
+                return segmentRows;
+            }
+
+            public void setSegmentRows(int segmentRows) {
+                this.segmentRows = segmentRows;
+            }
+
+            public long getFlushIntervalMs() {
+                return flushIntervalMs;
+            }
+
+            public void setFlushIntervalMs(long flushIntervalMs) {
+                this.flushIntervalMs = flushIntervalMs;
+            }
+        }
+
+        public static class Wal {
+            private boolean enabled = false;
+            private String directory = "./data/wal";
+            private long syncIntervalMs = 50;
+            private long checkpointBytes = 256L * 1024 * 1024;
+
+            public boolean isEnabled() {
+                return enabled;
+            }
+
+            public void setEnabled(boolean enabled) {
+                this.enabled = enabled;
+            }
+
+            public String getDirectory() {
+                return directory;
+            }
+
+            public void setDirectory(String directory) {
+                this.directory = directory;
+            }
+
+            public long getSyncIntervalMs() {
+                return syncIntervalMs;
+            }
+
+            public void setSyncIntervalMs(long syncIntervalMs) {
+                this.syncIntervalMs = syncIntervalMs;
+            }
+
+            public long getCheckpointBytes() {
+                return checkpointBytes;
+            }
+
+            public void setCheckpointBytes(long checkpointBytes) {
+                this.checkpointBytes = checkpointBytes;
+            }
+        }
+
+        public static class Scan {
+            private int shards = 0;
+            private int poolSize = 0;
+
+            public int getShards() {
+                return shards;
+            }
+
+            public void setShards(int shards) {
+                this.shards = shards;
+            }
+
+            public int getPoolSize() {
+                return poolSize;
+            }
+
+            public void setPoolSize(int poolSize) {
+                this.poolSize = poolSize;
+            }
+        }
+
+        public static class Compaction {
+            private double deletedFraction = 0.3;
+            private int minDeleted = 1024;
+
+            public double getDeletedFraction() {
+                return deletedFraction;
+            }
+
+            public void setDeletedFraction(double deletedFraction) {
+                this.deletedFraction = deletedFraction;
+            }
+
+            public int getMinDeleted() {
+                return minDeleted;
+            }
+
+            public void setMinDeleted(int minDeleted) {
+                this.minDeleted = minDeleted;
+            }
+        }
+
+        public static class Projection {
+            private String mode = "none";
+            private int dimensions = 256;
+            private int fitSampleSize = 4096;
+            private int rerankFactor = 4;
+            private String directory = "./data/full-vectors";
+
+            public String getMode() {
+                return mode;
+            }
+
+            public void setMode(String mode) {
+                this.mode = mode;
+            }
+
+            public int getDimensions() {
+                return dimensions;
+            }
+
+            public void setDimensions(int dimensions) {
+                this.dimensions = dimensions;
+            }
+
+            public int getFitSampleSize() {
+                return fitSampleSize;
+            }
+
+            public void setFitSampleSize(int fitSampleSize) {
+                this.fitSampleSize = fitSampleSize;
+            }
+
+            public int getRerankFactor() {
+                return rerankFactor;
+            }
+
+            public void setRerankFactor(int rerankFactor) {
+                this.rerankFactor = rerankFactor;
+            }
+
+            public String getDirectory() {
+                return directory;
+            }
+
+            public void setDirectory(String directory) {
+                this.directory = directory;
+            }
+        }
+
+        public static class Dedup {
+            private String mode = "off";
+            private double threshold = 0.97;
+            private int bands = 8;
+            private int bandBits = 16;
+
+            public String getMode() {
+                return mode;
+            }
+
+            public void setMode(String mode) {
+                this.mode = mode;
+            }
+
+            public double getThreshold() {
+                return threshold;
+            }
+
+            public void setThreshold(double threshold) {
+                this.threshold = threshold;
+            }
+
+            public int getBands() {
+                return bands;
+            }
+
+            public void setBands(int bands) {
+                this.bands = bands;
+            }
+
+            public int getBandBits() {
+                return bandBits;
+            }
+
+            public void setBandBits(int bandBits) {
+                this.bandBits = bandBits;
+            }
+        }
+
+        public static class Planner {
+            private double postFilterSelectivity = 0.5;
+
+            public double getPostFilterSelectivity() {
+                return postFilterSelectivity;
+            }
+
+            public void setPostFilterSelectivity(double postFilterSelectivity) {
+                this.postFilterSelectivity = postFilterSelectivity;
+            }
+        }
+
+        /**
+         * Per-collection overrides; unset values fall back to the app.vector defaults
+         */
+        public static class Collection {
+            private String backend;
+            private String quantization;
+            private String precision;
+            private String projection;
+            private String dedup;
+
+            public String getBackend() {
+                return backend;
+            }
+
+            public void setBackend(String backend) {
+                this.backend = backend;
+            }
+
+            public String getQuantization() {
+                return quantization;
+            }
+
+            public void setQuantization(String quantization) {
+                this.quantization = quantization;
+            }
+
+            public String getPrecision() {
+                return precision;
+            }
+
+            public void setPrecision(String precision) {
+                this.precision = precision;
+            }
+
+            public String getProjection() {
+                return projection;
+            }
+
+            public void setProjection(String projection) {
+                this.projection = projection;
+            }
+
+            public String getDedup() {
+                return dedup;
+            }
+
+            public void setDedup(String dedup) {
+                this.dedup = dedup;
+            }
+        }
+
+        public static class Cluster {
+            private List<String> nodes = new ArrayList<>();
+            private String selfUrl = "";
+            private int virtualNodes = 128;
+            private long timeoutMs = 2000;
+            private long connectTimeoutMs = 500;
+            private boolean requireAllShards = false;
+
+            public List<String> getNodes() {
+                return nodes;
+            }
+
+            public void setNodes(List<String> nodes) {
+                this.nodes = nodes;
+            }
+
+            public String getSelfUrl() {
+                return selfUrl;
+            }
+
+            public void setSelfUrl(String selfUrl) {
+                this.selfUrl = selfUrl;
+            }
+
+            public int getVirtualNodes() {
+                return virtualNodes;
+            }
+
+            public void setVirtualNodes(int virtualNodes) {
+                this.virtualNodes = virtualNodes;
+            }
+
+            public long getTimeoutMs() {
+                return timeoutMs;
+            }
+
+            public void setTimeoutMs(long timeoutMs) {
+                this.timeoutMs = timeoutMs;
+            }
+
+            public long getConnectTimeoutMs() {
+                return connectTimeoutMs;
+            }
+
+            public void setConnectTimeoutMs(long connectTimeoutMs) {
+                this.connectTimeoutMs = connectTimeoutMs;
+            }
+
+            public boolean isRequireAllShards() {
+                return requireAllShards;
+            }
+
+            public void setRequireAllShards(boolean requireAllShards) {
+                this.requireAllShards = requireAllShards;
+            }
+        }
+    }
 }
@@ -0,0 +1,47 @@
+package com.techisthoughts.ia.movieclassification.domain.port;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Port interface for keyword (lexical) search over indexed text
+ */
+public interface LexicalIndexPort {
+
+    /**
+     * Document id of a movie in the index
+     */
+    static String movieDocument(String title) {
+        return "movie:" + title;
+    }
+
+    /**
+     * Index a document, replacing any previous text under the same id
+     */
+    void index(String id, String text, Map<String, Object> metadata);
+
+    /**
+     * Remove a document
+     */
+    void remove(String id);
+
+    /**
+     * Remove every document
+     */
+    void clear();
+
+    /**
+     * Best-scoring documents for a free-text query whose metadata matches every filter entry
+     */
+    List<LexicalMatch> search(String query, int limit, Map<String, Object> filter);
+
+    /**
+     * Count indexed documents
+     */
+    long count();
+
+    /**
+     * Lexical search result
+     */
+    record LexicalMatch(String id, double score, Map<String, Object> metadata) {}
+}
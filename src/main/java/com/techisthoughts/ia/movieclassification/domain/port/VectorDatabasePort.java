@@ -1,18 +1,44 @@
 package com.techisthoughts.ia.movieclassification.domain.port;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
 
 /**
  * Port interface for Vector database operations
  */
 public interface VectorDatabasePort {
 
+    /**
+     * Collection holding chunk embeddings of the given chunking strategy value
+     */
+    static String chunkCollection(String chunkType) {
+        return "chunks-" + chunkType;
+    }
+
+    /**
+     * Collection holding generated question embeddings
+     */
+    String QUESTIONS = "questions";
+
     /**
      * Store embedding with metadata
      */
     void storeEmbedding(String id, List<Double> embedding, Map<String, Object> metadata);
 
+    /**
+     * Store embedding with metadata from a primitive vector, avoiding boxing on the hot path
+     */
+    default void storeEmbedding(String id, float[] embedding, Map<String, Object> metadata) {
+        List<Double> boxed = new ArrayList<>(embedding.length);
+        for (float value : embedding) {
+            boxed.add((double) value);
+        }
+        storeEmbedding(id, boxed, metadata);
+    }
+
     /**
      * Store multiple embeddings
      */
@@ -28,6 +54,114 @@ public interface VectorDatabasePort {
      */
     List<SimilarityResult> findSimilar(List<Double> queryEmbedding, int limit, Map<String, Object> filter);
 
+    /**
+     * Find similar embeddings for a primitive query vector
+     */
+    default List<SimilarityResult> findSimilar(float[] queryEmbedding, int limit) {
+        return findSimilar(queryEmbedding, limit, Map.of());
+    }
+
+    /**
+     * Find similar embeddings for a primitive query vector with filter
+     */
+    default List<SimilarityResult> findSimilar(float[] queryEmbedding, int limit, Map<String, Object> filter) {
+        List<Double> boxed = new ArrayList<>(queryEmbedding.length);
+        for (float value : queryEmbedding) {
+            boxed.add((double) value);
+        }
+        return findSimilar(boxed, limit, filter);
+    }
+
+    /**
+     * Find up to maxResults embeddings whose similarity is at least minSimilarity, most similar first
+     */
+    default List<SimilarityResult> findWithinThreshold(List<Double> queryEmbedding, double minSimilarity,
+                                                       int maxResults) {
+        float[] query = new float[queryEmbedding.size()];
+        for (int i = 0; i < query.length; i++) {
+            query[i] = queryEmbedding.get(i).floatValue();
+        }
+        return findWithinThreshold(query, minSimilarity, maxResults);
+    }
+
+    /**
+     * Threshold search for a primitive query vector. Backends that can prune below-threshold
+     * vectors during the scan override this; the default filters a regular top-k search.
+     */
+    default List<SimilarityResult> findWithinThreshold(float[] queryEmbedding, double minSimilarity,
+                                                       int maxResults) {
+        List<SimilarityResult> results = new ArrayList<>();
+        for (SimilarityResult result : findSimilar(queryEmbedding, maxResults)) {
+            if (result.similarity() >= minSimilarity) {
+                results.add(result);
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Diversified threshold search by maximal marginal relevance: among the {@code candidates}
+     * most similar embeddings at or above minSimilarity, pick up to maxResults that balance
+     * similarity to the query against similarity to the results already picked. A lambda of 1
+     * is plain similarity ranking; lower values favour diversity.
+     */
+    default List<SimilarityResult> findDiverse(List<Double> queryEmbedding, double minSimilarity, int maxResults,
+                                               int candidates, double lambda) {
+        float[] query = new float[queryEmbedding.size()];
+        for (int i = 0; i < query.length; i++) {
+            query[i] = queryEmbedding.get(i).floatValue();
+        }
+        return findDiverse(query, minSimilarity, maxResults, candidates, lambda);
+    }
+
+    /**
+     * Diversified threshold search for a primitive query vector. Backends that can compare the
+     * candidates with each other override this; the default returns the plain threshold results.
+     */
+    default List<SimilarityResult> findDiverse(float[] queryEmbedding, double minSimilarity, int maxResults,
+                                               int candidates, double lambda) {
+        return findWithinThreshold(queryEmbedding, minSimilarity, maxResults);
+    }
+
+    /**
+     * Find similar embeddings for several queries at once, returning one result list per query
+     * in query order. Backends that can share a scan across the batch override this.
+     */
+    default List<List<SimilarityResult>> findSimilarBatch(List<List<Double>> queryEmbeddings, int limit,
+                                                          Map<String, Object> filter) {
+        float[][] queries = new float[queryEmbeddings.size()][];
+        for (int q = 0; q < queries.length; q++) {
+            List<Double> embedding = queryEmbeddings.get(q);
+            queries[q] = new float[embedding.size()];
+            for (int i = 0; i < queries[q].length; i++) {
+                queries[q][i] = embedding.get(i).floatValue();
+            }
+        }
+        return findSimilarBatch(queries, limit, filter);
+    }
+
+    /**
+     * Find similar embeddings for several primitive query vectors at once
+     */
+    default List<List<SimilarityResult>> findSimilarBatch(float[][] queryEmbeddings, int limit,
+                                                          Map<String, Object> filter) {
+        List<List<SimilarityResult>> results = new ArrayList<>(queryEmbeddings.length);
+        for (float[] query : queryEmbeddings) {
+            results.add(findSimilar(query, limit, filter));
+        }
+        return results;
+    }
+
+    /**
+     * Streaming search: the listener receives the running top results as the store is scanned,
+     * ending with a call where {@code complete} is true. Returning false from the listener stops
+     * the scan. Backends that cannot scan piecewise override nothing and report once, complete.
+     */
+    default void streamSimilar(float[] queryEmbedding, int limit, Map<String, Object> filter,
+                               SearchListener listener) {
+        listener.onResults(findSimilar(queryEmbedding, limit, filter), true);
+    }
+
     /**
      * Get embedding by ID
      */
@@ -48,6 +182,49 @@ public interface VectorDatabasePort {
      */
     long count();
 
+    /**
+     * Named collection with its own index, dimension and quantization settings, created on
+     * first use. Operations on the returned port only touch that collection. Creating one
+     * allocates a backend, so this is for write paths; reads use {@link #findCollection(String)}.
+     *
+     * @throws IllegalArgumentException if the name is not a valid collection name
+     */
+    VectorDatabasePort collection(String name);
+
+    /**
+     * Named collection if it already exists; never creates one
+     *
+     * @throws IllegalArgumentException if the name is not a valid collection name
+     */
+    Optional<VectorDatabasePort> findCollection(String name);
+
+    /**
+     * Names of the collections created so far
+     */
+    default Set<String> collectionNames() {
+        return Set.of();
+    }
+
+    /**
+     * Near-duplicate inserts detected so far, at most {@code maxGroups} groups of ids keyed by
+     * the embedding they duplicate; empty when duplicate detection is not enabled
+     */
+    default Map<String, Object> duplicateReport(int maxGroups) {
+        return Map.of();
+    }
+
+    /**
+     * Receiver of progressively refined search results
+     */
+    @FunctionalInterface
+    interface SearchListener {
+
+        /**
+         * @return false to cancel the rest of the search
+         */
+        boolean onResults(List<SimilarityResult> topResults, boolean complete);
+    }
+
     /**
      * Data class for embedding storage
      */
@@ -0,0 +1,368 @@
+package com.techisthoughts.ia.movieclassification.infrastructure.adapter;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import com.techisthoughts.ia.movieclassification.domain.port.LexicalIndexPort;
+import com.techisthoughts.ia.movieclassification.infrastructure.vector.MetadataFilter;
+import com.techisthoughts.ia.movieclassification.infrastructure.vector.ScoredHeap;
+
+/**
+ * In-memory inverted index with Okapi BM25 scoring.
+ *
+ * Each term maps to a posting list of (document, term frequency) pairs, so a query only touches
+ * the postings of its own terms and costs time proportional to their length, not to the number
+ * of documents. Re-indexing or removing a document tombstones its number; posting lists are
+ * rebuilt once tombstones outnumber live documents.
+ *
+ * Text is folded to lowercase ASCII-ish tokens (accents stripped) split on anything that is not
+ * a letter or digit; common English stop words are dropped and no stemming is applied.
+ */
+@Component
+public class Bm25LexicalIndex implements LexicalIndexPort {
+
+    private static final Logger logger = LoggerFactory.getLogger(Bm25LexicalIndex.class);
+
+    private static final float K1 = 1.2f;
+    private static final float B = 0.75f;
+    private static final int COMPACTION_MIN_DEAD = 1024;
+
+    private static final Set<String> STOP_WORDS = Set.of(
+        "a", "an", "and", "are", "as", "at", "be", "but", "by", "for", "from", "has", "have", "in",
+        "is", "it", "its", "of", "on", "or", "that", "the", "this", "to", "was", "were", "with");
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<String, Integer> documents = new HashMap<>();
+    private final Map<String, Postings> postings = new HashMap<>();
+    private final BitSet live = new BitSet();
+    private final ThreadLocal<Accumulator> accumulators = ThreadLocal.withInitial(Accumulator::new);
+
+    private String[] ids = new String[64];
+    private Map<String, Object>[] metadata = newMetadataArray(64);
+    private String[][] terms = new String[64][];
+    private int[][] frequencies = new int[64][];
+    private int[] lengths = new int[64];
+    private int documentLimit;
+    private int liveDocuments;
+    private long liveTokens;
+
+    /**
+     * Posting list of one term; entries of tombstoned documents stay until compaction
+     */
+    private static final class Postings {
+        private int[] documents = new int[4];
+        private int[] frequencies = new int[4];
+        private int size;
+        private int live;
+
+        void add(int document, int frequency) {
+            if (size == documents.length) {
+                documents = Arrays.copyOf(documents, size * 2);
+                frequencies = Arrays.copyOf(frequencies, size * 2);
+            }
+            documents[size] = document;
+            frequencies[size] = frequency;
+            size++;
+            live++;
+        }
+    }
+
+    /**
+     * Per-thread score accumulator reset through the list of touched documents, so a query
+     * never clears more than it wrote
+     */
+    private static final class Accumulator {
+        private float[] scores = new float[64];
+        private int[] touched = new int[64];
+        private int touchedCount;
+
+        void ensureCapacity(int documents) {
+            if (scores.length < documents) {
+                scores = new float[Math.max(documents, scores.length * 2)];
+            }
+        }
+
+        void add(int document, float score) {
+            if (scores[document] == 0f) {
+                if (touchedCount == touched.length) {
+                    touched = Arrays.copyOf(touched, touchedCount * 2);
+                }
+                touched[touchedCount++] = document;
+            }
+            scores[document] += score;
+        }
+
+        void reset() {
+            for (int i = 0; i < touchedCount; i++) {
+                scores[touched[i]] = 0f;
+            }
+            touchedCount = 0;
+        }
+    }
+
+    @Override
+    public void index(String id, String text, Map<String, Object> documentMetadata) {
+        List<String> tokens = tokenize(text);
+        Map<String, Integer> termFrequencies = new LinkedHashMap<>();
+        for (String token : tokens) {
+            termFrequencies.merge(token, 1, Integer::sum);
+        }
+
+        lock.writeLock().lock();
+        try {
+            removeLocked(id);
+            maybeCompact();
+            if (tokens.isEmpty()) {
+                return;
+            }
+            int document = documentLimit++;
+            ensureCapacity(documentLimit);
+            String[] documentTerms = new String[termFrequencies.size()];
+            int[] documentFrequencies = new int[documentTerms.length];
+            int i = 0;
+            for (Map.Entry<String, Integer> entry : termFrequencies.entrySet()) {
+                documentTerms[i] = entry.getKey();
+                documentFrequencies[i] = entry.getValue();
+                postings.computeIfAbsent(entry.getKey(), term -> new Postings()).add(document, entry.getValue());
+                i++;
+            }
+            ids[document] = id;
+            metadata[document] = documentMetadata != null ? documentMetadata : Map.of();
+            terms[document] = documentTerms;
+            frequencies[document] = documentFrequencies;
+            lengths[document] = tokens.size();
+            live.set(document);
+            documents.put(id, document);
+            liveDocuments++;
+            liveTokens += tokens.size();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void remove(String id) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(id);
+            maybeCompact();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            documents.clear();
+            postings.clear();
+            live.clear();
+            ids = new String[64];
+            metadata = newMetadataArray(64);
+            terms = new String[64][];
+            frequencies = new int[64][];
+            lengths = new int[64];
+            documentLimit = 0;
+            liveDocuments = 0;
+            liveTokens = 0;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public List<LexicalMatch> search(String query, int limit, Map<String, Object> filter) {
+        Set<String> queryTerms = new LinkedHashSet<>(tokenize(query));
+        if (queryTerms.isEmpty() || limit <= 0) {
+            return new ArrayList<>();
+        }
+
+        lock.readLock().lock();
+        try {
+            if (liveDocuments == 0) {
+                return new ArrayList<>();
+            }
+            float averageLength = (float) liveTokens / liveDocuments;
+            Accumulator accumulator = accumulators.get();
+            accumulator.ensureCapacity(documentLimit);
+            try {
+                for (String term : queryTerms) {
+                    Postings list = postings.get(term);
+                    if (list == null || list.live == 0) {
+                        continue;
+                    }
+                    float idf = (float) Math.log(1.0 + (liveDocuments - list.live + 0.5) / (list.live + 0.5));
+                    for (int i = 0; i < list.size; i++) {
+                        int document = list.documents[i];
+                        if (!live.get(document)) {
+                            continue;
+                        }
+                        int frequency = list.frequencies[i];
+                        float norm = K1 * (1f - B + B * lengths[document] / averageLength);
+                        accumulator.add(document, idf * frequency * (K1 + 1f) / (frequency + norm));
+                    }
+                }
+
+                ScoredHeap top = ScoredHeap.top(limit, accumulator.touchedCount);
+                for (int i = 0; i < accumulator.touchedCount; i++) {
+                    int document = accumulator.touched[i];
+                    if (filter.isEmpty() || MetadataFilter.matches(metadata[document], filter)) {
+                        top.offer(accumulator.scores[document], document, limit);
+                    }
+                }
+                List<LexicalMatch> matches = new ArrayList<>(top.size());
+                while (!top.isEmpty()) {
+                    float score = top.topScore();
+                    int document = top.pop();
+                    matches.add(new LexicalMatch(ids[document], score, metadata[document]));
+                }
+                Collections.reverse(matches);
+                return matches;
+            } finally {
+                accumulator.reset();
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public long count() {
+        lock.readLock().lock();
+        try {
+            return liveDocuments;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public Map<String, Object> getStatistics() {
+        lock.readLock().lock();
+        try {
+            long postingEntries = 0;
+            for (Postings list : postings.values()) {
+                postingEntries += list.size;
+            }
+            Map<String, Object> stats = new LinkedHashMap<>();
+            stats.put("documents", liveDocuments);
+            stats.put("deletedDocuments", documentLimit - liveDocuments);
+            stats.put("terms", postings.size());
+            stats.put("postingEntries", postingEntries);
+            stats.put("averageDocumentLength", liveDocuments > 0 ? (double) liveTokens / liveDocuments : 0.0);
+            return stats;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Lowercased, accent-folded letter/digit runs without stop words
+     */
+    static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null || text.isEmpty()) {
+            return tokens;
+        }
+        String folded = Normalizer.normalize(text, Normalizer.Form.NFD).toLowerCase(Locale.ROOT);
+        StringBuilder token = new StringBuilder();
+        for (int i = 0; i <= folded.length(); i++) {
+            char c = i < folded.length() ? folded.charAt(i) : ' ';
+            if (Character.isLetterOrDigit(c)) {
+                token.append(c);
+            } else if (Character.getType(c) != Character.NON_SPACING_MARK && !token.isEmpty()) {
+                String term = token.toString();
+                if (!STOP_WORDS.contains(term)) {
+                    tokens.add(term);
+                }
+                token.setLength(0);
+            }
+        }
+        return tokens;
+    }
+
+    private void removeLocked(String id) {
+        Integer document = documents.remove(id);
+        if (document == null) {
+            return;
+        }
+        for (String term : terms[document]) {
+            postings.get(term).live--;
+        }
+        live.clear(document);
+        liveDocuments--;
+        liveTokens -= lengths[document];
+        ids[document] = null;
+        metadata[document] = null;
+        terms[document] = null;
+        frequencies[document] = null;
+    }
+
+    private void maybeCompact() {
+        int dead = documentLimit - liveDocuments;
+        if (dead >= COMPACTION_MIN_DEAD && dead > liveDocuments) {
+            compact();
+        }
+    }
+
+    /**
+     * Renumber the live documents densely and rebuild every posting list from them
+     */
+    private void compact() {
+        int before = documentLimit;
+        postings.clear();
+        documents.clear();
+        int next = 0;
+        for (int document = live.nextSetBit(0); document >= 0; document = live.nextSetBit(document + 1)) {
+            ids[next] = ids[document];
+            metadata[next] = metadata[document];
+            terms[next] = terms[document];
+            frequencies[next] = frequencies[document];
+            lengths[next] = lengths[document];
+            for (int i = 0; i < terms[next].length; i++) {
+                postings.computeIfAbsent(terms[next][i], term -> new Postings()).add(next, frequencies[next][i]);
+            }
+            documents.put(ids[next], next);
+            next++;
+        }
+        Arrays.fill(ids, next, documentLimit, null);
+        Arrays.fill(metadata, next, documentLimit, null);
+        Arrays.fill(terms, next, documentLimit, null);
+        Arrays.fill(frequencies, next, documentLimit, null);
+        documentLimit = next;
+        live.clear();
+        live.set(0, next);
+        logger.debug("Compacted lexical index from {} to {} documents", before, next);
+    }
+
+    private void ensureCapacity(int size) {
+        if (size <= ids.length) {
+            return;
+        }
+        int capacity = Math.max(size, ids.length * 2);
+        ids = Arrays.copyOf(ids, capacity);
+        metadata = Arrays.copyOf(metadata, capacity);
+        terms = Arrays.copyOf(terms, capacity);
+        frequencies = Arrays.copyOf(frequencies, capacity);
+        lengths = Arrays.copyOf(lengths, capacity);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object>[] newMetadataArray(int size) {
+        return new Map[size];
+    }
+}
@@ -0,0 +1,314 @@
+package com.techisthoughts.ia.movieclassification.infrastructure.adapter;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+import com.techisthoughts.ia.movieclassification.domain.port.VectorDatabasePort;
+import com.techisthoughts.ia.movieclassification.infrastructure.vector.MaximalMarginalRelevance;
+import com.techisthoughts.ia.movieclassification.infrastructure.vector.VectorMath;
+
+/**
+ * VectorDatabasePort that hosts one backend per named collection.
+ *
+ * Each collection is created on first use by the backend factory, so it gets its own index,
+ * dimension and quantization settings, and a query against {@link #collection(String)} scans
+ * only that collection's vectors instead of filtering one shared store. Collections that a
+ * persistent backend left on disk are passed in at construction and reopened right away, so
+ * top-level searches and counts see them before anything writes to them again.
+ *
+ * The top-level methods store into the default collection. Reads, deletes and counts span
+ * every collection; a top-level search queries each collection of matching dimension and
+ * merges the per-collection top-k lists.
+ */
+public class CollectionVectorDatabase implements VectorDatabasePort {
+
+    public static final String DEFAULT_COLLECTION = "default";
+
+    private static final Pattern VALID_NAME = Pattern.compile("[A-Za-z0-9_-]{1,64}");
+    private static final Comparator<SimilarityResult> MOST_SIMILAR_FIRST =
+            Comparator.comparingDouble(SimilarityResult::similarity).reversed();
+
+    private final Function<String, ManagedVectorDatabase> factory;
+    private final ManagedVectorDatabase defaultCollection;
+    private final Map<String, ManagedVectorDatabase> collections = new ConcurrentHashMap<>();
+    private final AtomicBoolean shutDown = new AtomicBoolean();
+
+    public CollectionVectorDatabase(Function<String, ManagedVectorDatabase> factory) {
+        this(factory, List.of());
+    }
+
+    /**
+     * @param existing names of collections with data from a previous run; invalid names are skipped
+     */
+    public CollectionVectorDatabase(Function<String, ManagedVectorDatabase> factory, Collection<String> existing) {
+        this.factory = factory;
+        this.defaultCollection = factory.apply(DEFAULT_COLLECTION);
+        collections.put(DEFAULT_COLLECTION, defaultCollection);
+        for (String name : existing) {
+            if (name != null && VALID_NAME.matcher(name).matches()) {
+                collections.computeIfAbsent(name, factory);
+            }
+        }
+    }
+
+    @Override
+    public VectorDatabasePort collection(String name) {
+        return collections.computeIfAbsent(requireValidName(name), factory);
+    }
+
+    @Override
+    public Optional<VectorDatabasePort> findCollection(String name) {
+        return Optional.ofNullable(collections.get(requireValidName(name)));
+    }
+
+    /**
+     * Collection names double as directory and URL path segments, so only a safe subset is allowed
+     */
+    static String requireValidName(String name) {
+        if (name == null || !VALID_NAME.matcher(name).matches()) {
+            throw new IllegalArgumentException("Invalid collection name: " + name);
+        }
+        return name;
+    }
+
+    @Override
+    public Set<String> collectionNames() {
+        return new TreeSet<>(collections.keySet());
+    }
+
+    @Override
+    public void storeEmbedding(String id, List<Double> embedding, Map<String, Object> metadata) {
+        defaultCollection.storeEmbedding(id, embedding, metadata);
+    }
+
+    @Override
+    public void storeEmbedding(String id, float[] embedding, Map<String, Object> metadata) {
+        defaultCollection.storeEmbedding(id, embedding, metadata);
+    }
+
+    @Override
+    public void storeEmbeddings(Map<String, EmbeddingData> embeddings) {
+        defaultCollection.storeEmbeddings(embeddings);
+    }
+
+    @Override
+    public List<SimilarityResult> findSimilar(List<Double> queryEmbedding, int limit) {
+        return findSimilar(VectorMath.toFloatArray(queryEmbedding), limit, Map.of());
+    }
+
+    @Override
+    public List<SimilarityResult> findSimilar(List<Double> queryEmbedding, int limit, Map<String, Object> filter) {
+        return findSimilar(VectorMath.toFloatArray(queryEmbedding), limit, filter);
+    }
+
+    @Override
+    public List<SimilarityResult> findSimilar(float[] queryEmbedding, int limit, Map<String, Object> filter) {
+        List<ManagedVectorDatabase> targets = collectionsOfDimension(queryEmbedding.length);
+        if (targets.size() == 1) {
+            return targets.get(0).findSimilar(queryEmbedding, limit, filter);
+        }
+        List<SimilarityResult> merged = new ArrayList<>();
+        for (ManagedVectorDatabase target : targets) {
+            merged.addAll(target.findSimilar(queryEmbedding, limit, filter));
+        }
+        return topResults(merged, limit);
+    }
+
+    @Override
+    public List<SimilarityResult> findWithinThreshold(float[] queryEmbedding, double minSimilarity, int maxResults) {
+        List<ManagedVectorDatabase> targets = collectionsOfDimension(queryEmbedding.length);
+        if (targets.size() == 1) {
+            return targets.get(0).findWithinThreshold(queryEmbedding, minSimilarity, maxResults);
+        }
+        List<SimilarityResult> merged = new ArrayList<>();
+        for (ManagedVectorDatabase target : targets) {
+            merged.addAll(target.findWithinThreshold(queryEmbedding, minSimilarity, maxResults));
+        }
+        return topResults(merged, maxResults);
+    }
+
+    @Override
+    public List<SimilarityResult> findDiverse(float[] queryEmbedding, double minSimilarity, int maxResults,
+                                              int candidates, double lambda) {
+        List<ManagedVectorDatabase> targets = collectionsOfDimension(queryEmbedding.length);
+        if (targets.size() == 1) {
+            return targets.get(0).findDiverse(queryEmbedding, minSimilarity, maxResults, candidates, lambda);
+        }
+        // Diversify across collections: pool every collection's candidates before selecting
+        List<SimilarityResult> pool = new ArrayList<>();
+        List<float[]> vectors = new ArrayList<>();
+        for (ManagedVectorDatabase target : targets) {
+            for (SimilarityResult result : target.findWithinThreshold(queryEmbedding, minSimilarity,
+                    Math.max(candidates, maxResults))) {
+                EmbeddingData data = target.getEmbedding(result.id());
+                if (data != null) {
+                    pool.add(result);
+                    vectors.add(VectorMath.toFloatArray(data.embedding()));
+                }
+            }
+        }
+        float[] relevance = new float[pool.size()];
+        for (int i = 0; i < relevance.length; i++) {
+            relevance[i] = (float) pool.get(i).similarity();
+        }
+        int[] picked = MaximalMarginalRelevance.select(relevance, vectors.toArray(new float[0][]), maxResults, lambda);
+        List<SimilarityResult> results = new ArrayList<>(picked.length);
+        for (int index : picked) {
+            results.add(pool.get(index));
+        }
+        return results;
+    }
+
+    @Override
+    public List<List<SimilarityResult>> findSimilarBatch(float[][] queryEmbeddings, int limit,
+                                                         Map<String, Object> filter) {
+        if (queryEmbeddings.length == 0) {
+            return List.of();
+        }
+        List<ManagedVectorDatabase> targets = collectionsOfDimension(queryEmbeddings[0].length);
+        if (targets.size() == 1) {
+            return targets.get(0).findSimilarBatch(queryEmbeddings, limit, filter);
+        }
+        List<List<SimilarityResult>> merged = new ArrayList<>(queryEmbeddings.length);
+        for (int q = 0; q < queryEmbeddings.length; q++) {
+            merged.add(new ArrayList<>());
+        }
+        for (ManagedVectorDatabase target : targets) {
+            List<List<SimilarityResult>> partial = target.findSimilarBatch(queryEmbeddings, limit, filter);
+            for (int q = 0; q < queryEmbeddings.length; q++) {
+                merged.get(q).addAll(partial.get(q));
+            }
+        }
+        merged.replaceAll(results -> topResults(results, limit));
+        return merged;
+    }
+
+    /**
+     * Streams the collections one after another; each report merges the finished collections'
+     * results with the running results of the current one
+     */
+    @Override
+    public void streamSimilar(float[] queryEmbedding, int limit, Map<String, Object> filter,
+                              SearchListener listener) {
+        List<ManagedVectorDatabase> targets = collectionsOfDimension(queryEmbedding.length);
+        if (targets.size() == 1) {
+            targets.get(0).streamSimilar(queryEmbedding, limit, filter, listener);
+            return;
+        }
+        List<SimilarityResult> finished = new ArrayList<>();
+        boolean[] cancelled = new boolean[1];
+        for (int t = 0; t < targets.size() && !cancelled[0]; t++) {
+            boolean last = t == targets.size() - 1;
+            List<SimilarityResult> before = List.copyOf(finished);
+            targets.get(t).streamSimilar(queryEmbedding, limit, filter, (results, complete) -> {
+                List<SimilarityResult> merged = new ArrayList<>(before);
+                merged.addAll(results);
+                merged = topResults(merged, limit);
+                if (complete) {
+                    finished.clear();
+                    finished.addAll(merged);
+                }
+                if (!complete || last) {
+                    cancelled[0] = !listener.onResults(merged, complete && last);
+                }
+                return !cancelled[0];
+            });
+        }
+    }
+
+    @Override
+    public EmbeddingData getEmbedding(String id) {
+        EmbeddingData data = defaultCollection.getEmbedding(id);
+        if (data != null) {
+            return data;
+        }
+        for (ManagedVectorDatabase collection : collections.values()) {
+            if (collection != defaultCollection && (data = collection.getEmbedding(id)) != null) {
+                return data;
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public void deleteEmbedding(String id) {
+        collections.values().forEach(collection -> collection.deleteEmbedding(id));
+    }
+
+    @Override
+    public void deleteAll() {
+        collections.values().forEach(ManagedVectorDatabase::deleteAll);
+    }
+
+    @Override
+    public long count() {
+        long total = 0;
+        for (ManagedVectorDatabase collection : collections.values()) {
+            total += collection.count();
+        }
+        return total;
+    }
+
+    /**
+     * Shut down every collection's backend once; invoked by Spring on context shutdown
+     */
+    public void shutdown() {
+        if (shutDown.compareAndSet(false, true)) {
+            collections.values().forEach(ManagedVectorDatabase::shutdown);
+        }
+    }
+
+    public Map<String, Object> getStatistics() {
+        Map<String, Object> perCollection = new LinkedHashMap<>();
+        for (String name : collectionNames()) {
+            perCollection.put(name, collections.get(name).getStatistics());
+        }
+        return Map.of(
+            "totalEmbeddings", count(),
+            "collections", perCollection);
+    }
+
+    @Override
+    public Map<String, Object> duplicateReport(int maxGroups) {
+        Map<String, Object> perCollection = new LinkedHashMap<>();
+        for (String name : collectionNames()) {
+            Map<String, Object> report = collections.get(name).duplicateReport(maxGroups);
+            if (!report.isEmpty()) {
+                perCollection.put(name, report);
+            }
+        }
+        return perCollection.isEmpty() ? Map.of() : Map.of("collections", perCollection);
+    }
+
+    /**
+     * Non-empty collections whose vectors can be compared with a query of the given dimension
+     */
+    private List<ManagedVectorDatabase> collectionsOfDimension(int dimension) {
+        List<ManagedVectorDatabase> targets = new ArrayList<>();
+        for (ManagedVectorDatabase collection : collections.values()) {
+            if (collection.dimension() == dimension) {
+                targets.add(collection);
+            }
+        }
+        if (targets.isEmpty()) {
+            // Let the default collection report empty results or a dimension mismatch
+            targets.add(defaultCollection);
+        }
+        return targets;
+    }
+
+    private static List<SimilarityResult> topResults(List<SimilarityResult> results, int limit) {
+        results.sort(MOST_SIMILAR_FIRST);
+        return results.size() > limit ? new ArrayList<>(results.subList(0, Math.max(limit, 0))) : results;
+    }
+}
@@ -0,0 +1,378 @@
+package com.techisthoughts.ia.movieclassification.infrastructure.adapter;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import com.techisthoughts.ia.movieclassification.infrastructure.vector.HyperplaneLsh;
+import com.techisthoughts.ia.movieclassification.infrastructure.vector.VectorMath;
+
+/**
+ * Near-duplicate detecting decorator around another backend.
+ *
+ * Every insert is hashed into a {@link HyperplaneLsh} table; the stored embeddings sharing a
+ * band with it are read back and compared exactly, and the most similar one at or above the
+ * threshold is the insert's canonical embedding. In {@code flag} mode the insert is stored
+ * anyway with a {@code duplicateOf} metadata entry; in {@code merge} mode it is not stored and
+ * its id becomes an alias that reads back the canonical embedding, so the index only grows
+ * with unique content. LSH can miss a duplicate (see {@link HyperplaneLsh}), never invent one.
+ *
+ * The LSH table and the duplicate links live only in memory, so the decorator is only put
+ * around non-persistent backends. Lookup and registration are serialized on the table; the
+ * write to the wrapped backend happens outside that lock, with in-flight embeddings visible to
+ * concurrent lookups so that neither a batch nor a concurrent insert misses its duplicates.
+ */
+public class DeduplicatingVectorDatabase implements ManagedVectorDatabase {
+
+    private static final Logger logger = LoggerFactory.getLogger(DeduplicatingVectorDatabase.class);
+    private static final long LSH_SEED = 42L;
+    private static final int MAX_VERIFIED_CANDIDATES = 64;
+
+    public enum Mode { FLAG, MERGE }
+
+    private final ManagedVectorDatabase delegate;
+    private final Mode mode;
+    private final double threshold;
+    private final HyperplaneLsh lsh;
+    private final Map<String, String> duplicateOf = new ConcurrentHashMap<>();
+
+    /**
+     * Ids recorded as duplicates of each canonical id; guarded by the lsh monitor
+     */
+    private final Map<String, Set<String>> duplicatesOf = new HashMap<>();
+
+    /**
+     * Embeddings registered in the table but not yet written to the delegate
+     */
+    private final Map<String, float[]> pending = new ConcurrentHashMap<>();
+    private final AtomicLong checked = new AtomicLong();
+    private final AtomicLong flagged = new AtomicLong();
+    private final AtomicLong merged = new AtomicLong();
+    private final LongAdder checkNanos = new LongAdder();
+
+    public DeduplicatingVectorDatabase(ManagedVectorDatabase delegate, String mode, double threshold,
+                                       int bands, int bandBits) {
+        this.delegate = delegate;
+        this.mode = Mode.valueOf(mode.toUpperCase());
+        this.threshold = threshold;
+        this.lsh = new HyperplaneLsh(bands, bandBits, LSH_SEED);
+        logger.info("Initialized near-duplicate detection (mode={}, threshold={}, bands={}, bandBits={})",
+                this.mode, threshold, bands, bandBits);
+    }
+
+    @Override
+    public void storeEmbedding(String id, List<Double> embedding, Map<String, Object> metadata) {
+        storeEmbedding(id, VectorMath.toFloatArray(embedding), metadata);
+    }
+
+    @Override
+    public void storeEmbedding(String id, float[] embedding, Map<String, Object> metadata) {
+        List<String> superseded = new ArrayList<>(1);
+        Map<String, Object> stored;
+        synchronized (lsh) {
+            stored = register(id, embedding, metadata, superseded);
+        }
+        try {
+            superseded.forEach(delegate::deleteEmbedding);
+            if (stored != null) {
+                delegate.storeEmbedding(id, embedding, stored);
+            }
+        } finally {
+            pending.remove(id, embedding);
+        }
+    }
+
+    /**
+     * Checks and registers the whole batch under one lock, then hands the embeddings that are
+     * stored to the delegate as one batch
+     */
+    @Override
+    public void storeEmbeddings(Map<String, EmbeddingData> embeddingBatch) {
+        List<String> superseded = new ArrayList<>();
+        Map<String, EmbeddingData> stored = new LinkedHashMap<>();
+        Map<String, float[]> vectors = new HashMap<>();
+        synchronized (lsh) {
+            for (EmbeddingData data : embeddingBatch.values()) {
+                float[] embedding = VectorMath.toFloatArray(data.embedding());
+                Map<String, Object> metadata = register(data.id(), embedding, data.metadata(), superseded);
+                vectors.put(data.id(), embedding);
+                if (metadata != null) {
+                    stored.put(data.id(), new EmbeddingData(data.id(), data.embedding(), metadata));
+                }
+            }
+        }
+        try {
+            superseded.forEach(delegate::deleteEmbedding);
+            if (!stored.isEmpty()) {
+                delegate.storeEmbeddings(stored);
+            }
+        } finally {
+            vectors.forEach(pending::remove);
+        }
+    }
+
+    /**
+     * Look the insert up and record its outcome; caller holds the lsh monitor
+     *
+     * @param superseded receives ids whose stored embedding must be deleted from the delegate
+     * @return the metadata to store the insert with, or null when it was merged and is not stored
+     */
+    private Map<String, Object> register(String id, float[] embedding, Map<String, Object> metadata,
+                                         List<String> superseded) {
+        long start = System.nanoTime();
+        int[] signature = lsh.signature(embedding);
+        String canonical = nearestDuplicate(id, embedding, signature);
+        checked.incrementAndGet();
+        checkNanos.add(System.nanoTime() - start);
+
+        if (canonical != null && mode == Mode.MERGE) {
+            if (link(id, canonical) == null) {
+                // The id may have been stored as unique content before this overwrite
+                forgetStored(id);
+                superseded.add(id);
+            }
+            pending.remove(id);
+            merged.incrementAndGet();
+            logger.debug("Merged near-duplicate {} into {}", id, canonical);
+            return null;
+        }
+
+        Map<String, Object> stored = metadata;
+        if (canonical != null) {
+            stored = new HashMap<>(metadata);
+            stored.put("duplicateOf", canonical);
+            link(id, canonical);
+            flagged.incrementAndGet();
+        } else {
+            unlink(id);
+        }
+        lsh.add(id, signature);
+        pending.put(id, embedding);
+        return stored;
+    }
+
+    @Override
+    public List<SimilarityResult> findSimilar(List<Double> queryEmbedding, int limit) {
+        return delegate.findSimilar(queryEmbedding, limit);
+    }
+
+    @Override
+    public List<SimilarityResult> findSimilar(List<Double> queryEmbedding, int limit, Map<String, Object> filter) {
+        return delegate.findSimilar(queryEmbedding, limit, filter);
+    }
+
+    @Override
+    public List<SimilarityResult> findSimilar(float[] queryEmbedding, int limit, Map<String, Object> filter) {
+        return delegate.findSimilar(queryEmbedding, limit, filter);
+    }
+
+    @Override
+    public List<SimilarityResult> findWithinThreshold(float[] queryEmbedding, double minSimilarity, int maxResults) {
+        return delegate.findWithinThreshold(queryEmbedding, minSimilarity, maxResults);
+    }
+
+    @Override
+    public List<SimilarityResult> findDiverse(float[] queryEmbedding, double minSimilarity, int maxResults,
+                                              int candidates, double lambda) {
+        return delegate.findDiverse(queryEmbedding, minSimilarity, maxResults, candidates, lambda);
+    }
+
+    @Override
+    public List<List<SimilarityResult>> findSimilarBatch(float[][] queryEmbeddings, int limit,
+                                                         Map<String, Object> filter) {
+        return delegate.findSimilarBatch(queryEmbeddings, limit, filter);
+    }
+
+    @Override
+    public void streamSimilar(float[] queryEmbedding, int limit, Map<String, Object> filter,
+                              SearchListener listener) {
+        delegate.streamSimilar(queryEmbedding, limit, filter, listener);
+    }
+
+    /**
+     * Merged ids read back the embedding they were merged into, under their own id
+     */
+    @Override
+    public EmbeddingData getEmbedding(String id) {
+        EmbeddingData data = delegate.getEmbedding(id);
+        if (data != null || mode != Mode.MERGE) {
+            return data;
+        }
+        String canonical = duplicateOf.get(id);
+        EmbeddingData original = canonical != null ? delegate.getEmbedding(canonical) : null;
+        return original != null ? new EmbeddingData(id, original.embedding(), original.metadata()) : null;
+    }
+
+    @Override
+    public void deleteEmbedding(String id) {
+        synchronized (lsh) {
+            if (unlink(id) != null && mode == Mode.MERGE) {
+                // Merged ids were never stored
+                return;
+            }
+            forgetStored(id);
+        }
+        delegate.deleteEmbedding(id);
+    }
+
+    @Override
+    public void deleteAll() {
+        synchronized (lsh) {
+            delegate.deleteAll();
+            lsh.clear();
+            duplicateOf.clear();
+            duplicatesOf.clear();
+            pending.clear();
+        }
+    }
+
+    @Override
+    public long count() {
+        return delegate.count();
+    }
+
+    @Override
+    public int dimension() {
+        return delegate.dimension();
+    }
+
+    @Override
+    public void shutdown() {
+        delegate.shutdown();
+    }
+
+    @Override
+    public Map<String, Object> getStatistics() {
+        Map<String, Object> stats = new LinkedHashMap<>(delegate.getStatistics());
+        long checks = checked.get();
+        Map<String, Object> deduplication = new LinkedHashMap<>();
+        deduplication.put("mode", mode.name().toLowerCase());
+        deduplication.put("threshold", threshold);
+        deduplication.put("detectionProbabilityAtThreshold", lsh.collisionProbability(threshold));
+        deduplication.put("checked", checks);
+        deduplication.put("flagged", flagged.get());
+        deduplication.put("merged", merged.get());
+        deduplication.put("knownDuplicates", duplicateOf.size());
+        deduplication.put("averageCheckMicros", checks == 0 ? 0.0 : checkNanos.sum() / 1000.0 / checks);
+        stats.put("deduplication", deduplication);
+        return stats;
+    }
+
+    @Override
+    public Map<String, Object> duplicateReport(int maxGroups) {
+        Map<String, List<String>> groups = new HashMap<>();
+        duplicateOf.forEach((id, canonical) -> groups.computeIfAbsent(canonical, key -> new ArrayList<>()).add(id));
+
+        List<Map<String, Object>> largest = groups.entrySet().stream()
+            .sorted((a, b) -> Integer.compare(b.getValue().size(), a.getValue().size()))
+            .limit(Math.max(maxGroups, 0))
+            .map(group -> Map.<String, Object>of(
+                "canonical", group.getKey(),
+                "duplicates", group.getValue().stream().sorted().toList()))
+            .toList();
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("mode", mode.name().toLowerCase());
+        report.put("threshold", threshold);
+        report.put("duplicatesStored", mode == Mode.FLAG);
+        report.put("checked", checked.get());
+        report.put("knownDuplicates", duplicateOf.size());
+        report.put("groupCount", groups.size());
+        report.put("groups", largest);
+        return report;
+    }
+
+    /**
+     * Most similar stored embedding at or above the threshold among the LSH candidates, or null
+     */
+    private String nearestDuplicate(String id, float[] embedding, int[] signature) {
+        double norm = VectorMath.norm(embedding);
+        if (norm == 0.0) {
+            return null;
+        }
+        String best = null;
+        double bestSimilarity = threshold;
+        int verified = 0;
+        for (String candidate : lsh.candidates(signature)) {
+            if (candidate.equals(id)) {
+                continue;
+            }
+            if (++verified > MAX_VERIFIED_CANDIDATES) {
+                break;
+            }
+            float[] stored = pending.get(candidate);
+            if (stored == null) {
+                EmbeddingData data = delegate.getEmbedding(candidate);
+                if (data == null) {
+                    continue;
+                }
+                stored = VectorMath.toFloatArray(data.embedding());
+            }
+            double storedNorm = VectorMath.norm(stored);
+            if (storedNorm == 0.0) {
+                continue;
+            }
+            double similarity = VectorMath.dot(embedding, stored, 0, embedding.length) / (norm * storedNorm);
+            if (similarity >= bestSimilarity) {
+                best = candidate;
+                bestSimilarity = similarity;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Record id as a duplicate of canonical; caller holds the lsh monitor
+     *
+     * @return the canonical id it was previously recorded against, or null
+     */
+    private String link(String id, String canonical) {
+        String previous = duplicateOf.put(id, canonical);
+        if (previous != null && !previous.equals(canonical)) {
+            removeFrom(previous, id);
+        }
+        duplicatesOf.computeIfAbsent(canonical, key -> new HashSet<>()).add(id);
+        return previous;
+    }
+
+    /**
+     * Forget that id is a duplicate; caller holds the lsh monitor
+     *
+     * @return the canonical id it was recorded against, or null
+     */
+    private String unlink(String id) {
+        String canonical = duplicateOf.remove(id);
+        if (canonical != null) {
+            removeFrom(canonical, id);
+        }
+        return canonical;
+    }
+
+    private void removeFrom(String canonical, String id) {
+        Set<String> ids = duplicatesOf.get(canonical);
+        if (ids != null && ids.remove(id) && ids.isEmpty()) {
+            duplicatesOf.remove(canonical);
+        }
+    }
+
+    /**
+     * Drop a stored embedding from the table and forget the duplicates recorded against it; the
+     * caller holds the lsh monitor and deletes it from the delegate after releasing it
+     */
+    private void forgetStored(String id) {
+        lsh.remove(id);
+        pending.remove(id);
+        Set<String> ids = duplicatesOf.remove(id);
+        if (ids != null) {
+            ids.forEach(duplicateOf::remove);
+        }
+    }
+}
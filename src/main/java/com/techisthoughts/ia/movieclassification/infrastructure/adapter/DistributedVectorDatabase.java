@@ -0,0 +1,335 @@
+package com.techisthoughts.ia.movieclassification.infrastructure.adapter;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.client.RestClient;
+import com.techisthoughts.ia.movieclassification.domain.port.VectorDatabasePort;
+import com.techisthoughts.ia.movieclassification.infrastructure.vector.ConsistentHashRing;
+import com.techisthoughts.ia.movieclassification.infrastructure.vector.MaximalMarginalRelevance;
+import com.techisthoughts.ia.movieclassification.infrastructure.vector.VectorMath;
+
+/**
+ * Scatter-gather VectorDatabasePort over several application nodes.
+ *
+ * Each embedding lives on the node chosen by a {@link ConsistentHashRing} over its id, so
+ * writes, reads and deletes of one id go to a single node. Searches fan out to every node in
+ * parallel, each with its own timeout, and the per-node top-k lists are merged; diversified
+ * searches pool the candidates of every node before selecting. A node that fails or times out
+ * is left out of the merge and the fan-out is counted as partial; it only fails when every
+ * node failed, or when {@code requireAllShards} is set.
+ *
+ * This node's own shard is called in-process; the others go through
+ * {@link RemoteVectorDatabase}. Every node must be configured with the same node list so they
+ * agree on ownership; changing the list does not move existing embeddings. A collection view
+ * only creates its local collection when it writes; reads skip a local collection that does
+ * not exist yet.
+ */
+public class DistributedVectorDatabase implements VectorDatabasePort {
+
+    private static final Logger logger = LoggerFactory.getLogger(DistributedVectorDatabase.class);
+
+    /**
+     * Path segment addressing a node's whole store rather than one named collection
+     */
+    public static final String ALL_COLLECTIONS = "_all";
+
+    private static final Comparator<SimilarityResult> MOST_SIMILAR_FIRST =
+            Comparator.comparingDouble(SimilarityResult::similarity).reversed();
+
+    private final Cluster cluster;
+    private final String collection;
+
+    /**
+     * Per node in ring order; null for this node's own named collection, which is looked up per call
+     */
+    private final List<VectorDatabasePort> shards;
+
+    /**
+     * State shared by the top-level store and its collection views
+     */
+    private record Cluster(List<String> nodes, String selfUrl, VectorDatabasePort local, RestClient client,
+                           ConsistentHashRing ring, ExecutorService fanOut, long timeoutMillis,
+                           boolean requireAllShards, AtomicLong fanOuts, AtomicLong partialFanOuts,
+                           AtomicLong shardFailures) {}
+
+    public DistributedVectorDatabase(List<String> nodes, String selfUrl, VectorDatabasePort local, RestClient client,
+                                     int virtualNodes, long timeoutMillis, boolean requireAllShards) {
+        this(new Cluster(List.copyOf(nodes), selfUrl, local, client, new ConsistentHashRing(nodes, virtualNodes),
+                Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("vector-scatter-", 0).factory()),
+                timeoutMillis, requireAllShards, new AtomicLong(), new AtomicLong(), new AtomicLong()),
+            ALL_COLLECTIONS);
+    }
+
+    private DistributedVectorDatabase(Cluster cluster, String collection) {
+        this.cluster = cluster;
+        this.collection = collection;
+        this.shards = new ArrayList<>(cluster.nodes().size());
+        for (String node : cluster.nodes()) {
+            if (node.equals(cluster.selfUrl())) {
+                shards.add(ALL_COLLECTIONS.equals(collection) ? cluster.local() : null);
+            } else {
+                shards.add(new RemoteVectorDatabase(cluster.client(), node, collection));
+            }
+        }
+    }
+
+    @Override
+    public VectorDatabasePort collection(String name) {
+        return new DistributedVectorDatabase(cluster, CollectionVectorDatabase.requireValidName(name));
+    }
+
+    /**
+     * The collection exists once this node has it or any reachable node holds embeddings for it
+     */
+    @Override
+    public Optional<VectorDatabasePort> findCollection(String name) {
+        DistributedVectorDatabase view = new DistributedVectorDatabase(cluster, CollectionVectorDatabase.requireValidName(name));
+        if (cluster.local().findCollection(name).isPresent()) {
+            return Optional.of(view);
+        }
+        try {
+            return view.count() > 0 ? Optional.of(view) : Optional.empty();
+        } catch (IllegalStateException e) {
+            return Optional.empty();
+        }
+    }
+
+    @Override
+    public Set<String> collectionNames() {
+        return cluster.local().collectionNames();
+    }
+
+    /**
+     * Duplicates are detected where the embeddings are stored, so each node reports its own shard
+     */
+    @Override
+    public Map<String, Object> duplicateReport(int maxGroups) {
+        return cluster.local().duplicateReport(maxGroups);
+    }
+
+    @Override
+    public void storeEmbedding(String id, List<Double> embedding, Map<String, Object> metadata) {
+        shard(cluster.ring().nodeFor(id), true).storeEmbedding(id, embedding, metadata);
+    }
+
+    @Override
+    public void storeEmbedding(String id, float[] embedding, Map<String, Object> metadata) {
+        shard(cluster.ring().nodeFor(id), true).storeEmbedding(id, embedding, metadata);
+    }
+
+    @Override
+    public void storeEmbeddings(Map<String, EmbeddingData> embeddings) {
+        Map<Integer, Map<String, EmbeddingData>> byShard = new HashMap<>();
+        embeddings.forEach((id, data) ->
+            byShard.computeIfAbsent(cluster.ring().nodeFor(id), shard -> new HashMap<>()).put(id, data));
+        List<CompletableFuture<Void>> writes = new ArrayList<>();
+        byShard.forEach((shard, batch) -> writes.add(
+            CompletableFuture.runAsync(() -> shard(shard, true).storeEmbeddings(batch), cluster.fanOut())));
+        CompletableFuture.allOf(writes.toArray(new CompletableFuture[0])).join();
+    }
+
+    @Override
+    public List<SimilarityResult> findSimilar(List<Double> queryEmbedding, int limit) {
+        return findSimilar(VectorMath.toFloatArray(queryEmbedding), limit, Map.of());
+    }
+
+    @Override
+    public List<SimilarityResult> findSimilar(List<Double> queryEmbedding, int limit, Map<String, Object> filter) {
+        return findSimilar(VectorMath.toFloatArray(queryEmbedding), limit, filter);
+    }
+
+    @Override
+    public List<SimilarityResult> findSimilar(float[] queryEmbedding, int limit, Map<String, Object> filter) {
+        return merge(scatter("search", shard -> shard.findSimilar(queryEmbedding, limit, filter)), limit);
+    }
+
+    @Override
+    public List<SimilarityResult> findWithinThreshold(float[] queryEmbedding, double minSimilarity, int maxResults) {
+        return merge(scatter("threshold search",
+            shard -> shard.findWithinThreshold(queryEmbedding, minSimilarity, maxResults)), maxResults);
+    }
+
+    /**
+     * Diversify across nodes: pool the best {@code candidates} threshold matches of all shards,
+     * fetch their embeddings from the owning nodes in parallel and select over the whole pool
+     */
+    @Override
+    public List<SimilarityResult> findDiverse(float[] queryEmbedding, double minSimilarity, int maxResults,
+                                              int candidates, double lambda) {
+        int depth = Math.max(candidates, maxResults);
+        List<SimilarityResult> merged = merge(scatter("diverse search",
+            shard -> shard.findWithinThreshold(queryEmbedding, minSimilarity, depth)), depth);
+        List<CompletableFuture<EmbeddingData>> fetches = new ArrayList<>(merged.size());
+        for (SimilarityResult result : merged) {
+            fetches.add(CompletableFuture.supplyAsync(() -> getEmbedding(result.id()), cluster.fanOut())
+                .orTimeout(cluster.timeoutMillis(), TimeUnit.MILLISECONDS)
+                .exceptionally(failure -> null));
+        }
+        List<SimilarityResult> pool = new ArrayList<>(merged.size());
+        List<float[]> vectors = new ArrayList<>(merged.size());
+        for (int i = 0; i < merged.size(); i++) {
+            EmbeddingData data = fetches.get(i).join();
+            if (data != null) {
+                pool.add(merged.get(i));
+                vectors.add(VectorMath.toFloatArray(data.embedding()));
+            }
+        }
+        float[] relevance = new float[pool.size()];
+        for (int i = 0; i < relevance.length; i++) {
+            relevance[i] = (float) pool.get(i).similarity();
+        }
+        int[] picked = MaximalMarginalRelevance.select(relevance, vectors.toArray(new float[0][]), maxResults, lambda);
+        List<SimilarityResult> results = new ArrayList<>(picked.length);
+        for (int index : picked) {
+            results.add(pool.get(index));
+        }
+        return results;
+    }
+
+    @Override
+    public List<List<SimilarityResult>> findSimilarBatch(float[][] queryEmbeddings, int limit,
+                                                         Map<String, Object> filter) {
+        List<List<List<SimilarityResult>>> responses =
+            scatter("batch search", shard -> shard.findSimilarBatch(queryEmbeddings, limit, filter));
+        List<List<SimilarityResult>> merged = new ArrayList<>(queryEmbeddings.length);
+        for (int q = 0; q < queryEmbeddings.length; q++) {
+            List<List<SimilarityResult>> perShard = new ArrayList<>(responses.size());
+            for (List<List<SimilarityResult>> response : responses) {
+                perShard.add(response.get(q));
+            }
+            merged.add(merge(perShard, limit));
+        }
+        return merged;
+    }
+
+    @Override
+    public EmbeddingData getEmbedding(String id) {
+        VectorDatabasePort owner = shard(cluster.ring().nodeFor(id), false);
+        return owner != null ? owner.getEmbedding(id) : null;
+    }
+
+    @Override
+    public void deleteEmbedding(String id) {
+        VectorDatabasePort owner = shard(cluster.ring().nodeFor(id), false);
+        if (owner != null) {
+            owner.deleteEmbedding(id);
+        }
+    }
+
+    @Override
+    public void deleteAll() {
+        scatter("delete all", true, shard -> {
+            shard.deleteAll();
+            return Boolean.TRUE;
+        });
+    }
+
+    @Override
+    public long count() {
+        long total = 0;
+        for (Long count : scatter("count", VectorDatabasePort::count)) {
+            total += count;
+        }
+        return total;
+    }
+
+    /**
+     * Stop the fan-out executor; the local store is shut down by its own bean
+     */
+    public void shutdown() {
+        cluster.fanOut().shutdownNow();
+    }
+
+    public Map<String, Object> getStatistics() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("backend", "distributed");
+        stats.put("nodes", cluster.nodes());
+        stats.put("self", cluster.selfUrl());
+        stats.put("shardTimeoutMs", cluster.timeoutMillis());
+        stats.put("requireAllShards", cluster.requireAllShards());
+        stats.put("fanOuts", cluster.fanOuts().get());
+        stats.put("partialFanOuts", cluster.partialFanOuts().get());
+        stats.put("shardFailures", cluster.shardFailures().get());
+        return stats;
+    }
+
+    /**
+     * Shard of the node at the given ring index; this node's named collection is created only
+     * when {@code create} is set, otherwise null is returned while it does not exist
+     */
+    private VectorDatabasePort shard(int index, boolean create) {
+        VectorDatabasePort shard = shards.get(index);
+        if (shard != null) {
+            return shard;
+        }
+        return create ? cluster.local().collection(collection) : cluster.local().findCollection(collection).orElse(null);
+    }
+
+    private <T> List<T> scatter(String operation, Function<VectorDatabasePort, T> call) {
+        return scatter(operation, false, call);
+    }
+
+    /**
+     * Run the call against every shard in parallel and collect the responses that arrived in
+     * time, in node order; a local collection that does not exist answers with no response.
+     * Fails when every queried shard failed, or any shard when {@code requireAll} is set
+     */
+    private <T> List<T> scatter(String operation, boolean requireAll, Function<VectorDatabasePort, T> call) {
+        List<Integer> nodes = new ArrayList<>(shards.size());
+        List<CompletableFuture<T>> futures = new ArrayList<>(shards.size());
+        for (int i = 0; i < shards.size(); i++) {
+            VectorDatabasePort shard = shard(i, false);
+            if (shard == null) {
+                continue;
+            }
+            nodes.add(i);
+            futures.add(CompletableFuture.supplyAsync(() -> call.apply(shard), cluster.fanOut())
+                .orTimeout(cluster.timeoutMillis(), TimeUnit.MILLISECONDS));
+        }
+
+        cluster.fanOuts().incrementAndGet();
+        List<T> responses = new ArrayList<>(futures.size());
+        int failures = 0;
+        for (int i = 0; i < futures.size(); i++) {
+            try {
+                responses.add(futures.get(i).join());
+            } catch (CompletionException e) {
+                failures++;
+                Throwable cause = e.getCause() != null ? e.getCause() : e;
+                logger.warn("Shard {} failed {} ({}): {}", cluster.nodes().get(nodes.get(i)), operation,
+                    cause instanceof TimeoutException ? "timed out" : cause.getClass().getSimpleName(), cause.getMessage());
+            }
+        }
+        if (failures > 0) {
+            cluster.shardFailures().addAndGet(failures);
+            cluster.partialFanOuts().incrementAndGet();
+            if (requireAll || cluster.requireAllShards() || failures == futures.size()) {
+                throw new IllegalStateException(failures + " of " + futures.size() + " shards failed " + operation);
+            }
+        }
+        return responses;
+    }
+
+    private static List<SimilarityResult> merge(List<List<SimilarityResult>> perShard, int limit) {
+        List<SimilarityResult> merged = new ArrayList<>();
+        perShard.forEach(merged::addAll);
+        merged.sort(MOST_SIMILAR_FIRST);
+        return merged.size() > limit ? new ArrayList<>(merged.subList(0, Math.max(limit, 0))) : merged;
+    }
+}
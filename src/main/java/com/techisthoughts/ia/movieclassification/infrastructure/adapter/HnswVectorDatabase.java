@@ -0,0 +1,377 @@
+package com.techisthoughts.ia.movieclassification.infrastructure.adapter;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.IntPredicate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import com.techisthoughts.ia.movieclassification.infrastructure.vector.ExactScan;
+import com.techisthoughts.ia.movieclassification.infrastructure.vector.FilteredSearchPlanner;
+import com.techisthoughts.ia.movieclassification.infrastructure.vector.FilteredSearchPlanner.Decision;
+import com.techisthoughts.ia.movieclassification.infrastructure.vector.FilteredSearchPlanner.Plan;
+import com.techisthoughts.ia.movieclassification.infrastructure.vector.HnswIndex;
+import com.techisthoughts.ia.movieclassification.infrastructure.vector.MetadataFilter;
+import com.techisthoughts.ia.movieclassification.infrastructure.vector.ScoredSlot;
+import com.techisthoughts.ia.movieclassification.infrastructure.vector.VectorMath;
+import com.techisthoughts.ia.movieclassification.infrastructure.vector.VectorPrecision;
+import com.techisthoughts.ia.movieclassification.infrastructure.vector.VectorStore;
+
+/**
+ * Approximate nearest-neighbour implementation of VectorDatabasePort backed by an HNSW graph.
+ *
+ * Inserts from parallel ingestion threads link into the graph concurrently; only
+ * {@link #deleteAll()} takes the exclusive lock. Collections at or below the exact-search
+ * threshold are answered by a brute-force scan. Filtered queries are planned by a
+ * {@link FilteredSearchPlanner}: selective filters scan their bitmap exactly, medium ones
+ * walk the graph keeping only matching nodes, and broad ones post-filter a plain walk; the
+ * planner statistics report which plan ran. A plan that comes up short falls back to the
+ * next more exhaustive one.
+ *
+ * Deletes and overwrites only tombstone the old slot, which stays in the graph as a
+ * routing hop. Once tombstones pass the configured fraction of all slots, a background
+ * compactor copies the live rows into a fresh store, builds a new graph over them while
+ * queries and inserts continue, replays the IDs touched in the meantime and swaps the
+ * pair in under the exclusive lock.
+ */
+public class HnswVectorDatabase implements ManagedVectorDatabase {
+
+    private static final Logger logger = LoggerFactory.getLogger(HnswVectorDatabase.class);
+
+    private static final double DEFAULT_COMPACTION_FRACTION = 0.3;
+    private static final int DEFAULT_COMPACTION_MIN_DEAD = 1024;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final int m;
+    private final int efConstruction;
+    private final int efSearch;
+    private final int exactSearchThreshold;
+    private final double compactionFraction;
+    private final int compactionMinDead;
+    private final FilteredSearchPlanner planner;
+    private final VectorPrecision precision;
+    private final AtomicBoolean compacting = new AtomicBoolean(false);
+    private final AtomicBoolean compactionQueued = new AtomicBoolean(false);
+    private final AtomicLong generation = new AtomicLong();
+    private final Set<String> journal = ConcurrentHashMap.newKeySet();
+    private final ExecutorService compactor = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "hnsw-compactor");
+        t.setDaemon(true);
+        return t;
+    });
+
+    private volatile VectorStore store;
+    private volatile HnswIndex index;
+    private volatile long compactions;
+
+    public HnswVectorDatabase(int m, int efConstruction, int efSearch, int exactSearchThreshold) {
+        this(m, efConstruction, efSearch, exactSearchThreshold, DEFAULT_COMPACTION_FRACTION, DEFAULT_COMPACTION_MIN_DEAD,
+                FilteredSearchPlanner.DEFAULT_POST_FILTER_SELECTIVITY);
+    }
+
+    /**
+     * @param compactionFraction    fraction of tombstoned slots that triggers a rebuild
+     * @param compactionMinDead     minimum number of tombstones before compaction is considered
+     * @param postFilterSelectivity filters estimated to keep at least this fraction are post-filtered
+     */
+    public HnswVectorDatabase(int m, int efConstruction, int efSearch, int exactSearchThreshold,
+                              double compactionFraction, int compactionMinDead, double postFilterSelectivity) {
+        this(m, efConstruction, efSearch, exactSearchThreshold, compactionFraction, compactionMinDead,
+                postFilterSelectivity, VectorPrecision.FLOAT32);
+    }
+
+    /**
+     * @param precision element type of the stored rows; FLOAT16 halves their memory
+     */
+    public HnswVectorDatabase(int m, int efConstruction, int efSearch, int exactSearchThreshold,
+                              double compactionFraction, int compactionMinDead, double postFilterSelectivity,
+                              VectorPrecision precision) {
+        this.m = m;
+        this.efConstruction = efConstruction;
+        this.precision = precision;
+        this.store = new VectorStore(precision);
+        this.index = new HnswIndex(store, m, efConstruction);
+        this.efSearch = efSearch;
+        this.exactSearchThreshold = exactSearchThreshold;
+        this.compactionFraction = compactionFraction;
+        this.compactionMinDead = Math.max(1, compactionMinDead);
+        this.planner = new FilteredSearchPlanner(postFilterSelectivity);
+        logger.info("Initialized HNSW vector database (M={}, efConstruction={}, efSearch={}, exactSearchThreshold={})",
+                m, efConstruction, efSearch, exactSearchThreshold);
+    }
+
+    @Override
+    public void storeEmbedding(String id, List<Double> embedding, Map<String, Object> metadata) {
+        storeEmbedding(id, VectorMath.toFloatArray(embedding), metadata);
+    }
+
+    @Override
+    public void storeEmbedding(String id, float[] embedding, Map<String, Object> metadata) {
+        lock.readLock().lock();
+        try {
+            int slot = store.append(id, embedding, metadata);
+            index.insert(slot);
+            if (compacting.get()) {
+                journal.add(id);
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        maybeCompact();
+        logger.debug("Stored embedding with ID: {}", id);
+    }
+
+    @Override
+    public void storeEmbeddings(Map<String, EmbeddingData> embeddingBatch) {
+        embeddingBatch.values().parallelStream()
+                .forEach(data -> storeEmbedding(data.id(), VectorMath.toFloatArray(data.embedding()), data.metadata()));
+        logger.info("Stored {} embeddings in batch", embeddingBatch.size());
+    }
+
+    @Override
+    public List<SimilarityResult> findSimilar(List<Double> queryEmbedding, int limit) {
+        return findSimilar(queryEmbedding, limit, Map.of());
+    }
+
+    @Override
+    public List<SimilarityResult> findSimilar(List<Double> queryEmbedding, int limit, Map<String, Object> filter) {
+        return findSimilar(VectorMath.toFloatArray(queryEmbedding), limit, filter);
+    }
+
+    @Override
+    public List<SimilarityResult> findSimilar(float[] queryEmbedding, int limit, Map<String, Object> filter) {
+        logger.debug("Finding similar embeddings, limit: {}, filter: {}", limit, filter);
+
+        List<SimilarityResult> results = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            VectorStore store = this.store;
+            HnswIndex index = this.index;
+            IntPredicate accept = slot -> {
+                Map<String, Object> metadata = store.metadata(slot);
+                return metadata != null && MetadataFilter.matches(metadata, filter);
+            };
+            int ef = Math.max(efSearch, limit);
+            int live = store.size();
+            Decision decision = live <= exactSearchThreshold
+                ? new Decision(Plan.BRUTE_FORCE, 1.0)
+                : planner.plan(filter, store.metadataIndex(), live,
+                    selectivity -> Math.max(exactSearchThreshold, (double) m * ef / selectivity));
+
+            Plan plan = decision.plan();
+            List<ScoredSlot> matches = switch (plan) {
+                case ANN, FILTERED_TRAVERSAL -> index.search(queryEmbedding, limit, ef, accept);
+                case POST_FILTER -> postFilter(index, queryEmbedding, limit, decision.candidates(limit, live), ef, accept);
+                case BRUTE_FORCE -> ExactScan.search(store, queryEmbedding, limit, accept, store.select(filter));
+            };
+            boolean fellBack = false;
+            if (plan == Plan.POST_FILTER && matches.size() < limit) {
+                // The filter kept fewer candidates than estimated; let the walk collect matches itself
+                plan = Plan.FILTERED_TRAVERSAL;
+                matches = index.search(queryEmbedding, limit, ef, accept);
+                fellBack = true;
+            }
+            if (plan == Plan.FILTERED_TRAVERSAL && matches.size() < limit) {
+                // Selective filter starved the graph walk; answer exactly over the filtered set
+                plan = Plan.BRUTE_FORCE;
+                matches = ExactScan.search(store, queryEmbedding, limit, accept, store.select(filter));
+                fellBack = true;
+            }
+            planner.record(plan, decision.selectivity(), fellBack);
+            logger.debug("Searched with plan {} (estimated selectivity {})", plan.label(), decision.selectivity());
+
+            for (ScoredSlot match : matches) {
+                String id = store.id(match.slot());
+                Map<String, Object> metadata = store.metadata(match.slot());
+                if (id != null && metadata != null) {
+                    results.add(new SimilarityResult(id, match.similarity(), metadata));
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        logger.debug("Found {} similar embeddings", results.size());
+        return results;
+    }
+
+    @Override
+    public EmbeddingData getEmbedding(String id) {
+        VectorStore store = this.store;
+        int slot = store.slotOf(id);
+        if (slot < 0) {
+            return null;
+        }
+        return new EmbeddingData(id, VectorMath.toDoubleList(store.vector(slot)), store.metadata(slot));
+    }
+
+    @Override
+    public void deleteEmbedding(String id) {
+        // The slot stays in the graph as a routing hop and is skipped in results
+        lock.readLock().lock();
+        try {
+            store.remove(id);
+            if (compacting.get()) {
+                journal.add(id);
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        maybeCompact();
+        logger.debug("Deleted embedding with ID: {}", id);
+    }
+
+    @Override
+    public void deleteAll() {
+        lock.writeLock().lock();
+        try {
+            generation.incrementAndGet();
+            index.clear();
+            store.clear();
+            journal.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        logger.info("Deleted all embeddings");
+    }
+
+    @Override
+    public long count() {
+        return store.size();
+    }
+
+    @Override
+    public int dimension() {
+        return store.dimension();
+    }
+
+    /**
+     * Unfiltered walk for {@code candidates} results, of which the top {@code limit} matching ones are kept
+     */
+    private static List<ScoredSlot> postFilter(HnswIndex index, float[] queryEmbedding, int limit, int candidates,
+                                               int ef, IntPredicate accept) {
+        List<ScoredSlot> matches = new ArrayList<>(limit);
+        for (ScoredSlot candidate : index.search(queryEmbedding, candidates, ef, slot -> true)) {
+            if (accept.test(candidate.slot())) {
+                matches.add(candidate);
+                if (matches.size() == limit) {
+                    break;
+                }
+            }
+        }
+        return matches;
+    }
+
+    /**
+     * Rebuild the store and graph over the live rows, dropping every tombstone. Runs on the
+     * caller's thread; queries and writes continue until the final swap.
+     */
+    public void compact() {
+        if (!compacting.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            long start = System.currentTimeMillis();
+            long startGeneration = generation.get();
+            VectorStore old = store;
+            VectorStore fresh = new VectorStore(precision);
+            // Copy under the store monitor so no insert is half-visible; the graph is built afterwards
+            synchronized (old) {
+                int slotLimit = old.slotLimit();
+                for (int slot = 0; slot < slotLimit; slot++) {
+                    if (old.isLive(slot)) {
+                        fresh.append(old.id(slot), old.vector(slot), old.metadata(slot));
+                    }
+                }
+            }
+            HnswIndex freshIndex = new HnswIndex(fresh, m, efConstruction);
+            int slotLimit = fresh.slotLimit();
+            for (int slot = 0; slot < slotLimit; slot++) {
+                freshIndex.insert(slot);
+            }
+
+            int dead;
+            lock.writeLock().lock();
+            try {
+                if (generation.get() != startGeneration) {
+                    return;
+                }
+                // Replay IDs written or deleted while the new graph was being built
+                for (String id : journal) {
+                    int slot = old.slotOf(id);
+                    if (slot >= 0) {
+                        freshIndex.insert(fresh.append(id, old.vector(slot), old.metadata(slot)));
+                    } else {
+                        fresh.remove(id);
+                    }
+                }
+                dead = old.deadSlots();
+                store = fresh;
+                index = freshIndex;
+                compactions++;
+            } finally {
+                journal.clear();
+                lock.writeLock().unlock();
+            }
+            logger.info("Compacted HNSW index: dropped {} tombstones, {} live vectors in {} ms",
+                    dead, fresh.size(), System.currentTimeMillis() - start);
+        } finally {
+            compacting.set(false);
+        }
+    }
+
+    /**
+     * Stop the background compactor
+     */
+    @Override
+    public void shutdown() {
+        compactor.shutdownNow();
+    }
+
+    private void maybeCompact() {
+        VectorStore current = store;
+        int dead = current.deadSlots();
+        if (dead >= compactionMinDead && dead >= compactionFraction * current.slotLimit()
+                && !compacting.get() && compactionQueued.compareAndSet(false, true)) {
+            compactor.execute(() -> {
+                compactionQueued.set(false);
+                try {
+                    compact();
+                } catch (RuntimeException e) {
+                    logger.error("HNSW compaction failed", e);
+                }
+            });
+        }
+    }
+
+    /**
+     * Get statistics about the vector database
+     */
+    @Override
+    public Map<String, Object> getStatistics() {
+        VectorStore store = this.store;
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("backend", "hnsw");
+        stats.put("totalEmbeddings", store.size());
+        stats.put("tombstones", store.deadSlots());
+        stats.put("compactions", compactions);
+        stats.put("vectorBytes", store.vectorBytes());
+        stats.put("precision", precision.name().toLowerCase());
+        stats.put("bytesPerVector", store.bytesPerVector());
+        stats.put("efSearch", efSearch);
+        stats.put("exactSearchThreshold", exactSearchThreshold);
+        stats.put("index", index.getStatistics());
+        stats.put("planner", planner.getStatistics());
+        stats.put("metadataIndex", store.metadataIndex().getStatistics());
+        return stats;
+    }
+}
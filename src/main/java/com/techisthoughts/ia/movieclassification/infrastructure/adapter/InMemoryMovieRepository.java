@@ -5,29 +5,38 @@ import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.StringJoiner;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 import org.springframework.stereotype.Repository;
 import com.techisthoughts.ia.movieclassification.domain.model.Movie;
+import com.techisthoughts.ia.movieclassification.domain.port.LexicalIndexPort;
 import com.techisthoughts.ia.movieclassification.domain.port.MovieRepositoryPort;
 
 /**
- * In-memory implementation of MovieRepositoryPort
+ * In-memory implementation of MovieRepositoryPort; keeps the lexical index in step with
+ * every save and delete
  */
 @Repository
 public class InMemoryMovieRepository implements MovieRepositoryPort {
 
     private final Map<String, Movie> movies = new ConcurrentHashMap<>();
+    private final LexicalIndexPort lexicalIndex;
+
+    public InMemoryMovieRepository(LexicalIndexPort lexicalIndex) {
+        this.lexicalIndex = lexicalIndex;
+    }
 
     @Override
     public Movie save(Movie movie) {
         movies.put(movie.getMovieTitle(), movie);
+        indexMovie(movie);
         return movie;
     }
 
     @Override
     public List<Movie> saveAll(List<Movie> movieList) {
-        movieList.forEach(movie -> movies.put(movie.getMovieTitle(), movie));
+        movieList.forEach(this::save);
         return new ArrayList<>(movieList);
     }
 
@@ -51,11 +60,14 @@ public class InMemoryMovieRepository implements MovieRepositoryPort {
     @Override
     public void deleteByTitle(String title) {
         movies.remove(title);
+        lexicalIndex.remove(LexicalIndexPort.movieDocument(title));
     }
 
     @Override
     public void deleteAll() {
-        movies.clear();
+        for (String title : movies.keySet()) {
+            deleteByTitle(title);
+        }
     }
 
     @Override
@@ -67,4 +79,28 @@ public class InMemoryMovieRepository implements MovieRepositoryPort {
     public boolean existsByTitle(String title) {
         return movies.containsKey(title);
     }
+
+    /**
+     * Index the searchable text of a movie: title, genre, review highlights, insight and advice
+     */
+    private void indexMovie(Movie movie) {
+        StringJoiner text = new StringJoiner("\n");
+        text.add(movie.getMovieTitle());
+        if (movie.getGenre() != null) {
+            text.add(movie.getGenre());
+        }
+        if (movie.getReviewHighlights() != null) {
+            movie.getReviewHighlights().forEach(text::add);
+        }
+        if (movie.getMinuteOfLifeChangingInsight() != null) {
+            text.add(movie.getMinuteOfLifeChangingInsight());
+        }
+        if (movie.getMeaningfulAdviceTaken() != null) {
+            text.add(movie.getMeaningfulAdviceTaken());
+        }
+        lexicalIndex.index(LexicalIndexPort.movieDocument(movie.getMovieTitle()), text.toString(), Map.of(
+            "type", "movie",
+            "title", movie.getMovieTitle(),
+            "genre", movie.getGenre() != null ? movie.getGenre() : "unknown"));
+    }
 }
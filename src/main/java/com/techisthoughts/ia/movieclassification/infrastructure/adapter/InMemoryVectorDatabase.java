@@ -1,36 +1,182 @@
 package com.techisthoughts.ia.movieclassification.infrastructure.adapter;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Objects;
-import java.util.OptionalDouble;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.stream.Collectors;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.IntPredicate;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.stereotype.Component;
-import com.techisthoughts.ia.movieclassification.domain.port.VectorDatabasePort;
+import com.techisthoughts.ia.movieclassification.infrastructure.vector.BinaryQuantizedIndex;
+import com.techisthoughts.ia.movieclassification.infrastructure.vector.ExactScan;
+import com.techisthoughts.ia.movieclassification.infrastructure.vector.MaximalMarginalRelevance;
+import com.techisthoughts.ia.movieclassification.infrastructure.vector.MetadataFilter;
+import com.techisthoughts.ia.movieclassification.infrastructure.vector.QuantizedIndex;
+import com.techisthoughts.ia.movieclassification.infrastructure.vector.Quantization;
+import com.techisthoughts.ia.movieclassification.infrastructure.vector.RecallTracker;
+import com.techisthoughts.ia.movieclassification.infrastructure.vector.ScanParallelism;
+import com.techisthoughts.ia.movieclassification.infrastructure.vector.ScalarQuantizedIndex;
+import com.techisthoughts.ia.movieclassification.infrastructure.vector.ScoredSlot;
+import com.techisthoughts.ia.movieclassification.infrastructure.vector.SimilarityKernels;
+import com.techisthoughts.ia.movieclassification.infrastructure.vector.VectorMath;
+import com.techisthoughts.ia.movieclassification.infrastructure.vector.VectorPrecision;
+import com.techisthoughts.ia.movieclassification.infrastructure.vector.VectorSnapshot;
+import com.techisthoughts.ia.movieclassification.infrastructure.vector.VectorStore;
+import com.techisthoughts.ia.movieclassification.infrastructure.vector.WriteAheadLog;
 
 /**
- * In-memory implementation of VectorDatabasePort with cosine similarity search
+ * In-memory implementation of VectorDatabasePort with cosine similarity search.
+ * Embeddings live in primitive float (or float16) slabs managed by {@link VectorStore}; with
+ * int8 or binary quantization enabled, queries scan compact codes for candidates and re-rank
+ * them against the stored vectors. Every few quantized queries is re-run exactly on a
+ * background thread, after the query has released the lock, to measure the recall of the
+ * candidate path.
+ *
+ * When a durability directory is configured, every upsert and delete is recorded in a
+ * {@link WriteAheadLog} before it is applied, and startup replays the last snapshot plus the
+ * log. Once the log grows past the checkpoint size the store is snapshotted and the log truncated.
  */
-@Component
-public class InMemoryVectorDatabase implements VectorDatabasePort {
+public class InMemoryVectorDatabase implements ManagedVectorDatabase {
 
     private static final Logger logger = LoggerFactory.getLogger(InMemoryVectorDatabase.class);
 
-    private final Map<String, EmbeddingData> embeddings = new ConcurrentHashMap<>();
+    private static final int DEFAULT_RERANK_FACTOR = 4;
+    private static final int RECALL_SAMPLE_EVERY = 32;
+    private static final int BINARY_MIN_CANDIDATES = 256;
+    private static final int STREAM_WINDOW_SLOTS = 16 * 1024;
+
+    private final VectorStore store;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Quantization quantization;
+    private final int rerankFactor;
+    private final QuantizedIndex quantizedIndex;
+    private final RecallTracker recallTracker = new RecallTracker(RECALL_SAMPLE_EVERY);
+    private final ScanParallelism parallelism;
+    private final Path snapshotFile;
+    private final WriteAheadLog log;
+    private final long checkpointBytes;
+    private final ExecutorService checkpointer;
+    private final AtomicBoolean checkpointQueued = new AtomicBoolean(false);
+    private final ExecutorService recallSampler;
+    private final AtomicBoolean recallSampleQueued = new AtomicBoolean(false);
+
+    public InMemoryVectorDatabase() {
+        this(Quantization.NONE, DEFAULT_RERANK_FACTOR);
+    }
+
+    public InMemoryVectorDatabase(Quantization quantization, int rerankFactor) {
+        this(quantization, rerankFactor, null, 0, 0);
+    }
+
+    /**
+     * @param durabilityDirectory directory for the snapshot and write-ahead log, or null to keep
+     *                            everything in memory only
+     */
+    public InMemoryVectorDatabase(Quantization quantization, int rerankFactor, Path durabilityDirectory,
+                                  long syncIntervalMillis, long checkpointBytes) {
+        this(quantization, rerankFactor, durabilityDirectory, syncIntervalMillis, checkpointBytes,
+                ScanParallelism.common());
+    }
+
+    /**
+     * @param parallelism pool and shard layout for exact scans over large stores
+     */
+    public InMemoryVectorDatabase(Quantization quantization, int rerankFactor, Path durabilityDirectory,
+                                  long syncIntervalMillis, long checkpointBytes, ScanParallelism parallelism) {
+        this(quantization, rerankFactor, durabilityDirectory, syncIntervalMillis, checkpointBytes, parallelism,
+                VectorPrecision.FLOAT32);
+    }
+
+    /**
+     * @param precision element type of the stored rows; FLOAT16 halves their memory
+     */
+    public InMemoryVectorDatabase(Quantization quantization, int rerankFactor, Path durabilityDirectory,
+                                  long syncIntervalMillis, long checkpointBytes, ScanParallelism parallelism,
+                                  VectorPrecision precision) {
+        this.store = new VectorStore(precision);
+        this.quantization = quantization;
+        this.parallelism = parallelism;
+        this.rerankFactor = Math.max(1, rerankFactor);
+        this.quantizedIndex = switch (quantization) {
+            case INT8 -> new ScalarQuantizedIndex(store);
+            case BINARY -> new BinaryQuantizedIndex(store);
+            case NONE -> null;
+        };
+        this.recallSampler = quantizedIndex == null ? null : Executors.newSingleThreadExecutor(r -> {
+            Thread t = new Thread(r, "recall-sampler");
+            t.setDaemon(true);
+            return t;
+        });
+        this.checkpointBytes = checkpointBytes;
+        if (durabilityDirectory == null) {
+            this.snapshotFile = null;
+            this.log = null;
+            this.checkpointer = null;
+            return;
+        }
+        this.snapshotFile = durabilityDirectory.resolve("vectors.snapshot");
+        this.log = recover(durabilityDirectory, syncIntervalMillis);
+        this.checkpointer = Executors.newSingleThreadExecutor(r -> {
+            Thread t = new Thread(r, "wal-checkpoint");
+            t.setDaemon(true);
+            return t;
+        });
+    }
 
     @Override
     public void storeEmbedding(String id, List<Double> embedding, Map<String, Object> metadata) {
-        embeddings.put(id, new EmbeddingData(id, embedding, metadata));
+        storeEmbedding(id, VectorMath.toFloatArray(embedding), metadata);
+    }
+
+    @Override
+    public void storeEmbedding(String id, float[] embedding, Map<String, Object> metadata) {
+        long sequence = 0;
+        lock.writeLock().lock();
+        try {
+            if (log != null) {
+                checkDimension(embedding);
+                sequence = log.appendUpsert(id, embedding, metadata);
+            }
+            upsert(id, embedding, metadata);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to log embedding " + id, e);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        awaitDurable(sequence);
         logger.debug("Stored embedding with ID: {}", id);
     }
 
     @Override
     public void storeEmbeddings(Map<String, EmbeddingData> embeddingBatch) {
-        embeddings.putAll(embeddingBatch);
+        long sequence = 0;
+        lock.writeLock().lock();
+        try {
+            for (EmbeddingData data : embeddingBatch.values()) {
+                float[] vector = VectorMath.toFloatArray(data.embedding());
+                if (log != null) {
+                    checkDimension(vector);
+                    sequence = log.appendUpsert(data.id(), vector, data.metadata());
+                }
+                upsert(data.id(), vector, data.metadata());
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to log embedding batch", e);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        awaitDurable(sequence);
         logger.info("Stored {} embeddings in batch", embeddingBatch.size());
     }
 
@@ -41,113 +187,445 @@ public class InMemoryVectorDatabase implements VectorDatabasePort {
 
     @Override
     public List<SimilarityResult> findSimilar(List<Double> queryEmbedding, int limit, Map<String, Object> filter) {
+        return findSimilar(VectorMath.toFloatArray(queryEmbedding), limit, filter);
+    }
+
+    @Override
+    public List<SimilarityResult> findSimilar(float[] queryEmbedding, int limit, Map<String, Object> filter) {
         logger.debug("Finding similar embeddings, limit: {}, filter: {}", limit, filter);
 
-        List<SimilarityResult> results = embeddings.values().stream()
-                .filter(embeddingData -> matchesFilter(embeddingData.metadata(), filter))
-                .map(embeddingData -> {
-                    double similarity = calculateCosineSimilarity(queryEmbedding, embeddingData.embedding());
-                    return new SimilarityResult(embeddingData.id(), similarity, embeddingData.metadata());
-                })
-                .sorted((r1, r2) -> Double.compare(r2.similarity(), r1.similarity())) // Descending order
-                .limit(limit)
-                .collect(Collectors.toList());
+        List<SimilarityResult> results = new ArrayList<>();
+        boolean sample = false;
+
+        lock.readLock().lock();
+        try {
+            IntPredicate accept = slot -> MetadataFilter.matches(store.metadata(slot), filter);
+            // Filters on indexed metadata are resolved to a candidate bitmap and scored exactly
+            BitSet selection = store.select(filter);
+            List<ScoredSlot> matches;
+            if (selection == null && quantizedIndex != null && quantizedIndex.isReady()) {
+                int[] candidates = quantizedIndex.candidates(queryEmbedding, candidateCount(limit), accept);
+                matches = rerank(queryEmbedding, candidates, limit);
+                sample = recallTracker.shouldSample();
+            } else {
+                matches = ExactScan.search(store, queryEmbedding, limit, accept, selection, parallelism);
+            }
+            for (ScoredSlot match : matches) {
+                results.add(new SimilarityResult(store.id(match.slot()), match.similarity(), store.metadata(match.slot())));
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        if (sample) {
+            sampleRecall(queryEmbedding, limit, filter, results);
+        }
 
         logger.debug("Found {} similar embeddings", results.size());
         return results;
     }
 
+    /**
+     * Queue an exact re-run of a quantized query and compare the ids; a sample is dropped while
+     * the previous one is still queued, so sampling never backs up behind a slow scan
+     */
+    private void sampleRecall(float[] queryEmbedding, int limit, Map<String, Object> filter,
+                              List<SimilarityResult> approximate) {
+        if (!recallSampleQueued.compareAndSet(false, true)) {
+            return;
+        }
+        float[] query = queryEmbedding.clone();
+        List<String> approximateIds = approximate.stream().map(SimilarityResult::id).toList();
+        recallSampler.execute(() -> {
+            recallSampleQueued.set(false);
+            List<String> exactIds = new ArrayList<>(limit);
+            lock.readLock().lock();
+            try {
+                IntPredicate accept = slot -> MetadataFilter.matches(store.metadata(slot), filter);
+                for (ScoredSlot match : ExactScan.search(store, query, limit, accept, null, parallelism)) {
+                    exactIds.add(store.id(match.slot()));
+                }
+            } finally {
+                lock.readLock().unlock();
+            }
+            recallTracker.recordKeys(approximateIds, exactIds);
+        });
+    }
+
+    /**
+     * Exact scan in windows of slots. The read lock is held for one window at a time, so writers
+     * interleave with a long stream, and the running top results are reported after every window
+     * that changed them.
+     */
+    @Override
+    public void streamSimilar(float[] queryEmbedding, int limit, Map<String, Object> filter,
+                              SearchListener listener) {
+        float[] unitQuery = VectorMath.normalize(queryEmbedding);
+        IntPredicate accept = slot -> MetadataFilter.matches(store.metadata(slot), filter);
+        Map<String, SimilarityResult> best = new HashMap<>();
+        List<SimilarityResult> top = new ArrayList<>();
+        int from = 0;
+        boolean complete = false;
+        while (!complete) {
+            boolean changed = false;
+            lock.readLock().lock();
+            try {
+                if (store.dimension() > 0 && queryEmbedding.length != store.dimension()) {
+                    throw new IllegalArgumentException("Vectors must have the same dimension");
+                }
+                int to = Math.min(from + STREAM_WINDOW_SLOTS, store.slotLimit());
+                for (ScoredSlot match : ExactScan.searchRange(store, unitQuery, limit, accept, store.select(filter), from, to)) {
+                    String id = store.id(match.slot());
+                    SimilarityResult previous = best.get(id);
+                    if ((top.size() < limit || match.similarity() > top.get(top.size() - 1).similarity())
+                            && (previous == null || match.similarity() > previous.similarity())) {
+                        best.put(id, new SimilarityResult(id, match.similarity(), store.metadata(match.slot())));
+                        changed = true;
+                    }
+                }
+                from = to;
+                complete = from >= store.slotLimit();
+            } finally {
+                lock.readLock().unlock();
+            }
+
+            if (changed) {
+                top = new ArrayList<>(best.values());
+                top.sort(Comparator.comparingDouble(SimilarityResult::similarity).reversed());
+                if (top.size() > limit) {
+                    top.subList(limit, top.size()).forEach(dropped -> best.remove(dropped.id()));
+                    top = new ArrayList<>(top.subList(0, limit));
+                }
+            }
+            if ((changed || complete) && !listener.onResults(List.copyOf(top), complete)) {
+                logger.debug("Streaming search cancelled after {} slots", from);
+                return;
+            }
+        }
+    }
+
+    @Override
+    public List<SimilarityResult> findWithinThreshold(float[] queryEmbedding, double minSimilarity, int maxResults) {
+        List<SimilarityResult> results = new ArrayList<>();
+
+        lock.readLock().lock();
+        try {
+            List<ScoredSlot> matches = ExactScan.searchWithin(store, queryEmbedding, (float) minSimilarity,
+                    maxResults, slot -> true, null, parallelism);
+            for (ScoredSlot match : matches) {
+                results.add(new SimilarityResult(store.id(match.slot()), match.similarity(), store.metadata(match.slot())));
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        logger.debug("Found {} embeddings with similarity >= {}", results.size(), minSimilarity);
+        return results;
+    }
+
+    @Override
+    public List<SimilarityResult> findDiverse(float[] queryEmbedding, double minSimilarity, int maxResults,
+                                              int candidates, double lambda) {
+        List<SimilarityResult> results = new ArrayList<>();
+
+        lock.readLock().lock();
+        try {
+            List<ScoredSlot> matches = ExactScan.searchWithin(store, queryEmbedding, (float) minSimilarity,
+                    Math.max(candidates, maxResults), slot -> true, null, parallelism);
+            int dimension = store.dimension();
+            float[] relevance = new float[matches.size()];
+            float[] unitRows = new float[matches.size() * dimension];
+            for (int i = 0; i < relevance.length; i++) {
+                int slot = matches.get(i).slot();
+                relevance[i] = (float) matches.get(i).similarity();
+                store.copyInto(slot, unitRows, i * dimension);
+                float scale = store.inverseNorm(slot);
+                for (int d = i * dimension; d < (i + 1) * dimension; d++) {
+                    unitRows[d] *= scale;
+                }
+            }
+            for (int index : MaximalMarginalRelevance.select(relevance, unitRows, dimension, maxResults, lambda)) {
+                ScoredSlot match = matches.get(index);
+                results.add(new SimilarityResult(store.id(match.slot()), match.similarity(), store.metadata(match.slot())));
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        logger.debug("Selected {} diverse embeddings with similarity >= {}", results.size(), minSimilarity);
+        return results;
+    }
+
+    @Override
+    public List<List<SimilarityResult>> findSimilarBatch(float[][] queryEmbeddings, int limit,
+                                                         Map<String, Object> filter) {
+        logger.debug("Finding similar embeddings for {} queries, limit: {}, filter: {}",
+                queryEmbeddings.length, limit, filter);
+
+        List<List<SimilarityResult>> results = new ArrayList<>(queryEmbeddings.length);
+
+        lock.readLock().lock();
+        try {
+            // The batch always scans exactly: one shared pass is cheaper than per-query candidate scans
+            IntPredicate accept = slot -> MetadataFilter.matches(store.metadata(slot), filter);
+            List<List<ScoredSlot>> matches = ExactScan.searchBatch(store, queryEmbeddings, limit, accept,
+                    store.select(filter), parallelism);
+            for (List<ScoredSlot> queryMatches : matches) {
+                List<SimilarityResult> queryResults = new ArrayList<>(queryMatches.size());
+                for (ScoredSlot match : queryMatches) {
+                    queryResults.add(new SimilarityResult(store.id(match.slot()), match.similarity(),
+                            store.metadata(match.slot())));
+                }
+                results.add(queryResults);
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        return results;
+    }
+
     @Override
     public EmbeddingData getEmbedding(String id) {
-        return embeddings.get(id);
+        lock.readLock().lock();
+        try {
+            int slot = store.slotOf(id);
+            if (slot < 0) {
+                return null;
+            }
+            return new EmbeddingData(id, VectorMath.toDoubleList(store.vector(slot)), store.metadata(slot));
+        } finally {
+            lock.readLock().unlock();
+        }
     }
 
     @Override
     public void deleteEmbedding(String id) {
-        embeddings.remove(id);
+        long sequence = 0;
+        lock.writeLock().lock();
+        try {
+            if (log != null && store.slotOf(id) >= 0) {
+                sequence = log.appendDelete(id);
+            }
+            delete(id);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to log deletion of " + id, e);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        awaitDurable(sequence);
         logger.debug("Deleted embedding with ID: {}", id);
     }
 
     @Override
     public void deleteAll() {
-        embeddings.clear();
+        long sequence = 0;
+        lock.writeLock().lock();
+        try {
+            if (log != null) {
+                sequence = log.appendClear();
+            }
+            clear();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to log deletion of all embeddings", e);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        awaitDurable(sequence);
         logger.info("Deleted all embeddings");
     }
 
     @Override
     public long count() {
-        return embeddings.size();
+        return store.size();
+    }
+
+    @Override
+    public int dimension() {
+        return store.dimension();
     }
 
     /**
-     * Calculate cosine similarity between two vectors
+     * Snapshot every live vector and truncate the write-ahead log. Writers are held off for the
+     * duration, so the snapshot covers exactly the records being discarded.
      */
-    private double calculateCosineSimilarity(List<Double> vector1, List<Double> vector2) {
-        if (vector1.size() != vector2.size()) {
-            throw new IllegalArgumentException("Vectors must have the same dimension");
+    public synchronized void checkpoint() throws IOException {
+        if (log == null) {
+            return;
         }
+        long start = System.currentTimeMillis();
+        lock.readLock().lock();
+        try {
+            VectorSnapshot.write(snapshotFile, store);
+            log.truncate();
+        } finally {
+            lock.readLock().unlock();
+        }
+        logger.info("Checkpointed {} embeddings to {} in {} ms", store.size(), snapshotFile,
+                System.currentTimeMillis() - start);
+    }
 
-        double dotProduct = 0.0;
-        double magnitude1 = 0.0;
-        double magnitude2 = 0.0;
-
-        for (int i = 0; i < vector1.size(); i++) {
-            double v1 = vector1.get(i);
-            double v2 = vector2.get(i);
+    /**
+     * Commit outstanding log records, close the log and stop the recall sampler; the scan pool
+     * belongs to whoever created it and is left running
+     */
+    @Override
+    public void shutdown() {
+        if (recallSampler != null) {
+            recallSampler.shutdownNow();
+        }
+        if (log == null) {
+            return;
+        }
+        checkpointer.shutdownNow();
+        try {
+            log.close();
+        } catch (IOException e) {
+            logger.error("Failed to close write-ahead log", e);
+        }
+    }
 
-            dotProduct += v1 * v2;
-            magnitude1 += v1 * v1;
-            magnitude2 += v2 * v2;
+    private void upsert(String id, float[] embedding, Map<String, Object> metadata) {
+        int slot = store.put(id, embedding, metadata);
+        if (quantizedIndex != null) {
+            quantizedIndex.onStore(slot);
         }
+    }
 
-        if (magnitude1 == 0.0 || magnitude2 == 0.0) {
-            return 0.0; // Avoid division by zero
+    private void delete(String id) {
+        int slot = store.remove(id);
+        if (slot >= 0) {
+            store.recycle(slot);
         }
+    }
 
-        return dotProduct / (Math.sqrt(magnitude1) * Math.sqrt(magnitude2));
+    private void clear() {
+        store.clear();
+        if (quantizedIndex != null) {
+            quantizedIndex.clear();
+        }
     }
 
     /**
-     * Check if metadata matches the given filter
+     * Reject a bad vector before it reaches the log, where it would fail again on every replay
      */
-    private boolean matchesFilter(Map<String, Object> metadata, Map<String, Object> filter) {
-        if (filter.isEmpty()) {
-            return true;
+    private void checkDimension(float[] embedding) {
+        if (embedding.length == 0 || (store.dimension() >= 0 && embedding.length != store.dimension())) {
+            throw new IllegalArgumentException("Vectors must have the same dimension");
         }
+        store.precision().checkRepresentable(embedding);
+    }
+
+    private void awaitDurable(long sequence) {
+        if (log == null || sequence == 0) {
+            return;
+        }
+        try {
+            log.sync(sequence);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to sync write-ahead log", e);
+        }
+        if (log.sizeBytes() > checkpointBytes && checkpointQueued.compareAndSet(false, true)) {
+            checkpointer.execute(() -> {
+                checkpointQueued.set(false);
+                try {
+                    checkpoint();
+                } catch (IOException | RuntimeException e) {
+                    logger.error("Failed to checkpoint vector store", e);
+                }
+            });
+        }
+    }
+
+    /**
+     * Rebuild the store from the last snapshot and the records logged after it
+     */
+    private WriteAheadLog recover(Path directory, long syncIntervalMillis) {
+        long start = System.currentTimeMillis();
+        WriteAheadLog.Replayer replayer = new WriteAheadLog.Replayer() {
+            @Override
+            public void upsert(String id, float[] vector, Map<String, Object> metadata) {
+                InMemoryVectorDatabase.this.upsert(id, vector, metadata);
+            }
 
-        for (Map.Entry<String, Object> filterEntry : filter.entrySet()) {
-            String key = filterEntry.getKey();
-            Object expectedValue = filterEntry.getValue();
-            Object actualValue = metadata.get(key);
+            @Override
+            public void delete(String id) {
+                InMemoryVectorDatabase.this.delete(id);
+            }
 
-            if (!Objects.equals(expectedValue, actualValue)) {
-                return false;
+            @Override
+            public void clear() {
+                InMemoryVectorDatabase.this.clear();
             }
+        };
+        try {
+            Files.createDirectories(directory);
+            int snapshotRows = VectorSnapshot.read(snapshotFile, replayer);
+            WriteAheadLog wal = new WriteAheadLog(directory.resolve("vectors.wal"), syncIntervalMillis);
+            int records = wal.replay(replayer);
+            logger.info("Recovered {} embeddings ({} from snapshot, {} log records) in {} ms",
+                    store.size(), snapshotRows, records, System.currentTimeMillis() - start);
+            return wal;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to recover vector store from " + directory, e);
         }
+    }
 
-        return true;
+    /**
+     * Candidates to pull from the quantized scan; sign bits are coarse, so the binary pass
+     * always hands at least a few hundred rows to the exact re-rank
+     */
+    private int candidateCount(int limit) {
+        int candidates = limit * rerankFactor;
+        return quantization == Quantization.BINARY ? Math.max(candidates, BINARY_MIN_CANDIDATES) : candidates;
     }
 
     /**
-     * Get statistics about the vector database
+     * Re-score quantized candidates with exact cosine similarity against the float slabs
      */
+    private List<ScoredSlot> rerank(float[] query, int[] candidates, int limit) {
+        float[] unitQuery = VectorMath.normalize(query);
+        List<ScoredSlot> scored = new ArrayList<>(candidates.length);
+        for (int slot : candidates) {
+            scored.add(new ScoredSlot(slot, ExactScan.score(store, unitQuery, slot)));
+        }
+        scored.sort(Comparator.comparingDouble(ScoredSlot::similarity).reversed());
+        return scored.size() > limit ? scored.subList(0, limit) : scored;
+    }
+
+    /**
+     * Get statistics about the vector database; content counts come from the store's
+     * incrementally maintained {@link VectorStore#statistics()}, so polling never scans the rows
+     */
+    @Override
     public Map<String, Object> getStatistics() {
         Map<String, Object> stats = new HashMap<>();
-        stats.put("totalEmbeddings", embeddings.size());
-
-        // Group by type
-        Map<String, Long> typeCount = embeddings.values().stream()
-                .collect(Collectors.groupingBy(
-                    data -> (String) data.metadata().getOrDefault("type", "unknown"),
-                    Collectors.counting()
-                ));
-        stats.put("byType", typeCount);
-
-        // Average vector dimension
-        OptionalDouble avgDimension = embeddings.values().stream()
-                .mapToInt(data -> data.embedding().size())
-                .average();
-        stats.put("averageDimension", avgDimension.orElse(0.0));
+
+        lock.readLock().lock();
+        try {
+            stats.put("totalEmbeddings", store.size());
+            stats.putAll(store.statistics().getStatistics());
+            stats.put("segments", store.segmentCount());
+            stats.put("vectorBytes", store.vectorBytes());
+            stats.put("precision", store.precision().name().toLowerCase());
+            stats.put("bytesPerVector", store.bytesPerVector());
+            stats.put("quantization", quantization.name().toLowerCase());
+            stats.put("similarityKernel", SimilarityKernels.get().name());
+            stats.put("scanShards", parallelism.shards());
+            stats.put("scanParallelism", parallelism.pool().getParallelism());
+            stats.put("metadataIndex", store.metadataIndex().getStatistics());
+            if (quantizedIndex != null) {
+                long codeBytes = quantizedIndex.codeBytes();
+                stats.put("quantizedBytes", codeBytes);
+                stats.put("compressionRatio", codeBytes > 0 ? (double) store.vectorBytes() / codeBytes : 0.0);
+                stats.put("rerankFactor", rerankFactor);
+                stats.putAll(recallTracker.getStatistics());
+            }
+            if (log != null) {
+                stats.put("writeAheadLog", log.getStatistics());
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
 
         return stats;
     }
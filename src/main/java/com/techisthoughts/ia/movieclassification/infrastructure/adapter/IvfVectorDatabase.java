@@ -0,0 +1,425 @@
+package com.techisthoughts.ia.movieclassification.infrastructure.adapter;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Random;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.IntPredicate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import com.techisthoughts.ia.movieclassification.infrastructure.vector.ExactScan;
+import com.techisthoughts.ia.movieclassification.infrastructure.vector.FilteredSearchPlanner;
+import com.techisthoughts.ia.movieclassification.infrastructure.vector.FilteredSearchPlanner.Decision;
+import com.techisthoughts.ia.movieclassification.infrastructure.vector.FilteredSearchPlanner.Plan;
+import com.techisthoughts.ia.movieclassification.infrastructure.vector.IvfIndex;
+import com.techisthoughts.ia.movieclassification.infrastructure.vector.KMeans;
+import com.techisthoughts.ia.movieclassification.infrastructure.vector.MetadataFilter;
+import com.techisthoughts.ia.movieclassification.infrastructure.vector.ScoredSlot;
+import com.techisthoughts.ia.movieclassification.infrastructure.vector.TrainingPool;
+import com.techisthoughts.ia.movieclassification.infrastructure.vector.VectorMath;
+import com.techisthoughts.ia.movieclassification.infrastructure.vector.VectorPrecision;
+import com.techisthoughts.ia.movieclassification.infrastructure.vector.VectorStore;
+
+/**
+ * IVF-Flat implementation of VectorDatabasePort.
+ *
+ * Until the collection reaches the training threshold every query is answered exactly.
+ * After that, coarse centroids are trained with a fork-join k-means on a background
+ * thread and queries probe only the {@code nprobe} nearest posting lists. Whenever the
+ * collection grows by the retrain factor a fresh index is trained off to the side;
+ * inserts and deletes that land meanwhile are journaled and replayed before the swap,
+ * so ingestion never waits on index maintenance.
+ *
+ * Filtered queries are planned by a {@link FilteredSearchPlanner}: a filter whose matches are
+ * fewer than the rows in the probed lists, or too few to fill the limit from them, is
+ * answered exactly over its bitmap; otherwise the probed lists are scanned with the filter
+ * applied, or without it and post-filtered for broad filters.
+ */
+public class IvfVectorDatabase implements ManagedVectorDatabase {
+
+    private static final Logger logger = LoggerFactory.getLogger(IvfVectorDatabase.class);
+    private static final int KMEANS_ITERATIONS = 10;
+    private static final int MIN_POINTS_PER_LIST = 39;
+
+    private final VectorStore store;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final int lists;
+    private final int nprobe;
+    private final int minTrainingSize;
+    private final double retrainGrowthFactor;
+    private final int trainingSampleSize;
+    private final FilteredSearchPlanner planner;
+
+    private final ForkJoinPool trainingPool;
+    private final ExecutorService trainer;
+    private final AtomicBoolean training = new AtomicBoolean(false);
+    private final Queue<Integer> journal = new ConcurrentLinkedQueue<>();
+    private final AtomicLong generation = new AtomicLong();
+    private final AtomicLong trainings = new AtomicLong();
+
+    private volatile IvfIndex index;
+    private volatile int trainedSize;
+    private volatile long lastTrainingMillis;
+
+    public IvfVectorDatabase(int lists, int nprobe, int minTrainingSize, double retrainGrowthFactor,
+                             int trainingSampleSize) {
+        this(lists, nprobe, minTrainingSize, retrainGrowthFactor, trainingSampleSize,
+                FilteredSearchPlanner.DEFAULT_POST_FILTER_SELECTIVITY);
+    }
+
+    /**
+     * @param postFilterSelectivity filters estimated to keep at least this fraction are post-filtered
+     */
+    public IvfVectorDatabase(int lists, int nprobe, int minTrainingSize, double retrainGrowthFactor,
+                             int trainingSampleSize, double postFilterSelectivity) {
+        this(lists, nprobe, minTrainingSize, retrainGrowthFactor, trainingSampleSize, postFilterSelectivity,
+                VectorPrecision.FLOAT32);
+    }
+
+    /**
+     * @param precision element type of the stored rows; FLOAT16 halves their memory
+     */
+    public IvfVectorDatabase(int lists, int nprobe, int minTrainingSize, double retrainGrowthFactor,
+                             int trainingSampleSize, double postFilterSelectivity, VectorPrecision precision) {
+        this.store = new VectorStore(precision);
+        this.lists = lists;
+        this.nprobe = nprobe;
+        this.minTrainingSize = minTrainingSize;
+        this.retrainGrowthFactor = Math.max(1.1, retrainGrowthFactor);
+        this.trainingSampleSize = trainingSampleSize;
+        this.planner = new FilteredSearchPlanner(postFilterSelectivity);
+        this.trainingPool = TrainingPool.shared();
+        this.trainer = Executors.newSingleThreadExecutor(r -> {
+            Thread t = new Thread(r, "ivf-trainer");
+            t.setDaemon(true);
+            return t;
+        });
+        logger.info("Initialized IVF vector database (lists={}, nprobe={}, minTrainingSize={}, retrainGrowthFactor={})",
+                lists, nprobe, minTrainingSize, retrainGrowthFactor);
+    }
+
+    @Override
+    public void storeEmbedding(String id, List<Double> embedding, Map<String, Object> metadata) {
+        storeEmbedding(id, VectorMath.toFloatArray(embedding), metadata);
+    }
+
+    @Override
+    public void storeEmbedding(String id, float[] embedding, Map<String, Object> metadata) {
+        lock.readLock().lock();
+        try {
+            int slot = store.put(id, embedding, metadata);
+            IvfIndex current = index;
+            if (current != null) {
+                // Overwrites may move the vector to a different list
+                current.remove(slot);
+                current.add(slot);
+            }
+            if (training.get()) {
+                journal.add(slot);
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        logger.debug("Stored embedding with ID: {}", id);
+        maybeScheduleTraining();
+    }
+
+    @Override
+    public void storeEmbeddings(Map<String, EmbeddingData> embeddingBatch) {
+        for (EmbeddingData data : embeddingBatch.values()) {
+            storeEmbedding(data.id(), VectorMath.toFloatArray(data.embedding()), data.metadata());
+        }
+        logger.info("Stored {} embeddings in batch", embeddingBatch.size());
+    }
+
+    @Override
+    public List<SimilarityResult> findSimilar(List<Double> queryEmbedding, int limit) {
+        return findSimilar(queryEmbedding, limit, Map.of());
+    }
+
+    @Override
+    public List<SimilarityResult> findSimilar(List<Double> queryEmbedding, int limit, Map<String, Object> filter) {
+        return findSimilar(VectorMath.toFloatArray(queryEmbedding), limit, filter);
+    }
+
+    @Override
+    public List<SimilarityResult> findSimilar(float[] queryEmbedding, int limit, Map<String, Object> filter) {
+        logger.debug("Finding similar embeddings, limit: {}, filter: {}", limit, filter);
+
+        IntPredicate accept = slot -> {
+            Map<String, Object> metadata = store.metadata(slot);
+            return metadata != null && MetadataFilter.matches(metadata, filter);
+        };
+
+        List<SimilarityResult> results = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            IvfIndex current = index;
+            int live = store.size();
+            Decision decision;
+            if (current == null) {
+                decision = new Decision(Plan.BRUTE_FORCE, 1.0);
+            } else {
+                double probedRows = (double) live * Math.min(nprobe, current.lists()) / current.lists();
+                decision = planner.plan(filter, store.metadataIndex(), live,
+                    selectivity -> selectivity * probedRows < limit ? Double.POSITIVE_INFINITY : probedRows);
+            }
+
+            Plan plan = decision.plan();
+            List<ScoredSlot> matches = switch (plan) {
+                case ANN, FILTERED_TRAVERSAL -> current.search(queryEmbedding, limit, nprobe, accept);
+                case POST_FILTER -> postFilter(current, queryEmbedding, limit, decision.candidates(limit, live), accept);
+                case BRUTE_FORCE -> ExactScan.search(store, queryEmbedding, limit, accept, store.select(filter));
+            };
+            boolean fellBack = false;
+            if (plan != Plan.BRUTE_FORCE && !filter.isEmpty() && matches.size() < limit) {
+                // Selective filter emptied the probed lists; answer exactly over the filtered set
+                plan = Plan.BRUTE_FORCE;
+                matches = ExactScan.search(store, queryEmbedding, limit, accept, store.select(filter));
+                fellBack = true;
+            }
+            planner.record(plan, decision.selectivity(), fellBack);
+            logger.debug("Searched with plan {} (estimated selectivity {})", plan.label(), decision.selectivity());
+
+            for (ScoredSlot match : matches) {
+                String id = store.id(match.slot());
+                Map<String, Object> metadata = store.metadata(match.slot());
+                if (id != null && metadata != null) {
+                    results.add(new SimilarityResult(id, match.similarity(), metadata));
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        logger.debug("Found {} similar embeddings", results.size());
+        return results;
+    }
+
+    @Override
+    public EmbeddingData getEmbedding(String id) {
+        int slot = store.slotOf(id);
+        if (slot < 0) {
+            return null;
+        }
+        return new EmbeddingData(id, VectorMath.toDoubleList(store.vector(slot)), store.metadata(slot));
+    }
+
+    @Override
+    public void deleteEmbedding(String id) {
+        lock.readLock().lock();
+        try {
+            int slot = store.remove(id);
+            if (slot < 0) {
+                return;
+            }
+            IvfIndex current = index;
+            if (current != null) {
+                current.remove(slot);
+            }
+            if (training.get()) {
+                journal.add(slot);
+            }
+            store.recycle(slot);
+        } finally {
+            lock.readLock().unlock();
+        }
+        logger.debug("Deleted embedding with ID: {}", id);
+    }
+
+    @Override
+    public void deleteAll() {
+        lock.writeLock().lock();
+        try {
+            generation.incrementAndGet();
+            store.clear();
+            index = null;
+            trainedSize = 0;
+            journal.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        logger.info("Deleted all embeddings");
+    }
+
+    @Override
+    public long count() {
+        return store.size();
+    }
+
+    @Override
+    public int dimension() {
+        return store.dimension();
+    }
+
+    /**
+     * Stop the background trainer; invoked by Spring on context shutdown
+     */
+    @Override
+    public void shutdown() {
+        trainer.shutdownNow();
+    }
+
+    /**
+     * Get statistics about the vector database
+     */
+    @Override
+    public Map<String, Object> getStatistics() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("backend", "ivf");
+        stats.put("totalEmbeddings", store.size());
+        stats.put("vectorBytes", store.vectorBytes());
+        stats.put("precision", store.precision().name().toLowerCase());
+        stats.put("bytesPerVector", store.bytesPerVector());
+        stats.put("nprobe", nprobe);
+        stats.put("trained", index != null);
+        stats.put("trainedSize", trainedSize);
+        stats.put("trainings", trainings.get());
+        stats.put("trainingInProgress", training.get());
+        stats.put("lastTrainingMs", lastTrainingMillis);
+        IvfIndex current = index;
+        if (current != null) {
+            stats.put("index", current.getStatistics());
+        }
+        stats.put("metadataIndex", store.metadataIndex().getStatistics());
+        stats.put("planner", planner.getStatistics());
+        return stats;
+    }
+
+    /**
+     * Probe for {@code candidates} unfiltered results and keep the top {@code limit} matching ones
+     */
+    private List<ScoredSlot> postFilter(IvfIndex current, float[] queryEmbedding, int limit, int candidates,
+                                        IntPredicate accept) {
+        List<ScoredSlot> matches = new ArrayList<>(limit);
+        for (ScoredSlot candidate : current.search(queryEmbedding, candidates, nprobe, slot -> true)) {
+            if (accept.test(candidate.slot())) {
+                matches.add(candidate);
+                if (matches.size() == limit) {
+                    break;
+                }
+            }
+        }
+        return matches;
+    }
+
+    private void maybeScheduleTraining() {
+        int size = store.size();
+        boolean due = index == null
+                ? size >= minTrainingSize
+                : size >= trainedSize * retrainGrowthFactor;
+        if (due && training.compareAndSet(false, true)) {
+            trainer.execute(this::train);
+        }
+    }
+
+    /**
+     * Train a fresh index on a snapshot, then replay journaled changes and swap it in
+     */
+    private void train() {
+        long start = System.currentTimeMillis();
+        long startGeneration = generation.get();
+        try {
+            int[] slots = liveSlots();
+            int dimension = store.dimension();
+            if (slots.length == 0 || dimension <= 0) {
+                return;
+            }
+
+            int sampleSize = Math.min(slots.length, trainingSampleSize);
+            float[] sample = sampleRows(slots, sampleSize, dimension);
+            int listCount = Math.max(1, Math.min(lists, sampleSize / MIN_POINTS_PER_LIST));
+            float[] centroids = KMeans.train(sample, sampleSize, dimension, listCount, KMEANS_ITERATIONS,
+                    start, trainingPool);
+
+            IvfIndex fresh = new IvfIndex(store, centroids, dimension);
+            trainingPool.submit(() -> Arrays.stream(slots).parallel().forEach(slot -> {
+                if (store.isLive(slot)) {
+                    fresh.add(slot);
+                }
+            })).join();
+
+            lock.writeLock().lock();
+            try {
+                if (generation.get() != startGeneration) {
+                    return;
+                }
+                Integer touched;
+                while ((touched = journal.poll()) != null) {
+                    fresh.remove(touched);
+                    if (store.isLive(touched)) {
+                        fresh.add(touched);
+                    }
+                }
+                index = fresh;
+                trainedSize = Math.max(slots.length, 1);
+            } finally {
+                lock.writeLock().unlock();
+            }
+
+            trainings.incrementAndGet();
+            lastTrainingMillis = System.currentTimeMillis() - start;
+            logger.info("Trained IVF index with {} lists over {} vectors in {}ms",
+                    listCount, slots.length, lastTrainingMillis);
+        } catch (Exception e) {
+            logger.error("IVF training failed", e);
+        } finally {
+            journal.clear();
+            training.set(false);
+        }
+        maybeScheduleTraining();
+    }
+
+    private int[] liveSlots() {
+        lock.readLock().lock();
+        try {
+            int slotLimit = store.slotLimit();
+            int[] slots = new int[store.size()];
+            int count = 0;
+            for (int slot = 0; slot < slotLimit && count < slots.length; slot++) {
+                if (store.isLive(slot)) {
+                    slots[count++] = slot;
+                }
+            }
+            return count == slots.length ? slots : Arrays.copyOf(slots, count);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Copy a random sample of normalized rows into one contiguous training matrix
+     */
+    private float[] sampleRows(int[] slots, int sampleSize, int dimension) {
+        Random random = new Random(slots.length);
+        int[] chosen = slots.clone();
+        for (int i = 0; i < sampleSize; i++) {
+            int j = i + random.nextInt(chosen.length - i);
+            int swap = chosen[i];
+            chosen[i] = chosen[j];
+            chosen[j] = swap;
+        }
+
+        float[] sample = new float[sampleSize * dimension];
+        for (int i = 0; i < sampleSize; i++) {
+            int slot = chosen[i];
+            store.copyInto(slot, sample, i * dimension);
+            float scale = store.inverseNorm(slot);
+            for (int d = i * dimension; d < (i + 1) * dimension; d++) {
+                sample[d] *= scale;
+            }
+        }
+        return sample;
+    }
+}
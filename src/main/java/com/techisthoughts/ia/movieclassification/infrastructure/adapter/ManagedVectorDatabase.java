@@ -0,0 +1,73 @@
+package com.techisthoughts.ia.movieclassification.infrastructure.adapter;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import com.techisthoughts.ia.movieclassification.domain.port.VectorDatabasePort;
+import com.techisthoughts.ia.movieclassification.infrastructure.vector.MaximalMarginalRelevance;
+import com.techisthoughts.ia.movieclassification.infrastructure.vector.VectorMath;
+
+/**
+ * Vector database backend with the lifecycle and introspection hooks that
+ * {@link CollectionVectorDatabase} needs to host it as one named collection
+ */
+public interface ManagedVectorDatabase extends VectorDatabasePort {
+
+    /**
+     * Dimension of the stored vectors, or -1 while nothing has been stored
+     */
+    int dimension();
+
+    Map<String, Object> getStatistics();
+
+    /**
+     * Release threads and files held by the backend
+     */
+    void shutdown();
+
+    /**
+     * A backend holds exactly one collection; named collections are handed out by the
+     * {@link CollectionVectorDatabase} that hosts it
+     */
+    @Override
+    default VectorDatabasePort collection(String name) {
+        throw new IllegalArgumentException(getClass().getSimpleName() + " holds a single collection, not " + name);
+    }
+
+    @Override
+    default Optional<VectorDatabasePort> findCollection(String name) {
+        return Optional.empty();
+    }
+
+    /**
+     * Maximal marginal relevance over the threshold candidates, reading their vectors back by id
+     */
+    @Override
+    default List<SimilarityResult> findDiverse(float[] queryEmbedding, double minSimilarity, int maxResults,
+                                               int candidates, double lambda) {
+        List<SimilarityResult> pool = findWithinThreshold(queryEmbedding, minSimilarity, Math.max(candidates, maxResults));
+        if (pool.size() <= 1) {
+            return pool;
+        }
+        List<SimilarityResult> present = new ArrayList<>(pool.size());
+        List<float[]> vectors = new ArrayList<>(pool.size());
+        for (SimilarityResult result : pool) {
+            EmbeddingData data = getEmbedding(result.id());
+            if (data != null) {
+                present.add(result);
+                vectors.add(VectorMath.toFloatArray(data.embedding()));
+            }
+        }
+        float[] relevance = new float[present.size()];
+        for (int i = 0; i < relevance.length; i++) {
+            relevance[i] = (float) present.get(i).similarity();
+        }
+        int[] picked = MaximalMarginalRelevance.select(relevance, vectors.toArray(new float[0][]), maxResults, lambda);
+        List<SimilarityResult> results = new ArrayList<>(picked.length);
+        for (int index : picked) {
+            results.add(present.get(index));
+        }
+        return results;
+    }
+}
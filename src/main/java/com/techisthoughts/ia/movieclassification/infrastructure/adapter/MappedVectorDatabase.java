@@ -0,0 +1,574 @@
+package com.techisthoughts.ia.movieclassification.infrastructure.adapter;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.IntPredicate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import com.techisthoughts.ia.movieclassification.infrastructure.vector.ExactScan;
+import com.techisthoughts.ia.movieclassification.infrastructure.vector.MappedSegment;
+import com.techisthoughts.ia.movieclassification.infrastructure.vector.MetadataFilter;
+import com.techisthoughts.ia.movieclassification.infrastructure.vector.ScoredHeap;
+import com.techisthoughts.ia.movieclassification.infrastructure.vector.ScoredSlot;
+import com.techisthoughts.ia.movieclassification.infrastructure.vector.VectorMath;
+import com.techisthoughts.ia.movieclassification.infrastructure.vector.VectorStore;
+
+/**
+ * Persistent implementation of VectorDatabasePort backed by memory-mapped segment files.
+ *
+ * Sealed segments are immutable files mapped read-only with {@link MappedSegment}, so a
+ * restart only maps them and reads their IDs instead of re-embedding the corpus. New writes
+ * go to an in-memory {@link VectorStore} that is sealed into a new segment when it reaches
+ * the segment size or when the periodic flusher runs. Overwrites and deletes of sealed rows
+ * are recorded as tombstones. After each flush, segments whose tombstoned fraction passes the
+ * compaction threshold are merged into one new segment holding only their live rows, and the
+ * old files are removed. Writes that have not been flushed yet are lost on a crash.
+ */
+public class MappedVectorDatabase implements ManagedVectorDatabase {
+
+    private static final Logger logger = LoggerFactory.getLogger(MappedVectorDatabase.class);
+
+    private final Path directory;
+    private final int segmentRows;
+    private final double compactionFraction;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Object flushMonitor = new Object();
+    private final AtomicBoolean flushQueued = new AtomicBoolean(false);
+    private final ScheduledExecutorService flusher;
+
+    private final List<MappedSegment> segments = new ArrayList<>();
+    private final Map<String, SegmentRow> sealedRows = new HashMap<>();
+    private VectorStore active = new VectorStore();
+    private VectorStore flushing;
+    private long nextSequence;
+    private int dimension = -1;
+    private long bootMillis;
+    private volatile long lastFlushMillis;
+
+    private record SegmentRow(MappedSegment segment, int row) {
+    }
+
+    public MappedVectorDatabase(Path directory, int segmentRows, long flushIntervalMillis) {
+        this(directory, segmentRows, flushIntervalMillis, 0.3);
+    }
+
+    /**
+     * @param compactionFraction fraction of tombstoned rows at which a sealed segment is rewritten
+     */
+    public MappedVectorDatabase(Path directory, int segmentRows, long flushIntervalMillis, double compactionFraction) {
+        this.directory = directory;
+        this.segmentRows = Math.max(1, segmentRows);
+        this.compactionFraction = compactionFraction;
+        load();
+        this.flusher = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "segment-flusher");
+            t.setDaemon(true);
+            return t;
+        });
+        if (flushIntervalMillis > 0) {
+            flusher.scheduleWithFixedDelay(this::flushQuietly, flushIntervalMillis, flushIntervalMillis,
+                    TimeUnit.MILLISECONDS);
+        }
+        logger.info("Initialized mapped vector database at {} ({} segments, {} vectors, {} ms)",
+                directory, segments.size(), sealedRows.size(), bootMillis);
+    }
+
+    @Override
+    public void storeEmbedding(String id, List<Double> embedding, Map<String, Object> metadata) {
+        storeEmbedding(id, VectorMath.toFloatArray(embedding), metadata);
+    }
+
+    @Override
+    public void storeEmbedding(String id, float[] embedding, Map<String, Object> metadata) {
+        lock.writeLock().lock();
+        try {
+            put(id, embedding, metadata);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        requestFlushIfFull();
+        logger.debug("Stored embedding with ID: {}", id);
+    }
+
+    @Override
+    public void storeEmbeddings(Map<String, EmbeddingData> embeddingBatch) {
+        lock.writeLock().lock();
+        try {
+            for (EmbeddingData data : embeddingBatch.values()) {
+                put(data.id(), VectorMath.toFloatArray(data.embedding()), data.metadata());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        requestFlushIfFull();
+        logger.info("Stored {} embeddings in batch", embeddingBatch.size());
+    }
+
+    @Override
+    public List<SimilarityResult> findSimilar(List<Double> queryEmbedding, int limit) {
+        return findSimilar(queryEmbedding, limit, Map.of());
+    }
+
+    @Override
+    public List<SimilarityResult> findSimilar(List<Double> queryEmbedding, int limit, Map<String, Object> filter) {
+        return findSimilar(VectorMath.toFloatArray(queryEmbedding), limit, filter);
+    }
+
+    @Override
+    public List<SimilarityResult> findSimilar(float[] queryEmbedding, int limit, Map<String, Object> filter) {
+        logger.debug("Finding similar embeddings, limit: {}, filter: {}", limit, filter);
+
+        List<SimilarityResult> results = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            if (limit <= 0 || dimension < 0) {
+                return results;
+            }
+            if (queryEmbedding.length != dimension) {
+                throw new IllegalArgumentException("Vectors must have the same dimension");
+            }
+
+            // Rows are tagged with an ordinal: sealed segments first, then the flushing and active stores
+            float[] unitQuery = VectorMath.normalize(queryEmbedding);
+            int rows = sealedRows.size() + active.size() + (flushing != null ? flushing.size() : 0);
+            ScoredHeap top = ScoredHeap.top(limit, rows);
+            int[] bases = new int[segments.size() + 1];
+            for (int i = 0; i < segments.size(); i++) {
+                segments.get(i).scan(unitQuery, limit, filter, top, bases[i]);
+                bases[i + 1] = bases[i] + segments.get(i).rows();
+            }
+            int flushingBase = bases[segments.size()];
+            int activeBase = flushingBase + (flushing != null ? flushing.slotLimit() : 0);
+            if (flushing != null) {
+                offer(top, search(flushing, queryEmbedding, limit, filter), flushingBase, limit);
+            }
+            offer(top, search(active, queryEmbedding, limit, filter), activeBase, limit);
+
+            // Drain the min-heap from the back so results come out most similar first
+            int[] ordinals = new int[top.size()];
+            float[] scores = new float[ordinals.length];
+            for (int i = ordinals.length - 1; i >= 0; i--) {
+                scores[i] = top.topScore();
+                ordinals[i] = top.pop();
+            }
+            for (int i = 0; i < ordinals.length; i++) {
+                int ordinal = ordinals[i];
+                float score = scores[i];
+                if (ordinal >= activeBase) {
+                    int slot = ordinal - activeBase;
+                    results.add(new SimilarityResult(active.id(slot), score, active.metadata(slot)));
+                } else if (ordinal >= flushingBase) {
+                    int slot = ordinal - flushingBase;
+                    results.add(new SimilarityResult(flushing.id(slot), score, flushing.metadata(slot)));
+                } else {
+                    int segment = segmentOf(bases, ordinal);
+                    int row = ordinal - bases[segment];
+                    MappedSegment sealed = segments.get(segment);
+                    results.add(new SimilarityResult(sealed.id(row), score, sealed.metadata(row)));
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        logger.debug("Found {} similar embeddings", results.size());
+        return results;
+    }
+
+    @Override
+    public EmbeddingData getEmbedding(String id) {
+        lock.readLock().lock();
+        try {
+            int slot = active.slotOf(id);
+            if (slot >= 0) {
+                return new EmbeddingData(id, VectorMath.toDoubleList(active.vector(slot)), active.metadata(slot));
+            }
+            slot = flushing != null ? flushing.slotOf(id) : -1;
+            if (slot >= 0) {
+                return new EmbeddingData(id, VectorMath.toDoubleList(flushing.vector(slot)), flushing.metadata(slot));
+            }
+            SegmentRow sealed = sealedRows.get(id);
+            if (sealed == null) {
+                return null;
+            }
+            return new EmbeddingData(id, VectorMath.toDoubleList(sealed.segment().vector(sealed.row())),
+                    sealed.segment().metadata(sealed.row()));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void deleteEmbedding(String id) {
+        lock.writeLock().lock();
+        try {
+            remove(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        logger.debug("Deleted embedding with ID: {}", id);
+    }
+
+    @Override
+    public void deleteAll() {
+        synchronized (flushMonitor) {
+            lock.writeLock().lock();
+            try {
+                for (MappedSegment segment : segments) {
+                    segment.deleteFiles();
+                }
+                segments.clear();
+                sealedRows.clear();
+                active = new VectorStore();
+                flushing = null;
+                dimension = -1;
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to delete vector segments in " + directory, e);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+        logger.info("Deleted all embeddings");
+    }
+
+    @Override
+    public long count() {
+        lock.readLock().lock();
+        try {
+            return sealedRows.size() + active.size() + (flushing != null ? flushing.size() : 0);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public int dimension() {
+        lock.readLock().lock();
+        try {
+            return dimension;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Seal the active store into a new segment and persist pending tombstones.
+     * Searches keep seeing the rows being written until the mapped segment replaces them.
+     */
+    public void flush() throws IOException {
+        synchronized (flushMonitor) {
+            VectorStore frozen;
+            long sequence;
+            boolean dirtyDeletes;
+            lock.writeLock().lock();
+            try {
+                dirtyDeletes = segments.stream().anyMatch(MappedSegment::hasUnpersistedDeletes);
+                if (active.size() == 0 && !dirtyDeletes) {
+                    return;
+                }
+                frozen = active;
+                flushing = frozen;
+                active = new VectorStore();
+                sequence = nextSequence++;
+            } finally {
+                lock.writeLock().unlock();
+            }
+
+            long start = System.currentTimeMillis();
+            int[] slots = liveSlots(frozen);
+            MappedSegment segment;
+            try {
+                segment = slots.length > 0 ? MappedSegment.write(directory, sequence, frozen, slots) : null;
+            } catch (IOException e) {
+                restore(frozen);
+                throw e;
+            }
+
+            lock.writeLock().lock();
+            try {
+                if (segment != null) {
+                    for (int row = 0; row < slots.length; row++) {
+                        // Rows overwritten or deleted while the segment was being written are tombstoned
+                        if (frozen.slotOf(segment.id(row)) != slots[row]) {
+                            segment.delete(row);
+                        } else {
+                            sealedRows.put(segment.id(row), new SegmentRow(segment, row));
+                        }
+                    }
+                    segments.add(segment);
+                }
+                flushing = null;
+                for (MappedSegment sealed : segments) {
+                    sealed.persistDeletes();
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+            lastFlushMillis = System.currentTimeMillis() - start;
+            logger.debug("Flushed {} vectors to segment {} in {} ms", slots.length, sequence, lastFlushMillis);
+            compact();
+        }
+    }
+
+    /**
+     * Merge the live rows of every segment past the compaction threshold into a new segment.
+     * Runs under the flush monitor; searches keep using the old segments until the swap, and
+     * rows deleted or overwritten meanwhile are tombstoned in the new segment.
+     */
+    private void compact() throws IOException {
+        List<MappedSegment> victims = new ArrayList<>();
+        VectorStore merged = new VectorStore();
+        long sequence;
+        lock.readLock().lock();
+        try {
+            for (MappedSegment segment : segments) {
+                int dead = segment.rows() - segment.liveRows();
+                if (dead > 0 && dead >= compactionFraction * segment.rows()) {
+                    victims.add(segment);
+                }
+            }
+            if (victims.isEmpty()) {
+                return;
+            }
+            for (MappedSegment segment : victims) {
+                for (int row = 0; row < segment.rows(); row++) {
+                    if (segment.isLive(row)) {
+                        merged.put(segment.id(row), segment.vector(row), segment.metadata(row));
+                    }
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        long start = System.currentTimeMillis();
+        lock.writeLock().lock();
+        try {
+            sequence = nextSequence++;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        int[] slots = liveSlots(merged);
+        MappedSegment compacted = slots.length > 0 ? MappedSegment.write(directory, sequence, merged, slots) : null;
+
+        lock.writeLock().lock();
+        try {
+            if (compacted != null) {
+                for (int row = 0; row < compacted.rows(); row++) {
+                    SegmentRow current = sealedRows.get(compacted.id(row));
+                    if (current != null && victims.contains(current.segment())) {
+                        sealedRows.put(compacted.id(row), new SegmentRow(compacted, row));
+                    } else {
+                        compacted.delete(row);
+                    }
+                }
+                compacted.persistDeletes();
+                segments.add(compacted);
+            }
+            segments.removeAll(victims);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        for (MappedSegment victim : victims) {
+            victim.deleteFiles();
+        }
+        logger.info("Compacted {} segments into {} live vectors in {} ms", victims.size(), slots.length,
+                System.currentTimeMillis() - start);
+    }
+
+    /**
+     * Flush outstanding writes and stop the background flusher
+     */
+    @Override
+    public void shutdown() {
+        flusher.shutdownNow();
+        flushQuietly();
+    }
+
+    /**
+     * Get statistics about the vector database
+     */
+    @Override
+    public Map<String, Object> getStatistics() {
+        Map<String, Object> stats = new HashMap<>();
+        lock.readLock().lock();
+        try {
+            long mappedBytes = 0;
+            int tombstones = 0;
+            for (MappedSegment segment : segments) {
+                mappedBytes += segment.mappedBytes();
+                tombstones += segment.rows() - segment.liveRows();
+            }
+            int pending = active.size() + (flushing != null ? flushing.size() : 0);
+            stats.put("backend", "mapped");
+            stats.put("directory", directory.toString());
+            stats.put("totalEmbeddings", sealedRows.size() + pending);
+            stats.put("segments", segments.size());
+            stats.put("sealedVectors", sealedRows.size());
+            stats.put("unflushedVectors", pending);
+            stats.put("tombstones", tombstones);
+            stats.put("mappedBytes", mappedBytes);
+            stats.put("bytesPerVector", Math.max(dimension, 0) * Float.BYTES);
+            stats.put("bootMs", bootMillis);
+            stats.put("lastFlushMs", lastFlushMillis);
+        } finally {
+            lock.readLock().unlock();
+        }
+        return stats;
+    }
+
+    private void put(String id, float[] embedding, Map<String, Object> metadata) {
+        if (dimension < 0) {
+            dimension = embedding.length;
+        } else if (embedding.length != dimension) {
+            throw new IllegalArgumentException("Vectors must have the same dimension");
+        }
+        removeSealed(id);
+        active.put(id, embedding, metadata);
+    }
+
+    private void remove(String id) {
+        int slot = active.remove(id);
+        if (slot >= 0) {
+            active.recycle(slot);
+        }
+        removeSealed(id);
+    }
+
+    /**
+     * Drop older copies of an ID from the flushing store and the sealed segments
+     */
+    private void removeSealed(String id) {
+        if (flushing != null) {
+            flushing.remove(id);
+        }
+        SegmentRow sealed = sealedRows.remove(id);
+        if (sealed != null) {
+            sealed.segment().delete(sealed.row());
+        }
+    }
+
+    private void requestFlushIfFull() {
+        if (active.size() >= segmentRows && flushQueued.compareAndSet(false, true)) {
+            flusher.execute(() -> {
+                flushQueued.set(false);
+                flushQuietly();
+            });
+        }
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (IOException | RuntimeException e) {
+            logger.error("Failed to flush vector segment to {}", directory, e);
+        }
+    }
+
+    /**
+     * Return rows of a store whose segment could not be written to the active store,
+     * unless they were overwritten or deleted in the meantime
+     */
+    private void restore(VectorStore frozen) {
+        lock.writeLock().lock();
+        try {
+            int slotLimit = frozen.slotLimit();
+            for (int slot = 0; slot < slotLimit; slot++) {
+                if (frozen.isLive(slot) && active.slotOf(frozen.id(slot)) < 0) {
+                    active.put(frozen.id(slot), frozen.vector(slot), frozen.metadata(slot));
+                }
+            }
+            flushing = null;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Map every sealed segment, oldest first; a later copy of an ID tombstones earlier ones
+     */
+    private void load() {
+        long start = System.currentTimeMillis();
+        try {
+            Files.createDirectories(directory);
+            List<Path> files = new ArrayList<>();
+            try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, "segment-*")) {
+                for (Path file : stream) {
+                    String name = file.getFileName().toString();
+                    if (name.endsWith(".tmp")) {
+                        Files.deleteIfExists(file);
+                    } else if (name.endsWith(MappedSegment.VECTOR_SUFFIX)) {
+                        files.add(file);
+                    }
+                }
+            }
+            files.sort(Comparator.comparingLong(MappedSegment::sequenceOf));
+
+            for (Path file : files) {
+                MappedSegment segment = MappedSegment.open(file);
+                if (dimension < 0) {
+                    dimension = segment.dimension();
+                } else if (segment.dimension() != dimension) {
+                    throw new IllegalStateException("Segment " + file + " has dimension " + segment.dimension()
+                            + ", expected " + dimension);
+                }
+                for (int row = 0; row < segment.rows(); row++) {
+                    if (segment.isLive(row)) {
+                        SegmentRow previous = sealedRows.put(segment.id(row), new SegmentRow(segment, row));
+                        if (previous != null) {
+                            previous.segment().delete(previous.row());
+                        }
+                    }
+                }
+                segments.add(segment);
+                nextSequence = segment.sequence() + 1;
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to load vector segments from " + directory, e);
+        }
+        bootMillis = System.currentTimeMillis() - start;
+    }
+
+    private static List<ScoredSlot> search(VectorStore store, float[] query, int limit, Map<String, Object> filter) {
+        IntPredicate accept = slot -> MetadataFilter.matches(store.metadata(slot), filter);
+        return ExactScan.search(store, query, limit, accept, store.select(filter));
+    }
+
+    private static void offer(ScoredHeap top, List<ScoredSlot> matches, int base, int limit) {
+        for (ScoredSlot match : matches) {
+            top.offer((float) match.similarity(), base + match.slot(), limit);
+        }
+    }
+
+    private static int segmentOf(int[] bases, int ordinal) {
+        int index = Arrays.binarySearch(bases, ordinal);
+        return index >= 0 ? index : -index - 2;
+    }
+
+    private static int[] liveSlots(VectorStore store) {
+        int[] slots = new int[store.size()];
+        int count = 0;
+        int slotLimit = store.slotLimit();
+        for (int slot = 0; slot < slotLimit && count < slots.length; slot++) {
+            if (store.isLive(slot)) {
+                slots[count++] = slot;
+            }
+        }
+        return count == slots.length ? slots : Arrays.copyOf(slots, count);
+    }
+}
@@ -0,0 +1,504 @@
+package com.techisthoughts.ia.movieclassification.infrastructure.adapter;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import com.techisthoughts.ia.movieclassification.infrastructure.vector.MetadataFilter;
+import com.techisthoughts.ia.movieclassification.infrastructure.vector.ProductQuantizer;
+import com.techisthoughts.ia.movieclassification.infrastructure.vector.ScoredHeap;
+import com.techisthoughts.ia.movieclassification.infrastructure.vector.SlotRegistry;
+import com.techisthoughts.ia.movieclassification.infrastructure.vector.TrainingPool;
+import com.techisthoughts.ia.movieclassification.infrastructure.vector.VectorMath;
+
+/**
+ * Product-quantized implementation of VectorDatabasePort for collections that would not
+ * fit in memory as floats.
+ *
+ * Vectors are normalized on insert and buffered at full precision until the collection
+ * reaches the training size. Codebooks are then trained on a background thread, every
+ * buffered vector is encoded to {@code m} bytes and the float buffer is released; from
+ * then on only codes and norms are kept, and queries are scored with ADC lookup tables.
+ * Writes that land during training are journaled and re-encoded before the swap.
+ * {@link #getEmbedding(String)} returns the codebook reconstruction once trained.
+ */
+public class PqVectorDatabase implements ManagedVectorDatabase {
+
+    private static final Logger logger = LoggerFactory.getLogger(PqVectorDatabase.class);
+    private static final int SEGMENT_CAPACITY = 1024;
+    private static final int KMEANS_ITERATIONS = 10;
+    private static final int RECALL_QUERIES = 64;
+    private static final int RECALL_K = 10;
+
+    private final SlotRegistry registry = new SlotRegistry();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final int subvectors;
+    private final int trainingSize;
+    private final int trainingSampleSize;
+
+    private final ForkJoinPool trainingPool;
+    private final ExecutorService trainer;
+    private final AtomicBoolean training = new AtomicBoolean(false);
+    private final Queue<Integer> journal = new ConcurrentLinkedQueue<>();
+    private final AtomicLong generation = new AtomicLong();
+
+    private volatile int dimension = -1;
+    private volatile float[] norms = new float[0];
+    private volatile float[][] raw = new float[0][];
+    private volatile ProductQuantizer quantizer;
+    private volatile byte[][] codes = new byte[0][];
+    private volatile double trainingRecall = Double.NaN;
+    private volatile long lastTrainingMillis;
+
+    public PqVectorDatabase(int subvectors, int trainingSize, int trainingSampleSize) {
+        this.subvectors = subvectors;
+        this.trainingSize = Math.max(ProductQuantizer.CENTROIDS, trainingSize);
+        this.trainingSampleSize = trainingSampleSize;
+        this.trainingPool = TrainingPool.shared();
+        this.trainer = Executors.newSingleThreadExecutor(r -> {
+            Thread t = new Thread(r, "pq-trainer");
+            t.setDaemon(true);
+            return t;
+        });
+        logger.info("Initialized PQ vector database (subvectors={}, trainingSize={})", subvectors, this.trainingSize);
+    }
+
+    @Override
+    public void storeEmbedding(String id, List<Double> embedding, Map<String, Object> metadata) {
+        storeEmbedding(id, VectorMath.toFloatArray(embedding), metadata);
+    }
+
+    @Override
+    public void storeEmbedding(String id, float[] embedding, Map<String, Object> metadata) {
+        float norm = (float) VectorMath.norm(embedding);
+        float[] unit = normalize(embedding, norm);
+
+        // Encode outside the lock; the quantizer only ever goes from null to trained
+        ProductQuantizer current = quantizer;
+        byte[] code = null;
+        if (current != null && embedding.length == current.dimension()) {
+            code = new byte[subvectors];
+            current.encode(unit, 0, code, 0);
+        }
+
+        lock.writeLock().lock();
+        try {
+            write(id, unit, norm, code, metadata);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        logger.debug("Stored embedding with ID: {}", id);
+        maybeScheduleTraining();
+    }
+
+    @Override
+    public void storeEmbeddings(Map<String, EmbeddingData> embeddingBatch) {
+        for (EmbeddingData data : embeddingBatch.values()) {
+            storeEmbedding(data.id(), VectorMath.toFloatArray(data.embedding()), data.metadata());
+        }
+        logger.info("Stored {} embeddings in batch", embeddingBatch.size());
+    }
+
+    @Override
+    public List<SimilarityResult> findSimilar(List<Double> queryEmbedding, int limit) {
+        return findSimilar(queryEmbedding, limit, Map.of());
+    }
+
+    @Override
+    public List<SimilarityResult> findSimilar(List<Double> queryEmbedding, int limit, Map<String, Object> filter) {
+        return findSimilar(VectorMath.toFloatArray(queryEmbedding), limit, filter);
+    }
+
+    @Override
+    public List<SimilarityResult> findSimilar(float[] queryEmbedding, int limit, Map<String, Object> filter) {
+        logger.debug("Finding similar embeddings, limit: {}, filter: {}", limit, filter);
+
+        List<SimilarityResult> results = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            if (dimension < 0 || limit <= 0) {
+                return results;
+            }
+            if (queryEmbedding.length != dimension) {
+                throw new IllegalArgumentException("Vectors must have the same dimension");
+            }
+            float queryNorm = (float) VectorMath.norm(queryEmbedding);
+            if (queryNorm == 0f) {
+                return results;
+            }
+            float[] query = normalize(queryEmbedding, queryNorm);
+
+            ProductQuantizer current = quantizer;
+            float[] table = current != null ? current.innerProductTable(query) : null;
+
+            BitSet candidates = registry.select(filter);
+            int slotLimit = registry.slotLimit();
+            ScoredHeap top = ScoredHeap.top(limit, slotLimit);
+            for (int slot = next(candidates, 0); slot >= 0 && slot < slotLimit; slot = next(candidates, slot + 1)) {
+                if (!registry.isLive(slot) || norms[slot] == 0f) {
+                    continue;
+                }
+                Map<String, Object> metadata = registry.metadata(slot);
+                if (metadata == null || !MetadataFilter.matches(metadata, filter)) {
+                    continue;
+                }
+                float score = table != null
+                        ? ProductQuantizer.score(table, codes[slot / SEGMENT_CAPACITY],
+                                (slot % SEGMENT_CAPACITY) * subvectors, subvectors)
+                        : VectorMath.dot(query, raw[slot], 0, dimension);
+                top.offer(score, slot, limit);
+            }
+
+            SimilarityResult[] ordered = new SimilarityResult[top.size()];
+            for (int i = ordered.length - 1; i >= 0; i--) {
+                float score = top.topScore();
+                int slot = top.pop();
+                ordered[i] = new SimilarityResult(registry.id(slot), score, registry.metadata(slot));
+            }
+            results.addAll(Arrays.asList(ordered));
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        logger.debug("Found {} similar embeddings", results.size());
+        return results;
+    }
+
+    @Override
+    public EmbeddingData getEmbedding(String id) {
+        lock.readLock().lock();
+        try {
+            int slot = registry.slotOf(id);
+            if (slot < 0) {
+                return null;
+            }
+            ProductQuantizer current = quantizer;
+            float[] vector = current != null
+                    ? current.decode(codes[slot / SEGMENT_CAPACITY], (slot % SEGMENT_CAPACITY) * subvectors)
+                    : raw[slot].clone();
+            float norm = norms[slot];
+            for (int i = 0; i < vector.length; i++) {
+                vector[i] *= norm;
+            }
+            return new EmbeddingData(id, VectorMath.toDoubleList(vector), registry.metadata(slot));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void deleteEmbedding(String id) {
+        lock.writeLock().lock();
+        try {
+            int slot = registry.unbind(id);
+            if (slot < 0) {
+                return;
+            }
+            if (quantizer == null) {
+                raw[slot] = null;
+            }
+            if (training.get()) {
+                journal.add(slot);
+            }
+            registry.recycle(slot);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        logger.debug("Deleted embedding with ID: {}", id);
+    }
+
+    @Override
+    public void deleteAll() {
+        lock.writeLock().lock();
+        try {
+            generation.incrementAndGet();
+            registry.clear();
+            dimension = -1;
+            norms = new float[0];
+            raw = new float[0][];
+            quantizer = null;
+            codes = new byte[0][];
+            trainingRecall = Double.NaN;
+            journal.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        logger.info("Deleted all embeddings");
+    }
+
+    @Override
+    public long count() {
+        return registry.size();
+    }
+
+    @Override
+    public int dimension() {
+        return dimension;
+    }
+
+    /**
+     * Stop the background trainer; invoked by Spring on context shutdown
+     */
+    @Override
+    public void shutdown() {
+        trainer.shutdownNow();
+    }
+
+    /**
+     * Get statistics about the vector database
+     */
+    @Override
+    public Map<String, Object> getStatistics() {
+        ProductQuantizer current = quantizer;
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("backend", "pq");
+        stats.put("totalEmbeddings", registry.size());
+        stats.put("subvectors", subvectors);
+        stats.put("trained", current != null);
+        stats.put("trainingInProgress", training.get());
+        stats.put("lastTrainingMs", lastTrainingMillis);
+        stats.put("metadataIndex", registry.metadataIndex().getStatistics());
+        if (current != null) {
+            long codeBytes = 0;
+            for (byte[] segment : codes) {
+                codeBytes += segment.length;
+            }
+            stats.put("codeBytes", codeBytes);
+            stats.put("codebookBytes", current.codebookBytes());
+            stats.put("bytesPerVector", subvectors + Float.BYTES);
+            stats.put("compressionRatio", (double) current.dimension() * Float.BYTES / subvectors);
+            stats.put("trainingRecall", trainingRecall);
+        } else if (dimension > 0) {
+            stats.put("bytesPerVector", (dimension + 1) * Float.BYTES);
+        }
+        return stats;
+    }
+
+    private void write(String id, float[] unit, float norm, byte[] code, Map<String, Object> metadata) {
+        if (dimension < 0) {
+            if (unit.length < subvectors) {
+                throw new IllegalArgumentException("Vector dimension must be at least the PQ subvector count");
+            }
+            dimension = unit.length;
+        } else if (unit.length != dimension) {
+            throw new IllegalArgumentException("Vectors must have the same dimension");
+        }
+
+        int existing = registry.slotOf(id);
+        int slot = existing >= 0 ? existing : registry.allocate();
+        if (slot >= norms.length) {
+            int length = Math.max(slot + 1, Math.max(16, norms.length * 2));
+            norms = Arrays.copyOf(norms, length);
+            if (quantizer == null) {
+                raw = Arrays.copyOf(raw, length);
+            }
+        }
+        norms[slot] = norm;
+
+        ProductQuantizer current = quantizer;
+        if (current == null) {
+            raw[slot] = unit;
+            if (training.get()) {
+                journal.add(slot);
+            }
+        } else {
+            if (code == null) {
+                code = new byte[subvectors];
+                current.encode(unit, 0, code, 0);
+            }
+            ensureCodeSegments(slot + 1);
+            System.arraycopy(code, 0, codes[slot / SEGMENT_CAPACITY], (slot % SEGMENT_CAPACITY) * subvectors,
+                    subvectors);
+        }
+        registry.bind(slot, id, metadata);
+    }
+
+    private void ensureCodeSegments(int slots) {
+        int required = (slots + SEGMENT_CAPACITY - 1) / SEGMENT_CAPACITY;
+        if (required > codes.length) {
+            byte[][] grown = Arrays.copyOf(codes, required);
+            for (int i = codes.length; i < required; i++) {
+                grown[i] = new byte[SEGMENT_CAPACITY * subvectors];
+            }
+            codes = grown;
+        }
+    }
+
+    private void maybeScheduleTraining() {
+        if (quantizer == null && registry.size() >= trainingSize && training.compareAndSet(false, true)) {
+            trainer.execute(this::train);
+        }
+    }
+
+    /**
+     * Train codebooks on a snapshot of the buffer, encode it off-lock, then replay
+     * journaled writes, publish the codes and release the float buffer
+     */
+    private void train() {
+        long start = System.currentTimeMillis();
+        long startGeneration = generation.get();
+        try {
+            int[] slots;
+            float[][] rows;
+            int dim;
+            lock.readLock().lock();
+            try {
+                dim = dimension;
+                int slotLimit = registry.slotLimit();
+                slots = new int[registry.size()];
+                int count = 0;
+                for (int slot = 0; slot < slotLimit && count < slots.length; slot++) {
+                    if (registry.isLive(slot)) {
+                        slots[count++] = slot;
+                    }
+                }
+                slots = Arrays.copyOf(slots, count);
+                rows = new float[slots.length][];
+                for (int i = 0; i < slots.length; i++) {
+                    rows[i] = raw[slots[i]];
+                }
+            } finally {
+                lock.readLock().unlock();
+            }
+            if (slots.length == 0 || dim <= 0) {
+                return;
+            }
+
+            int sampleSize = Math.min(slots.length, trainingSampleSize);
+            int[] order = shuffle(slots.length, new Random(start));
+            float[] sample = new float[sampleSize * dim];
+            for (int i = 0; i < sampleSize; i++) {
+                System.arraycopy(rows[order[i]], 0, sample, i * dim, dim);
+            }
+            ProductQuantizer trained = ProductQuantizer.train(sample, sampleSize, dim, subvectors,
+                    KMEANS_ITERATIONS, start, trainingPool);
+
+            byte[] encoded = new byte[slots.length * subvectors];
+            trainingPool.submit(() -> Arrays.stream(order).parallel()
+                    .forEach(i -> trained.encode(rows[i], 0, encoded, i * subvectors))).join();
+            double recall = measureRecall(trained, rows, encoded, order);
+
+            lock.writeLock().lock();
+            try {
+                if (generation.get() != startGeneration) {
+                    return;
+                }
+                codes = new byte[0][];
+                ensureCodeSegments(registry.slotLimit());
+                for (int i = 0; i < slots.length; i++) {
+                    int slot = slots[i];
+                    System.arraycopy(encoded, i * subvectors, codes[slot / SEGMENT_CAPACITY],
+                            (slot % SEGMENT_CAPACITY) * subvectors, subvectors);
+                }
+                Integer touched;
+                while ((touched = journal.poll()) != null) {
+                    if (registry.isLive(touched)) {
+                        trained.encode(raw[touched], 0, codes[touched / SEGMENT_CAPACITY],
+                                (touched % SEGMENT_CAPACITY) * subvectors);
+                    }
+                }
+                quantizer = trained;
+                raw = new float[0][];
+                trainingRecall = recall;
+            } finally {
+                lock.writeLock().unlock();
+            }
+
+            lastTrainingMillis = System.currentTimeMillis() - start;
+            logger.info("Trained PQ codebooks ({} subvectors) over {} vectors in {}ms, recall@{}={}",
+                    subvectors, slots.length, lastTrainingMillis, RECALL_K, recall);
+        } catch (Exception e) {
+            logger.error("PQ training failed", e);
+        } finally {
+            journal.clear();
+            training.set(false);
+        }
+    }
+
+    /**
+     * Recall@k of ADC against exact search over the training buffer, for a sample of
+     * buffered vectors used as queries (each query excluded from its own results)
+     */
+    private double measureRecall(ProductQuantizer trained, float[][] rows, byte[] encoded, int[] order) {
+        int queries = Math.min(RECALL_QUERIES, rows.length - 1);
+        if (queries <= 0) {
+            return 1.0;
+        }
+        int k = Math.min(RECALL_K, rows.length - 1);
+        double total = trainingPool.submit(() -> Arrays.stream(order, 0, queries).parallel().mapToDouble(q -> {
+            float[] query = rows[q];
+            float[] table = trained.innerProductTable(query);
+            ScoredHeap exactTop = ScoredHeap.min(k + 1);
+            ScoredHeap approxTop = ScoredHeap.min(k + 1);
+            for (int row = 0; row < rows.length; row++) {
+                if (row == q) {
+                    continue;
+                }
+                float exact = VectorMath.dot(query, rows[row], 0, query.length);
+                float approx = ProductQuantizer.score(table, encoded, row * subvectors, subvectors);
+                exactTop.offer(exact, row, k);
+                approxTop.offer(approx, row, k);
+            }
+            Set<Integer> expected = new HashSet<>();
+            while (!exactTop.isEmpty()) {
+                expected.add(exactTop.pop());
+            }
+            int hits = 0;
+            while (!approxTop.isEmpty()) {
+                if (expected.contains(approxTop.pop())) {
+                    hits++;
+                }
+            }
+            return (double) hits / k;
+        }).sum()).join();
+        return total / queries;
+    }
+
+    /**
+     * Next slot to visit: the next candidate bit, or simply the next slot when unfiltered
+     */
+    private static int next(BitSet candidates, int from) {
+        return candidates != null ? candidates.nextSetBit(from) : from;
+    }
+
+    private static float[] normalize(float[] vector, float norm) {
+        float[] unit = new float[vector.length];
+        if (norm > 0f) {
+            float scale = 1f / norm;
+            for (int i = 0; i < vector.length; i++) {
+                unit[i] = vector[i] * scale;
+            }
+        }
+        return unit;
+    }
+
+    private static int[] shuffle(int length, Random random) {
+        int[] order = new int[length];
+        for (int i = 0; i < length; i++) {
+            order[i] = i;
+        }
+        for (int i = length - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int swap = order[i];
+            order[i] = order[j];
+            order[j] = swap;
+        }
+        return order;
+    }
+}
@@ -0,0 +1,441 @@
+package com.techisthoughts.ia.movieclassification.infrastructure.adapter;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import com.techisthoughts.ia.movieclassification.infrastructure.vector.FullVectorFile;
+import com.techisthoughts.ia.movieclassification.infrastructure.vector.PcaProjection;
+import com.techisthoughts.ia.movieclassification.infrastructure.vector.Projection;
+import com.techisthoughts.ia.movieclassification.infrastructure.vector.RecallTracker;
+import com.techisthoughts.ia.movieclassification.infrastructure.vector.ScoredHeap;
+import com.techisthoughts.ia.movieclassification.infrastructure.vector.VectorMath;
+
+/**
+ * Dimension-reducing decorator around another backend.
+ *
+ * Every embedding is written at full width to a {@link FullVectorFile} on disk, and the wrapped
+ * backend stores and searches only its projection. Searches ask the wrapped backend for
+ * {@code limit * rerankFactor} candidates in the reduced space and re-rank them against the
+ * full vectors read back from disk, so returned similarities are exact cosines.
+ *
+ * With truncation the projection is fixed from the start. With PCA the collection is stored at
+ * full width until {@code fitSampleSize} embeddings have arrived; the components are then fitted
+ * on a sample in the background and the wrapped backend is rebuilt from the full vectors, during
+ * which reads and writes wait.
+ *
+ * Every few unfiltered queries are also answered by an exact scan of the full vectors, on a
+ * background thread after the query has returned, to measure the recall and latency cost of the
+ * reduced search.
+ */
+public class ProjectedVectorDatabase implements ManagedVectorDatabase {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProjectedVectorDatabase.class);
+    private static final int RECALL_SAMPLE_EVERY = 32;
+    private static final long FIT_SEED = 42L;
+
+    private static final Comparator<SimilarityResult> MOST_SIMILAR_FIRST =
+            Comparator.comparingDouble(SimilarityResult::similarity).reversed();
+
+    private final ManagedVectorDatabase reduced;
+    private final FullVectorFile fullVectors;
+    private final String mode;
+    private final int targetDimension;
+    private final int fitSampleSize;
+    private final int rerankFactor;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final ExecutorService fitter;
+    private final AtomicBoolean fitScheduled = new AtomicBoolean(false);
+    private final ExecutorService recallSampler;
+    private final AtomicBoolean recallSampleQueued = new AtomicBoolean(false);
+    private final RecallTracker recallTracker = new RecallTracker(RECALL_SAMPLE_EVERY);
+    private final LongAdder reducedSearches = new LongAdder();
+    private final LongAdder reducedSearchNanos = new LongAdder();
+    private final LongAdder exactSearches = new LongAdder();
+    private final LongAdder exactSearchNanos = new LongAdder();
+
+    private volatile Projection projection;
+    private volatile long lastFitMillis;
+
+    /**
+     * @param reduced        backend holding the projected vectors; must not persist them itself
+     * @param fullVectorFile scratch file for the full-width vectors
+     * @param mode           {@code truncate} or {@code pca}
+     */
+    public ProjectedVectorDatabase(ManagedVectorDatabase reduced, Path fullVectorFile, String mode,
+                                   int targetDimension, int fitSampleSize, int rerankFactor) {
+        this.reduced = reduced;
+        this.mode = mode.toLowerCase();
+        this.targetDimension = targetDimension;
+        this.fitSampleSize = Math.max(targetDimension, fitSampleSize);
+        this.rerankFactor = Math.max(1, rerankFactor);
+        this.projection = switch (this.mode) {
+            case "truncate" -> Projection.truncate(targetDimension);
+            case "pca" -> Projection.identity();
+            default -> throw new IllegalArgumentException("Unknown projection mode: " + mode);
+        };
+        try {
+            this.fullVectors = new FullVectorFile(fullVectorFile);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot open full vector file " + fullVectorFile, e);
+        }
+        this.fitter = Executors.newSingleThreadExecutor(r -> {
+            Thread t = new Thread(r, "projection-fitter");
+            t.setDaemon(true);
+            return t;
+        });
+        this.recallSampler = Executors.newSingleThreadExecutor(r -> {
+            Thread t = new Thread(r, "projection-recall-sampler");
+            t.setDaemon(true);
+            return t;
+        });
+        logger.info("Initialized projected vector database (mode={}, dimensions={}, fitSampleSize={}, rerankFactor={})",
+                this.mode, targetDimension, this.fitSampleSize, this.rerankFactor);
+    }
+
+    @Override
+    public void storeEmbedding(String id, List<Double> embedding, Map<String, Object> metadata) {
+        storeEmbedding(id, VectorMath.toFloatArray(embedding), metadata);
+    }
+
+    @Override
+    public void storeEmbedding(String id, float[] embedding, Map<String, Object> metadata) {
+        lock.readLock().lock();
+        try {
+            fullVectors.write(id, embedding);
+            reduced.storeEmbedding(id, projection.apply(embedding), metadata);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to store full vector of " + id, e);
+        } finally {
+            lock.readLock().unlock();
+        }
+        maybeScheduleFit();
+    }
+
+    @Override
+    public void storeEmbeddings(Map<String, EmbeddingData> embeddingBatch) {
+        for (EmbeddingData data : embeddingBatch.values()) {
+            storeEmbedding(data.id(), VectorMath.toFloatArray(data.embedding()), data.metadata());
+        }
+        logger.info("Stored {} embeddings in batch", embeddingBatch.size());
+    }
+
+    @Override
+    public List<SimilarityResult> findSimilar(List<Double> queryEmbedding, int limit) {
+        return findSimilar(queryEmbedding, limit, Map.of());
+    }
+
+    @Override
+    public List<SimilarityResult> findSimilar(List<Double> queryEmbedding, int limit, Map<String, Object> filter) {
+        return findSimilar(VectorMath.toFloatArray(queryEmbedding), limit, filter);
+    }
+
+    @Override
+    public List<SimilarityResult> findSimilar(float[] queryEmbedding, int limit, Map<String, Object> filter) {
+        List<SimilarityResult> results;
+        lock.readLock().lock();
+        try {
+            Projection current = projection;
+            if (current.isIdentity()) {
+                return reduced.findSimilar(queryEmbedding, limit, filter);
+            }
+            long start = System.nanoTime();
+            List<SimilarityResult> candidates =
+                reduced.findSimilar(current.apply(queryEmbedding), candidateCount(limit), filter);
+            results = rerank(queryEmbedding, candidates, limit, Double.NEGATIVE_INFINITY);
+            reducedSearchNanos.add(System.nanoTime() - start);
+            reducedSearches.increment();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read full vectors for re-ranking", e);
+        } finally {
+            lock.readLock().unlock();
+        }
+        if (filter.isEmpty() && recallTracker.shouldSample()) {
+            sampleRecall(queryEmbedding, results, limit);
+        }
+        return results;
+    }
+
+    @Override
+    public List<SimilarityResult> findWithinThreshold(float[] queryEmbedding, double minSimilarity, int maxResults) {
+        lock.readLock().lock();
+        try {
+            Projection current = projection;
+            if (current.isIdentity()) {
+                return reduced.findWithinThreshold(queryEmbedding, minSimilarity, maxResults);
+            }
+            // Reduced-space similarities are not comparable with the threshold, so filter after re-ranking
+            List<SimilarityResult> candidates =
+                reduced.findSimilar(current.apply(queryEmbedding), candidateCount(maxResults), Map.of());
+            return rerank(queryEmbedding, candidates, maxResults, minSimilarity);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read full vectors for re-ranking", e);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public EmbeddingData getEmbedding(String id) {
+        lock.readLock().lock();
+        try {
+            EmbeddingData data = reduced.getEmbedding(id);
+            if (data == null) {
+                return null;
+            }
+            float[] full = fullVectors.read(id);
+            return full != null ? new EmbeddingData(id, VectorMath.toDoubleList(full), data.metadata()) : data;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read full vector of " + id, e);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void deleteEmbedding(String id) {
+        lock.readLock().lock();
+        try {
+            reduced.deleteEmbedding(id);
+            fullVectors.delete(id);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void deleteAll() {
+        lock.writeLock().lock();
+        try {
+            reduced.deleteAll();
+            fullVectors.clear();
+            if ("pca".equals(mode)) {
+                // Refit on whatever is stored next, which may have a different dimension
+                projection = Projection.identity();
+                fitScheduled.set(false);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to clear full vector file", e);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public long count() {
+        return reduced.count();
+    }
+
+    @Override
+    public int dimension() {
+        return fullVectors.dimension();
+    }
+
+    @Override
+    public void shutdown() {
+        fitter.shutdownNow();
+        recallSampler.shutdownNow();
+        reduced.shutdown();
+        try {
+            fullVectors.close();
+        } catch (IOException e) {
+            logger.warn("Failed to close full vector file: {}", e.getMessage());
+        }
+    }
+
+    @Override
+    public Map<String, Object> getStatistics() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        Projection current = projection;
+        int fullDimension = Math.max(fullVectors.dimension(), 0);
+        int reducedDimension = current.outputDimension(fullDimension);
+        long count = count();
+
+        stats.put("projection", mode);
+        stats.put("projectionActive", !current.isIdentity());
+        stats.put("fullDimension", fullDimension);
+        stats.put("reducedDimension", reducedDimension);
+        stats.put("fullBytesPerVector", fullDimension * Float.BYTES);
+        stats.put("reducedBytesPerVector", reducedDimension * Float.BYTES);
+        stats.put("heapBytesSaved", count * (fullDimension - reducedDimension) * Float.BYTES);
+        stats.put("fullVectorFileBytes", fullVectors.sizeBytes());
+        if (current instanceof PcaProjection pca) {
+            stats.put("explainedVariance", pca.explainedVariance());
+            stats.put("fitMillis", lastFitMillis);
+        }
+        stats.put("rerankFactor", rerankFactor);
+        stats.putAll(recallTracker.getStatistics());
+
+        double reducedMicros = averageMicros(reducedSearchNanos, reducedSearches);
+        double exactMicros = averageMicros(exactSearchNanos, exactSearches);
+        stats.put("averageReducedSearchMicros", reducedMicros);
+        stats.put("averageExactSearchMicros", exactMicros);
+        stats.put("searchSpeedup", reducedMicros > 0 && exactMicros > 0 ? exactMicros / reducedMicros : 0.0);
+        stats.put("reducedStore", reduced.getStatistics());
+        return stats;
+    }
+
+    private int candidateCount(int limit) {
+        return (int) Math.min((long) Math.max(limit, 0) * rerankFactor, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Exact cosine of each candidate against its full vector, best {@code limit} at or above the threshold
+     */
+    private List<SimilarityResult> rerank(float[] query, List<SimilarityResult> candidates, int limit,
+                                          double minSimilarity) throws IOException {
+        double queryNorm = VectorMath.norm(query);
+        List<SimilarityResult> results = new ArrayList<>(candidates.size());
+        for (SimilarityResult candidate : candidates) {
+            float[] full = fullVectors.read(candidate.id());
+            if (full == null || full.length != query.length) {
+                continue;
+            }
+            double similarity = cosine(query, queryNorm, full);
+            if (similarity >= minSimilarity) {
+                results.add(new SimilarityResult(candidate.id(), similarity, candidate.metadata()));
+            }
+        }
+        results.sort(MOST_SIMILAR_FIRST);
+        return results.size() > limit ? new ArrayList<>(results.subList(0, Math.max(limit, 0))) : results;
+    }
+
+    /**
+     * Queue an exact re-run of the query over the full vectors and record how many of its top
+     * ids the reduced search found; a sample is dropped while the previous one is still queued
+     */
+    private void sampleRecall(float[] queryEmbedding, List<SimilarityResult> approximate, int limit) {
+        if (!recallSampleQueued.compareAndSet(false, true)) {
+            return;
+        }
+        float[] query = queryEmbedding.clone();
+        List<String> approximateIds = approximate.stream().map(SimilarityResult::id).toList();
+        recallSampler.execute(() -> {
+            recallSampleQueued.set(false);
+            try {
+                recallTracker.recordKeys(approximateIds, exactTopIds(query, limit));
+            } catch (IOException e) {
+                logger.warn("Recall sample failed to scan the full vectors: {}", e.getMessage());
+            }
+        });
+    }
+
+    /**
+     * Top ids of an exact scan of the full vectors; runs without the lock so a PCA swap never
+     * waits behind it, the file itself serializes against writes
+     */
+    private List<String> exactTopIds(float[] query, int limit) throws IOException {
+        long start = System.nanoTime();
+        double queryNorm = VectorMath.norm(query);
+        List<String> ids = new ArrayList<>();
+        ScoredHeap heap = ScoredHeap.top(limit, fullVectors.size());
+        fullVectors.forEach((id, full) -> {
+            if (full.length == query.length) {
+                heap.offer((float) cosine(query, queryNorm, full), ids.size(), limit);
+                ids.add(id);
+            }
+        });
+        List<String> exact = new ArrayList<>(heap.size());
+        while (!heap.isEmpty()) {
+            exact.add(ids.get(heap.pop()));
+        }
+        exactSearchNanos.add(System.nanoTime() - start);
+        exactSearches.increment();
+        return exact;
+    }
+
+    private void maybeScheduleFit() {
+        if (!"pca".equals(mode) || !projection.isIdentity() || fitScheduled.get()) {
+            return;
+        }
+        if (fullVectors.size() >= fitSampleSize && fullVectors.dimension() > targetDimension
+                && fitScheduled.compareAndSet(false, true)) {
+            fitter.execute(this::fit);
+        }
+    }
+
+    private void fit() {
+        try {
+            long start = System.currentTimeMillis();
+            PcaProjection pca = PcaProjection.fit(sample(), targetDimension, FIT_SEED);
+
+            lock.writeLock().lock();
+            try {
+                if (!projection.isIdentity() || fullVectors.dimension() != pca.inputDimension()) {
+                    // Cleared while fitting; the next inserts schedule a fresh fit
+                    return;
+                }
+                rebuild(pca);
+                projection = pca;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            lastFitMillis = System.currentTimeMillis() - start;
+            logger.info("Fitted {}-component PCA projection in {}ms (explained variance {})",
+                    pca.outputDimension(pca.inputDimension()), lastFitMillis, String.format("%.3f", pca.explainedVariance()));
+        } catch (IOException | RuntimeException e) {
+            logger.error("PCA projection fit failed, collection stays at full width: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Reservoir sample of up to {@code fitSampleSize} full vectors
+     */
+    private float[][] sample() throws IOException {
+        Random random = new Random(FIT_SEED);
+        List<float[]> reservoir = new ArrayList<>(fitSampleSize);
+        long[] seen = {0};
+        fullVectors.forEach((id, full) -> {
+            long index = seen[0]++;
+            if (reservoir.size() < fitSampleSize) {
+                reservoir.add(full);
+            } else {
+                long replace = (long) (random.nextDouble() * (index + 1));
+                if (replace < fitSampleSize) {
+                    reservoir.set((int) replace, full);
+                }
+            }
+        });
+        return reservoir.toArray(new float[0][]);
+    }
+
+    /**
+     * Re-store every embedding in the wrapped backend through the new projection; caller holds the write lock
+     */
+    private void rebuild(Projection next) throws IOException {
+        Map<String, Map<String, Object>> metadata = new HashMap<>();
+        fullVectors.forEach((id, full) -> {
+            EmbeddingData data = reduced.getEmbedding(id);
+            metadata.put(id, data != null ? data.metadata() : Map.of());
+        });
+        reduced.deleteAll();
+        fullVectors.forEach((id, full) -> reduced.storeEmbedding(id, next.apply(full), metadata.get(id)));
+    }
+
+    private static double cosine(float[] query, double queryNorm, float[] full) {
+        double fullNorm = VectorMath.norm(full);
+        if (queryNorm == 0.0 || fullNorm == 0.0) {
+            return 0.0;
+        }
+        return VectorMath.dot(query, full, 0, query.length) / (queryNorm * fullNorm);
+    }
+
+    private static double averageMicros(LongAdder nanos, LongAdder count) {
+        long n = count.sum();
+        return n == 0 ? 0.0 : nanos.sum() / 1000.0 / n;
+    }
+}
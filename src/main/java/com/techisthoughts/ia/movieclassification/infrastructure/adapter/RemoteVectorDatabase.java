@@ -0,0 +1,163 @@
+package com.techisthoughts.ia.movieclassification.infrastructure.adapter;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.client.RestClient;
+import com.techisthoughts.ia.movieclassification.domain.port.VectorDatabasePort;
+import com.techisthoughts.ia.movieclassification.infrastructure.vector.VectorMath;
+
+/**
+ * VectorDatabasePort for one collection held by another node, reached through that node's
+ * shard endpoints under {@code /internal/vectors}. Used by {@link DistributedVectorDatabase}
+ * as the client side of a remote shard.
+ */
+public class RemoteVectorDatabase implements VectorDatabasePort {
+
+    private static final ParameterizedTypeReference<List<SimilarityResult>> RESULTS =
+            new ParameterizedTypeReference<>() {};
+    private static final ParameterizedTypeReference<List<List<SimilarityResult>>> BATCH_RESULTS =
+            new ParameterizedTypeReference<>() {};
+
+    private final RestClient client;
+    private final String baseUrl;
+    private final String collection;
+
+    public RemoteVectorDatabase(RestClient client, String baseUrl, String collection) {
+        this.client = client;
+        this.baseUrl = baseUrl;
+        this.collection = collection;
+    }
+
+    @Override
+    public VectorDatabasePort collection(String name) {
+        return new RemoteVectorDatabase(client, baseUrl, CollectionVectorDatabase.requireValidName(name));
+    }
+
+    /**
+     * The remote node decides whether the collection exists; it answers reads of a collection
+     * it does not hold with empty results
+     */
+    @Override
+    public Optional<VectorDatabasePort> findCollection(String name) {
+        return Optional.of(collection(name));
+    }
+
+    /**
+     * Body of an upsert, as read by the remote node's shard endpoints
+     */
+    public record StoreRequest(float[] embedding, Map<String, Object> metadata) {}
+
+    /**
+     * Body of a single-query search; minSimilarity is null for plain top-k
+     */
+    public record SearchRequest(float[] query, int limit, Map<String, Object> filter, Double minSimilarity) {}
+
+    /**
+     * Body of a batched search
+     */
+    public record BatchSearchRequest(float[][] queries, int limit, Map<String, Object> filter) {}
+
+    @Override
+    public void storeEmbedding(String id, List<Double> embedding, Map<String, Object> metadata) {
+        storeEmbedding(id, VectorMath.toFloatArray(embedding), metadata);
+    }
+
+    @Override
+    public void storeEmbedding(String id, float[] embedding, Map<String, Object> metadata) {
+        client.put()
+            .uri(baseUrl + "/internal/vectors/{collection}/embeddings/{id}", collection, id)
+            .body(new StoreRequest(embedding, metadata))
+            .retrieve()
+            .toBodilessEntity();
+    }
+
+    @Override
+    public void storeEmbeddings(Map<String, EmbeddingData> embeddings) {
+        client.post()
+            .uri(baseUrl + "/internal/vectors/{collection}/embeddings", collection)
+            .body(embeddings)
+            .retrieve()
+            .toBodilessEntity();
+    }
+
+    @Override
+    public List<SimilarityResult> findSimilar(List<Double> queryEmbedding, int limit) {
+        return findSimilar(VectorMath.toFloatArray(queryEmbedding), limit, Map.of());
+    }
+
+    @Override
+    public List<SimilarityResult> findSimilar(List<Double> queryEmbedding, int limit, Map<String, Object> filter) {
+        return findSimilar(VectorMath.toFloatArray(queryEmbedding), limit, filter);
+    }
+
+    @Override
+    public List<SimilarityResult> findSimilar(float[] queryEmbedding, int limit, Map<String, Object> filter) {
+        return search(new SearchRequest(queryEmbedding, limit, filter, null));
+    }
+
+    @Override
+    public List<SimilarityResult> findWithinThreshold(float[] queryEmbedding, double minSimilarity, int maxResults) {
+        return search(new SearchRequest(queryEmbedding, maxResults, Map.of(), minSimilarity));
+    }
+
+    @Override
+    public List<List<SimilarityResult>> findSimilarBatch(float[][] queryEmbeddings, int limit,
+                                                         Map<String, Object> filter) {
+        return client.post()
+            .uri(baseUrl + "/internal/vectors/{collection}/search/batch", collection)
+            .body(new BatchSearchRequest(queryEmbeddings, limit, filter))
+            .retrieve()
+            .body(BATCH_RESULTS);
+    }
+
+    @Override
+    public EmbeddingData getEmbedding(String id) {
+        return client.get()
+            .uri(baseUrl + "/internal/vectors/{collection}/embeddings/{id}", collection, id)
+            .exchange((request, response) -> {
+                if (response.getStatusCode().isSameCodeAs(HttpStatus.NOT_FOUND)) {
+                    return null;
+                }
+                if (!response.getStatusCode().is2xxSuccessful()) {
+                    throw response.createException();
+                }
+                return response.bodyTo(EmbeddingData.class);
+            });
+    }
+
+    @Override
+    public void deleteEmbedding(String id) {
+        client.delete()
+            .uri(baseUrl + "/internal/vectors/{collection}/embeddings/{id}", collection, id)
+            .retrieve()
+            .toBodilessEntity();
+    }
+
+    @Override
+    public void deleteAll() {
+        client.delete()
+            .uri(baseUrl + "/internal/vectors/{collection}/embeddings", collection)
+            .retrieve()
+            .toBodilessEntity();
+    }
+
+    @Override
+    public long count() {
+        Long count = client.get()
+            .uri(baseUrl + "/internal/vectors/{collection}/count", collection)
+            .retrieve()
+            .body(Long.class);
+        return count != null ? count : 0L;
+    }
+
+    private List<SimilarityResult> search(SearchRequest request) {
+        return client.post()
+            .uri(baseUrl + "/internal/vectors/{collection}/search", collection)
+            .body(request)
+            .retrieve()
+            .body(RESULTS);
+    }
+}
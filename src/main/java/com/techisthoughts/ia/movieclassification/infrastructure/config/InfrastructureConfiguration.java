@@ -1,12 +1,39 @@
 package com.techisthoughts.ia.movieclassification.infrastructure.config;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.http.HttpClient;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Stream;
 import org.springframework.ai.embedding.EmbeddingModel;
 import org.springframework.ai.ollama.OllamaChatModel;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Primary;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+import org.springframework.web.client.RestClient;
+import com.techisthoughts.ia.movieclassification.config.ApplicationProperties;
 import com.techisthoughts.ia.movieclassification.domain.port.LLMServicePort;
+import com.techisthoughts.ia.movieclassification.domain.port.VectorDatabasePort;
+import com.techisthoughts.ia.movieclassification.infrastructure.adapter.CollectionVectorDatabase;
+import com.techisthoughts.ia.movieclassification.infrastructure.adapter.DeduplicatingVectorDatabase;
+import com.techisthoughts.ia.movieclassification.infrastructure.adapter.DistributedVectorDatabase;
+import com.techisthoughts.ia.movieclassification.infrastructure.adapter.HnswVectorDatabase;
+import com.techisthoughts.ia.movieclassification.infrastructure.adapter.InMemoryVectorDatabase;
+import com.techisthoughts.ia.movieclassification.infrastructure.adapter.IvfVectorDatabase;
+import com.techisthoughts.ia.movieclassification.infrastructure.adapter.ManagedVectorDatabase;
+import com.techisthoughts.ia.movieclassification.infrastructure.adapter.MappedVectorDatabase;
 import com.techisthoughts.ia.movieclassification.infrastructure.adapter.OptimizedOllamaLLMService;
+import com.techisthoughts.ia.movieclassification.infrastructure.adapter.PqVectorDatabase;
+import com.techisthoughts.ia.movieclassification.infrastructure.adapter.ProjectedVectorDatabase;
+import com.techisthoughts.ia.movieclassification.infrastructure.vector.Quantization;
+import com.techisthoughts.ia.movieclassification.infrastructure.vector.ScanParallelism;
+import com.techisthoughts.ia.movieclassification.infrastructure.vector.VectorPrecision;
 
 /**
  * Infrastructure configuration for high-performance setup
@@ -23,5 +50,195 @@ public class InfrastructureConfiguration {
         return new OptimizedOllamaLLMService(embeddingModel, chatModel);
     }
 
+    /**
+     * This node's named vector collections, each backed by the backend selected by
+     * app.vector.backend (memory, hnsw, ivf, pq, mapped) unless overridden under
+     * app.vector.collections.<name>, and optionally dimension-reduced per app.vector.projection.
+     * Collections persisted by a previous run are reopened at startup.
+     */
+    @Bean
+    public VectorDatabasePort localVectorDatabase(ApplicationProperties properties, ScanParallelism scanParallelism) {
+        ApplicationProperties.Vector vector = properties.getVector();
+        return new CollectionVectorDatabase(name -> createCollection(vector, name, scanParallelism),
+            persistedCollections(vector));
+    }
+
+    /**
+     * Fork-join pool for the exact scans of every memory collection, sized by app.vector.scan;
+     * owned here and stopped after the collections using it have shut down
+     */
+    @Bean(destroyMethod = "shutdown")
+    public ScanParallelism vectorScanParallelism(ApplicationProperties properties) {
+        ApplicationProperties.Vector.Scan scan = properties.getVector().getScan();
+        return ScanParallelism.create(scan.getPoolSize(), scan.getShards());
+    }
+
+    /**
+     * Names of the collections whose persistent backend left a directory behind: subdirectories
+     * of app.vector.mapped.directory for mapped collections and of app.vector.wal.directory for
+     * write-ahead-logged memory collections
+     */
+    private static Set<String> persistedCollections(ApplicationProperties.Vector vector) {
+        Set<String> names = new TreeSet<>();
+        for (String name : subdirectories(vector.getMapped().getDirectory())) {
+            if ("mapped".equalsIgnoreCase(backendOf(vector, name))) {
+                names.add(name);
+            }
+        }
+        if (vector.getWal().isEnabled()) {
+            for (String name : subdirectories(vector.getWal().getDirectory())) {
+                if ("memory".equalsIgnoreCase(backendOf(vector, name))) {
+                    names.add(name);
+                }
+            }
+        }
+        names.remove(CollectionVectorDatabase.DEFAULT_COLLECTION);
+        return names;
+    }
+
+    private static Set<String> subdirectories(String directory) {
+        Path base = Path.of(directory);
+        if (!Files.isDirectory(base)) {
+            return Set.of();
+        }
+        Set<String> names = new TreeSet<>();
+        try (Stream<Path> entries = Files.list(base)) {
+            entries.filter(Files::isDirectory).forEach(entry -> names.add(entry.getFileName().toString()));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot list vector collections in " + base, e);
+        }
+        return names;
+    }
+
+    private static String backendOf(ApplicationProperties.Vector vector, String name) {
+        ApplicationProperties.Vector.Collection overrides = vector.getCollections().get(name);
+        return overrides != null && overrides.getBackend() != null ? overrides.getBackend() : vector.getBackend();
+    }
+
+    /**
+     * Vector database used by the application: the local store, or a scatter-gather store over
+     * every node listed in app.vector.cluster.nodes
+     */
+    @Bean
+    @Primary
+    public VectorDatabasePort vectorDatabase(ApplicationProperties properties,
+                                             @Qualifier("localVectorDatabase") VectorDatabasePort localVectorDatabase,
+                                             RestClient.Builder restClientBuilder) {
+        ApplicationProperties.Vector.Cluster cluster = properties.getVector().getCluster();
+        if (cluster.getNodes().isEmpty()) {
+            return localVectorDatabase;
+        }
+        JdkClientHttpRequestFactory requestFactory = new JdkClientHttpRequestFactory(HttpClient.newBuilder()
+            .connectTimeout(Duration.ofMillis(cluster.getConnectTimeoutMs()))
+            .build());
+        requestFactory.setReadTimeout(Duration.ofMillis(cluster.getTimeoutMs()));
+        return new DistributedVectorDatabase(
+            cluster.getNodes(),
+            cluster.getSelfUrl(),
+            localVectorDatabase,
+            restClientBuilder.requestFactory(requestFactory).build(),
+            cluster.getVirtualNodes(),
+            cluster.getTimeoutMs(),
+            cluster.isRequireAllShards());
+    }
+
+    private ManagedVectorDatabase createCollection(ApplicationProperties.Vector vector, String name,
+                                                   ScanParallelism scanParallelism) {
+        ApplicationProperties.Vector.Collection overrides =
+            vector.getCollections().getOrDefault(name, new ApplicationProperties.Vector.Collection());
+        String backend = backendOf(vector, name);
+        String quantization = overrides.getQuantization() != null ? overrides.getQuantization() : vector.getQuantization();
+        VectorPrecision precision = VectorPrecision.from(
+            overrides.getPrecision() != null ? overrides.getPrecision() : vector.getPrecision());
+        String projection = overrides.getProjection() != null ? overrides.getProjection() : vector.getProjection().getMode();
+        String dedup = overrides.getDedup() != null ? overrides.getDedup() : vector.getDedup().getMode();
+        boolean persistent = "mapped".equalsIgnoreCase(backend)
+            || ("memory".equalsIgnoreCase(backend) && vector.getWal().isEnabled());
+        if (precision != VectorPrecision.FLOAT32 && ("pq".equalsIgnoreCase(backend) || "mapped".equalsIgnoreCase(backend))) {
+            throw new IllegalArgumentException("Precision " + precision.name().toLowerCase() + " of collection " + name
+                + " needs the memory, hnsw or ivf backend: " + backend + " keeps its own vector layout");
+        }
+
+        ManagedVectorDatabase collection;
+        if ("none".equalsIgnoreCase(projection)) {
+            collection = createBackend(vector, name, backend, quantization, precision, scanParallelism);
+        } else if (persistent) {
+            throw new IllegalArgumentException("Projection " + projection + " of collection " + name
+                + " needs a non-persistent backend: the full-vector file and fitted projection do not survive a restart");
+        } else {
+            collection = new ProjectedVectorDatabase(
+                createBackend(vector, name, backend, quantization, precision, scanParallelism),
+                collectionDirectory(vector.getProjection().getDirectory(), name).resolve("full-vectors.f32"),
+                projection,
+                vector.getProjection().getDimensions(),
+                vector.getProjection().getFitSampleSize(),
+                vector.getProjection().getRerankFactor());
+        }
+
+        if ("off".equalsIgnoreCase(dedup)) {
+            return collection;
+        }
+        if (persistent) {
+            throw new IllegalArgumentException("Dedup " + dedup + " of collection " + name
+                + " needs a non-persistent backend: the LSH table and duplicate links are only kept in memory and would not survive a restart");
+        }
+        return new DeduplicatingVectorDatabase(
+            collection,
+            dedup,
+            vector.getDedup().getThreshold(),
+            vector.getDedup().getBands(),
+            vector.getDedup().getBandBits());
+    }
+
+    private ManagedVectorDatabase createBackend(ApplicationProperties.Vector vector, String name, String backend,
+                                                String quantization, VectorPrecision precision,
+                                                ScanParallelism scanParallelism) {
+        return switch (backend.toLowerCase()) {
+            case "memory" -> new InMemoryVectorDatabase(
+                Quantization.from(quantization),
+                vector.getRerankFactor(),
+                vector.getWal().isEnabled() ? collectionDirectory(vector.getWal().getDirectory(), name) : null,
+                vector.getWal().getSyncIntervalMs(),
+                vector.getWal().getCheckpointBytes(),
+                scanParallelism,
+                precision);
+            case "hnsw" -> new HnswVectorDatabase(
+                vector.getHnsw().getM(),
+                vector.getHnsw().getEfConstruction(),
+                vector.getHnsw().getEfSearch(),
+                vector.getHnsw().getExactSearchThreshold(),
+                vector.getCompaction().getDeletedFraction(),
+                vector.getCompaction().getMinDeleted(),
+                vector.getPlanner().getPostFilterSelectivity(),
+                precision);
+            case "ivf" -> new IvfVectorDatabase(
+                vector.getIvf().getLists(),
+                vector.getIvf().getNprobe(),
+                vector.getIvf().getMinTrainingSize(),
+                vector.getIvf().getRetrainGrowthFactor(),
+                vector.getIvf().getTrainingSampleSize(),
+                vector.getPlanner().getPostFilterSelectivity(),
+                precision);
+            case "pq" -> new PqVectorDatabase(
+                vector.getPq().getSubvectors(),
+                vector.getPq().getTrainingSize(),
+                vector.getPq().getTrainingSampleSize());
+            case "mapped" -> new MappedVectorDatabase(
+                collectionDirectory(vector.getMapped().getDirectory(), name),
+                vector.getMapped().getSegmentRows(),
+                vector.getMapped().getFlushIntervalMs(),
+                vector.getCompaction().getDeletedFraction());
+            default -> throw new IllegalArgumentException("Unknown vector backend: " + backend);
+        };
+    }
+
+    /**
+     * The default collection keeps the configured directory itself, so existing data stays
+     * readable; other collections get a subdirectory named after them
+     */
+    private static Path collectionDirectory(String directory, String name) {
+        Path base = Path.of(directory);
+        return CollectionVectorDatabase.DEFAULT_COLLECTION.equals(name) ? base : base.resolve(name);
+    }
 
 }
@@ -0,0 +1,129 @@
+package com.techisthoughts.ia.movieclassification.infrastructure.vector;
+
+import java.util.Arrays;
+import java.util.function.IntPredicate;
+
+/**
+ * Sign-bit copy of the vectors in a {@link VectorStore}: bit {@code i} of a row is set when
+ * component {@code i} is positive, and the bits are packed into {@code long} words held in
+ * slabs that mirror the store's segments (1 bit per dimension, 32x smaller than the floats).
+ *
+ * Candidates are the rows with the smallest Hamming distance to the query's sign bits,
+ * computed with {@link Long#bitCount(long)} over XOR-ed words. The Hamming distance between
+ * sign patterns tracks the angle between the vectors, so ranking by it approximates cosine
+ * ranking closely enough for a generous candidate set to be re-ranked exactly. No calibration
+ * is needed, so the index is ready from the first insert.
+ */
+public class BinaryQuantizedIndex implements QuantizedIndex {
+
+    private final VectorStore store;
+    private long[][] codes = new long[0][];
+    private int wordsPerRow;
+
+    public BinaryQuantizedIndex(VectorStore store) {
+        this.store = store;
+    }
+
+    @Override
+    public void onStore(int slot) {
+        ensureSegments();
+        encode(slot);
+    }
+
+    @Override
+    public void rebuild() {
+        codes = new long[0][];
+        ensureSegments();
+        int slotLimit = store.slotLimit();
+        for (int slot = 0; slot < slotLimit; slot++) {
+            if (store.isLive(slot)) {
+                encode(slot);
+            }
+        }
+    }
+
+    @Override
+    public boolean isReady() {
+        return wordsPerRow > 0;
+    }
+
+    @Override
+    public int[] candidates(float[] query, int candidates, IntPredicate accept) {
+        if (query.length != store.dimension()) {
+            throw new IllegalArgumentException("Vectors must have the same dimension");
+        }
+        if (candidates <= 0) {
+            return new int[0];
+        }
+        long[] queryBits = new long[wordsPerRow];
+        pack(query, 0, query.length, queryBits, 0);
+
+        // Scores are negated distances so the bounded min-heap keeps the closest rows
+        int capacity = store.segmentCapacity();
+        int slotLimit = store.slotLimit();
+        ScoredHeap top = ScoredHeap.top(candidates, slotLimit);
+        for (int slot = 0; slot < slotLimit; slot++) {
+            if (!store.isLive(slot) || !accept.test(slot)) {
+                continue;
+            }
+            long[] segment = codes[slot / capacity];
+            int offset = (slot % capacity) * wordsPerRow;
+            int distance = 0;
+            for (int w = 0; w < wordsPerRow; w++) {
+                distance += Long.bitCount(queryBits[w] ^ segment[offset + w]);
+            }
+            top.offer(-distance, slot, candidates);
+        }
+
+        int[] slots = new int[top.size()];
+        for (int i = slots.length - 1; i >= 0; i--) {
+            slots[i] = top.pop();
+        }
+        return slots;
+    }
+
+    @Override
+    public long codeBytes() {
+        long total = 0;
+        for (long[] segment : codes) {
+            total += (long) segment.length * Long.BYTES;
+        }
+        return total;
+    }
+
+    @Override
+    public void clear() {
+        codes = new long[0][];
+        wordsPerRow = 0;
+    }
+
+    private void encode(int slot) {
+        int capacity = store.segmentCapacity();
+        long[] segment = codes[slot / capacity];
+        int offset = (slot % capacity) * wordsPerRow;
+        Arrays.fill(segment, offset, offset + wordsPerRow, 0L);
+        pack(store.vector(slot), 0, store.dimension(), segment, offset);
+    }
+
+    private static void pack(float[] values, int from, int dimension, long[] words, int wordOffset) {
+        for (int i = 0; i < dimension; i++) {
+            if (values[from + i] > 0f) {
+                words[wordOffset + (i >>> 6)] |= 1L << (i & 63);
+            }
+        }
+    }
+
+    private void ensureSegments() {
+        if (wordsPerRow == 0) {
+            wordsPerRow = (store.dimension() + 63) >>> 6;
+        }
+        int segmentCount = store.segmentCount();
+        if (codes.length < segmentCount) {
+            int previous = codes.length;
+            codes = Arrays.copyOf(codes, segmentCount);
+            for (int i = previous; i < segmentCount; i++) {
+                codes[i] = new long[store.segmentCapacity() * wordsPerRow];
+            }
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.techisthoughts.ia.movieclassification.infrastructure.vector;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Consistent-hash ring mapping keys to nodes.
+ *
+ * Every node is placed on a 64-bit ring at {@code virtualNodes} pseudo-random points; a key
+ * belongs to the node owning the first point at or after the key's hash. Spreading each node
+ * over many points keeps the shares even, and adding or removing a node only moves the keys
+ * adjacent to its points. The ring depends only on the node names, so every member computes
+ * the same owner for a key.
+ */
+public final class ConsistentHashRing {
+
+    private final long[] points;
+    private final int[] owners;
+
+    public ConsistentHashRing(List<String> nodes, int virtualNodes) {
+        if (nodes.isEmpty()) {
+            throw new IllegalArgumentException("A hash ring needs at least one node");
+        }
+        int replicas = Math.max(1, virtualNodes);
+        int total = nodes.size() * replicas;
+        long[][] placed = new long[total][];
+        for (int node = 0; node < nodes.size(); node++) {
+            for (int replica = 0; replica < replicas; replica++) {
+                placed[node * replicas + replica] = new long[] {hash(nodes.get(node) + "#" + replica), node};
+            }
+        }
+        Arrays.sort(placed, Comparator.comparingLong((long[] point) -> point[0]));
+        this.points = new long[total];
+        this.owners = new int[total];
+        for (int i = 0; i < total; i++) {
+            points[i] = placed[i][0];
+            owners[i] = (int) placed[i][1];
+        }
+    }
+
+    /**
+     * Index into the node list of the node that owns the key
+     */
+    public int nodeFor(String key) {
+        int index = Arrays.binarySearch(points, hash(key));
+        if (index < 0) {
+            index = -index - 1;
+        }
+        return owners[index == points.length ? 0 : index];
+    }
+
+    /**
+     * 64-bit FNV-1a over the UTF-8 bytes, finished with the MurmurHash3 mixer so nearby keys
+     * land far apart on the ring
+     */
+    static long hash(String key) {
+        long h = 0xcbf29ce484222325L;
+        for (byte b : key.getBytes(StandardCharsets.UTF_8)) {
+            h ^= b & 0xff;
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
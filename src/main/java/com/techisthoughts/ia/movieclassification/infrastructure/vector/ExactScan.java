@@ -0,0 +1,360 @@
+package com.techisthoughts.ia.movieclassification.infrastructure.vector;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.IntPredicate;
+
+/**
+ * Brute-force cosine similarity scan over every live slot of a {@link VectorStore}.
+ *
+ * Each worker keeps a bounded primitive min-heap of its best {@code limit} slots, so a
+ * query costs O(n log k) with no per-vector allocation. Large stores are split into the fixed
+ * slot-range shards of a {@link ScanParallelism} and scanned on its pool, and the per-shard
+ * heaps are merged at the end; only the final winners are turned into {@link ScoredSlot}s. When a candidate bitmap from the
+ * {@link MetadataIndex} is supplied, only its set bits are visited.
+ *
+ * {@link #searchWithin} only keeps rows at or above a similarity threshold. It scores the first
+ * three quarters of each row, and skips the rest when even a perfectly aligned tail (bounded by
+ * {@link VectorStore#tailNorm(int)}) could not lift the row above the threshold or the weakest
+ * result held once the heap is full.
+ *
+ * {@link #searchBatch} answers several queries in one pass: rows are visited in small
+ * cache-resident blocks and every query is scored against a block before moving on, so each
+ * stored vector is read from memory once per batch rather than once per query.
+ */
+public final class ExactScan {
+
+    private static final int PARALLEL_THRESHOLD = 32 * 1024;
+    private static final int BATCH_BLOCK_ROWS = 64;
+    private static final float BOUND_SLACK = 1e-5f;
+    private static final float NO_FLOOR = Float.NEGATIVE_INFINITY;
+
+    private ExactScan() {
+    }
+
+    /**
+     * Score every live slot accepted by the predicate and return the best matches, most similar first
+     */
+    public static List<ScoredSlot> search(VectorStore store, float[] query, int limit, IntPredicate accept) {
+        return search(store, query, limit, accept, null);
+    }
+
+    /**
+     * Like {@link #search(VectorStore, float[], int, IntPredicate)}, restricted to the slots set in
+     * {@code candidates} unless it is {@code null}
+     */
+    public static List<ScoredSlot> search(VectorStore store, float[] query, int limit, IntPredicate accept,
+                                          BitSet candidates) {
+        return search(store, query, limit, accept, candidates, ScanParallelism.common());
+    }
+
+    /**
+     * Like {@link #search(VectorStore, float[], int, IntPredicate, BitSet)}, scanning large stores
+     * on the given pool and shards
+     */
+    public static List<ScoredSlot> search(VectorStore store, float[] query, int limit, IntPredicate accept,
+                                          BitSet candidates, ScanParallelism parallelism) {
+        return search(store, query, limit, NO_FLOOR, accept, candidates, parallelism);
+    }
+
+    /**
+     * Best matches (at most {@code maxResults}) whose similarity is at least {@code minSimilarity},
+     * most similar first
+     */
+    public static List<ScoredSlot> searchWithin(VectorStore store, float[] query, float minSimilarity, int maxResults,
+                                                IntPredicate accept, BitSet candidates, ScanParallelism parallelism) {
+        return search(store, query, maxResults, minSimilarity, accept, candidates, parallelism);
+    }
+
+    /**
+     * Best matches among the slots in {@code [from, to)} for an already normalized query, most
+     * similar first; lets callers scan a store piecewise and release locks between pieces
+     */
+    public static List<ScoredSlot> searchRange(VectorStore store, float[] unitQuery, int limit, IntPredicate accept,
+                                               BitSet candidates, int from, int to) {
+        if (limit <= 0 || from >= to) {
+            return new ArrayList<>();
+        }
+        return toSortedSlots(scan(store, unitQuery, limit, NO_FLOOR, accept, candidates, from, to));
+    }
+
+    private static List<ScoredSlot> search(VectorStore store, float[] query, int limit, float floor,
+                                           IntPredicate accept, BitSet candidates, ScanParallelism parallelism) {
+        int dimension = store.dimension();
+        if (dimension > 0 && query.length != dimension) {
+            throw new IllegalArgumentException("Vectors must have the same dimension");
+        }
+        if (limit <= 0 || dimension <= 0 || (candidates != null && candidates.isEmpty())) {
+            return new ArrayList<>();
+        }
+
+        float[] unitQuery = VectorMath.normalize(query);
+        int slotLimit = store.slotLimit();
+        int work = candidates != null ? candidates.cardinality() : slotLimit;
+        ScoredHeap top = work >= PARALLEL_THRESHOLD && parallelism.shards() > 1
+                ? parallelism.pool().invoke(new ScanTask(store, unitQuery, limit, floor, accept, candidates,
+                        parallelism, slotLimit, 0, parallelism.shards()))
+                : scan(store, unitQuery, limit, floor, accept, candidates, 0, slotLimit);
+        return toSortedSlots(top);
+    }
+
+    private static List<ScoredSlot> toSortedSlots(ScoredHeap top) {
+        ScoredSlot[] winners = new ScoredSlot[top.size()];
+        for (int i = 0; i < winners.length; i++) {
+            winners[i] = new ScoredSlot(top.slotAt(i), top.scoreAt(i));
+        }
+        Arrays.sort(winners, Comparator.comparingDouble(ScoredSlot::similarity).reversed());
+        return new ArrayList<>(Arrays.asList(winners));
+    }
+
+    /**
+     * Best matches for each query, in query order, restricted to {@code candidates} unless it is
+     * {@code null}
+     */
+    public static List<List<ScoredSlot>> searchBatch(VectorStore store, float[][] queries, int limit,
+                                                     IntPredicate accept, BitSet candidates) {
+        return searchBatch(store, queries, limit, accept, candidates, ScanParallelism.common());
+    }
+
+    /**
+     * Like {@link #searchBatch(VectorStore, float[][], int, IntPredicate, BitSet)}, scanning large
+     * stores on the given pool and shards
+     */
+    public static List<List<ScoredSlot>> searchBatch(VectorStore store, float[][] queries, int limit,
+                                                     IntPredicate accept, BitSet candidates,
+                                                     ScanParallelism parallelism) {
+        int dimension = store.dimension();
+        float[][] unitQueries = new float[queries.length][];
+        for (int q = 0; q < queries.length; q++) {
+            if (dimension > 0 && queries[q].length != dimension) {
+                throw new IllegalArgumentException("Vectors must have the same dimension");
+            }
+            unitQueries[q] = VectorMath.normalize(queries[q]);
+        }
+        List<List<ScoredSlot>> results = new ArrayList<>(queries.length);
+        if (limit <= 0 || dimension <= 0 || (candidates != null && candidates.isEmpty())) {
+            for (int q = 0; q < queries.length; q++) {
+                results.add(new ArrayList<>());
+            }
+            return results;
+        }
+
+        int slotLimit = store.slotLimit();
+        int work = candidates != null ? candidates.cardinality() : slotLimit;
+        ScoredHeap[] tops = (long) work * queries.length >= PARALLEL_THRESHOLD && parallelism.shards() > 1
+                ? parallelism.pool().invoke(new BatchScanTask(store, unitQueries, limit, accept, candidates,
+                        parallelism, slotLimit, 0, parallelism.shards()))
+                : scanBatch(store, unitQueries, limit, accept, candidates, 0, slotLimit);
+        for (ScoredHeap top : tops) {
+            ScoredSlot[] winners = new ScoredSlot[top.size()];
+            for (int i = 0; i < winners.length; i++) {
+                winners[i] = new ScoredSlot(top.slotAt(i), top.scoreAt(i));
+            }
+            Arrays.sort(winners, Comparator.comparingDouble(ScoredSlot::similarity).reversed());
+            results.add(new ArrayList<>(Arrays.asList(winners)));
+        }
+        return results;
+    }
+
+    /**
+     * Cosine similarity between a unit-length query and a stored slot
+     */
+    public static float score(VectorStore store, float[] unitQuery, int slot) {
+        return store.dot(unitQuery, slot) * store.inverseNorm(slot);
+    }
+
+    private static ScoredHeap scan(VectorStore store, float[] unitQuery, int limit, float floor, IntPredicate accept,
+                                   BitSet candidates, int from, int to) {
+        if (floor != NO_FLOOR) {
+            return scanWithin(store, unitQuery, limit, floor, accept, candidates, from, to);
+        }
+        ScoredHeap top = ScoredHeap.top(limit, to - from);
+        if (candidates != null) {
+            for (int slot = candidates.nextSetBit(from); slot >= 0 && slot < to; slot = candidates.nextSetBit(slot + 1)) {
+                if (store.isLive(slot) && accept.test(slot)) {
+                    top.offer(score(store, unitQuery, slot), slot, limit);
+                }
+            }
+            return top;
+        }
+        for (int slot = from; slot < to; slot++) {
+            if (!store.isLive(slot) || !accept.test(slot)) {
+                continue;
+            }
+            top.offer(score(store, unitQuery, slot), slot, limit);
+        }
+        return top;
+    }
+
+    /**
+     * Threshold scan: score the head of each row, and finish the tail only when the bound
+     * {@code head + |query tail| * tailNorm} can still reach the current cut-off
+     */
+    private static ScoredHeap scanWithin(VectorStore store, float[] unitQuery, int limit, float floor,
+                                         IntPredicate accept, BitSet candidates, int from, int to) {
+        ScoredHeap top = ScoredHeap.top(limit, to - from);
+        int dimension = store.dimension();
+        int split = store.tailStart();
+        double queryTailSquared = 0.0;
+        for (int i = split; i < dimension; i++) {
+            queryTailSquared += (double) unitQuery[i] * unitQuery[i];
+        }
+        float queryTail = (float) Math.sqrt(queryTailSquared);
+
+        int slot = candidates != null ? candidates.nextSetBit(from) : from;
+        while (slot >= 0 && slot < to) {
+            if (store.isLive(slot) && accept.test(slot)) {
+                float cutoff = top.size() >= limit ? Math.max(floor, top.topScore()) : floor;
+                float inverseNorm = store.inverseNorm(slot);
+                float head = store.dot(unitQuery, 0, slot, split) * inverseNorm;
+                if (head + queryTail * store.tailNorm(slot) + BOUND_SLACK >= cutoff) {
+                    float score = head + store.dot(unitQuery, split, slot, dimension - split) * inverseNorm;
+                    if (score >= floor) {
+                        top.offer(score, slot, limit);
+                    }
+                }
+            }
+            slot = candidates != null ? candidates.nextSetBit(slot + 1) : slot + 1;
+        }
+        return top;
+    }
+
+    /**
+     * Collect the accepted slots of a range in blocks and score every query against each block
+     */
+    private static ScoredHeap[] scanBatch(VectorStore store, float[][] unitQueries, int limit, IntPredicate accept,
+                                          BitSet candidates, int from, int to) {
+        ScoredHeap[] tops = new ScoredHeap[unitQueries.length];
+        for (int q = 0; q < tops.length; q++) {
+            tops[q] = ScoredHeap.top(limit, to - from);
+        }
+        int[] block = new int[BATCH_BLOCK_ROWS];
+        int filled = 0;
+        int slot = candidates != null ? candidates.nextSetBit(from) : from;
+        while (slot >= 0 && slot < to) {
+            if (store.isLive(slot) && accept.test(slot)) {
+                block[filled++] = slot;
+                if (filled == block.length) {
+                    scoreBlock(store, unitQueries, block, filled, tops, limit);
+                    filled = 0;
+                }
+            }
+            slot = candidates != null ? candidates.nextSetBit(slot + 1) : slot + 1;
+        }
+        scoreBlock(store, unitQueries, block, filled, tops, limit);
+        return tops;
+    }
+
+    private static void scoreBlock(VectorStore store, float[][] unitQueries, int[] block, int filled,
+                                   ScoredHeap[] tops, int limit) {
+        for (int q = 0; q < unitQueries.length; q++) {
+            float[] unitQuery = unitQueries[q];
+            ScoredHeap top = tops[q];
+            for (int i = 0; i < filled; i++) {
+                int slot = block[i];
+                top.offer(store.dot(unitQuery, slot) * store.inverseNorm(slot), slot, limit);
+            }
+        }
+    }
+
+    /**
+     * Splits a range of shards in half until it is a single shard, then scans that shard's slots
+     */
+    private static final class ScanTask extends RecursiveTask<ScoredHeap> {
+        private final VectorStore store;
+        private final float[] unitQuery;
+        private final int limit;
+        private final float floor;
+        private final IntPredicate accept;
+        private final BitSet candidates;
+        private final ScanParallelism parallelism;
+        private final int slotLimit;
+        private final int fromShard;
+        private final int toShard;
+
+        ScanTask(VectorStore store, float[] unitQuery, int limit, float floor, IntPredicate accept, BitSet candidates,
+                 ScanParallelism parallelism, int slotLimit, int fromShard, int toShard) {
+            this.store = store;
+            this.unitQuery = unitQuery;
+            this.limit = limit;
+            this.floor = floor;
+            this.accept = accept;
+            this.candidates = candidates;
+            this.parallelism = parallelism;
+            this.slotLimit = slotLimit;
+            this.fromShard = fromShard;
+            this.toShard = toShard;
+        }
+
+        @Override
+        protected ScoredHeap compute() {
+            if (toShard - fromShard <= 1) {
+                int from = parallelism.shardStart(fromShard, slotLimit);
+                int to = parallelism.shardStart(toShard, slotLimit);
+                return scan(store, unitQuery, limit, floor, accept, candidates, from, to);
+            }
+            int middle = (fromShard + toShard) >>> 1;
+            ScanTask left = new ScanTask(store, unitQuery, limit, floor, accept, candidates, parallelism, slotLimit,
+                    fromShard, middle);
+            ScanTask right = new ScanTask(store, unitQuery, limit, floor, accept, candidates, parallelism, slotLimit,
+                    middle, toShard);
+            left.fork();
+            ScoredHeap merged = right.compute();
+            merged.offerAll(left.join(), limit);
+            return merged;
+        }
+    }
+
+    /**
+     * Shard-parallel variant of {@link #scanBatch}; per-query heaps are merged pairwise
+     */
+    private static final class BatchScanTask extends RecursiveTask<ScoredHeap[]> {
+        private final VectorStore store;
+        private final float[][] unitQueries;
+        private final int limit;
+        private final IntPredicate accept;
+        private final BitSet candidates;
+        private final ScanParallelism parallelism;
+        private final int slotLimit;
+        private final int fromShard;
+        private final int toShard;
+
+        BatchScanTask(VectorStore store, float[][] unitQueries, int limit, IntPredicate accept, BitSet candidates,
+                      ScanParallelism parallelism, int slotLimit, int fromShard, int toShard) {
+            this.store = store;
+            this.unitQueries = unitQueries;
+            this.limit = limit;
+            this.accept = accept;
+            this.candidates = candidates;
+            this.parallelism = parallelism;
+            this.slotLimit = slotLimit;
+            this.fromShard = fromShard;
+            this.toShard = toShard;
+        }
+
+        @Override
+        protected ScoredHeap[] compute() {
+            if (toShard - fromShard <= 1) {
+                int from = parallelism.shardStart(fromShard, slotLimit);
+                int to = parallelism.shardStart(toShard, slotLimit);
+                return scanBatch(store, unitQueries, limit, accept, candidates, from, to);
+            }
+            int middle = (fromShard + toShard) >>> 1;
+            BatchScanTask left = new BatchScanTask(store, unitQueries, limit, accept, candidates, parallelism,
+                    slotLimit, fromShard, middle);
+            BatchScanTask right = new BatchScanTask(store, unitQueries, limit, accept, candidates, parallelism,
+                    slotLimit, middle, toShard);
+            left.fork();
+            ScoredHeap[] merged = right.compute();
+            ScoredHeap[] other = left.join();
+            for (int q = 0; q < merged.length; q++) {
+                merged[q].offerAll(other[q], limit);
+            }
+            return merged;
+        }
+    }
+}
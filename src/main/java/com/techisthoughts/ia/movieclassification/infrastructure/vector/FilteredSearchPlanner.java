@@ -0,0 +1,126 @@
+package com.techisthoughts.ia.movieclassification.infrastructure.vector;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.DoubleUnaryOperator;
+
+/**
+ * Chooses how an approximate index answers a filtered query, from the filter's selectivity
+ * estimated by {@link MetadataIndex#estimate}.
+ *
+ * Brute force over the filtered bitmap costs one similarity per matching slot; a filtered
+ * index search costs whatever the backend reports for that selectivity (a graph walk has to
+ * visit about {@code ef / selectivity} nodes before it has collected {@code ef} matches).
+ * The cheaper of the two wins. Filters broad enough to keep at least the post-filter
+ * selectivity instead run the plain index search for {@code limit / selectivity} candidates
+ * and drop the ones that do not match, which skips the per-node filter check on the walk.
+ *
+ * Thread-safe; the counters are only statistics. Plans are reported once per search, through
+ * the counters and the last executed plan in {@link #getStatistics()}, never in result metadata.
+ */
+public final class FilteredSearchPlanner {
+
+    public static final double DEFAULT_POST_FILTER_SELECTIVITY = 0.5;
+
+    /**
+     * Candidate headroom of a post-filtered search over the estimated {@code limit / selectivity}
+     */
+    private static final double POST_FILTER_HEADROOM = 2.0;
+
+    public enum Plan {
+        ANN("ann"),
+        BRUTE_FORCE("brute-force"),
+        FILTERED_TRAVERSAL("filtered-traversal"),
+        POST_FILTER("post-filter");
+
+        private final String label;
+
+        Plan(String label) {
+            this.label = label;
+        }
+
+        public String label() {
+            return label;
+        }
+    }
+
+    /**
+     * @param selectivity estimated matching fraction of the live slots, 1 for unfiltered queries
+     */
+    public record Decision(Plan plan, double selectivity) {
+
+        /**
+         * Number of unfiltered candidates a post-filtered search should fetch to keep {@code limit}
+         */
+        public int candidates(int limit, int liveSlots) {
+            double wanted = Math.ceil(POST_FILTER_HEADROOM * limit / Math.max(selectivity, 1e-9));
+            return (int) Math.max(limit, Math.min(liveSlots, wanted));
+        }
+    }
+
+    private final double postFilterSelectivity;
+    private final AtomicLongArray executed = new AtomicLongArray(Plan.values().length);
+    private final AtomicLong fallbacks = new AtomicLong();
+    private volatile Decision lastDecision;
+
+    public FilteredSearchPlanner() {
+        this(DEFAULT_POST_FILTER_SELECTIVITY);
+    }
+
+    public FilteredSearchPlanner(double postFilterSelectivity) {
+        this.postFilterSelectivity = postFilterSelectivity;
+    }
+
+    /**
+     * @param indexCost similarities a filtered index search is expected to compute at a given selectivity
+     */
+    public Decision plan(Map<String, Object> filter, MetadataIndex metadataIndex, int liveSlots,
+                         DoubleUnaryOperator indexCost) {
+        if (filter.isEmpty()) {
+            return new Decision(Plan.ANN, 1.0);
+        }
+        MetadataIndex.FilterEstimate estimate = metadataIndex.estimate(filter, liveSlots);
+        double selectivity = estimate.selectivity();
+        if (estimate.indexed()
+                && selectivity * liveSlots <= indexCost.applyAsDouble(Math.max(selectivity, 1e-9))) {
+            return new Decision(Plan.BRUTE_FORCE, selectivity);
+        }
+        if (selectivity >= postFilterSelectivity) {
+            return new Decision(Plan.POST_FILTER, selectivity);
+        }
+        return new Decision(Plan.FILTERED_TRAVERSAL, selectivity);
+    }
+
+    /**
+     * Count a finished search under the plan that produced its results
+     *
+     * @param selectivity the estimate the search was planned with
+     * @param fellBack whether a cheaper plan came up short before this one
+     */
+    public void record(Plan plan, double selectivity, boolean fellBack) {
+        executed.incrementAndGet(plan.ordinal());
+        lastDecision = new Decision(plan, selectivity);
+        if (fellBack) {
+            fallbacks.incrementAndGet();
+        }
+    }
+
+    public Map<String, Object> getStatistics() {
+        Map<String, Object> plans = new LinkedHashMap<>();
+        for (Plan plan : Plan.values()) {
+            plans.put(plan.label(), executed.get(plan.ordinal()));
+        }
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("postFilterSelectivity", postFilterSelectivity);
+        stats.put("plans", plans);
+        stats.put("fallbacks", fallbacks.get());
+        Decision last = lastDecision;
+        if (last != null) {
+            stats.put("lastPlan", last.plan().label());
+            stats.put("lastSelectivity", last.selectivity());
+        }
+        return stats;
+    }
+}
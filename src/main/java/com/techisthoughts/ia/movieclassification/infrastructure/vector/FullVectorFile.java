@@ -0,0 +1,157 @@
+package com.techisthoughts.ia.movieclassification.infrastructure.vector;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.BiConsumer;
+
+/**
+ * Scratch file of full-width float rows keyed by id, read back with positional reads.
+ *
+ * Keeps the original vectors off the heap while a reduced copy is searched in memory; they are
+ * only read to re-rank candidates or refit a projection. Rows of deleted ids are reused. The
+ * file is truncated on open: it mirrors an in-memory store and does not survive a restart.
+ */
+public final class FullVectorFile implements AutoCloseable {
+
+    private static final int SCAN_BLOCK_BYTES = 1 << 20;
+
+    private final Path file;
+    private final FileChannel channel;
+    private final Map<String, Integer> rows = new HashMap<>();
+    private final ArrayDeque<Integer> freeRows = new ArrayDeque<>();
+    private int nextRow;
+    private int dimension = -1;
+
+    public FullVectorFile(Path file) throws IOException {
+        this.file = file;
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+            StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+    }
+
+    /**
+     * Insert or overwrite the row of an id
+     */
+    public synchronized void write(String id, float[] vector) throws IOException {
+        if (dimension < 0) {
+            dimension = vector.length;
+        } else if (vector.length != dimension) {
+            throw new IllegalArgumentException(
+                "Expected " + dimension + "-dimensional vector, got " + vector.length);
+        }
+        Integer row = rows.get(id);
+        if (row == null) {
+            row = freeRows.isEmpty() ? nextRow++ : freeRows.poll();
+            rows.put(id, row);
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(rowBytes()).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.asFloatBuffer().put(vector);
+        long position = (long) row * rowBytes();
+        while (buffer.hasRemaining()) {
+            position += channel.write(buffer, position);
+        }
+    }
+
+    /**
+     * The stored vector of an id, or null when it has none
+     */
+    public synchronized float[] read(String id) throws IOException {
+        Integer row = rows.get(id);
+        if (row == null) {
+            return null;
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(rowBytes()).order(ByteOrder.LITTLE_ENDIAN);
+        long position = (long) row * rowBytes();
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new IOException("Unexpected end of " + file + " reading row " + row);
+            }
+        }
+        buffer.flip();
+        float[] vector = new float[dimension];
+        buffer.asFloatBuffer().get(vector);
+        return vector;
+    }
+
+    public synchronized void delete(String id) {
+        Integer row = rows.remove(id);
+        if (row != null) {
+            freeRows.add(row);
+        }
+    }
+
+    public synchronized void clear() throws IOException {
+        rows.clear();
+        freeRows.clear();
+        nextRow = 0;
+        dimension = -1;
+        channel.truncate(0);
+    }
+
+    /**
+     * Visit every stored row in file order, reading the file sequentially in large blocks
+     */
+    public synchronized void forEach(BiConsumer<String, float[]> visitor) throws IOException {
+        if (rows.isEmpty()) {
+            return;
+        }
+        String[] idByRow = new String[nextRow];
+        rows.forEach((id, row) -> idByRow[row] = id);
+        int rowsPerBlock = Math.max(1, SCAN_BLOCK_BYTES / rowBytes());
+        ByteBuffer buffer = ByteBuffer.allocate(rowsPerBlock * rowBytes()).order(ByteOrder.LITTLE_ENDIAN);
+        for (int first = 0; first < nextRow; first += rowsPerBlock) {
+            int count = Math.min(rowsPerBlock, nextRow - first);
+            buffer.clear().limit(count * rowBytes());
+            long position = (long) first * rowBytes();
+            while (buffer.hasRemaining()) {
+                if (channel.read(buffer, position + buffer.position()) < 0) {
+                    throw new IOException("Unexpected end of " + file + " at row " + first);
+                }
+            }
+            buffer.flip();
+            for (int i = 0; i < count; i++) {
+                String id = idByRow[first + i];
+                if (id != null) {
+                    float[] vector = new float[dimension];
+                    buffer.asFloatBuffer().position(i * dimension).get(vector);
+                    visitor.accept(id, vector);
+                }
+            }
+        }
+    }
+
+    public synchronized int size() {
+        return rows.size();
+    }
+
+    /**
+     * Dimension of the stored rows, or -1 while nothing has been stored
+     */
+    public synchronized int dimension() {
+        return dimension;
+    }
+
+    public synchronized long sizeBytes() {
+        return dimension < 0 ? 0L : (long) nextRow * rowBytes();
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        channel.close();
+        Files.deleteIfExists(file);
+    }
+
+    private int rowBytes() {
+        return dimension * Float.BYTES;
+    }
+}
@@ -0,0 +1,417 @@
+package com.techisthoughts.ia.movieclassification.infrastructure.vector;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntPredicate;
+
+/**
+ * Hierarchical Navigable Small World graph over the slots of a {@link VectorStore}.
+ *
+ * Nodes are identified by their storage slot, so the store must hand out slots with
+ * {@link VectorStore#append} and never recycle them while the graph references them.
+ * Inserts may run concurrently: each node's adjacency lists are guarded by the node's
+ * own monitor and only entry-point promotion takes a global lock. Dead slots stay in
+ * the graph as routing hops and are excluded from results.
+ */
+public class HnswIndex {
+
+    private static final int PAGE_BITS = 12;
+    private static final int PAGE_SIZE = 1 << PAGE_BITS;
+    private static final int PAGE_MASK = PAGE_SIZE - 1;
+
+    private final VectorStore store;
+    private final int m;
+    private final int maxM0;
+    private final int efConstruction;
+    private final double levelMultiplier;
+
+    private final Object entryLock = new Object();
+    private final Object growLock = new Object();
+    private final AtomicInteger nodeCount = new AtomicInteger();
+    private final ThreadLocal<VisitedSet> visitedSets = ThreadLocal.withInitial(VisitedSet::new);
+
+    private volatile Node[][] pages = new Node[0][];
+    private volatile int entryPoint = -1;
+    private volatile int maxLevel = -1;
+
+    public HnswIndex(VectorStore store, int m, int efConstruction) {
+        if (m < 2) {
+            throw new IllegalArgumentException("HNSW M must be at least 2");
+        }
+        this.store = store;
+        this.m = m;
+        this.maxM0 = 2 * m;
+        this.efConstruction = Math.max(efConstruction, m);
+        this.levelMultiplier = 1.0 / Math.log(m);
+    }
+
+    /**
+     * Link the vector stored at the given slot into the graph
+     */
+    public void insert(int slot) {
+        float[] vector = VectorMath.normalize(store.vector(slot));
+        int level = randomLevel();
+        Node node = new Node(level, m, maxM0);
+        setNode(slot, node);
+        nodeCount.incrementAndGet();
+
+        int entry;
+        int topLevel;
+        synchronized (entryLock) {
+            if (entryPoint < 0) {
+                entryPoint = slot;
+                maxLevel = level;
+                return;
+            }
+            entry = entryPoint;
+            topLevel = maxLevel;
+        }
+
+        for (int layer = topLevel; layer > level; layer--) {
+            entry = greedyClosest(vector, entry, layer);
+        }
+
+        int[] entries = {entry};
+        for (int layer = Math.min(level, topLevel); layer >= 0; layer--) {
+            ScoredHeap found = searchLayer(vector, entries, efConstruction, layer, null);
+            int[] candidateSlots = new int[found.size()];
+            float[] candidateScores = new float[found.size()];
+            drainDescending(found, candidateSlots, candidateScores);
+
+            int[] neighbours = selectNeighbours(candidateSlots, candidateScores, m, slot);
+            synchronized (node) {
+                node.setLinks(layer, neighbours, neighbours.length);
+            }
+            for (int neighbour : neighbours) {
+                connect(neighbour, slot, layer);
+            }
+            entries = candidateSlots;
+        }
+
+        if (level > topLevel) {
+            synchronized (entryLock) {
+                if (level > maxLevel) {
+                    maxLevel = level;
+                    entryPoint = slot;
+                }
+            }
+        }
+    }
+
+    /**
+     * Approximate top-k search; only live slots accepted by the predicate are returned
+     */
+    public List<ScoredSlot> search(float[] query, int k, int ef, IntPredicate accept) {
+        int dimension = store.dimension();
+        if (dimension > 0 && query.length != dimension) {
+            throw new IllegalArgumentException("Vectors must have the same dimension");
+        }
+
+        int entry;
+        int topLevel;
+        synchronized (entryLock) {
+            entry = entryPoint;
+            topLevel = maxLevel;
+        }
+        if (entry < 0 || k <= 0) {
+            return List.of();
+        }
+
+        float[] unitQuery = VectorMath.normalize(query);
+        for (int layer = topLevel; layer > 0; layer--) {
+            entry = greedyClosest(unitQuery, entry, layer);
+        }
+
+        IntPredicate filter = slot -> store.isLive(slot) && accept.test(slot);
+        ScoredHeap found = searchLayer(unitQuery, new int[] {entry}, Math.max(ef, k), 0, filter);
+        while (found.size() > k) {
+            found.pop();
+        }
+
+        int[] slots = new int[found.size()];
+        float[] scores = new float[found.size()];
+        drainDescending(found, slots, scores);
+
+        List<ScoredSlot> results = new ArrayList<>(slots.length);
+        for (int i = 0; i < slots.length; i++) {
+            results.add(new ScoredSlot(slots[i], scores[i]));
+        }
+        return results;
+    }
+
+    /**
+     * Drop every node; the caller is responsible for clearing the backing store
+     */
+    public void clear() {
+        synchronized (entryLock) {
+            synchronized (growLock) {
+                pages = new Node[0][];
+                entryPoint = -1;
+                maxLevel = -1;
+                nodeCount.set(0);
+            }
+        }
+    }
+
+    public int size() {
+        return nodeCount.get();
+    }
+
+    public Map<String, Object> getStatistics() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("nodes", nodeCount.get());
+        stats.put("maxLevel", maxLevel);
+        stats.put("m", m);
+        stats.put("efConstruction", efConstruction);
+        return stats;
+    }
+
+    /**
+     * Best-first search restricted to one layer. Returns a min-heap holding at most
+     * {@code ef} results; when a filter is given only accepted slots become results
+     * while every slot still serves as a routing hop.
+     */
+    private ScoredHeap searchLayer(float[] unitQuery, int[] entries, int ef, int layer,
+                                   IntPredicate filter) {
+        VisitedSet visited = visitedSets.get();
+        visited.reset(store.slotLimit());
+
+        ScoredHeap candidates = ScoredHeap.max(Math.min(ef, store.slotLimit()) * 2);
+        ScoredHeap results = ScoredHeap.top(ef, store.slotLimit());
+
+        for (int entry : entries) {
+            if (!visited.visit(entry)) {
+                continue;
+            }
+            float score = similarity(unitQuery, entry);
+            candidates.push(score, entry);
+            if (filter == null || filter.test(entry)) {
+                results.push(score, entry);
+            }
+        }
+        while (results.size() > ef) {
+            results.pop();
+        }
+
+        int[] buffer = new int[maxM0];
+        while (!candidates.isEmpty()) {
+            float closest = candidates.topScore();
+            if (results.size() >= ef && closest < results.topScore()) {
+                break;
+            }
+            int current = candidates.pop();
+
+            int count = neighbours(current, layer, buffer);
+            for (int i = 0; i < count; i++) {
+                int neighbour = buffer[i];
+                if (!visited.visit(neighbour)) {
+                    continue;
+                }
+                float score = similarity(unitQuery, neighbour);
+                if (results.size() < ef || score > results.topScore()) {
+                    candidates.push(score, neighbour);
+                    if (filter == null || filter.test(neighbour)) {
+                        results.push(score, neighbour);
+                        if (results.size() > ef) {
+                            results.pop();
+                        }
+                    }
+                }
+            }
+        }
+        return results;
+    }
+
+    private int greedyClosest(float[] unitQuery, int entry, int layer) {
+        int[] buffer = new int[maxM0];
+        float best = similarity(unitQuery, entry);
+        boolean improved = true;
+        while (improved) {
+            improved = false;
+            int count = neighbours(entry, layer, buffer);
+            for (int i = 0; i < count; i++) {
+                float score = similarity(unitQuery, buffer[i]);
+                if (score > best) {
+                    best = score;
+                    entry = buffer[i];
+                    improved = true;
+                }
+            }
+        }
+        return entry;
+    }
+
+    /**
+     * Add a back-link from {@code target} to {@code source}, shrinking the list with the
+     * neighbour-selection heuristic once it is full
+     */
+    private void connect(int target, int source, int layer) {
+        Node node = node(target);
+        int capacity = layer == 0 ? maxM0 : m;
+        synchronized (node) {
+            int count = node.count(layer);
+            int[] links = node.links[layer];
+            for (int i = 1; i <= count; i++) {
+                if (links[i] == source) {
+                    return;
+                }
+            }
+            if (count < capacity) {
+                links[count + 1] = source;
+                links[0] = count + 1;
+                return;
+            }
+
+            float[] targetVector = VectorMath.normalize(store.vector(target));
+            ScoredHeap ranked = ScoredHeap.min(count + 1);
+            for (int i = 1; i <= count; i++) {
+                ranked.push(similarity(targetVector, links[i]), links[i]);
+            }
+            ranked.push(similarity(targetVector, source), source);
+
+            int[] slots = new int[ranked.size()];
+            float[] scores = new float[ranked.size()];
+            drainDescending(ranked, slots, scores);
+            int[] selected = selectNeighbours(slots, scores, capacity, target);
+            node.setLinks(layer, selected, selected.length);
+        }
+    }
+
+    /**
+     * HNSW neighbour-selection heuristic: walk candidates from most to least similar and
+     * keep one only if it is closer to the base than to every neighbour already kept,
+     * which preserves links towards distinct regions of the graph.
+     */
+    private int[] selectNeighbours(int[] slots, float[] scores, int max, int base) {
+        int[] selected = new int[Math.min(max, slots.length)];
+        int count = 0;
+        for (int i = 0; i < slots.length && count < selected.length; i++) {
+            if (slots[i] == base) {
+                continue;
+            }
+            boolean diverse = true;
+            for (int j = 0; j < count; j++) {
+                if (similarity(slots[i], selected[j]) > scores[i]) {
+                    diverse = false;
+                    break;
+                }
+            }
+            if (diverse) {
+                selected[count++] = slots[i];
+            }
+        }
+        return count == selected.length ? selected : Arrays.copyOf(selected, count);
+    }
+
+    private int neighbours(int slot, int layer, int[] buffer) {
+        Node node = node(slot);
+        if (node == null || layer >= node.links.length) {
+            return 0;
+        }
+        synchronized (node) {
+            int count = node.count(layer);
+            System.arraycopy(node.links[layer], 1, buffer, 0, count);
+            return count;
+        }
+    }
+
+    private float similarity(float[] unitQuery, int slot) {
+        return ExactScan.score(store, unitQuery, slot);
+    }
+
+    private float similarity(int slotA, int slotB) {
+        return store.dot(slotA, slotB) * store.inverseNorm(slotA) * store.inverseNorm(slotB);
+    }
+
+    private int randomLevel() {
+        double uniform = 1.0 - ThreadLocalRandom.current().nextDouble();
+        return (int) (-Math.log(uniform) * levelMultiplier);
+    }
+
+    private Node node(int slot) {
+        Node[][] current = pages;
+        int page = slot >>> PAGE_BITS;
+        return page < current.length ? current[page][slot & PAGE_MASK] : null;
+    }
+
+    private void setNode(int slot, Node node) {
+        synchronized (growLock) {
+            int page = slot >>> PAGE_BITS;
+            if (page >= pages.length) {
+                Node[][] grown = Arrays.copyOf(pages, Math.max(page + 1, pages.length * 2));
+                for (int i = pages.length; i < grown.length; i++) {
+                    grown[i] = new Node[PAGE_SIZE];
+                }
+                pages = grown;
+            }
+            pages[page][slot & PAGE_MASK] = node;
+        }
+    }
+
+    private static void drainDescending(ScoredHeap minHeap, int[] slots, float[] scores) {
+        for (int i = minHeap.size() - 1; i >= 0; i--) {
+            scores[i] = minHeap.topScore();
+            slots[i] = minHeap.pop();
+        }
+    }
+
+    /**
+     * Per-layer adjacency lists; element 0 of each list holds the link count
+     */
+    private static final class Node {
+        final int[][] links;
+
+        Node(int level, int m, int maxM0) {
+            links = new int[level + 1][];
+            links[0] = new int[maxM0 + 1];
+            for (int layer = 1; layer <= level; layer++) {
+                links[layer] = new int[m + 1];
+            }
+        }
+
+        int count(int layer) {
+            return links[layer][0];
+        }
+
+        void setLinks(int layer, int[] neighbours, int count) {
+            System.arraycopy(neighbours, 0, links[layer], 1, count);
+            links[layer][0] = count;
+        }
+    }
+
+    /**
+     * Epoch-stamped visited marks, reused per thread to avoid clearing between queries
+     */
+    private static final class VisitedSet {
+        private int[] marks = new int[0];
+        private int epoch;
+
+        void reset(int capacity) {
+            if (marks.length < capacity) {
+                marks = new int[Math.max(capacity, marks.length * 2)];
+                epoch = 0;
+            }
+            epoch++;
+            if (epoch == Integer.MAX_VALUE) {
+                Arrays.fill(marks, 0);
+                epoch = 1;
+            }
+        }
+
+        boolean visit(int slot) {
+            if (slot >= marks.length) {
+                marks = Arrays.copyOf(marks, Math.max(slot + 1, marks.length * 2));
+            }
+            if (marks[slot] == epoch) {
+                return false;
+            }
+            marks[slot] = epoch;
+            return true;
+        }
+    }
+}
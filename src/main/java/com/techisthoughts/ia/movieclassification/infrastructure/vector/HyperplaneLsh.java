@@ -0,0 +1,131 @@
+package com.techisthoughts.ia.movieclassification.infrastructure.vector;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Random-hyperplane locality-sensitive hash table for cosine similarity.
+ *
+ * Each vector gets {@code bands * bandBits} sign bits, one per random hyperplane, and is filed
+ * under each of its {@code bands} band keys. Two vectors at angle theta agree on a bit with
+ * probability {@code 1 - theta/pi}, so they share at least one band with probability
+ * {@code 1 - (1 - (1 - theta/pi)^bandBits)^bands}: close to 1 for near-duplicates and close to 0 for
+ * unrelated vectors. Candidates still have to be verified with an exact cosine.
+ *
+ * Not thread-safe; callers serialize access.
+ */
+public final class HyperplaneLsh {
+
+    private final int bands;
+    private final int bandBits;
+    private final long seed;
+    private final List<Map<Integer, List<String>>> tables;
+    private final Map<String, int[]> signatures = new HashMap<>();
+    private float[] hyperplanes;
+    private int dimension = -1;
+
+    public HyperplaneLsh(int bands, int bandBits, long seed) {
+        if (bands <= 0 || bandBits <= 0 || bandBits > Integer.SIZE) {
+            throw new IllegalArgumentException("LSH needs a positive band count and 1-32 bits per band");
+        }
+        this.bands = bands;
+        this.bandBits = bandBits;
+        this.seed = seed;
+        this.tables = new ArrayList<>(bands);
+        for (int band = 0; band < bands; band++) {
+            tables.add(new HashMap<>());
+        }
+    }
+
+    /**
+     * Band keys of a vector; the hyperplanes are drawn on the first call, for its dimension
+     */
+    public int[] signature(float[] vector) {
+        if (dimension < 0) {
+            dimension = vector.length;
+            Random random = new Random(seed);
+            hyperplanes = new float[bands * bandBits * dimension];
+            for (int i = 0; i < hyperplanes.length; i++) {
+                hyperplanes[i] = (float) random.nextGaussian();
+            }
+        } else if (vector.length != dimension) {
+            throw new IllegalArgumentException("Expected " + dimension + "-dimensional vector, got " + vector.length);
+        }
+        int[] keys = new int[bands];
+        int plane = 0;
+        for (int band = 0; band < bands; band++) {
+            int key = 0;
+            for (int bit = 0; bit < bandBits; bit++, plane++) {
+                if (VectorMath.dot(vector, hyperplanes, plane * dimension, dimension) >= 0f) {
+                    key |= 1 << bit;
+                }
+            }
+            keys[band] = key;
+        }
+        return keys;
+    }
+
+    /**
+     * Ids sharing at least one band with the signature
+     */
+    public Set<String> candidates(int[] signature) {
+        Set<String> candidates = new LinkedHashSet<>();
+        for (int band = 0; band < bands; band++) {
+            List<String> bucket = tables.get(band).get(signature[band]);
+            if (bucket != null) {
+                candidates.addAll(bucket);
+            }
+        }
+        return candidates;
+    }
+
+    public void add(String id, int[] signature) {
+        remove(id);
+        signatures.put(id, signature);
+        for (int band = 0; band < bands; band++) {
+            tables.get(band).computeIfAbsent(signature[band], key -> new ArrayList<>(2)).add(id);
+        }
+    }
+
+    public void remove(String id) {
+        int[] signature = signatures.remove(id);
+        if (signature == null) {
+            return;
+        }
+        for (int band = 0; band < bands; band++) {
+            Map<Integer, List<String>> table = tables.get(band);
+            List<String> bucket = table.get(signature[band]);
+            bucket.remove(id);
+            if (bucket.isEmpty()) {
+                table.remove(signature[band]);
+            }
+        }
+    }
+
+    /**
+     * Drop every entry and forget the dimension, so the next vector may have a different one
+     */
+    public void clear() {
+        signatures.clear();
+        tables.forEach(Map::clear);
+        hyperplanes = null;
+        dimension = -1;
+    }
+
+    public int size() {
+        return signatures.size();
+    }
+
+    /**
+     * Probability that two vectors with the given cosine similarity share a band
+     */
+    public double collisionProbability(double cosine) {
+        double bitAgreement = 1.0 - Math.acos(Math.max(-1.0, Math.min(1.0, cosine))) / Math.PI;
+        return 1.0 - Math.pow(1.0 - Math.pow(bitAgreement, bandBits), bands);
+    }
+}
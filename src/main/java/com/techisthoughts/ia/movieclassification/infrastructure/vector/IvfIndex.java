@@ -0,0 +1,162 @@
+package com.techisthoughts.ia.movieclassification.infrastructure.vector;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.IntPredicate;
+
+/**
+ * Inverted-file (IVF-Flat) index: coarse centroids partition the slots of a
+ * {@link VectorStore} into posting lists, and a query scans only the {@code nprobe}
+ * lists whose centroids are most similar to it. Vectors stay full precision in the
+ * store; the index holds only slot numbers.
+ */
+public class IvfIndex {
+
+    private final VectorStore store;
+    private final float[] centroids;
+    private final int lists;
+    private final int dimension;
+    private final PostingList[] postings;
+    private int[] listOfSlot = new int[0];
+
+    /**
+     * @param centroids unit-length centroids, row-major, as produced by {@link KMeans#train}
+     */
+    public IvfIndex(VectorStore store, float[] centroids, int dimension) {
+        this.store = store;
+        this.centroids = centroids;
+        this.dimension = dimension;
+        this.lists = centroids.length / dimension;
+        this.postings = new PostingList[lists];
+        for (int i = 0; i < lists; i++) {
+            postings[i] = new PostingList();
+        }
+    }
+
+    /**
+     * Append a slot to the posting list of its nearest centroid
+     */
+    public void add(int slot) {
+        int list = KMeans.nearest(store.vector(slot), 0, centroids, lists, dimension);
+        synchronized (this) {
+            if (slot < listOfSlot.length && listOfSlot[slot] >= 0) {
+                return;
+            }
+            if (slot >= listOfSlot.length) {
+                int previous = listOfSlot.length;
+                listOfSlot = Arrays.copyOf(listOfSlot, Math.max(slot + 1, previous * 2));
+                Arrays.fill(listOfSlot, previous, listOfSlot.length, -1);
+            }
+            listOfSlot[slot] = list;
+            postings[list].add(slot);
+        }
+    }
+
+    /**
+     * Drop a slot from whichever posting list holds it; a no-op for unknown slots
+     */
+    public synchronized void remove(int slot) {
+        if (slot >= listOfSlot.length || listOfSlot[slot] < 0) {
+            return;
+        }
+        postings[listOfSlot[slot]].remove(slot);
+        listOfSlot[slot] = -1;
+    }
+
+    /**
+     * Score the contents of the {@code nprobe} closest posting lists and return the top {@code k}
+     */
+    public List<ScoredSlot> search(float[] query, int k, int nprobe, IntPredicate accept) {
+        if (query.length != dimension) {
+            throw new IllegalArgumentException("Vectors must have the same dimension");
+        }
+        float[] unitQuery = VectorMath.normalize(query);
+        if (VectorMath.norm(query) == 0.0 || k <= 0) {
+            return List.of();
+        }
+
+        int probes = Math.min(nprobe, lists);
+        ScoredHeap closestLists = ScoredHeap.min(probes + 1);
+        for (int list = 0; list < lists; list++) {
+            float score = VectorMath.dot(unitQuery, centroids, list * dimension, dimension);
+            closestLists.offer(score, list, probes);
+        }
+
+        ScoredHeap top = ScoredHeap.top(k, store.slotLimit());
+        while (!closestLists.isEmpty()) {
+            postings[closestLists.pop()].scan(store, unitQuery, k, top, accept);
+        }
+
+        ScoredSlot[] ordered = new ScoredSlot[top.size()];
+        for (int i = ordered.length - 1; i >= 0; i--) {
+            float score = top.topScore();
+            ordered[i] = new ScoredSlot(top.pop(), score);
+        }
+        return new ArrayList<>(Arrays.asList(ordered));
+    }
+
+    public int lists() {
+        return lists;
+    }
+
+    public Map<String, Object> getStatistics() {
+        int min = Integer.MAX_VALUE;
+        int max = 0;
+        long total = 0;
+        for (PostingList posting : postings) {
+            int size = posting.size();
+            min = Math.min(min, size);
+            max = Math.max(max, size);
+            total += size;
+        }
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("lists", lists);
+        stats.put("indexedVectors", total);
+        stats.put("minListSize", lists > 0 ? min : 0);
+        stats.put("maxListSize", max);
+        stats.put("averageListSize", lists > 0 ? (double) total / lists : 0.0);
+        return stats;
+    }
+
+    /**
+     * Growable int array of slots; guarded by its own monitor so scans and updates of
+     * different lists never contend
+     */
+    private static final class PostingList {
+        private int[] slots = new int[8];
+        private int size;
+
+        synchronized void add(int slot) {
+            if (size == slots.length) {
+                slots = Arrays.copyOf(slots, size * 2);
+            }
+            slots[size++] = slot;
+        }
+
+        synchronized void remove(int slot) {
+            for (int i = 0; i < size; i++) {
+                if (slots[i] == slot) {
+                    slots[i] = slots[--size];
+                    return;
+                }
+            }
+        }
+
+        synchronized int size() {
+            return size;
+        }
+
+        synchronized void scan(VectorStore store, float[] unitQuery, int k, ScoredHeap top, IntPredicate accept) {
+            for (int i = 0; i < size; i++) {
+                int slot = slots[i];
+                if (!store.isLive(slot) || !accept.test(slot) || store.norm(slot) == 0f) {
+                    continue;
+                }
+                top.offer(ExactScan.score(store, unitQuery, slot), slot, k);
+            }
+        }
+    }
+}
@@ -0,0 +1,223 @@
+package com.techisthoughts.ia.movieclassification.infrastructure.vector;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Lloyd k-means with the assignment step split across a fork-join pool. Each leaf task
+ * accumulates partial centroid sums for its row range, and partials are merged on the
+ * way back up. The spherical variant works on unit vectors and assigns by maximum dot
+ * product; the Euclidean variant keeps plain means and assigns by minimum L2 distance.
+ */
+public final class KMeans {
+
+    private KMeans() {
+    }
+
+    /**
+     * Train {@code k} unit-length centroids over {@code rows} row-major vectors of the given dimension.
+     * Rows are expected to be normalized already.
+     */
+    public static float[] train(float[] data, int rows, int dimension, int k, int iterations,
+                                long seed, ForkJoinPool pool) {
+        return train(data, rows, dimension, k, iterations, seed, pool, true);
+    }
+
+    /**
+     * Train {@code k} mean centroids over {@code rows} row-major vectors, minimizing squared L2 distance
+     */
+    public static float[] trainEuclidean(float[] data, int rows, int dimension, int k, int iterations,
+                                         long seed, ForkJoinPool pool) {
+        return train(data, rows, dimension, k, iterations, seed, pool, false);
+    }
+
+    private static float[] train(float[] data, int rows, int dimension, int k, int iterations,
+                                 long seed, ForkJoinPool pool, boolean spherical) {
+        if (rows == 0 || k <= 0) {
+            throw new IllegalArgumentException("k-means needs at least one row and one centroid");
+        }
+        k = Math.min(k, rows);
+        Random random = new Random(seed);
+
+        // Initialize from distinct random rows
+        float[] centroids = new float[k * dimension];
+        int[] order = shuffledIndexes(rows, random);
+        for (int c = 0; c < k; c++) {
+            System.arraycopy(data, order[c] * dimension, centroids, c * dimension, dimension);
+        }
+
+        int[] assignments = new int[rows];
+        Arrays.fill(assignments, -1);
+        int leafSize = Math.max(256, rows / Math.max(1, pool.getParallelism()));
+
+        for (int iteration = 0; iteration < iterations; iteration++) {
+            float[] halfNorms = spherical ? null : halfSquaredNorms(centroids, k, dimension);
+            Partial partial = pool.invoke(new AssignTask(data, dimension, centroids, halfNorms, k, assignments,
+                    0, rows, leafSize));
+
+            for (int c = 0; c < k; c++) {
+                int offset = c * dimension;
+                if (partial.counts[c] == 0) {
+                    // Re-seed empty clusters with a random row
+                    System.arraycopy(data, random.nextInt(rows) * dimension, centroids, offset, dimension);
+                    continue;
+                }
+                float scale;
+                if (spherical) {
+                    double norm = 0.0;
+                    for (int i = 0; i < dimension; i++) {
+                        norm += partial.sums[offset + i] * partial.sums[offset + i];
+                    }
+                    scale = norm > 0 ? (float) (1.0 / Math.sqrt(norm)) : 0f;
+                } else {
+                    scale = 1f / partial.counts[c];
+                }
+                for (int i = 0; i < dimension; i++) {
+                    centroids[offset + i] = partial.sums[offset + i] * scale;
+                }
+            }
+
+            if (partial.changed == 0) {
+                break;
+            }
+        }
+        return centroids;
+    }
+
+    /**
+     * Index of the centroid with the highest dot product against the given row
+     */
+    public static int nearest(float[] vector, int offset, float[] centroids, int k, int dimension) {
+        int best = 0;
+        double bestScore = Double.NEGATIVE_INFINITY;
+        for (int c = 0; c < k; c++) {
+            double score = VectorMath.dot(vector, offset, centroids, c * dimension, dimension);
+            if (score > bestScore) {
+                bestScore = score;
+                best = c;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Index of the centroid closest in L2 distance, using {@code |c|^2 / 2} precomputed per centroid
+     */
+    public static int nearestEuclidean(float[] vector, int offset, float[] centroids, float[] halfNorms,
+                                       int k, int dimension) {
+        int best = 0;
+        double bestScore = Double.NEGATIVE_INFINITY;
+        for (int c = 0; c < k; c++) {
+            // argmin |x - c|^2 == argmax (x.c - |c|^2 / 2)
+            double score = VectorMath.dot(vector, offset, centroids, c * dimension, dimension) - halfNorms[c];
+            if (score > bestScore) {
+                bestScore = score;
+                best = c;
+            }
+        }
+        return best;
+    }
+
+    public static float[] halfSquaredNorms(float[] centroids, int k, int dimension) {
+        float[] halfNorms = new float[k];
+        for (int c = 0; c < k; c++) {
+            halfNorms[c] = VectorMath.dot(centroids, c * dimension, centroids, c * dimension, dimension) / 2;
+        }
+        return halfNorms;
+    }
+
+    private static int[] shuffledIndexes(int rows, Random random) {
+        int[] order = new int[rows];
+        for (int i = 0; i < rows; i++) {
+            order[i] = i;
+        }
+        for (int i = rows - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int swap = order[i];
+            order[i] = order[j];
+            order[j] = swap;
+        }
+        return order;
+    }
+
+    private static final class Partial {
+        final float[] sums;
+        final int[] counts;
+        int changed;
+
+        Partial(int k, int dimension) {
+            this.sums = new float[k * dimension];
+            this.counts = new int[k];
+        }
+
+        Partial merge(Partial other) {
+            for (int i = 0; i < sums.length; i++) {
+                sums[i] += other.sums[i];
+            }
+            for (int i = 0; i < counts.length; i++) {
+                counts[i] += other.counts[i];
+            }
+            changed += other.changed;
+            return this;
+        }
+    }
+
+    private static final class AssignTask extends RecursiveTask<Partial> {
+        private final float[] data;
+        private final int dimension;
+        private final float[] centroids;
+        private final float[] halfNorms;
+        private final int k;
+        private final int[] assignments;
+        private final int from;
+        private final int to;
+        private final int leafSize;
+
+        AssignTask(float[] data, int dimension, float[] centroids, float[] halfNorms, int k, int[] assignments,
+                   int from, int to, int leafSize) {
+            this.data = data;
+            this.dimension = dimension;
+            this.centroids = centroids;
+            this.halfNorms = halfNorms;
+            this.k = k;
+            this.assignments = assignments;
+            this.from = from;
+            this.to = to;
+            this.leafSize = leafSize;
+        }
+
+        @Override
+        protected Partial compute() {
+            if (to - from <= leafSize) {
+                Partial partial = new Partial(k, dimension);
+                for (int row = from; row < to; row++) {
+                    int offset = row * dimension;
+                    int cluster = halfNorms == null
+                            ? nearest(data, offset, centroids, k, dimension)
+                            : nearestEuclidean(data, offset, centroids, halfNorms, k, dimension);
+                    if (assignments[row] != cluster) {
+                        assignments[row] = cluster;
+                        partial.changed++;
+                    }
+                    partial.counts[cluster]++;
+                    int sumOffset = cluster * dimension;
+                    for (int i = 0; i < dimension; i++) {
+                        partial.sums[sumOffset + i] += data[offset + i];
+                    }
+                }
+                return partial;
+            }
+
+            int middle = (from + to) >>> 1;
+            AssignTask left = new AssignTask(data, dimension, centroids, halfNorms, k, assignments,
+                    from, middle, leafSize);
+            AssignTask right = new AssignTask(data, dimension, centroids, halfNorms, k, assignments,
+                    middle, to, leafSize);
+            left.fork();
+            Partial rightResult = right.compute();
+            return left.join().merge(rightResult);
+        }
+    }
+}
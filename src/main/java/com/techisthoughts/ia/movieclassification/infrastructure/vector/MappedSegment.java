@@ -0,0 +1,324 @@
+package com.techisthoughts.ia.movieclassification.infrastructure.vector;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.BitSet;
+import java.util.Map;
+
+/**
+ * Immutable on-disk segment of vectors, memory-mapped read-only on open.
+ *
+ * A segment is three files sharing a base name: {@code .vec} holds a small header followed
+ * by the row-major float vectors and their reciprocal norms (little-endian, mapped, never
+ * copied onto the heap), {@code .ids} holds each row's ID and metadata, and the optional
+ * {@code .del} holds the tombstone bitmap of rows deleted or overwritten after sealing.
+ * Both data files are fsynced before they are renamed into place, {@code .vec} last, and the
+ * directory is fsynced after the renames, so the presence of {@code .vec} marks a complete
+ * segment even after a crash.
+ */
+public final class MappedSegment {
+
+    public static final String VECTOR_SUFFIX = ".vec";
+    private static final String IDS_SUFFIX = ".ids";
+    private static final String DELETES_SUFFIX = ".del";
+    private static final String TEMP_SUFFIX = ".tmp";
+    private static final int MAGIC = 0x56534547; // "VSEG"
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 4 * Integer.BYTES;
+    private static final int BLOCK_ROWS = 64;
+
+    private final Path basePath;
+    private final long sequence;
+    private final int dimension;
+    private final int rows;
+    private final long mappedBytes;
+    private final FloatBuffer vectors;
+    private final FloatBuffer inverseNorms;
+    private final String[] ids;
+    private final Map<String, Object>[] metadata;
+    private final BitSet deleted;
+    private final MetadataIndex metadataIndex = new MetadataIndex();
+    private boolean deletesDirty;
+
+    private MappedSegment(Path basePath, long sequence, int dimension, int rows, ByteBuffer mapped,
+                          String[] ids, Map<String, Object>[] metadata, BitSet deleted) {
+        this.basePath = basePath;
+        this.sequence = sequence;
+        this.dimension = dimension;
+        this.rows = rows;
+        this.mappedBytes = mapped.capacity();
+        this.vectors = mapped.slice(HEADER_BYTES, rows * dimension * Float.BYTES)
+                .order(ByteOrder.LITTLE_ENDIAN).asFloatBuffer();
+        this.inverseNorms = mapped.slice(HEADER_BYTES + rows * dimension * Float.BYTES, rows * Float.BYTES)
+                .order(ByteOrder.LITTLE_ENDIAN).asFloatBuffer();
+        this.ids = ids;
+        this.metadata = metadata;
+        this.deleted = deleted;
+        for (int row = 0; row < rows; row++) {
+            if (!deleted.get(row)) {
+                metadataIndex.add(row, metadata[row]);
+            }
+        }
+    }
+
+    /**
+     * Write the given live slots of a store as a new segment and open it
+     */
+    public static MappedSegment write(Path directory, long sequence, VectorStore store, int[] slots)
+            throws IOException {
+        int dimension = store.dimension();
+        Path basePath = directory.resolve(String.format("segment-%012d", sequence));
+        Path vectorTemp = sibling(basePath, VECTOR_SUFFIX + TEMP_SUFFIX);
+        Path idsTemp = sibling(basePath, IDS_SUFFIX + TEMP_SUFFIX);
+
+        try (FileChannel channel = FileChannel.open(idsTemp, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+             DataOutputStream out = new DataOutputStream(
+                     new BufferedOutputStream(Channels.newOutputStream(channel), 1 << 16))) {
+            for (int slot : slots) {
+                out.writeUTF(store.id(slot));
+                MetadataCodec.write(out, store.metadata(slot));
+            }
+            out.flush();
+            channel.force(true);
+        }
+
+        try (FileChannel channel = FileChannel.open(vectorTemp, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            header.putInt(MAGIC).putInt(VERSION).putInt(dimension).putInt(slots.length).flip();
+            writeFully(channel, header);
+
+            ByteBuffer block = ByteBuffer.allocate(BLOCK_ROWS * dimension * Float.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            for (int start = 0; start < slots.length; start += BLOCK_ROWS) {
+                block.clear();
+                FloatBuffer floats = block.asFloatBuffer();
+                int end = Math.min(slots.length, start + BLOCK_ROWS);
+                for (int i = start; i < end; i++) {
+                    int slot = slots[i];
+                    floats.put(store.segment(store.segmentOf(slot)), store.offsetOf(slot), dimension);
+                }
+                block.limit((end - start) * dimension * Float.BYTES);
+                writeFully(channel, block);
+            }
+
+            ByteBuffer norms = ByteBuffer.allocate(slots.length * Float.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            for (int slot : slots) {
+                norms.putFloat(store.inverseNorm(slot));
+            }
+            norms.flip();
+            writeFully(channel, norms);
+            channel.force(true);
+        }
+
+        Files.move(idsTemp, sibling(basePath, IDS_SUFFIX), StandardCopyOption.ATOMIC_MOVE,
+                StandardCopyOption.REPLACE_EXISTING);
+        Path vectorFile = sibling(basePath, VECTOR_SUFFIX);
+        Files.move(vectorTemp, vectorFile, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        syncDirectory(directory);
+        return open(vectorFile);
+    }
+
+    /**
+     * Map a sealed segment; only IDs, metadata and tombstones are read onto the heap
+     */
+    public static MappedSegment open(Path vectorFile) throws IOException {
+        String fileName = vectorFile.getFileName().toString();
+        Path basePath = vectorFile.resolveSibling(fileName.substring(0, fileName.length() - VECTOR_SUFFIX.length()));
+
+        ByteBuffer mapped;
+        try (FileChannel channel = FileChannel.open(vectorFile, StandardOpenOption.READ)) {
+            mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        ByteBuffer header = mapped.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+        if (header.capacity() < HEADER_BYTES || header.getInt() != MAGIC || header.getInt() != VERSION) {
+            throw new IOException("Not a vector segment: " + vectorFile);
+        }
+        int dimension = header.getInt();
+        int rows = header.getInt();
+        long expected = HEADER_BYTES + (long) rows * (dimension + 1) * Float.BYTES;
+        if (dimension <= 0 || rows < 0 || mapped.capacity() != expected) {
+            throw new IOException("Truncated vector segment: " + vectorFile);
+        }
+
+        String[] ids = new String[rows];
+        Map<String, Object>[] metadata = newMetadataArray(rows);
+        try (DataInputStream in = new DataInputStream(bufferedInput(sibling(basePath, IDS_SUFFIX)))) {
+            for (int row = 0; row < rows; row++) {
+                ids[row] = in.readUTF();
+                metadata[row] = MetadataCodec.read(in);
+            }
+        }
+
+        Path deletesFile = sibling(basePath, DELETES_SUFFIX);
+        BitSet deleted = Files.exists(deletesFile) ? BitSet.valueOf(Files.readAllBytes(deletesFile)) : new BitSet();
+        return new MappedSegment(basePath, sequenceOf(vectorFile), dimension, rows, mapped, ids, metadata, deleted);
+    }
+
+    /**
+     * Sequence number encoded in a segment file name
+     */
+    public static long sequenceOf(Path vectorFile) {
+        String name = vectorFile.getFileName().toString();
+        return Long.parseLong(name.substring("segment-".length(), name.length() - VECTOR_SUFFIX.length()));
+    }
+
+    /**
+     * Score the live rows of this segment (restricted to the metadata filter) into a shared
+     * top-k heap, tagging each row with {@code base + row}
+     */
+    public void scan(float[] unitQuery, int limit, Map<String, Object> filter, ScoredHeap top, int base) {
+        if (unitQuery.length != dimension) {
+            throw new IllegalArgumentException("Vectors must have the same dimension");
+        }
+        BitSet candidates = filter.isEmpty() ? null : metadataIndex.select(filter);
+        float[] block = new float[BLOCK_ROWS * dimension];
+        if (candidates != null) {
+            for (int row = candidates.nextSetBit(0); row >= 0 && row < rows; row = candidates.nextSetBit(row + 1)) {
+                if (!deleted.get(row) && MetadataFilter.matches(metadata[row], filter)) {
+                    vectors.get(row * dimension, block, 0, dimension);
+                    top.offer(VectorMath.dot(unitQuery, block, 0, dimension) * inverseNorms.get(row), base + row, limit);
+                }
+            }
+            return;
+        }
+        for (int start = 0; start < rows; start += BLOCK_ROWS) {
+            int count = Math.min(BLOCK_ROWS, rows - start);
+            vectors.get(start * dimension, block, 0, count * dimension);
+            for (int i = 0; i < count; i++) {
+                int row = start + i;
+                if (deleted.get(row) || !MetadataFilter.matches(metadata[row], filter)) {
+                    continue;
+                }
+                float score = VectorMath.dot(unitQuery, block, i * dimension, dimension) * inverseNorms.get(row);
+                top.offer(score, base + row, limit);
+            }
+        }
+    }
+
+    /**
+     * Tombstone a row; persisted by the next {@link #persistDeletes()}
+     */
+    public void delete(int row) {
+        if (!deleted.get(row)) {
+            deleted.set(row);
+            metadataIndex.remove(row, metadata[row]);
+            deletesDirty = true;
+        }
+    }
+
+    public boolean hasUnpersistedDeletes() {
+        return deletesDirty;
+    }
+
+    /**
+     * Rewrite the tombstone file if rows were deleted since the last call
+     */
+    public void persistDeletes() throws IOException {
+        if (!deletesDirty) {
+            return;
+        }
+        Path temp = sibling(basePath, DELETES_SUFFIX + TEMP_SUFFIX);
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            writeFully(channel, ByteBuffer.wrap(deleted.toByteArray()));
+            channel.force(true);
+        }
+        Files.move(temp, sibling(basePath, DELETES_SUFFIX), StandardCopyOption.ATOMIC_MOVE,
+                StandardCopyOption.REPLACE_EXISTING);
+        syncDirectory(basePath.getParent());
+        deletesDirty = false;
+    }
+
+    public void deleteFiles() throws IOException {
+        Files.deleteIfExists(sibling(basePath, VECTOR_SUFFIX));
+        Files.deleteIfExists(sibling(basePath, IDS_SUFFIX));
+        Files.deleteIfExists(sibling(basePath, DELETES_SUFFIX));
+    }
+
+    public boolean isLive(int row) {
+        return !deleted.get(row);
+    }
+
+    public String id(int row) {
+        return ids[row];
+    }
+
+    public Map<String, Object> metadata(int row) {
+        return metadata[row];
+    }
+
+    public float[] vector(int row) {
+        float[] vector = new float[dimension];
+        vectors.get(row * dimension, vector, 0, dimension);
+        return vector;
+    }
+
+    public long sequence() {
+        return sequence;
+    }
+
+    public int rows() {
+        return rows;
+    }
+
+    public int liveRows() {
+        return rows - deleted.cardinality();
+    }
+
+    public int dimension() {
+        return dimension;
+    }
+
+    public long mappedBytes() {
+        return mappedBytes;
+    }
+
+    private static Path sibling(Path basePath, String suffix) {
+        return basePath.resolveSibling(basePath.getFileName() + suffix);
+    }
+
+    /**
+     * Make renames in the directory durable. Platforms that cannot open a directory (Windows)
+     * do not need it and are skipped.
+     */
+    private static void syncDirectory(Path directory) throws IOException {
+        FileChannel channel;
+        try {
+            channel = FileChannel.open(directory, StandardOpenOption.READ);
+        } catch (IOException e) {
+            return;
+        }
+        try (channel) {
+            channel.force(true);
+        }
+    }
+
+    private static InputStream bufferedInput(Path path) throws IOException {
+        return new BufferedInputStream(Files.newInputStream(path), 1 << 16);
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object>[] newMetadataArray(int length) {
+        return new Map[length];
+    }
+}
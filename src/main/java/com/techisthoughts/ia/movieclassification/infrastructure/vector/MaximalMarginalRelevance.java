@@ -0,0 +1,84 @@
+package com.techisthoughts.ia.movieclassification.infrastructure.vector;
+
+import java.util.Arrays;
+
+/**
+ * Maximal marginal relevance re-ranking of a candidate set.
+ *
+ * Each step picks the candidate maximising
+ * {@code lambda * sim(query, c) - (1 - lambda) * max sim(c, selected)}, so near-duplicates of
+ * an already selected result (a chunk and its own generated questions) lose to slightly less
+ * similar but new content. Candidates are copied once into a contiguous unit-length slab; each
+ * candidate keeps its running maximum similarity to the selection, so every pair is compared
+ * at most once and no extra scan of the store is needed.
+ */
+public final class MaximalMarginalRelevance {
+
+    private MaximalMarginalRelevance() {
+    }
+
+    /**
+     * Select up to {@code limit} candidates from vectors given as separate arrays
+     *
+     * @return indices into the candidate list, in selection order
+     */
+    public static int[] select(float[] relevance, float[][] vectors, int limit, double lambda) {
+        int dimension = vectors.length > 0 ? vectors[0].length : 0;
+        float[] rows = new float[vectors.length * dimension];
+        for (int i = 0; i < vectors.length; i++) {
+            System.arraycopy(VectorMath.normalize(vectors[i]), 0, rows, i * dimension, dimension);
+        }
+        return select(relevance, rows, dimension, limit, lambda);
+    }
+
+    /**
+     * Select up to {@code limit} candidates whose unit-length vectors are packed row by row in
+     * {@code unitRows}; {@code relevance[i]} is candidate {@code i}'s similarity to the query
+     *
+     * @return indices into the candidate list, in selection order
+     */
+    public static int[] select(float[] relevance, float[] unitRows, int dimension, int limit, double lambda) {
+        int n = relevance.length;
+        int k = Math.min(Math.max(limit, 0), n);
+        float relevanceWeight = (float) lambda;
+        float redundancyWeight = (float) (1.0 - lambda);
+
+        int[] selected = new int[k];
+        boolean[] taken = new boolean[n];
+        float[] redundancy = new float[n];
+        Arrays.fill(redundancy, Float.NEGATIVE_INFINITY);
+
+        for (int step = 0; step < k; step++) {
+            int best = -1;
+            float bestScore = Float.NEGATIVE_INFINITY;
+            for (int i = 0; i < n; i++) {
+                if (taken[i]) {
+                    continue;
+                }
+                // Nothing is redundant before the first pick
+                float score = step == 0
+                        ? relevance[i]
+                        : relevanceWeight * relevance[i] - redundancyWeight * redundancy[i];
+                if (best < 0 || score > bestScore) {
+                    best = i;
+                    bestScore = score;
+                }
+            }
+            selected[step] = best;
+            taken[best] = true;
+
+            if (step + 1 < k) {
+                int bestOffset = best * dimension;
+                for (int i = 0; i < n; i++) {
+                    if (!taken[i]) {
+                        float similarity = VectorMath.dot(unitRows, i * dimension, unitRows, bestOffset, dimension);
+                        if (similarity > redundancy[i]) {
+                            redundancy[i] = similarity;
+                        }
+                    }
+                }
+            }
+        }
+        return selected;
+    }
+}
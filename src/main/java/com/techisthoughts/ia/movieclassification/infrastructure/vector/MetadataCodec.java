@@ -0,0 +1,73 @@
+package com.techisthoughts.ia.movieclassification.infrastructure.vector;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Compact binary encoding of metadata maps for on-disk segments and logs. Strings, integers,
+ * longs, doubles and booleans keep their type; any other value is stored as its string form.
+ */
+public final class MetadataCodec {
+
+    private static final byte STRING = 0;
+    private static final byte INTEGER = 1;
+    private static final byte LONG = 2;
+    private static final byte DOUBLE = 3;
+    private static final byte BOOLEAN = 4;
+    private static final byte NULL = 5;
+
+    private MetadataCodec() {
+    }
+
+    public static void write(DataOutput out, Map<String, Object> metadata) throws IOException {
+        out.writeInt(metadata.size());
+        for (Map.Entry<String, Object> entry : metadata.entrySet()) {
+            out.writeUTF(entry.getKey());
+            Object value = entry.getValue();
+            if (value == null) {
+                out.writeByte(NULL);
+            } else if (value instanceof Integer i) {
+                out.writeByte(INTEGER);
+                out.writeInt(i);
+            } else if (value instanceof Long l) {
+                out.writeByte(LONG);
+                out.writeLong(l);
+            } else if (value instanceof Double d) {
+                out.writeByte(DOUBLE);
+                out.writeDouble(d);
+            } else if (value instanceof Boolean b) {
+                out.writeByte(BOOLEAN);
+                out.writeBoolean(b);
+            } else {
+                out.writeByte(STRING);
+                out.writeUTF(value.toString());
+            }
+        }
+    }
+
+    public static Map<String, Object> read(DataInput in) throws IOException {
+        int size = in.readInt();
+        if (size < 0) {
+            throw new IOException("Corrupt metadata entry count: " + size);
+        }
+        Map<String, Object> metadata = new HashMap<>(Math.max(4, size * 2));
+        for (int i = 0; i < size; i++) {
+            String key = in.readUTF();
+            byte type = in.readByte();
+            Object value = switch (type) {
+                case STRING -> in.readUTF();
+                case INTEGER -> in.readInt();
+                case LONG -> in.readLong();
+                case DOUBLE -> in.readDouble();
+                case BOOLEAN -> in.readBoolean();
+                case NULL -> null;
+                default -> throw new IOException("Unknown metadata value type: " + type);
+            };
+            metadata.put(key, value);
+        }
+        return metadata;
+    }
+}
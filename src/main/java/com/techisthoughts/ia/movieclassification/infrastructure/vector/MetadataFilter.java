@@ -0,0 +1,34 @@
+package com.techisthoughts.ia.movieclassification.infrastructure.vector;
+
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Equality filter over embedding metadata, shared by the vector database backends
+ */
+public final class MetadataFilter {
+
+    private MetadataFilter() {
+    }
+
+    /**
+     * Check if metadata matches the given filter
+     */
+    public static boolean matches(Map<String, Object> metadata, Map<String, Object> filter) {
+        if (filter.isEmpty()) {
+            return true;
+        }
+
+        for (Map.Entry<String, Object> filterEntry : filter.entrySet()) {
+            String key = filterEntry.getKey();
+            Object expectedValue = filterEntry.getValue();
+            Object actualValue = metadata.get(key);
+
+            if (!Objects.equals(expectedValue, actualValue)) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+}
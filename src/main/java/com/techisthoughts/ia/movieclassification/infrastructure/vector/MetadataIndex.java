@@ -0,0 +1,151 @@
+package com.techisthoughts.ia.movieclassification.infrastructure.vector;
+
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Inverted index from metadata key/value pairs to the set of slots carrying them, one
+ * bitmap per pair. Filters are answered by intersecting bitmaps so a filtered query only
+ * scores the slots that can match. Each bitmap keeps its population count, so the
+ * selectivity of a filter can be estimated without touching the bitmaps.
+ *
+ * Every key is indexed until it exceeds {@link #MAX_CARDINALITY} distinct values; keys like
+ * "type", "genre" or "difficulty" stay indexed, while per-row identifiers are dropped and
+ * left to the residual filter. All methods are synchronized, so the index may be read
+ * while an owner that uses a shared lock for mutations is inserting.
+ */
+public class MetadataIndex {
+
+    public static final int MAX_CARDINALITY = 256;
+
+    private final Map<String, Map<Object, Posting>> postings = new HashMap<>();
+    private final Set<String> unindexed = new HashSet<>();
+
+    /**
+     * Slots carrying one key/value pair, with their count
+     */
+    private static final class Posting {
+        private final BitSet slots = new BitSet();
+        private int count;
+    }
+
+    public synchronized void add(int slot, Map<String, Object> metadata) {
+        for (Map.Entry<String, Object> entry : metadata.entrySet()) {
+            String key = entry.getKey();
+            if (entry.getValue() == null || unindexed.contains(key)) {
+                continue;
+            }
+            Map<Object, Posting> values = postings.computeIfAbsent(key, k -> new HashMap<>());
+            Posting posting = values.get(entry.getValue());
+            if (posting == null) {
+                if (values.size() >= MAX_CARDINALITY) {
+                    postings.remove(key);
+                    unindexed.add(key);
+                    continue;
+                }
+                posting = new Posting();
+                values.put(entry.getValue(), posting);
+            }
+            if (!posting.slots.get(slot)) {
+                posting.slots.set(slot);
+                posting.count++;
+            }
+        }
+    }
+
+    public synchronized void remove(int slot, Map<String, Object> metadata) {
+        for (Map.Entry<String, Object> entry : metadata.entrySet()) {
+            Map<Object, Posting> values = postings.get(entry.getKey());
+            if (values == null || entry.getValue() == null) {
+                continue;
+            }
+            Posting posting = values.get(entry.getValue());
+            if (posting != null && posting.slots.get(slot)) {
+                posting.slots.clear(slot);
+                if (--posting.count == 0) {
+                    values.remove(entry.getValue());
+                }
+            }
+        }
+    }
+
+    /**
+     * Slots matching every indexed condition of the filter, or {@code null} when none of
+     * its keys is indexed. Conditions on unindexed keys are not applied, so callers still
+     * check the full filter against each returned slot.
+     */
+    public synchronized BitSet select(Map<String, Object> filter) {
+        BitSet selection = null;
+        for (Map.Entry<String, Object> condition : filter.entrySet()) {
+            Map<Object, Posting> values = postings.get(condition.getKey());
+            if (condition.getValue() == null || unindexed.contains(condition.getKey())) {
+                continue;
+            }
+            Posting posting = values != null ? values.get(condition.getValue()) : null;
+            if (posting == null) {
+                // An indexed key that no live slot carries with this value
+                return new BitSet();
+            }
+            if (selection == null) {
+                selection = (BitSet) posting.slots.clone();
+            } else {
+                selection.and(posting.slots);
+            }
+        }
+        return selection;
+    }
+
+    /**
+     * Estimated fraction of {@code liveSlots} matching the filter, from the per-value counts.
+     * Conditions are assumed independent; a condition on an unindexed key is assumed to keep
+     * {@code 1 / MAX_CARDINALITY} of the slots, an upper bound on the average share of one of
+     * its values, and a null condition is not counted.
+     */
+    public synchronized FilterEstimate estimate(Map<String, Object> filter, int liveSlots) {
+        double selectivity = 1.0;
+        boolean indexed = false;
+        for (Map.Entry<String, Object> condition : filter.entrySet()) {
+            if (condition.getValue() == null) {
+                continue;
+            }
+            if (unindexed.contains(condition.getKey())) {
+                selectivity /= MAX_CARDINALITY;
+                continue;
+            }
+            Map<Object, Posting> values = postings.get(condition.getKey());
+            Posting posting = values != null ? values.get(condition.getValue()) : null;
+            if (posting == null || liveSlots <= 0) {
+                return new FilterEstimate(0.0, true);
+            }
+            selectivity *= Math.min(1.0, (double) posting.count / liveSlots);
+            indexed = true;
+        }
+        return new FilterEstimate(selectivity, indexed);
+    }
+
+    /**
+     * @param selectivity estimated matching fraction of the live slots
+     * @param indexed     whether {@link #select} returns a bitmap for the filter
+     */
+    public record FilterEstimate(double selectivity, boolean indexed) {
+    }
+
+    public synchronized void clear() {
+        postings.clear();
+        unindexed.clear();
+    }
+
+    public synchronized Map<String, Object> getStatistics() {
+        Map<String, Object> cardinalities = new HashMap<>();
+        for (Map.Entry<String, Map<Object, Posting>> entry : postings.entrySet()) {
+            cardinalities.put(entry.getKey(), entry.getValue().size());
+        }
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("indexedKeys", cardinalities);
+        stats.put("unindexedKeys", Set.copyOf(unindexed));
+        return stats;
+    }
+}
@@ -0,0 +1,205 @@
+package com.techisthoughts.ia.movieclassification.infrastructure.vector;
+
+import java.util.Random;
+import java.util.stream.IntStream;
+
+/**
+ * Principal component projection: subtract the sample mean, project onto the leading
+ * eigenvectors of the sample covariance and renormalize.
+ *
+ * The components are found by subspace iteration (block power iteration re-orthonormalized
+ * with modified Gram-Schmidt) on the covariance matrix, which only needs the top
+ * {@code components} eigenvectors rather than a full eigendecomposition.
+ */
+public final class PcaProjection implements Projection {
+
+    private static final int ITERATIONS = 20;
+
+    private final float[] mean;
+    private final float[] components;
+    private final int inputDimension;
+    private final int outputDimension;
+    private final double explainedVariance;
+
+    private PcaProjection(float[] mean, float[] components, int outputDimension, double explainedVariance) {
+        this.mean = mean;
+        this.components = components;
+        this.inputDimension = mean.length;
+        this.outputDimension = outputDimension;
+        this.explainedVariance = explainedVariance;
+    }
+
+    /**
+     * Fit the leading {@code components} principal axes of the sample rows
+     */
+    public static PcaProjection fit(float[][] sample, int components, long seed) {
+        if (sample.length == 0) {
+            throw new IllegalArgumentException("Cannot fit PCA on an empty sample");
+        }
+        int dimension = sample[0].length;
+        int k = Math.min(components, dimension);
+
+        double[] mean = new double[dimension];
+        for (float[] row : sample) {
+            for (int j = 0; j < dimension; j++) {
+                mean[j] += row[j];
+            }
+        }
+        for (int j = 0; j < dimension; j++) {
+            mean[j] /= sample.length;
+        }
+
+        double[][] centered = new double[sample.length][dimension];
+        for (int i = 0; i < sample.length; i++) {
+            for (int j = 0; j < dimension; j++) {
+                centered[i][j] = sample[i][j] - mean[j];
+            }
+        }
+        double[][] covariance = covariance(centered, dimension);
+
+        double[][] basis = new double[k][dimension];
+        Random random = new Random(seed);
+        for (double[] axis : basis) {
+            for (int j = 0; j < dimension; j++) {
+                axis[j] = random.nextGaussian();
+            }
+        }
+        orthonormalize(basis, random);
+        for (int iteration = 0; iteration < ITERATIONS; iteration++) {
+            double[][] current = basis;
+            double[][] next = new double[k][];
+            IntStream.range(0, k).parallel().forEach(c -> next[c] = multiply(covariance, current[c]));
+            orthonormalize(next, random);
+            basis = next;
+        }
+
+        double total = 0;
+        for (int j = 0; j < dimension; j++) {
+            total += covariance[j][j];
+        }
+        double captured = 0;
+        for (double[] axis : basis) {
+            captured += dot(axis, multiply(covariance, axis));
+        }
+
+        float[] meanFloats = new float[dimension];
+        for (int j = 0; j < dimension; j++) {
+            meanFloats[j] = (float) mean[j];
+        }
+        float[] flat = new float[k * dimension];
+        for (int c = 0; c < k; c++) {
+            for (int j = 0; j < dimension; j++) {
+                flat[c * dimension + j] = (float) basis[c][j];
+            }
+        }
+        return new PcaProjection(meanFloats, flat, k, total > 0 ? captured / total : 1.0);
+    }
+
+    @Override
+    public float[] apply(float[] vector) {
+        if (vector.length != inputDimension) {
+            throw new IllegalArgumentException(
+                "Expected " + inputDimension + "-dimensional vector, got " + vector.length);
+        }
+        float[] centered = new float[inputDimension];
+        for (int j = 0; j < inputDimension; j++) {
+            centered[j] = vector[j] - mean[j];
+        }
+        float[] projected = new float[outputDimension];
+        for (int c = 0; c < outputDimension; c++) {
+            projected[c] = VectorMath.dot(centered, components, c * inputDimension, inputDimension);
+        }
+        return VectorMath.normalize(projected);
+    }
+
+    @Override
+    public int outputDimension(int inputDimension) {
+        return outputDimension;
+    }
+
+    @Override
+    public boolean isIdentity() {
+        return false;
+    }
+
+    @Override
+    public String name() {
+        return "pca";
+    }
+
+    public int inputDimension() {
+        return inputDimension;
+    }
+
+    /**
+     * Fraction of the sample variance kept by the fitted components
+     */
+    public double explainedVariance() {
+        return explainedVariance;
+    }
+
+    private static double[][] covariance(double[][] centered, int dimension) {
+        double[][] covariance = new double[dimension][dimension];
+        IntStream.range(0, dimension).parallel().forEach(a -> {
+            double[] row = covariance[a];
+            for (double[] sample : centered) {
+                double value = sample[a];
+                if (value == 0) {
+                    continue;
+                }
+                for (int b = a; b < dimension; b++) {
+                    row[b] += value * sample[b];
+                }
+            }
+            for (int b = a; b < dimension; b++) {
+                row[b] /= centered.length;
+            }
+        });
+        for (int a = 0; a < dimension; a++) {
+            for (int b = 0; b < a; b++) {
+                covariance[a][b] = covariance[b][a];
+            }
+        }
+        return covariance;
+    }
+
+    private static double[] multiply(double[][] matrix, double[] vector) {
+        double[] result = new double[matrix.length];
+        for (int i = 0; i < matrix.length; i++) {
+            result[i] = dot(matrix[i], vector);
+        }
+        return result;
+    }
+
+    private static void orthonormalize(double[][] basis, Random random) {
+        for (int c = 0; c < basis.length; c++) {
+            double[] axis = basis[c];
+            for (int previous = 0; previous < c; previous++) {
+                double projection = dot(axis, basis[previous]);
+                for (int j = 0; j < axis.length; j++) {
+                    axis[j] -= projection * basis[previous][j];
+                }
+            }
+            double norm = Math.sqrt(dot(axis, axis));
+            if (norm < 1e-12) {
+                // Rank-deficient sample: any direction orthogonal to the rest will do
+                for (int j = 0; j < axis.length; j++) {
+                    axis[j] = random.nextGaussian();
+                }
+                c--;
+                continue;
+            }
+            for (int j = 0; j < axis.length; j++) {
+                axis[j] /= norm;
+            }
+        }
+    }
+
+    private static double dot(double[] a, double[] b) {
+        double sum = 0;
+        for (int i = 0; i < a.length; i++) {
+            sum += a[i] * b[i];
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,134 @@
+package com.techisthoughts.ia.movieclassification.infrastructure.vector;
+
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Product quantizer: each vector is split into {@code m} contiguous subvectors and every
+ * subvector is replaced by the index of its nearest centroid in a 256-entry codebook
+ * trained for that subspace, so a vector costs {@code m} bytes.
+ *
+ * Queries are answered with asymmetric distance computation (ADC): the query stays full
+ * precision, a table of query/centroid inner products is built once per query, and each
+ * code is then scored with {@code m} table lookups and adds.
+ */
+public final class ProductQuantizer {
+
+    public static final int CENTROIDS = 256;
+
+    private final int dimension;
+    private final int subvectors;
+    private final int[] bounds;
+    private final float[][] codebooks;
+    private final float[][] halfNorms;
+
+    private ProductQuantizer(int dimension, int[] bounds, float[][] codebooks) {
+        this.dimension = dimension;
+        this.subvectors = bounds.length - 1;
+        this.bounds = bounds;
+        this.codebooks = codebooks;
+        this.halfNorms = new float[subvectors][];
+        for (int j = 0; j < subvectors; j++) {
+            halfNorms[j] = KMeans.halfSquaredNorms(codebooks[j], CENTROIDS, bounds[j + 1] - bounds[j]);
+        }
+    }
+
+    /**
+     * Train one codebook per subspace over {@code rows} row-major vectors. When the dimension
+     * does not divide evenly the leading subspaces take one extra component each.
+     */
+    public static ProductQuantizer train(float[] data, int rows, int dimension, int subvectors, int iterations,
+                                         long seed, ForkJoinPool pool) {
+        if (subvectors <= 0 || subvectors > dimension) {
+            throw new IllegalArgumentException("Subvector count must be between 1 and the vector dimension");
+        }
+        int[] bounds = new int[subvectors + 1];
+        for (int j = 0; j < subvectors; j++) {
+            bounds[j + 1] = bounds[j] + dimension / subvectors + (j < dimension % subvectors ? 1 : 0);
+        }
+
+        float[][] codebooks = new float[subvectors][];
+        for (int j = 0; j < subvectors; j++) {
+            int width = bounds[j + 1] - bounds[j];
+            float[] sub = new float[rows * width];
+            for (int row = 0; row < rows; row++) {
+                System.arraycopy(data, row * dimension + bounds[j], sub, row * width, width);
+            }
+            float[] trained = KMeans.trainEuclidean(sub, rows, width, CENTROIDS, iterations, seed + j, pool);
+            // Pad small training sets to a full codebook so every code byte is a valid entry
+            codebooks[j] = new float[CENTROIDS * width];
+            for (int c = 0; c < CENTROIDS; c++) {
+                System.arraycopy(trained, (c % (trained.length / width)) * width, codebooks[j], c * width, width);
+            }
+        }
+        return new ProductQuantizer(dimension, bounds, codebooks);
+    }
+
+    /**
+     * Write the {@code m} code bytes of the vector starting at {@code offset}
+     */
+    public void encode(float[] vector, int offset, byte[] codes, int codeOffset) {
+        for (int j = 0; j < subvectors; j++) {
+            int width = bounds[j + 1] - bounds[j];
+            codes[codeOffset + j] = (byte) KMeans.nearestEuclidean(vector, offset + bounds[j], codebooks[j],
+                    halfNorms[j], CENTROIDS, width);
+        }
+    }
+
+    /**
+     * Reconstruct the approximate vector described by a code
+     */
+    public float[] decode(byte[] codes, int codeOffset) {
+        float[] vector = new float[dimension];
+        for (int j = 0; j < subvectors; j++) {
+            int width = bounds[j + 1] - bounds[j];
+            int centroid = codes[codeOffset + j] & 0xFF;
+            System.arraycopy(codebooks[j], centroid * width, vector, bounds[j], width);
+        }
+        return vector;
+    }
+
+    /**
+     * Inner products between each query subvector and every centroid of its subspace,
+     * laid out as {@code m} consecutive runs of 256 floats
+     */
+    public float[] innerProductTable(float[] query) {
+        if (query.length != dimension) {
+            throw new IllegalArgumentException("Vectors must have the same dimension");
+        }
+        float[] table = new float[subvectors * CENTROIDS];
+        for (int j = 0; j < subvectors; j++) {
+            int width = bounds[j + 1] - bounds[j];
+            float[] codebook = codebooks[j];
+            for (int c = 0; c < CENTROIDS; c++) {
+                table[j * CENTROIDS + c] = VectorMath.dot(query, bounds[j], codebook, c * width, width);
+            }
+        }
+        return table;
+    }
+
+    /**
+     * Approximate inner product between the table's query and an encoded vector
+     */
+    public static float score(float[] table, byte[] codes, int codeOffset, int subvectors) {
+        float sum = 0f;
+        for (int j = 0; j < subvectors; j++) {
+            sum += table[(j << 8) + (codes[codeOffset + j] & 0xFF)];
+        }
+        return sum;
+    }
+
+    public int subvectors() {
+        return subvectors;
+    }
+
+    public int dimension() {
+        return dimension;
+    }
+
+    /**
+     * Bytes held by the codebooks
+     */
+    public long codebookBytes() {
+        return (long) dimension * CENTROIDS * Float.BYTES;
+    }
+}
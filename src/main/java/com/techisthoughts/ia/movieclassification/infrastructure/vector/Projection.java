@@ -0,0 +1,96 @@
+package com.techisthoughts.ia.movieclassification.infrastructure.vector;
+
+/**
+ * Linear map from full-width embeddings to a smaller space where they are stored and
+ * searched; outputs are unit length so cosine similarity is preserved as a dot product.
+ */
+public interface Projection {
+
+    float[] apply(float[] vector);
+
+    /**
+     * Output dimension for an input of the given dimension
+     */
+    int outputDimension(int inputDimension);
+
+    boolean isIdentity();
+
+    String name();
+
+    /**
+     * Pass-through, used until a projection has been fitted
+     */
+    static Projection identity() {
+        return IdentityProjection.INSTANCE;
+    }
+
+    /**
+     * Matryoshka-style truncation: keep the leading {@code dimensions} components and
+     * renormalize. Only meaningful for models trained so that prefixes remain usable embeddings.
+     */
+    static Projection truncate(int dimensions) {
+        return new TruncatingProjection(dimensions);
+    }
+
+    final class IdentityProjection implements Projection {
+
+        private static final IdentityProjection INSTANCE = new IdentityProjection();
+
+        @Override
+        public float[] apply(float[] vector) {
+            return vector;
+        }
+
+        @Override
+        public int outputDimension(int inputDimension) {
+            return inputDimension;
+        }
+
+        @Override
+        public boolean isIdentity() {
+            return true;
+        }
+
+        @Override
+        public String name() {
+            return "none";
+        }
+    }
+
+    final class TruncatingProjection implements Projection {
+
+        private final int dimensions;
+
+        private TruncatingProjection(int dimensions) {
+            if (dimensions <= 0) {
+                throw new IllegalArgumentException("Truncated dimension must be positive");
+            }
+            this.dimensions = dimensions;
+        }
+
+        @Override
+        public float[] apply(float[] vector) {
+            if (vector.length <= dimensions) {
+                return VectorMath.normalize(vector);
+            }
+            float[] prefix = new float[dimensions];
+            System.arraycopy(vector, 0, prefix, 0, dimensions);
+            return VectorMath.normalize(prefix);
+        }
+
+        @Override
+        public int outputDimension(int inputDimension) {
+            return Math.min(dimensions, inputDimension);
+        }
+
+        @Override
+        public boolean isIdentity() {
+            return false;
+        }
+
+        @Override
+        public String name() {
+            return "truncate";
+        }
+    }
+}
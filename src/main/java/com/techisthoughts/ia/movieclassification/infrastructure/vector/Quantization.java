@@ -0,0 +1,14 @@
+package com.techisthoughts.ia.movieclassification.infrastructure.vector;
+
+/**
+ * Compressed representation scanned for candidates before full-precision re-ranking
+ */
+public enum Quantization {
+    NONE,
+    INT8,
+    BINARY;
+
+    public static Quantization from(String value) {
+        return value == null || value.isBlank() ? NONE : valueOf(value.trim().toUpperCase());
+    }
+}
@@ -0,0 +1,39 @@
+package com.techisthoughts.ia.movieclassification.infrastructure.vector;
+
+import java.util.function.IntPredicate;
+
+/**
+ * Compact copy of the vectors in a {@link VectorStore} that is scanned for candidates,
+ * which the caller then re-ranks against the full-precision vectors. Implementations are
+ * not thread-safe; callers serialize mutations against scans.
+ */
+public interface QuantizedIndex {
+
+    /**
+     * Encode a freshly written slot
+     */
+    void onStore(int slot);
+
+    /**
+     * Re-encode every live row of the store
+     */
+    void rebuild();
+
+    /**
+     * Whether {@link #candidates} can be answered yet
+     */
+    boolean isReady();
+
+    /**
+     * Scan the codes and return up to {@code candidates} slots with the best approximate
+     * similarity, best first
+     */
+    int[] candidates(float[] query, int candidates, IntPredicate accept);
+
+    /**
+     * Bytes held by the codes
+     */
+    long codeBytes();
+
+    void clear();
+}
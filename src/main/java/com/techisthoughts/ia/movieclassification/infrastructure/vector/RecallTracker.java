@@ -0,0 +1,68 @@
+package com.techisthoughts.ia.movieclassification.infrastructure.vector;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.DoubleAdder;
+
+/**
+ * Measures recall@k of an approximate search path by periodically re-running a
+ * sampled query exactly and comparing the returned slots
+ */
+public class RecallTracker {
+
+    private final int sampleEvery;
+    private final AtomicLong queries = new AtomicLong();
+    private final AtomicLong samples = new AtomicLong();
+    private final DoubleAdder recallSum = new DoubleAdder();
+
+    public RecallTracker(int sampleEvery) {
+        this.sampleEvery = Math.max(1, sampleEvery);
+    }
+
+    /**
+     * Count a query and decide whether it should also be answered exactly
+     */
+    public boolean shouldSample() {
+        return queries.incrementAndGet() % sampleEvery == 0;
+    }
+
+    public void record(List<ScoredSlot> approximate, List<ScoredSlot> exact) {
+        recordKeys(approximate.stream().map(ScoredSlot::slot).toList(), exact.stream().map(ScoredSlot::slot).toList());
+    }
+
+    /**
+     * Record a sample compared by result key, e.g. ids for stores that do not expose slots
+     */
+    public <K> void recordKeys(Collection<K> approximate, Collection<K> exact) {
+        if (exact.isEmpty()) {
+            return;
+        }
+        Set<K> expected = new HashSet<>(exact);
+        int hits = 0;
+        for (K match : approximate) {
+            if (expected.contains(match)) {
+                hits++;
+            }
+        }
+        recallSum.add((double) hits / expected.size());
+        samples.incrementAndGet();
+    }
+
+    public double recall() {
+        long count = samples.get();
+        return count == 0 ? 1.0 : recallSum.sum() / count;
+    }
+
+    public Map<String, Object> getStatistics() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("measuredRecall", recall());
+        stats.put("recallSamples", samples.get());
+        stats.put("queries", queries.get());
+        return stats;
+    }
+}
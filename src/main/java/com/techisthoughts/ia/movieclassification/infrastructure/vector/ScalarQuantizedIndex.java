@@ -0,0 +1,135 @@
+package com.techisthoughts.ia.movieclassification.infrastructure.vector;
+
+import java.util.Arrays;
+import java.util.function.IntPredicate;
+
+/**
+ * Int8 copy of the vectors in a {@link VectorStore}, kept in byte slabs that mirror the
+ * store's segments. Scanning the codes reads a quarter of the bytes of the float slabs
+ * and yields candidates that the caller re-ranks against the full-precision vectors.
+ *
+ * The quantizer is calibrated once the store holds enough vectors and recalibrated
+ * (re-encoding every row) each time the store doubles, which keeps the cost amortized
+ * over inserts.
+ */
+public class ScalarQuantizedIndex implements QuantizedIndex {
+
+    private static final int MIN_CALIBRATION_SIZE = 256;
+
+    private final VectorStore store;
+    private ScalarQuantizer quantizer;
+    private byte[][] codes = new byte[0][];
+    private int calibratedSize;
+
+    public ScalarQuantizedIndex(VectorStore store) {
+        this.store = store;
+    }
+
+    /**
+     * Encode a freshly written slot, calibrating or recalibrating first when due
+     */
+    @Override
+    public void onStore(int slot) {
+        int size = store.size();
+        if (quantizer == null ? size >= MIN_CALIBRATION_SIZE : size >= 2 * calibratedSize) {
+            rebuild();
+            return;
+        }
+        if (quantizer != null) {
+            ensureSegments();
+            quantizer.encode(store.vector(slot), 0,
+                    codes[store.segmentOf(slot)], store.offsetOf(slot));
+        }
+    }
+
+    /**
+     * Recalibrate against the current contents and re-encode every live row
+     */
+    @Override
+    public void rebuild() {
+        quantizer = ScalarQuantizer.calibrate(store);
+        codes = new byte[0][];
+        ensureSegments();
+        int slotLimit = store.slotLimit();
+        for (int slot = 0; slot < slotLimit; slot++) {
+            if (store.isLive(slot)) {
+                quantizer.encode(store.vector(slot), 0,
+                        codes[store.segmentOf(slot)], store.offsetOf(slot));
+            }
+        }
+        calibratedSize = Math.max(store.size(), 1);
+    }
+
+    @Override
+    public boolean isReady() {
+        return quantizer != null;
+    }
+
+    /**
+     * Scan the codes and return up to {@code candidates} slots with the highest approximate
+     * cosine similarity, best first
+     */
+    @Override
+    public int[] candidates(float[] query, int candidates, IntPredicate accept) {
+        if (query.length != store.dimension()) {
+            throw new IllegalArgumentException("Vectors must have the same dimension");
+        }
+        if (VectorMath.norm(query) == 0.0 || candidates <= 0) {
+            return new int[0];
+        }
+        float[] unitQuery = VectorMath.normalize(query);
+        float[] weights = quantizer.queryWeights(unitQuery);
+        float bias = quantizer.queryBias(unitQuery);
+
+        int slotLimit = store.slotLimit();
+        ScoredHeap top = ScoredHeap.top(candidates, slotLimit);
+        for (int slot = 0; slot < slotLimit; slot++) {
+            if (!store.isLive(slot) || !accept.test(slot)) {
+                continue;
+            }
+            float inverseNorm = store.inverseNorm(slot);
+            if (inverseNorm == 0f) {
+                continue;
+            }
+            float score = ScalarQuantizer.dot(weights, bias, codes[store.segmentOf(slot)], store.offsetOf(slot))
+                    * inverseNorm;
+            top.offer(score, slot, candidates);
+        }
+
+        int[] slots = new int[top.size()];
+        for (int i = slots.length - 1; i >= 0; i--) {
+            slots[i] = top.pop();
+        }
+        return slots;
+    }
+
+    /**
+     * Bytes held by the code slabs
+     */
+    @Override
+    public long codeBytes() {
+        long total = 0;
+        for (byte[] segment : codes) {
+            total += segment.length;
+        }
+        return total;
+    }
+
+    @Override
+    public void clear() {
+        quantizer = null;
+        codes = new byte[0][];
+        calibratedSize = 0;
+    }
+
+    private void ensureSegments() {
+        int segmentCount = store.segmentCount();
+        if (codes.length < segmentCount) {
+            int previous = codes.length;
+            codes = Arrays.copyOf(codes, segmentCount);
+            for (int i = previous; i < segmentCount; i++) {
+                codes[i] = new byte[store.segmentCapacity() * store.dimension()];
+            }
+        }
+    }
+}
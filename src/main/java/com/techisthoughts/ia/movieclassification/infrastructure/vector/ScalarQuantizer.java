@@ -0,0 +1,104 @@
+package com.techisthoughts.ia.movieclassification.infrastructure.vector;
+
+import java.util.Arrays;
+
+/**
+ * Per-dimension int8 scalar quantizer. Each dimension is calibrated to the observed
+ * [min, max] range and mapped onto 256 levels, so a stored value is reconstructed as
+ * {@code min[d] + code * scale[d]}. Values outside the calibrated range are clamped.
+ */
+public final class ScalarQuantizer {
+
+    private static final int LEVELS = 255;
+
+    private final float[] min;
+    private final float[] scale;
+
+    private ScalarQuantizer(float[] min, float[] scale) {
+        this.min = min;
+        this.scale = scale;
+    }
+
+    /**
+     * Calibrate min/max per dimension over every live vector in the store
+     */
+    public static ScalarQuantizer calibrate(VectorStore store) {
+        int dimension = store.dimension();
+        float[] min = new float[dimension];
+        float[] max = new float[dimension];
+        Arrays.fill(min, Float.POSITIVE_INFINITY);
+        Arrays.fill(max, Float.NEGATIVE_INFINITY);
+
+        float[] row = new float[dimension];
+        int slotLimit = store.slotLimit();
+        for (int slot = 0; slot < slotLimit; slot++) {
+            if (!store.isLive(slot)) {
+                continue;
+            }
+            store.copyInto(slot, row, 0);
+            for (int d = 0; d < dimension; d++) {
+                float value = row[d];
+                if (value < min[d]) {
+                    min[d] = value;
+                }
+                if (value > max[d]) {
+                    max[d] = value;
+                }
+            }
+        }
+
+        float[] scale = new float[dimension];
+        for (int d = 0; d < dimension; d++) {
+            if (min[d] > max[d]) {
+                min[d] = 0f;
+                max[d] = 0f;
+            }
+            scale[d] = (max[d] - min[d]) / LEVELS;
+        }
+        return new ScalarQuantizer(min, scale);
+    }
+
+    /**
+     * Encode one row of {@code source} into unsigned 8-bit codes
+     */
+    public void encode(float[] source, int sourceOffset, byte[] codes, int codeOffset) {
+        for (int d = 0; d < min.length; d++) {
+            int level = scale[d] == 0f ? 0 : Math.round((source[sourceOffset + d] - min[d]) / scale[d]);
+            codes[codeOffset + d] = (byte) Math.max(0, Math.min(LEVELS, level));
+        }
+    }
+
+    /**
+     * Per-dimension query weights {@code q[d] * scale[d]}, so that the approximate dot
+     * product becomes one multiply-add per stored byte
+     */
+    public float[] queryWeights(float[] query) {
+        float[] weights = new float[min.length];
+        for (int d = 0; d < min.length; d++) {
+            weights[d] = query[d] * scale[d];
+        }
+        return weights;
+    }
+
+    /**
+     * Constant part of the approximate dot product, {@code sum(q[d] * min[d])}
+     */
+    public float queryBias(float[] query) {
+        float bias = 0f;
+        for (int d = 0; d < min.length; d++) {
+            bias += query[d] * min[d];
+        }
+        return bias;
+    }
+
+    /**
+     * Approximate dot product between a query (as weights and bias) and an encoded row
+     */
+    public static float dot(float[] weights, float bias, byte[] codes, int offset) {
+        float sum = bias;
+        for (int d = 0; d < weights.length; d++) {
+            sum += weights[d] * (codes[offset + d] & 0xFF);
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,68 @@
+package com.techisthoughts.ia.movieclassification.infrastructure.vector;
+
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Fork-join pool and shard count used by {@link ExactScan} for large stores.
+ *
+ * The slot range is cut into a fixed number of equal shards; each shard is scanned by one
+ * task into a local top-k heap and the heaps are merged pairwise as the tasks join. Using a
+ * few more shards than workers keeps threads busy when live slots are unevenly spread.
+ */
+public final class ScanParallelism {
+
+    private static final int SHARDS_PER_WORKER = 4;
+    private static final ScanParallelism COMMON =
+            new ScanParallelism(ForkJoinPool.commonPool(), ForkJoinPool.commonPool().getParallelism() * SHARDS_PER_WORKER, false);
+
+    private final ForkJoinPool pool;
+    private final int shards;
+    private final boolean owned;
+
+    private ScanParallelism(ForkJoinPool pool, int shards, boolean owned) {
+        this.pool = pool;
+        this.shards = Math.max(1, shards);
+        this.owned = owned;
+    }
+
+    /**
+     * Shared default backed by the common fork-join pool
+     */
+    public static ScanParallelism common() {
+        return COMMON;
+    }
+
+    /**
+     * Dedicated pool of {@code poolSize} workers split into {@code shards} shards; non-positive
+     * values default to one worker per core and four shards per worker
+     */
+    public static ScanParallelism create(int poolSize, int shards) {
+        int workers = poolSize > 0 ? poolSize : Runtime.getRuntime().availableProcessors();
+        return new ScanParallelism(new ForkJoinPool(workers), shards > 0 ? shards : workers * SHARDS_PER_WORKER, true);
+    }
+
+    public ForkJoinPool pool() {
+        return pool;
+    }
+
+    public int shards() {
+        return shards;
+    }
+
+    /**
+     * First slot of the given shard when {@code slotLimit} slots are split evenly
+     */
+    public int shardStart(int shard, int slotLimit) {
+        return (int) ((long) slotLimit * shard / shards);
+    }
+
+    /**
+     * Stop the pool if it was created for this instance; the common pool is left alone. Called
+     * by the owner that created it, never by the stores sharing it
+     */
+    public void shutdown() {
+        if (owned) {
+            pool.shutdown();
+        }
+    }
+}
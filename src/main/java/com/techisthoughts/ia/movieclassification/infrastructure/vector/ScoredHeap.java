@@ -0,0 +1,145 @@
+package com.techisthoughts.ia.movieclassification.infrastructure.vector;
+
+import java.util.Arrays;
+
+/**
+ * Binary heap of (score, slot) pairs backed by primitive arrays.
+ * A min-heap keeps the weakest entry on top, which is what a bounded top-k needs;
+ * a max-heap keeps the strongest on top for best-first graph traversal.
+ */
+public final class ScoredHeap {
+
+    private final boolean maxHeap;
+    private float[] scores;
+    private int[] slots;
+    private int size;
+
+    ScoredHeap(int initialCapacity, boolean maxHeap) {
+        this.maxHeap = maxHeap;
+        this.scores = new float[Math.max(initialCapacity, 4)];
+        this.slots = new int[scores.length];
+    }
+
+    public static ScoredHeap min(int initialCapacity) {
+        return new ScoredHeap(initialCapacity, false);
+    }
+
+    public static ScoredHeap max(int initialCapacity) {
+        return new ScoredHeap(initialCapacity, true);
+    }
+
+    /**
+     * Min-heap for the top {@code limit} of at most {@code rows} offered entries. The limit
+     * comes from callers and may be far larger than the data, so the initial capacity is
+     * bounded by the rows; the heap grows on demand either way.
+     */
+    public static ScoredHeap top(int limit, int rows) {
+        return min(Math.min(limit, rows) + 1);
+    }
+
+    public void push(float score, int slot) {
+        if (size == scores.length) {
+            scores = Arrays.copyOf(scores, size * 2);
+            slots = Arrays.copyOf(slots, size * 2);
+        }
+        int i = size++;
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (!before(score, scores[parent])) {
+                break;
+            }
+            scores[i] = scores[parent];
+            slots[i] = slots[parent];
+            i = parent;
+        }
+        scores[i] = score;
+        slots[i] = slot;
+    }
+
+    /**
+     * Bounded top-k insert for a min-heap: keep the entry while there is room, otherwise
+     * only if it beats the weakest entry held
+     */
+    public void offer(float score, int slot, int limit) {
+        if (size < limit) {
+            push(score, slot);
+        } else if (limit > 0 && score > scores[0]) {
+            scores[0] = score;
+            slots[0] = slot;
+            siftDown(score, slot);
+        }
+    }
+
+    /**
+     * Offer every entry of another heap; used to merge per-worker top-k heaps
+     */
+    public void offerAll(ScoredHeap other, int limit) {
+        for (int i = 0; i < other.size; i++) {
+            offer(other.scores[i], other.slots[i], limit);
+        }
+    }
+
+    /**
+     * Remove the top entry and return its slot
+     */
+    public int pop() {
+        int top = slots[0];
+        size--;
+        if (size > 0) {
+            siftDown(scores[size], slots[size]);
+        }
+        return top;
+    }
+
+    public float topScore() {
+        return scores[0];
+    }
+
+    public int topSlot() {
+        return slots[0];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void clear() {
+        size = 0;
+    }
+
+    public float scoreAt(int index) {
+        return scores[index];
+    }
+
+    public int slotAt(int index) {
+        return slots[index];
+    }
+
+    private void siftDown(float score, int slot) {
+        int i = 0;
+        int half = size >>> 1;
+        while (i < half) {
+            int child = 2 * i + 1;
+            int right = child + 1;
+            if (right < size && before(scores[right], scores[child])) {
+                child = right;
+            }
+            if (!before(scores[child], score)) {
+                break;
+            }
+            scores[i] = scores[child];
+            slots[i] = slots[child];
+            i = child;
+        }
+        scores[i] = score;
+        slots[i] = slot;
+    }
+
+    private boolean before(float a, float b) {
+        return maxHeap ? a > b : a < b;
+    }
+}
@@ -0,0 +1,6 @@
+package com.techisthoughts.ia.movieclassification.infrastructure.vector;
+
+/**
+ * A storage slot paired with its similarity to the query
+ */
+public record ScoredSlot(int slot, double similarity) {}
@@ -0,0 +1,38 @@
+package com.techisthoughts.ia.movieclassification.infrastructure.vector;
+
+/**
+ * Similarity primitives over rows stored inside float slabs. Implementations must give the
+ * same results up to float rounding; pick one with {@link SimilarityKernels#get()}.
+ */
+public interface SimilarityKernel {
+
+    /**
+     * Inner product of {@code length} floats starting at the given offsets
+     */
+    float dot(float[] a, int aOffset, float[] b, int bOffset, int length);
+
+    /**
+     * Inner product of a float row with a half-precision row ({@link Float#float16ToFloat} bits)
+     */
+    float dot(float[] a, int aOffset, short[] b, int bOffset, int length);
+
+    /**
+     * Inner product of two half-precision rows
+     */
+    float dot(short[] a, int aOffset, short[] b, int bOffset, int length);
+
+    /**
+     * Cosine similarity of two rows, 0 when either is the zero vector
+     */
+    float cosine(float[] a, int aOffset, float[] b, int bOffset, int length);
+
+    /**
+     * Squared Euclidean distance between two rows
+     */
+    float squaredDistance(float[] a, int aOffset, float[] b, int bOffset, int length);
+
+    /**
+     * Short name reported in statistics
+     */
+    String name();
+}
@@ -0,0 +1,41 @@
+package com.techisthoughts.ia.movieclassification.infrastructure.vector;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Picks the similarity kernel once per JVM: the Vector API implementation when the
+ * {@code jdk.incubator.vector} module is resolved (start the JVM with
+ * {@code --add-modules jdk.incubator.vector}), the scalar loops otherwise
+ */
+public final class SimilarityKernels {
+
+    private static final Logger logger = LoggerFactory.getLogger(SimilarityKernels.class);
+    private static final String VECTOR_MODULE = "jdk.incubator.vector";
+    private static final SimilarityKernel KERNEL = load();
+
+    private SimilarityKernels() {
+    }
+
+    public static SimilarityKernel get() {
+        return KERNEL;
+    }
+
+    private static SimilarityKernel load() {
+        if (ModuleLayer.boot().findModule(VECTOR_MODULE).isPresent()) {
+            try {
+                SimilarityKernel kernel = (SimilarityKernel) Class
+                        .forName(SimilarityKernels.class.getPackageName() + ".VectorApiSimilarityKernel")
+                        .getDeclaredConstructor()
+                        .newInstance();
+                logger.info("Using {} similarity kernel", kernel.name());
+                return kernel;
+            } catch (ReflectiveOperationException | LinkageError e) {
+                logger.warn("Vector API kernel unavailable, falling back to scalar loops: {}", e.toString());
+            }
+        } else {
+            logger.info("Module {} not enabled, using scalar similarity kernel", VECTOR_MODULE);
+        }
+        return new ScalarSimilarityKernel();
+    }
+}
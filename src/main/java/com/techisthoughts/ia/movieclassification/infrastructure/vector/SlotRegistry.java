@@ -0,0 +1,147 @@
+package com.techisthoughts.ia.movieclassification.infrastructure.vector;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Maps embedding IDs to dense integer slots and keeps each slot's ID and metadata.
+ *
+ * Storage engines pair a registry with their own per-slot vector representation.
+ * Mutations must be serialized by the owner; reads are lock-free and rely on the
+ * arrays being republished on growth. A slot becomes live only once it is bound,
+ * and a removed slot stays dead until it is explicitly recycled. Bound metadata is
+ * mirrored into a {@link MetadataIndex} so filters can be resolved to candidate slots.
+ */
+public class SlotRegistry {
+
+    private final Map<String, Integer> slotsById = new ConcurrentHashMap<>();
+    private final MetadataIndex metadataIndex = new MetadataIndex();
+
+    private volatile String[] ids = new String[0];
+    private volatile Map<String, Object>[] metadata = newMetadataArray(0);
+    private volatile int slotLimit;
+
+    private int[] freeSlots = new int[16];
+    private int freeCount;
+
+    /**
+     * Slot currently bound to the ID, or -1
+     */
+    public int slotOf(String id) {
+        Integer slot = slotsById.get(id);
+        return slot != null ? slot : -1;
+    }
+
+    /**
+     * Hand out a recycled slot or grow the slot range by one
+     */
+    public int allocate() {
+        if (freeCount > 0) {
+            return freeSlots[--freeCount];
+        }
+        int slot = slotLimit;
+        if (slot >= ids.length) {
+            int newLength = Math.max(slot + 1, Math.max(16, ids.length * 2));
+            ids = Arrays.copyOf(ids, newLength);
+            metadata = Arrays.copyOf(metadata, newLength);
+        }
+        slotLimit = slot + 1;
+        return slot;
+    }
+
+    /**
+     * Publish the ID and metadata of a slot whose vector has already been written
+     */
+    public void bind(int slot, String id, Map<String, Object> meta) {
+        if (ids[slot] != null) {
+            metadataIndex.remove(slot, metadata[slot]);
+        }
+        Map<String, Object> bound = meta != null ? meta : Map.of();
+        metadata[slot] = bound;
+        ids[slot] = id;
+        slotsById.put(id, slot);
+        metadataIndex.add(slot, bound);
+    }
+
+    /**
+     * Unbind the ID, returning its slot or -1
+     */
+    public int unbind(String id) {
+        Integer slot = slotsById.remove(id);
+        if (slot == null) {
+            return -1;
+        }
+        metadataIndex.remove(slot, metadata[slot]);
+        ids[slot] = null;
+        metadata[slot] = null;
+        return slot;
+    }
+
+    /**
+     * Make an unbound slot available to later allocations
+     */
+    public void recycle(int slot) {
+        if (freeCount == freeSlots.length) {
+            freeSlots = Arrays.copyOf(freeSlots, freeCount * 2);
+        }
+        freeSlots[freeCount++] = slot;
+    }
+
+    public void clear() {
+        slotsById.clear();
+        metadataIndex.clear();
+        ids = new String[0];
+        metadata = newMetadataArray(0);
+        slotLimit = 0;
+        freeCount = 0;
+    }
+
+    public boolean isLive(int slot) {
+        return ids[slot] != null;
+    }
+
+    public String id(int slot) {
+        return ids[slot];
+    }
+
+    public Map<String, Object> metadata(int slot) {
+        return metadata[slot];
+    }
+
+    /**
+     * Candidate slots for a metadata filter, or {@code null} when the filter cannot be
+     * narrowed by the index; see {@link MetadataIndex#select(Map)}
+     */
+    public BitSet select(Map<String, Object> filter) {
+        return filter.isEmpty() ? null : metadataIndex.select(filter);
+    }
+
+    public MetadataIndex metadataIndex() {
+        return metadataIndex;
+    }
+
+    /**
+     * Upper bound (exclusive) of allocated slots; scans iterate up to here and skip dead slots
+     */
+    public int slotLimit() {
+        return slotLimit;
+    }
+
+    public int size() {
+        return slotsById.size();
+    }
+
+    /**
+     * Removed slots that have not been recycled: tombstones that scans still step over
+     */
+    public int deadCount() {
+        return Math.max(0, slotLimit - slotsById.size() - freeCount);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object>[] newMetadataArray(int length) {
+        return new Map[length];
+    }
+}
@@ -0,0 +1,182 @@
+package com.techisthoughts.ia.movieclassification.infrastructure.vector;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Content statistics of a {@link VectorStore}, updated on every insert, overwrite and delete
+ * so that reporting them never walks the rows: live counts per value of the grouping keys,
+ * a histogram of row dimensions, bytes held by live rows, and insert/update/delete totals and
+ * rates.
+ *
+ * Updates arrive through the store's serialized mutations; reads take no lock and cost the
+ * same however many rows are stored. Each grouping key tracks at most
+ * {@link MetadataIndex#MAX_CARDINALITY} distinct values, further values are counted as
+ * {@code "other"}. While any row is counted there, emptied buckets are kept rather than
+ * freed, so no value gets a bucket of its own while some of its rows sit in "other" and every
+ * delete is taken from the bucket its insert went to.
+ */
+public class StoreStatistics {
+
+    public static final List<String> GROUP_KEYS = List.of("type", "chunkType", "genre");
+
+    private static final String UNKNOWN = "unknown";
+    private static final String OTHER = "other";
+    private static final int RATE_WINDOW_SECONDS = 60;
+
+    private final Map<String, Map<String, AtomicLong>> groups = new ConcurrentHashMap<>();
+    private final Map<Integer, AtomicLong> dimensions = new ConcurrentHashMap<>();
+    private final AtomicLong liveRows = new AtomicLong();
+    private final AtomicLong liveBytes = new AtomicLong();
+    private final AtomicLong dimensionSum = new AtomicLong();
+    private final AtomicLong inserts = new AtomicLong();
+    private final AtomicLong updates = new AtomicLong();
+    private final AtomicLong deletes = new AtomicLong();
+    private final RateWindow insertRate = new RateWindow();
+    private final RateWindow updateRate = new RateWindow();
+    private final RateWindow deleteRate = new RateWindow();
+
+    public StoreStatistics() {
+        for (String key : GROUP_KEYS) {
+            groups.put(key, new ConcurrentHashMap<>());
+        }
+    }
+
+    /**
+     * Count a row written with the given metadata
+     *
+     * @param replaced metadata of the row it overwrote, or null for a new ID
+     */
+    public void added(int dimension, int rowBytes, Map<String, Object> metadata, Map<String, Object> replaced) {
+        if (replaced != null) {
+            group(replaced, -1);
+            updates.incrementAndGet();
+            updateRate.record();
+        } else {
+            liveRows.incrementAndGet();
+            liveBytes.addAndGet(rowBytes);
+            dimensionSum.addAndGet(dimension);
+            dimensions.computeIfAbsent(dimension, d -> new AtomicLong()).incrementAndGet();
+            inserts.incrementAndGet();
+            insertRate.record();
+        }
+        group(metadata, 1);
+    }
+
+    /**
+     * Count the deletion of a row
+     */
+    public void removed(int dimension, int rowBytes, Map<String, Object> metadata) {
+        liveRows.decrementAndGet();
+        liveBytes.addAndGet(-rowBytes);
+        dimensionSum.addAndGet(-dimension);
+        AtomicLong rows = dimensions.get(dimension);
+        if (rows != null && rows.decrementAndGet() <= 0) {
+            dimensions.remove(dimension);
+        }
+        group(metadata, -1);
+        deletes.incrementAndGet();
+        deleteRate.record();
+    }
+
+    /**
+     * Forget the live contents; insert and delete totals keep counting across clears
+     */
+    public void clear() {
+        for (Map<String, AtomicLong> counts : groups.values()) {
+            counts.clear();
+        }
+        dimensions.clear();
+        liveRows.set(0);
+        liveBytes.set(0);
+        dimensionSum.set(0);
+    }
+
+    public long liveBytes() {
+        return liveBytes.get();
+    }
+
+    public Map<String, Object> getStatistics() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        for (String key : GROUP_KEYS) {
+            Map<String, Long> counts = new TreeMap<>();
+            groups.get(key).forEach((value, count) -> {
+                if (count.get() > 0) {
+                    counts.put(value, count.get());
+                }
+            });
+            stats.put("by" + Character.toUpperCase(key.charAt(0)) + key.substring(1), counts);
+        }
+        Map<Integer, Long> histogram = new TreeMap<>();
+        dimensions.forEach((dimension, count) -> histogram.put(dimension, count.get()));
+        stats.put("dimensionHistogram", histogram);
+        long rows = liveRows.get();
+        stats.put("averageDimension", rows > 0 ? (double) dimensionSum.get() / rows : 0.0);
+        stats.put("liveVectorBytes", liveBytes.get());
+        stats.put("inserts", inserts.get());
+        stats.put("updates", updates.get());
+        stats.put("deletes", deletes.get());
+        stats.put("insertsPerSecond", insertRate.perSecond());
+        stats.put("updatesPerSecond", updateRate.perSecond());
+        stats.put("deletesPerSecond", deleteRate.perSecond());
+        return stats;
+    }
+
+    private void group(Map<String, Object> metadata, int delta) {
+        for (String key : GROUP_KEYS) {
+            Map<String, AtomicLong> counts = groups.get(key);
+            Object raw = metadata.get(key);
+            String value = raw != null ? raw.toString() : UNKNOWN;
+            if (delta > 0 && !counts.containsKey(value) && counts.size() >= MetadataIndex.MAX_CARDINALITY) {
+                value = OTHER;
+            }
+            AtomicLong count = delta > 0 ? counts.computeIfAbsent(value, v -> new AtomicLong()) : counts.get(value);
+            if (count == null) {
+                count = counts.get(OTHER);
+            }
+            if (count == null || count.addAndGet(delta) > 0) {
+                continue;
+            }
+            if (count == counts.get(OTHER)) {
+                // The last overflowed row is gone: emptied buckets can be freed again
+                counts.values().removeIf(remaining -> remaining.get() <= 0);
+            } else if (!counts.containsKey(OTHER)) {
+                counts.values().remove(count);
+            }
+        }
+    }
+
+    /**
+     * Events per second averaged over the last {@link #RATE_WINDOW_SECONDS} seconds, kept
+     * in one bucket per second that is reset when its second comes round again
+     */
+    private static final class RateWindow {
+        private final long[] seconds = new long[RATE_WINDOW_SECONDS];
+        private final long[] counts = new long[RATE_WINDOW_SECONDS];
+
+        synchronized void record() {
+            long now = System.nanoTime() / 1_000_000_000L;
+            int bucket = (int) Math.floorMod(now, (long) RATE_WINDOW_SECONDS);
+            if (seconds[bucket] != now) {
+                seconds[bucket] = now;
+                counts[bucket] = 0;
+            }
+            counts[bucket]++;
+        }
+
+        synchronized double perSecond() {
+            long now = System.nanoTime() / 1_000_000_000L;
+            long total = 0;
+            for (int i = 0; i < RATE_WINDOW_SECONDS; i++) {
+                if (now - seconds[i] < RATE_WINDOW_SECONDS) {
+                    total += counts[i];
+                }
+            }
+            return (double) total / RATE_WINDOW_SECONDS;
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.techisthoughts.ia.movieclassification.infrastructure.vector;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+
+/**
+ * Fork-join pool shared by the background trainers of the approximate backends.
+ *
+ * k-means and encoding passes of every IVF and PQ collection run on the same one-worker-per-core
+ * pool, so a node hosting many collections does not start a pool per collection. The workers
+ * are daemon threads and the pool lives as long as the JVM; backends stop their own trainer
+ * thread on shutdown and leave the pool alone.
+ */
+public final class TrainingPool {
+
+    private TrainingPool() {
+    }
+
+    private static final class Holder {
+        private static final ForkJoinPool POOL = new ForkJoinPool(Runtime.getRuntime().availableProcessors(),
+                pool -> {
+                    ForkJoinWorkerThread worker = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+                    worker.setName("vector-training-" + worker.getPoolIndex());
+                    return worker;
+                }, null, false);
+    }
+
+    public static ForkJoinPool shared() {
+        return Holder.POOL;
+    }
+}
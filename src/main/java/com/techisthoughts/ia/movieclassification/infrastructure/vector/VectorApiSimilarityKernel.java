@@ -0,0 +1,113 @@
+package com.techisthoughts.ia.movieclassification.infrastructure.vector;
+
+import jdk.incubator.vector.FloatVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * SIMD kernel built on {@code jdk.incubator.vector}: rows are consumed a full register
+ * of lanes at a time with fused multiply-adds, and the tail is finished with a scalar loop.
+ * Half-precision rows are first widened into a per-thread float buffer (a plain
+ * {@link Float#float16ToFloat} loop, which C2 compiles to vector conversions) and then
+ * scored like float rows. Only loaded reflectively by {@link SimilarityKernels} when the
+ * module is resolved.
+ */
+final class VectorApiSimilarityKernel implements SimilarityKernel {
+
+    private static final VectorSpecies<Float> SPECIES = FloatVector.SPECIES_PREFERRED;
+
+    private final ThreadLocal<float[]> widenedA = ThreadLocal.withInitial(() -> new float[0]);
+    private final ThreadLocal<float[]> widenedB = ThreadLocal.withInitial(() -> new float[0]);
+
+    @Override
+    public float dot(float[] a, int aOffset, float[] b, int bOffset, int length) {
+        FloatVector sum = FloatVector.zero(SPECIES);
+        int i = 0;
+        int bound = SPECIES.loopBound(length);
+        for (; i < bound; i += SPECIES.length()) {
+            FloatVector x = FloatVector.fromArray(SPECIES, a, aOffset + i);
+            FloatVector y = FloatVector.fromArray(SPECIES, b, bOffset + i);
+            sum = x.fma(y, sum);
+        }
+        float result = sum.reduceLanes(VectorOperators.ADD);
+        for (; i < length; i++) {
+            result += a[aOffset + i] * b[bOffset + i];
+        }
+        return result;
+    }
+
+    @Override
+    public float dot(float[] a, int aOffset, short[] b, int bOffset, int length) {
+        return dot(a, aOffset, widen(b, bOffset, length, widenedB), 0, length);
+    }
+
+    @Override
+    public float dot(short[] a, int aOffset, short[] b, int bOffset, int length) {
+        return dot(widen(a, aOffset, length, widenedA), 0, widen(b, bOffset, length, widenedB), 0, length);
+    }
+
+    @Override
+    public float cosine(float[] a, int aOffset, float[] b, int bOffset, int length) {
+        FloatVector dot = FloatVector.zero(SPECIES);
+        FloatVector normA = FloatVector.zero(SPECIES);
+        FloatVector normB = FloatVector.zero(SPECIES);
+        int i = 0;
+        int bound = SPECIES.loopBound(length);
+        for (; i < bound; i += SPECIES.length()) {
+            FloatVector x = FloatVector.fromArray(SPECIES, a, aOffset + i);
+            FloatVector y = FloatVector.fromArray(SPECIES, b, bOffset + i);
+            dot = x.fma(y, dot);
+            normA = x.fma(x, normA);
+            normB = y.fma(y, normB);
+        }
+        float dotSum = dot.reduceLanes(VectorOperators.ADD);
+        float normASum = normA.reduceLanes(VectorOperators.ADD);
+        float normBSum = normB.reduceLanes(VectorOperators.ADD);
+        for (; i < length; i++) {
+            float x = a[aOffset + i];
+            float y = b[bOffset + i];
+            dotSum += x * y;
+            normASum += x * x;
+            normBSum += y * y;
+        }
+        if (normASum == 0f || normBSum == 0f) {
+            return 0f;
+        }
+        return (float) (dotSum / Math.sqrt((double) normASum * normBSum));
+    }
+
+    @Override
+    public float squaredDistance(float[] a, int aOffset, float[] b, int bOffset, int length) {
+        FloatVector sum = FloatVector.zero(SPECIES);
+        int i = 0;
+        int bound = SPECIES.loopBound(length);
+        for (; i < bound; i += SPECIES.length()) {
+            FloatVector diff = FloatVector.fromArray(SPECIES, a, aOffset + i)
+                    .sub(FloatVector.fromArray(SPECIES, b, bOffset + i));
+            sum = diff.fma(diff, sum);
+        }
+        float result = sum.reduceLanes(VectorOperators.ADD);
+        for (; i < length; i++) {
+            float diff = a[aOffset + i] - b[bOffset + i];
+            result += diff * diff;
+        }
+        return result;
+    }
+
+    private static float[] widen(short[] halves, int offset, int length, ThreadLocal<float[]> buffer) {
+        float[] floats = buffer.get();
+        if (floats.length < length) {
+            floats = new float[length];
+            buffer.set(floats);
+        }
+        for (int i = 0; i < length; i++) {
+            floats[i] = Float.float16ToFloat(halves[offset + i]);
+        }
+        return floats;
+    }
+
+    @Override
+    public String name() {
+        return "vector-api-" + SPECIES.vectorBitSize();
+    }
+}
@@ -0,0 +1,91 @@
+package com.techisthoughts.ia.movieclassification.infrastructure.vector;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Primitive-array helpers shared by the vector storage engine
+ */
+public final class VectorMath {
+
+    private static final SimilarityKernel KERNEL = SimilarityKernels.get();
+
+    private VectorMath() {
+    }
+
+    /**
+     * Convert a boxed embedding into a primitive float array
+     */
+    public static float[] toFloatArray(List<Double> embedding) {
+        float[] vector = new float[embedding.size()];
+        for (int i = 0; i < vector.length; i++) {
+            vector[i] = embedding.get(i).floatValue();
+        }
+        return vector;
+    }
+
+    /**
+     * Convert a primitive vector back into the boxed form exposed by the port
+     */
+    public static List<Double> toDoubleList(float[] vector) {
+        List<Double> embedding = new ArrayList<>(vector.length);
+        for (float value : vector) {
+            embedding.add((double) value);
+        }
+        return embedding;
+    }
+
+    /**
+     * Euclidean norm of a vector
+     */
+    public static double norm(float[] vector) {
+        double sum = 0.0;
+        for (float value : vector) {
+            sum += value * value;
+        }
+        return Math.sqrt(sum);
+    }
+
+    /**
+     * Unit-length copy of a vector; the zero vector stays zero
+     */
+    public static float[] normalize(float[] vector) {
+        double norm = norm(vector);
+        float[] unit = new float[vector.length];
+        if (norm > 0.0) {
+            float scale = (float) (1.0 / norm);
+            for (int i = 0; i < vector.length; i++) {
+                unit[i] = vector[i] * scale;
+            }
+        }
+        return unit;
+    }
+
+    /**
+     * Dot product between a query and a row stored inside a slab
+     */
+    public static float dot(float[] query, float[] slab, int offset, int dimension) {
+        return KERNEL.dot(query, 0, slab, offset, dimension);
+    }
+
+    /**
+     * Dot product between two rows stored inside slabs
+     */
+    public static float dot(float[] slabA, int offsetA, float[] slabB, int offsetB, int dimension) {
+        return KERNEL.dot(slabA, offsetA, slabB, offsetB, dimension);
+    }
+
+    /**
+     * Dot product between a float row and a half-precision row stored inside a short slab
+     */
+    public static float dot(float[] slabA, int offsetA, short[] slabB, int offsetB, int dimension) {
+        return KERNEL.dot(slabA, offsetA, slabB, offsetB, dimension);
+    }
+
+    /**
+     * Dot product between two half-precision rows
+     */
+    public static float dot(short[] slabA, int offsetA, short[] slabB, int offsetB, int dimension) {
+        return KERNEL.dot(slabA, offsetA, slabB, offsetB, dimension);
+    }
+}
@@ -0,0 +1,47 @@
+package com.techisthoughts.ia.movieclassification.infrastructure.vector;
+
+/**
+ * Element type of the rows held by a {@link VectorStore}. FLOAT16 keeps IEEE 754 half-precision
+ * bits in short slabs (about 3 significant decimal digits, magnitudes up to 65504) and widens
+ * them while scoring, halving the memory of the vectors.
+ */
+public enum VectorPrecision {
+    FLOAT32(Float.BYTES),
+    FLOAT16(Short.BYTES);
+
+    /**
+     * Largest finite float16 magnitude
+     */
+    public static final float FLOAT16_MAX = 65504f;
+
+    private final int bytes;
+
+    VectorPrecision(int bytes) {
+        this.bytes = bytes;
+    }
+
+    /**
+     * Bytes per stored dimension
+     */
+    public int bytes() {
+        return bytes;
+    }
+
+    /**
+     * Reject vectors with components this precision cannot hold
+     */
+    public void checkRepresentable(float[] vector) {
+        if (this != FLOAT16) {
+            return;
+        }
+        for (int i = 0; i < vector.length; i++) {
+            if (!(Math.abs(vector[i]) <= FLOAT16_MAX)) {
+                throw new IllegalArgumentException("Component " + i + " (" + vector[i] + ") is outside the float16 range");
+            }
+        }
+    }
+
+    public static VectorPrecision from(String value) {
+        return value == null || value.isBlank() ? FLOAT32 : valueOf(value.trim().toUpperCase());
+    }
+}
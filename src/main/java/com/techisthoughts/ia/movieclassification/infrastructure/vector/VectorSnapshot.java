@@ -0,0 +1,77 @@
+package com.techisthoughts.ia.movieclassification.infrastructure.vector;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+/**
+ * Point-in-time copy of every live row of a {@link VectorStore}, written next to the
+ * write-ahead log so the log can be truncated. The file is written under a temporary name,
+ * fsynced and renamed into place, so a crash leaves either the old or the new snapshot.
+ */
+public final class VectorSnapshot {
+
+    private static final int MAGIC = 0x56534e50; // "VSNP"
+    private static final int VERSION = 1;
+
+    private VectorSnapshot() {
+    }
+
+    public static void write(Path file, VectorStore store) throws IOException {
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (FileOutputStream fileOut = new FileOutputStream(temp.toFile());
+             DataOutputStream out = new DataOutputStream(new BufferedOutputStream(fileOut, 1 << 16))) {
+            int dimension = Math.max(store.dimension(), 0);
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(dimension);
+            out.writeInt(store.size());
+            int slotLimit = store.slotLimit();
+            for (int slot = 0; slot < slotLimit; slot++) {
+                if (!store.isLive(slot)) {
+                    continue;
+                }
+                out.writeUTF(store.id(slot));
+                float[] row = store.vector(slot);
+                for (int i = 0; i < dimension; i++) {
+                    out.writeFloat(row[i]);
+                }
+                MetadataCodec.write(out, store.metadata(slot));
+            }
+            out.flush();
+            fileOut.getChannel().force(true);
+        }
+        Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    /**
+     * Feed every row of the snapshot to the replayer; a missing file is an empty snapshot
+     */
+    public static int read(Path file, WriteAheadLog.Replayer replayer) throws IOException {
+        if (!Files.exists(file)) {
+            return 0;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file), 1 << 16))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+                throw new IOException("Not a vector snapshot: " + file);
+            }
+            int dimension = in.readInt();
+            int rows = in.readInt();
+            for (int row = 0; row < rows; row++) {
+                String id = in.readUTF();
+                float[] vector = new float[dimension];
+                for (int i = 0; i < dimension; i++) {
+                    vector[i] = in.readFloat();
+                }
+                replayer.upsert(id, vector, MetadataCodec.read(in));
+            }
+            return rows;
+        }
+    }
+}
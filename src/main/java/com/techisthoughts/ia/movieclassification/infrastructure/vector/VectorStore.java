@@ -0,0 +1,386 @@
+package com.techisthoughts.ia.movieclassification.infrastructure.vector;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Map;
+
+/**
+ * Slab-based storage engine that keeps embeddings in contiguous primitive float arrays.
+ *
+ * Vectors are addressed by an integer slot and laid out row-major inside fixed-size
+ * segments (one float[] slab per segment), so a brute-force scan walks memory
+ * sequentially instead of chasing boxed Double references. Mutations are serialized;
+ * reads are lock-free and rely on the arrays being republished on growth.
+ *
+ * With {@link VectorPrecision#FLOAT16} the slabs are short[] rows of half-precision bits,
+ * rounded once on insert; norms are taken from the rounded values, so scores are exact
+ * cosines of what is stored. Scans go through {@link #dot(float[], int)} and friends, which
+ * read either layout; {@link #segment(int)} exposes the float slabs of FLOAT32 stores only.
+ */
+public class VectorStore {
+
+    public static final int DEFAULT_SEGMENT_CAPACITY = 1024;
+
+    private final int segmentCapacity;
+    private final VectorPrecision precision;
+    private final SlotRegistry registry = new SlotRegistry();
+    private final StoreStatistics statistics = new StoreStatistics();
+
+    private volatile int dimension = -1;
+    private volatile float[][] segments = new float[0][];
+    private volatile short[][] halfSegments = new short[0][];
+    private volatile float[] norms = new float[0];
+    private volatile float[] inverseNorms = new float[0];
+    private volatile float[] tailNorms = new float[0];
+
+    public VectorStore() {
+        this(DEFAULT_SEGMENT_CAPACITY);
+    }
+
+    public VectorStore(int segmentCapacity) {
+        this(segmentCapacity, VectorPrecision.FLOAT32);
+    }
+
+    public VectorStore(VectorPrecision precision) {
+        this(DEFAULT_SEGMENT_CAPACITY, precision);
+    }
+
+    public VectorStore(int segmentCapacity, VectorPrecision precision) {
+        if (segmentCapacity <= 0) {
+            throw new IllegalArgumentException("Segment capacity must be positive");
+        }
+        this.segmentCapacity = segmentCapacity;
+        this.precision = precision;
+    }
+
+    /**
+     * Insert or overwrite the vector stored under the given ID, returning its slot
+     */
+    public synchronized int put(String id, float[] vector, Map<String, Object> meta) {
+        checkDimension(vector);
+
+        int existing = registry.slotOf(id);
+        int slot = existing >= 0 ? existing : allocateSlot();
+
+        Map<String, Object> replaced = existing >= 0 ? registry.metadata(existing) : null;
+        write(slot, id, vector, meta);
+        statistics.added(dimension, bytesPerVector(), registry.metadata(slot), replaced);
+        return slot;
+    }
+
+    /**
+     * Store the vector in a fresh slot, retiring (but not recycling) any slot previously
+     * held by the same ID. Index structures that reference slots use this so that a
+     * slot never changes meaning underneath them.
+     */
+    public synchronized int append(String id, float[] vector, Map<String, Object> meta) {
+        checkDimension(vector);
+        int existing = registry.slotOf(id);
+        Map<String, Object> replaced = existing >= 0 ? registry.metadata(existing) : null;
+        registry.unbind(id);
+        int slot = allocateSlot();
+        write(slot, id, vector, meta);
+        statistics.added(dimension, bytesPerVector(), registry.metadata(slot), replaced);
+        return slot;
+    }
+
+    /**
+     * Remove the vector stored under the given ID, returning its slot or -1.
+     * The slot stays dead until handed back through {@link #recycle(int)}.
+     */
+    public synchronized int remove(String id) {
+        int slot = registry.slotOf(id);
+        if (slot < 0) {
+            return -1;
+        }
+        statistics.removed(dimension, bytesPerVector(), registry.metadata(slot));
+        return registry.unbind(id);
+    }
+
+    /**
+     * Make a removed slot available for reuse by later inserts
+     */
+    public synchronized void recycle(int slot) {
+        registry.recycle(slot);
+    }
+
+    /**
+     * Drop every vector and release all slabs
+     */
+    public synchronized void clear() {
+        registry.clear();
+        statistics.clear();
+        segments = new float[0][];
+        halfSegments = new short[0][];
+        norms = new float[0];
+        inverseNorms = new float[0];
+        tailNorms = new float[0];
+        dimension = -1;
+    }
+
+    public int slotOf(String id) {
+        return registry.slotOf(id);
+    }
+
+    public boolean isLive(int slot) {
+        return registry.isLive(slot);
+    }
+
+    public String id(int slot) {
+        return registry.id(slot);
+    }
+
+    public Map<String, Object> metadata(int slot) {
+        return registry.metadata(slot);
+    }
+
+    /**
+     * Candidate slots for a metadata filter, or {@code null} when the index cannot narrow it
+     */
+    public BitSet select(Map<String, Object> filter) {
+        return registry.select(filter);
+    }
+
+    public MetadataIndex metadataIndex() {
+        return registry.metadataIndex();
+    }
+
+    /**
+     * Incrementally maintained content statistics; reading them does not touch the rows
+     */
+    public StoreStatistics statistics() {
+        return statistics;
+    }
+
+    /**
+     * Euclidean norm of the vector at the given slot, computed once at insert time
+     */
+    public float norm(int slot) {
+        return norms[slot];
+    }
+
+    /**
+     * Reciprocal of {@link #norm(int)} (0 for the zero vector). Scoring a unit-length query
+     * as {@code dot(query, row) * inverseNorm(slot)} gives cosine similarity without touching
+     * the row's magnitude, while the slab keeps the exact values that were stored.
+     */
+    public float inverseNorm(int slot) {
+        return inverseNorms[slot];
+    }
+
+    /**
+     * Norm of the last quarter of the row (from {@link #tailStart()}) relative to the whole row.
+     * With a unit query, {@code dot(query head, row head) * inverseNorm + |query tail| * tailNorm}
+     * bounds the cosine similarity, so threshold scans can skip the tail of rows that cannot
+     * reach the threshold.
+     */
+    public float tailNorm(int slot) {
+        return tailNorms[slot];
+    }
+
+    /**
+     * First dimension covered by {@link #tailNorm(int)}
+     */
+    public int tailStart() {
+        int dims = Math.max(dimension, 0);
+        return dims - (dims >>> 2);
+    }
+
+    /**
+     * Copy the vector stored at the given slot out of its slab
+     */
+    public float[] vector(int slot) {
+        float[] vector = new float[Math.max(dimension, 0)];
+        copyInto(slot, vector, 0);
+        return vector;
+    }
+
+    /**
+     * Write the vector stored at the given slot into {@code target} starting at {@code targetOffset}
+     */
+    public void copyInto(int slot, float[] target, int targetOffset) {
+        int offset = offsetOf(slot);
+        if (precision == VectorPrecision.FLOAT16) {
+            short[] slab = halfSegments[segmentOf(slot)];
+            for (int i = 0; i < dimension; i++) {
+                target[targetOffset + i] = Float.float16ToFloat(slab[offset + i]);
+            }
+        } else {
+            System.arraycopy(segments[segmentOf(slot)], offset, target, targetOffset, dimension);
+        }
+    }
+
+    /**
+     * Dot product of a query with the row at the given slot
+     */
+    public float dot(float[] query, int slot) {
+        return dot(query, 0, slot, 0, query.length);
+    }
+
+    /**
+     * Dot product of {@code length} query dimensions from {@code from} with the same dimensions of a row
+     */
+    public float dot(float[] query, int from, int slot, int length) {
+        return dot(query, from, slot, from, length);
+    }
+
+    /**
+     * Dot product of the rows at two slots
+     */
+    public float dot(int slotA, int slotB) {
+        if (precision == VectorPrecision.FLOAT16) {
+            return VectorMath.dot(halfSegments[segmentOf(slotA)], offsetOf(slotA),
+                    halfSegments[segmentOf(slotB)], offsetOf(slotB), dimension);
+        }
+        return VectorMath.dot(segments[segmentOf(slotA)], offsetOf(slotA),
+                segments[segmentOf(slotB)], offsetOf(slotB), dimension);
+    }
+
+    /**
+     * Raw float slab for a segment of a FLOAT32 store; rows start at {@link #offsetOf(int)} and
+     * span {@link #dimension()} floats
+     */
+    public float[] segment(int segment) {
+        if (precision != VectorPrecision.FLOAT32) {
+            throw new IllegalStateException("A " + precision + " store has no float slabs");
+        }
+        return segments[segment];
+    }
+
+    public VectorPrecision precision() {
+        return precision;
+    }
+
+    public int segmentOf(int slot) {
+        return slot / segmentCapacity;
+    }
+
+    public int offsetOf(int slot) {
+        return (slot % segmentCapacity) * Math.max(dimension, 0);
+    }
+
+    public int segmentCapacity() {
+        return segmentCapacity;
+    }
+
+    public int segmentCount() {
+        return precision == VectorPrecision.FLOAT16 ? halfSegments.length : segments.length;
+    }
+
+    /**
+     * Upper bound (exclusive) of allocated slots; scans iterate up to here and skip dead slots
+     */
+    public int slotLimit() {
+        return registry.slotLimit();
+    }
+
+    public int size() {
+        return registry.size();
+    }
+
+    /**
+     * Removed or retired slots that have not been recycled; see {@link SlotRegistry#deadCount()}
+     */
+    public int deadSlots() {
+        return registry.deadCount();
+    }
+
+    public int dimension() {
+        return dimension;
+    }
+
+    /**
+     * Bytes held by the slabs, including pre-allocated but unused rows
+     */
+    public long vectorBytes() {
+        return (long) segmentCount() * segmentCapacity * bytesPerVector();
+    }
+
+    /**
+     * Slab bytes taken by one row
+     */
+    public int bytesPerVector() {
+        return Math.max(dimension, 0) * precision.bytes();
+    }
+
+    private void checkDimension(float[] vector) {
+        precision.checkRepresentable(vector);
+        if (dimension < 0) {
+            if (vector.length == 0) {
+                throw new IllegalArgumentException("Vectors must not be empty");
+            }
+            dimension = vector.length;
+        } else if (vector.length != dimension) {
+            throw new IllegalArgumentException("Vectors must have the same dimension");
+        }
+    }
+
+    private float dot(float[] query, int queryOffset, int slot, int rowOffset, int length) {
+        int offset = offsetOf(slot) + rowOffset;
+        if (precision == VectorPrecision.FLOAT16) {
+            return VectorMath.dot(query, queryOffset, halfSegments[segmentOf(slot)], offset, length);
+        }
+        return VectorMath.dot(query, queryOffset, segments[segmentOf(slot)], offset, length);
+    }
+
+    private void write(int slot, String id, float[] vector, Map<String, Object> meta) {
+        if (precision == VectorPrecision.FLOAT16) {
+            vector = storeHalf(slot, vector);
+        } else {
+            System.arraycopy(vector, 0, segments[segmentOf(slot)], offsetOf(slot), dimension);
+        }
+        double norm = VectorMath.norm(vector);
+        norms[slot] = (float) norm;
+        inverseNorms[slot] = norm > 0.0 ? (float) (1.0 / norm) : 0f;
+        double tail = 0.0;
+        for (int i = tailStart(); i < dimension; i++) {
+            tail += (double) vector[i] * vector[i];
+        }
+        tailNorms[slot] = norm > 0.0 ? (float) (Math.sqrt(tail) / norm) : 0f;
+        registry.bind(slot, id, meta);
+    }
+
+    /**
+     * Round the vector into the half-precision slab and return the rounded values
+     */
+    private float[] storeHalf(int slot, float[] vector) {
+        short[] slab = halfSegments[segmentOf(slot)];
+        int offset = offsetOf(slot);
+        float[] rounded = new float[dimension];
+        for (int i = 0; i < dimension; i++) {
+            slab[offset + i] = Float.floatToFloat16(vector[i]);
+            rounded[i] = Float.float16ToFloat(slab[offset + i]);
+        }
+        return rounded;
+    }
+
+    private int allocateSlot() {
+        int slot = registry.allocate();
+        ensureCapacity(slot + 1);
+        return slot;
+    }
+
+    private void ensureCapacity(int slots) {
+        int requiredSegments = (slots + segmentCapacity - 1) / segmentCapacity;
+        if (precision == VectorPrecision.FLOAT16 && requiredSegments > halfSegments.length) {
+            short[][] grown = Arrays.copyOf(halfSegments, requiredSegments);
+            for (int i = halfSegments.length; i < requiredSegments; i++) {
+                grown[i] = new short[segmentCapacity * dimension];
+            }
+            halfSegments = grown;
+        }
+        if (precision == VectorPrecision.FLOAT32 && requiredSegments > segments.length) {
+            float[][] grown = Arrays.copyOf(segments, requiredSegments);
+            for (int i = segments.length; i < requiredSegments; i++) {
+                grown[i] = new float[segmentCapacity * dimension];
+            }
+            segments = grown;
+        }
+        if (slots > norms.length) {
+            int length = Math.max(slots, Math.max(16, norms.length * 2));
+            norms = Arrays.copyOf(norms, length);
+            inverseNorms = Arrays.copyOf(inverseNorms, length);
+            tailNorms = Arrays.copyOf(tailNorms, length);
+        }
+    }
+}
@@ -0,0 +1,301 @@
+package com.techisthoughts.ia.movieclassification.infrastructure.vector;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32C;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Append-only, group-committed log of upserts and deletes.
+ *
+ * Appends only encode the record into an in-memory batch and return its sequence; one fsync
+ * then makes every record batched so far durable. Callers append while holding their own write
+ * lock (so log order matches apply order) and call {@link #sync(long)} after releasing it.
+ *
+ * With a positive sync interval a background thread commits the batch periodically and writers
+ * never wait (a crash loses at most one interval). With an interval of 0 each writer blocks in
+ * {@link #sync(long)} until its record is durable, and writers that arrive while an fsync is in
+ * flight are committed together by the next one.
+ *
+ * Each record is framed as {@code [length][crc32c][type][payload]}; replay stops at the first
+ * torn or corrupt record and truncates the file there.
+ */
+public final class WriteAheadLog implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(WriteAheadLog.class);
+
+    private static final byte UPSERT = 1;
+    private static final byte DELETE = 2;
+    private static final byte CLEAR = 3;
+    private static final int FRAME_BYTES = 2 * Integer.BYTES;
+
+    private final Path file;
+    private final FileChannel channel;
+    private final long syncIntervalMillis;
+    private final Object commitLock = new Object();
+    private final ScheduledExecutorService syncer;
+
+    private ByteArrayOutputStream batch = new ByteArrayOutputStream(1 << 16);
+    private long appended;
+    private volatile long committedBytes;
+    private volatile long durable;
+    private long commits;
+    private long committedRecords;
+
+    /**
+     * Callbacks applied to each record during {@link #replay(Replayer)}
+     */
+    public interface Replayer {
+
+        void upsert(String id, float[] vector, Map<String, Object> metadata);
+
+        void delete(String id);
+
+        void clear();
+    }
+
+    public WriteAheadLog(Path file, long syncIntervalMillis) throws IOException {
+        this.file = file;
+        this.syncIntervalMillis = Math.max(0, syncIntervalMillis);
+        this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        this.committedBytes = channel.size();
+        if (this.syncIntervalMillis > 0) {
+            this.syncer = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread t = new Thread(r, "wal-sync");
+                t.setDaemon(true);
+                return t;
+            });
+            syncer.scheduleWithFixedDelay(this::commitQuietly, this.syncIntervalMillis, this.syncIntervalMillis,
+                    TimeUnit.MILLISECONDS);
+        } else {
+            this.syncer = null;
+        }
+    }
+
+    /**
+     * Apply every intact record in log order, then cut off any torn tail
+     */
+    public int replay(Replayer replayer) throws IOException {
+        synchronized (commitLock) {
+            long size = channel.size();
+            ByteBuffer frame = ByteBuffer.allocate(FRAME_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            long position = 0;
+            int records = 0;
+            while (position + FRAME_BYTES <= size) {
+                frame.clear();
+                readFully(frame, position);
+                frame.flip();
+                int length = frame.getInt();
+                int checksum = frame.getInt();
+                if (length <= 0 || position + FRAME_BYTES + length > size) {
+                    break;
+                }
+                ByteBuffer body = ByteBuffer.allocate(length);
+                readFully(body, position + FRAME_BYTES);
+                CRC32C crc = new CRC32C();
+                crc.update(body.array(), 0, length);
+                if ((int) crc.getValue() != checksum) {
+                    break;
+                }
+                apply(body.flip(), replayer);
+                position += FRAME_BYTES + length;
+                records++;
+            }
+            if (position < size) {
+                logger.warn("Truncating {} bytes of torn write-ahead log tail in {}", size - position, file);
+                channel.truncate(position);
+                channel.force(true);
+            }
+            committedBytes = position;
+            return records;
+        }
+    }
+
+    public long appendUpsert(String id, float[] vector, Map<String, Object> metadata) throws IOException {
+        ByteArrayOutputStream payload = new ByteArrayOutputStream(vector.length * Float.BYTES + 128);
+        DataOutputStream out = new DataOutputStream(payload);
+        out.writeByte(UPSERT);
+        out.writeUTF(id);
+        out.writeInt(vector.length);
+        ByteBuffer floats = ByteBuffer.allocate(vector.length * Float.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        floats.asFloatBuffer().put(vector);
+        out.write(floats.array());
+        MetadataCodec.write(out, metadata);
+        return append(payload);
+    }
+
+    public long appendDelete(String id) throws IOException {
+        ByteArrayOutputStream payload = new ByteArrayOutputStream(64);
+        DataOutputStream out = new DataOutputStream(payload);
+        out.writeByte(DELETE);
+        out.writeUTF(id);
+        return append(payload);
+    }
+
+    public long appendClear() throws IOException {
+        ByteArrayOutputStream payload = new ByteArrayOutputStream(1);
+        payload.write(CLEAR);
+        return append(payload);
+    }
+
+    /**
+     * Block until the record with the given sequence is durable. Returns immediately when a
+     * sync interval is configured, since the background commit owns durability then.
+     */
+    public void sync(long sequence) throws IOException {
+        if (syncer == null) {
+            awaitDurable(sequence);
+        }
+    }
+
+    /**
+     * Write out and fsync everything batched so far; concurrent callers share one fsync
+     */
+    public void commit() throws IOException {
+        long target;
+        synchronized (this) {
+            target = appended;
+        }
+        awaitDurable(target);
+    }
+
+    /**
+     * Discard the whole log once its contents are covered by a snapshot. Callers must keep
+     * appends out while this runs.
+     */
+    public void truncate() throws IOException {
+        synchronized (commitLock) {
+            synchronized (this) {
+                batch = new ByteArrayOutputStream(1 << 16);
+                durable = appended;
+            }
+            channel.truncate(0);
+            channel.force(true);
+            committedBytes = 0;
+        }
+    }
+
+    /**
+     * Bytes in the log, including records not yet committed
+     */
+    public synchronized long sizeBytes() {
+        return committedBytes + batch.size();
+    }
+
+    public Map<String, Object> getStatistics() {
+        synchronized (commitLock) {
+            return Map.of(
+                "file", file.toString(),
+                "bytes", sizeBytes(),
+                "syncIntervalMs", syncIntervalMillis,
+                "commits", commits,
+                "recordsPerCommit", commits > 0 ? (double) committedRecords / commits : 0.0);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (syncer != null) {
+            syncer.shutdownNow();
+        }
+        commit();
+        channel.close();
+    }
+
+    private long append(ByteArrayOutputStream payload) throws IOException {
+        byte[] body = payload.toByteArray();
+        CRC32C crc = new CRC32C();
+        crc.update(body, 0, body.length);
+        ByteBuffer frame = ByteBuffer.allocate(FRAME_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        frame.putInt(body.length).putInt((int) crc.getValue());
+
+        long sequence;
+        synchronized (this) {
+            batch.write(frame.array());
+            batch.write(body);
+            sequence = ++appended;
+        }
+        return sequence;
+    }
+
+    /**
+     * Group commit: whoever holds the commit lock writes the entire pending batch with a single
+     * fsync, so writers queued behind it usually find their record already durable
+     */
+    private void awaitDurable(long sequence) throws IOException {
+        if (durable >= sequence) {
+            return;
+        }
+        synchronized (commitLock) {
+            if (durable >= sequence) {
+                return;
+            }
+            byte[] pending;
+            long upTo;
+            synchronized (this) {
+                pending = batch.toByteArray();
+                batch.reset();
+                upTo = appended;
+            }
+            ByteBuffer buffer = ByteBuffer.wrap(pending);
+            long position = committedBytes;
+            while (buffer.hasRemaining()) {
+                position += channel.write(buffer, position);
+            }
+            channel.force(false);
+            committedRecords += upTo - durable;
+            commits++;
+            committedBytes = position;
+            durable = upTo;
+        }
+    }
+
+    private void commitQuietly() {
+        try {
+            commit();
+        } catch (IOException | RuntimeException e) {
+            logger.error("Failed to commit write-ahead log {}", file, e);
+        }
+    }
+
+    private void readFully(ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, position + buffer.position());
+            if (read < 0) {
+                throw new IOException("Unexpected end of write-ahead log " + file);
+            }
+        }
+    }
+
+    private static void apply(ByteBuffer body, Replayer replayer) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(body.array(), 0, body.limit()));
+        byte type = in.readByte();
+        switch (type) {
+            case UPSERT -> {
+                String id = in.readUTF();
+                float[] vector = new float[in.readInt()];
+                byte[] raw = new byte[vector.length * Float.BYTES];
+                in.readFully(raw);
+                ByteBuffer.wrap(raw).order(ByteOrder.LITTLE_ENDIAN).asFloatBuffer().get(vector);
+                replayer.upsert(id, vector, MetadataCodec.read(in));
+            }
+            case DELETE -> replayer.delete(in.readUTF());
+            case CLEAR -> replayer.clear();
+            default -> throw new IOException("Unknown write-ahead log record type: " + type);
+        }
+    }
+}
@@ -11,6 +11,7 @@ import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
@@ -18,9 +19,11 @@ import com.techisthoughts.ia.movieclassification.application.usecase.ProcessMovi
 import com.techisthoughts.ia.movieclassification.domain.model.Movie;
 import com.techisthoughts.ia.movieclassification.domain.model.MovieChunk;
 import com.techisthoughts.ia.movieclassification.domain.port.LLMServicePort;
+import com.techisthoughts.ia.movieclassification.domain.port.LexicalIndexPort;
 import com.techisthoughts.ia.movieclassification.domain.port.MovieRepositoryPort;
 import com.techisthoughts.ia.movieclassification.domain.port.VectorDatabasePort;
 import com.techisthoughts.ia.movieclassification.infrastructure.adapter.CsvMovieLoader;
+import com.techisthoughts.ia.movieclassification.presentation.dto.BatchSearchRequest;
 import com.techisthoughts.ia.movieclassification.presentation.dto.MovieDto;
 
 /**
@@ -36,17 +39,20 @@ public class MovieController {
     private final ProcessMoviesUseCase processMoviesUseCase;
     private final MovieRepositoryPort movieRepository;
     private final VectorDatabasePort vectorDatabase;
+    private final LexicalIndexPort lexicalIndex;
     private final LLMServicePort llmService;
     private final CsvMovieLoader csvMovieLoader;
 
     public MovieController(ProcessMoviesUseCase processMoviesUseCase,
                           MovieRepositoryPort movieRepository,
                           VectorDatabasePort vectorDatabase,
+                          LexicalIndexPort lexicalIndex,
                           LLMServicePort llmService,
                           CsvMovieLoader csvMovieLoader) {
         this.processMoviesUseCase = processMoviesUseCase;
         this.movieRepository = movieRepository;
         this.vectorDatabase = vectorDatabase;
+        this.lexicalIndex = lexicalIndex;
         this.llmService = llmService;
         this.csvMovieLoader = csvMovieLoader;
     }
@@ -61,6 +67,7 @@ public class MovieController {
             "timestamp", System.currentTimeMillis(),
             "movieCount", movieRepository.count(),
             "embeddingCount", vectorDatabase.count(),
+            "collections", vectorDatabase.collectionNames(),
             "llmAvailable", llmService.isAvailable()
         );
         return ResponseEntity.ok(status);
@@ -164,24 +171,36 @@ public class MovieController {
     }
 
     /**
-     * Search movies using vector similarity
+     * Search movies using vector similarity, optionally restricted to one genre; the
+     * approximate backends report the search plans they ran in their planner statistics. An
+     * unknown collection is answered with 404 rather than created.
      */
     @GetMapping("/search")
     public ResponseEntity<List<Map<String, Object>>> searchMovies(
             @RequestParam String query,
-            @RequestParam(defaultValue = "10") int limit) {
+            @RequestParam(defaultValue = "10") int limit,
+            @RequestParam(required = false) String collection,
+            @RequestParam(required = false) String genre) {
 
-        logger.info("Searching movies with query: '{}', limit: {}", query, limit);
+        logger.info("Searching movies with query: '{}', limit: {}, collection: {}, genre: {}",
+            query, limit, collection, genre);
 
         try {
+            VectorDatabasePort target = collection != null
+                ? vectorDatabase.findCollection(collection).orElse(null)
+                : vectorDatabase;
+            if (target == null) {
+                return ResponseEntity.notFound().build();
+            }
             List<Double> queryEmbedding = llmService.createEmbedding(query);
 
             if (queryEmbedding.isEmpty()) {
                 return ResponseEntity.badRequest().body(List.of());
             }
 
+            Map<String, Object> filter = genre != null ? Map.of("genre", genre) : Map.of();
             List<VectorDatabasePort.SimilarityResult> results =
-                vectorDatabase.findSimilar(queryEmbedding, limit);
+                target.findSimilar(queryEmbedding, limit, filter);
 
             List<Map<String, Object>> response = results.stream()
                     .map(result -> Map.of(
@@ -193,12 +212,66 @@ public class MovieController {
 
             return ResponseEntity.ok(response);
 
+        } catch (IllegalArgumentException e) {
+            logger.warn("Invalid search request: {}", e.getMessage());
+            return ResponseEntity.badRequest().body(List.of());
         } catch (Exception e) {
             logger.error("Error searching movies", e);
             return ResponseEntity.internalServerError().body(List.of());
         }
     }
 
+    /**
+     * Search movies for several queries in one pass over the stored vectors
+     */
+    @PostMapping("/search/batch")
+    public ResponseEntity<List<List<Map<String, Object>>>> searchMoviesBatch(@RequestBody BatchSearchRequest request) {
+        List<String> queries = request.queries();
+        int limit = request.limit() != null ? request.limit() : 10;
+        Map<String, Object> filter = request.filter() != null ? request.filter() : Map.of();
+
+        if (queries == null || queries.isEmpty()) {
+            return ResponseEntity.badRequest().body(List.of());
+        }
+        logger.info("Batch searching movies with {} queries, limit: {}", queries.size(), limit);
+
+        try {
+            VectorDatabasePort target = request.collection() != null
+                ? vectorDatabase.findCollection(request.collection()).orElse(null)
+                : vectorDatabase;
+            if (target == null) {
+                return ResponseEntity.notFound().build();
+            }
+            List<List<Double>> queryEmbeddings = llmService.createEmbeddings(queries);
+
+            if (queryEmbeddings.size() != queries.size()) {
+                return ResponseEntity.badRequest().body(List.of());
+            }
+
+            List<List<VectorDatabasePort.SimilarityResult>> results =
+                target.findSimilarBatch(queryEmbeddings, limit, filter);
+
+            List<List<Map<String, Object>>> response = results.stream()
+                    .map(queryResults -> queryResults.stream()
+                        .map(result -> Map.<String, Object>of(
+                            "id", result.id(),
+                            "similarity", result.similarity(),
+                            "metadata", result.metadata()
+                        ))
+                        .collect(Collectors.toList()))
+                    .collect(Collectors.toList());
+
+            return ResponseEntity.ok(response);
+
+        } catch (IllegalArgumentException e) {
+            logger.warn("Invalid batch search request: {}", e.getMessage());
+            return ResponseEntity.badRequest().body(List.of());
+        } catch (Exception e) {
+            logger.error("Error batch searching movies", e);
+            return ResponseEntity.internalServerError().body(List.of());
+        }
+    }
+
     /**
      * Get statistics about the system
      */
@@ -209,6 +282,7 @@ public class MovieController {
         Map<String, Object> stats = Map.of(
             "movieCount", movieRepository.count(),
             "embeddingCount", vectorDatabase.count(),
+            "lexicalDocumentCount", lexicalIndex.count(),
             "llmAvailable", llmService.isAvailable(),
             "timestamp", System.currentTimeMillis()
         );
@@ -216,6 +290,23 @@ public class MovieController {
         return ResponseEntity.ok(stats);
     }
 
+    /**
+     * Near-duplicate embeddings detected on insert, largest groups first
+     */
+    @GetMapping("/duplicates")
+    public ResponseEntity<Map<String, Object>> getDuplicates(@RequestParam(defaultValue = "100") int limit) {
+        logger.info("Getting duplicate report (limit: {})", limit);
+
+        Map<String, Object> report = vectorDatabase.duplicateReport(limit);
+        if (report.isEmpty()) {
+            return ResponseEntity.ok(Map.of(
+                "enabled", false,
+                "message", "Duplicate detection is off; set app.vector.dedup.mode to flag or merge"
+            ));
+        }
+        return ResponseEntity.ok(report);
+    }
+
     /**
      * Clear all data
      */
@@ -226,6 +317,7 @@ public class MovieController {
         try {
             movieRepository.deleteAll();
             vectorDatabase.deleteAll();
+            lexicalIndex.clear();
 
             Map<String, Object> response = Map.of(
                 "success", true,
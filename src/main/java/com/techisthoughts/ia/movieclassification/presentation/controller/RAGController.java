@@ -4,8 +4,10 @@ import java.time.Instant;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.stream.Collectors;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -17,8 +19,10 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import com.techisthoughts.ia.movieclassification.application.service.HybridRetrievalService;
 import com.techisthoughts.ia.movieclassification.domain.model.Movie;
 import com.techisthoughts.ia.movieclassification.domain.port.LLMServicePort;
+import com.techisthoughts.ia.movieclassification.domain.port.LexicalIndexPort;
 import com.techisthoughts.ia.movieclassification.domain.port.MovieRepositoryPort;
 import com.techisthoughts.ia.movieclassification.domain.port.VectorDatabasePort;
 import com.techisthoughts.ia.movieclassification.infrastructure.observability.MetricsService;
@@ -38,20 +42,30 @@ public class RAGController {
     private final LLMServicePort llmService;
     private final MovieRepositoryPort movieRepository;
     private final VectorDatabasePort vectorDatabase;
+    private final LexicalIndexPort lexicalIndex;
+    private final HybridRetrievalService hybridRetrievalService;
     private final MetricsService metricsService;
 
     // RAG Configuration
     private static final int DEFAULT_RETRIEVAL_LIMIT = 10;
     private static final double SIMILARITY_THRESHOLD = 0.5;
+    private static final int DIVERSITY_CANDIDATE_FACTOR = 4; // MMR picks limit results from limit x 4 candidates
+    private static final double DIVERSITY_LAMBDA = 0.7;
+    private static final int DIRECT_MATCH_LIMIT = 5;
+    private static final String DEFAULT_RETRIEVAL_MODE = "hybrid"; // or "vector"
     private static final int MAX_CONTEXT_LENGTH = 4000;
 
     public RAGController(LLMServicePort llmService,
                         MovieRepositoryPort movieRepository,
                         VectorDatabasePort vectorDatabase,
+                        LexicalIndexPort lexicalIndex,
+                        HybridRetrievalService hybridRetrievalService,
                         MetricsService metricsService) {
         this.llmService = llmService;
         this.movieRepository = movieRepository;
         this.vectorDatabase = vectorDatabase;
+        this.lexicalIndex = lexicalIndex;
+        this.hybridRetrievalService = hybridRetrievalService;
         this.metricsService = metricsService;
     }
 
@@ -62,7 +76,8 @@ public class RAGController {
     public ResponseEntity<Map<String, Object>> simpleRAGQuery(
             @RequestParam String q,
             @RequestParam(defaultValue = "5") int limit,
-            @RequestParam(defaultValue = "detailed") String style) {
+            @RequestParam(defaultValue = "detailed") String style,
+            @RequestParam(defaultValue = DEFAULT_RETRIEVAL_MODE) String retrieval) {
 
         Timer.Sample sample = metricsService.startEndToEndTimer();
         logger.info("Processing simple RAG query: '{}'", q);
@@ -72,7 +87,7 @@ public class RAGController {
             String enrichedQuery = enrichQuery(q);
 
             // Step 2: Retrieval
-            List<VectorDatabasePort.SimilarityResult> results = performRetrieval(enrichedQuery, limit);
+            List<VectorDatabasePort.SimilarityResult> results = performRetrieval(enrichedQuery, limit, retrieval);
             List<Movie> directMatches = findDirectMatches(q);
 
             // Step 3: Context assembly
@@ -122,13 +137,14 @@ public class RAGController {
         String style = (String) request.getOrDefault("responseStyle", "detailed");
         Boolean enableEnrichment = (Boolean) request.getOrDefault("enableEnrichment", true);
         Boolean enableCuration = (Boolean) request.getOrDefault("enableCuration", true);
+        String retrievalMode = (String) request.getOrDefault("retrievalMode", DEFAULT_RETRIEVAL_MODE);
 
         logger.info("Processing advanced RAG query: '{}'", originalQuery);
 
         try {
             // Enhanced pipeline
             String enrichedQuery = enableEnrichment ? enrichQuery(originalQuery) : originalQuery;
-            List<VectorDatabasePort.SimilarityResult> results = performRetrieval(enrichedQuery, limit);
+            List<VectorDatabasePort.SimilarityResult> results = performRetrieval(enrichedQuery, limit, retrievalMode);
             List<Movie> directMatches = findDirectMatches(originalQuery);
             String context = assembleContext(results, directMatches);
             String rawResponse = generateResponse(originalQuery, context, style);
@@ -171,30 +187,34 @@ public class RAGController {
         }
     }
 
-    private List<VectorDatabasePort.SimilarityResult> performRetrieval(String query, int limit) {
+    private List<VectorDatabasePort.SimilarityResult> performRetrieval(String query, int limit, String mode) {
         try {
             Timer.Sample sample = metricsService.startEmbeddingTimer();
             List<Double> embedding = llmService.createEmbedding(query);
             metricsService.recordEmbeddingCreation(sample);
 
+            if ("hybrid".equalsIgnoreCase(mode)) {
+                // Keyword hits still count when the embedding service returned nothing
+                return hybridRetrievalService.retrieve(query, embedding, limit, SIMILARITY_THRESHOLD,
+                    limit * DIVERSITY_CANDIDATE_FACTOR, DIVERSITY_LAMBDA);
+            }
             if (embedding.isEmpty()) {
                 return Collections.emptyList();
             }
 
-            return vectorDatabase.findSimilar(embedding, limit);
+            // Diversify so a chunk and its own generated questions don't fill the context together
+            return vectorDatabase.findDiverse(embedding, SIMILARITY_THRESHOLD, limit,
+                limit * DIVERSITY_CANDIDATE_FACTOR, DIVERSITY_LAMBDA);
         } catch (Exception e) {
             logger.error("Retrieval failed", e);
             return Collections.emptyList();
         }
     }
 
-        private List<Movie> findDirectMatches(String query) {
-        String lowerQuery = query.toLowerCase();
-        return movieRepository.findAll().stream()
-            .filter(movie ->
-                movie.getMovieTitle().toLowerCase().contains(lowerQuery) ||
-                movie.getGenre().toLowerCase().contains(lowerQuery))
-            .limit(5)
+    private List<Movie> findDirectMatches(String query) {
+        return lexicalIndex.search(query, DIRECT_MATCH_LIMIT, Map.of("type", "movie")).stream()
+            .map(match -> movieRepository.findByTitle((String) match.metadata().get("title")))
+            .flatMap(Optional::stream)
             .collect(Collectors.toList());
     }
 
@@ -219,8 +239,8 @@ public class RAGController {
         if (!results.isEmpty()) {
             context.append("=== RELATED CONTENT ===\n");
             for (VectorDatabasePort.SimilarityResult result : results) {
-                if (result.similarity() >= SIMILARITY_THRESHOLD && context.length() < MAX_CONTEXT_LENGTH) {
-                    context.append(String.format("[Similarity: %.2f] %s\n",
+                if (context.length() < MAX_CONTEXT_LENGTH) {
+                    context.append(String.format("[Score: %.3f] %s\n",
                         result.similarity(), result.id()));
                 }
             }
@@ -297,13 +317,16 @@ public class RAGController {
          }
 
         for (VectorDatabasePort.SimilarityResult result : results) {
-            if (result.similarity() >= SIMILARITY_THRESHOLD) {
-                sources.add(Map.of(
-                    "type", "similarity_match",
-                    "id", result.id(),
-                    "similarity", result.similarity()
-                ));
+            Map<String, Object> source = new LinkedHashMap<>();
+            source.put("type", "similarity_match");
+            source.put("id", result.id());
+            source.put("similarity", result.similarity());
+            Map<String, Object> metadata = result.metadata() != null ? result.metadata() : Map.of();
+            if (metadata.containsKey("fusedScore")) {
+                source.put("fusedScore", metadata.get("fusedScore"));
+                source.put("retrieval", metadata.get("retrieval"));
             }
+            sources.add(source);
         }
 
         return sources.stream().limit(10).collect(Collectors.toList());
@@ -350,7 +373,7 @@ public class RAGController {
     public ResponseEntity<Map<String, Object>> getCapabilities() {
         return ResponseEntity.ok(Map.of(
             "features", Arrays.asList(
-                "Query Enrichment", "Multi-Strategy Retrieval", "Context Assembly",
+                "Query Enrichment", "Multi-Strategy Retrieval", "Hybrid BM25 + Vector Retrieval", "Context Assembly",
                 "Response Generation", "Response Curation", "Source Attribution"
             ),
             "responseStyles", Arrays.asList("concise", "detailed", "casual", "analytical"),
@@ -362,6 +385,11 @@ public class RAGController {
             "configuration", Map.of(
                 "defaultLimit", DEFAULT_RETRIEVAL_LIMIT,
                 "similarityThreshold", SIMILARITY_THRESHOLD,
+                "diversityLambda", DIVERSITY_LAMBDA,
+                "retrievalModes", Arrays.asList("hybrid", "vector"),
+                "defaultRetrievalMode", DEFAULT_RETRIEVAL_MODE,
+                "rrfK", HybridRetrievalService.RRF_K,
+                "minLexicalScoreRatio", HybridRetrievalService.MIN_LEXICAL_SCORE_RATIO,
                 "maxContextLength", MAX_CONTEXT_LENGTH
             )
         ));
@@ -11,6 +11,7 @@ import java.util.stream.Collectors;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
@@ -18,10 +19,12 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import com.techisthoughts.ia.movieclassification.application.service.ChunkingService;
+import com.techisthoughts.ia.movieclassification.application.service.StreamingSearchService;
 import com.techisthoughts.ia.movieclassification.domain.model.Movie;
 import com.techisthoughts.ia.movieclassification.domain.model.MovieChunk;
 import com.techisthoughts.ia.movieclassification.domain.port.LLMServicePort;
 import com.techisthoughts.ia.movieclassification.domain.port.MovieRepositoryPort;
+import com.techisthoughts.ia.movieclassification.domain.port.VectorDatabasePort;
 import com.techisthoughts.ia.movieclassification.infrastructure.adapter.UltraFastOllamaLLMService;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
@@ -47,13 +50,16 @@ public class UltraFastReactiveController {
     private final MovieRepositoryPort movieRepository;
     private final ChunkingService chunkingService;
     private final UltraFastOllamaLLMService ultraFastLLMService;
+    private final StreamingSearchService streamingSearchService;
 
     public UltraFastReactiveController(MovieRepositoryPort movieRepository,
                                      ChunkingService chunkingService,
-                                     @Qualifier("ultraFastLLMService") LLMServicePort ultraFastLLMService) {
+                                     @Qualifier("ultraFastLLMService") LLMServicePort ultraFastLLMService,
+                                     StreamingSearchService streamingSearchService) {
         this.movieRepository = movieRepository;
         this.chunkingService = chunkingService;
         this.ultraFastLLMService = (UltraFastOllamaLLMService) ultraFastLLMService;
+        this.streamingSearchService = streamingSearchService;
     }
 
     /**
@@ -241,6 +247,43 @@ public class UltraFastReactiveController {
         .onErrorReturn(createErrorResponse("Lightning-fast processing failed"));
     }
 
+    /**
+     * Non-blocking vector search: the query is embedded and the store scanned off the event loop,
+     * and results are emitted as soon as the scan completes
+     */
+    @GetMapping("/search")
+    public Flux<Map<String, Object>> search(
+            @RequestParam String query,
+            @RequestParam(defaultValue = "10") int limit) {
+
+        return embedQuery(query)
+            .flatMapMany(embedding -> streamingSearchService.findSimilar(embedding, limit, Map.of()))
+            .map(this::toResultMap);
+    }
+
+    /**
+     * Streaming vector search as server-sent events: each event is the running top results, the
+     * last one is final. Disconnecting stops the scan.
+     */
+    @GetMapping(value = "/search/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<Map<String, Object>> searchStreaming(
+            @RequestParam String query,
+            @RequestParam(defaultValue = "10") int limit) {
+
+        long startTime = System.currentTimeMillis();
+        return embedQuery(query)
+            .flatMapMany(embedding -> streamingSearchService.streamSnapshots(embedding, limit, Map.of()))
+            .index()
+            .map(snapshot -> Map.<String, Object>of(
+                "snapshot", snapshot.getT1(),
+                "elapsedMs", System.currentTimeMillis() - startTime,
+                "results", snapshot.getT2().stream().map(this::toResultMap).collect(Collectors.toList())))
+            .onErrorResume(e -> {
+                logger.error("Streaming search failed", e);
+                return Flux.just(createErrorResponse("Streaming search failed"));
+            });
+    }
+
     /**
      * Performance comparison with detailed metrics
      */
@@ -330,6 +373,19 @@ public class UltraFastReactiveController {
         }
     }
 
+    private Mono<List<Double>> embedQuery(String query) {
+        return Mono.fromCallable(() -> ultraFastLLMService.createEmbedding(query))
+            .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    private Map<String, Object> toResultMap(VectorDatabasePort.SimilarityResult result) {
+        return Map.of(
+            "id", result.id(),
+            "similarity", result.similarity(),
+            "metadata", result.metadata()
+        );
+    }
+
     private Map<String, Object> createErrorResponse(String message) {
         Map<String, Object> response = new HashMap<>();
         response.put("success", false);
@@ -0,0 +1,118 @@
+package com.techisthoughts.ia.movieclassification.presentation.controller;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import com.techisthoughts.ia.movieclassification.domain.port.VectorDatabasePort;
+import com.techisthoughts.ia.movieclassification.domain.port.VectorDatabasePort.EmbeddingData;
+import com.techisthoughts.ia.movieclassification.domain.port.VectorDatabasePort.SimilarityResult;
+import com.techisthoughts.ia.movieclassification.infrastructure.adapter.DistributedVectorDatabase;
+import com.techisthoughts.ia.movieclassification.infrastructure.adapter.RemoteVectorDatabase;
+import com.techisthoughts.ia.movieclassification.infrastructure.adapter.RemoteVectorDatabase.BatchSearchRequest;
+import com.techisthoughts.ia.movieclassification.infrastructure.adapter.RemoteVectorDatabase.SearchRequest;
+import com.techisthoughts.ia.movieclassification.infrastructure.adapter.RemoteVectorDatabase.StoreRequest;
+
+/**
+ * Node-to-node endpoints serving this node's shard of a distributed vector store. They always
+ * act on the local store, never fan out again; the collection {@code _all} addresses the whole
+ * local store. Only writes create a missing collection; reads and deletes of one answer as if
+ * it were empty. The endpoints exist only on nodes configured with app.vector.cluster.nodes and
+ * take the request bodies {@link RemoteVectorDatabase} sends.
+ */
+@RestController
+@ConditionalOnExpression("!'${app.vector.cluster.nodes:}'.isBlank()")
+@RequestMapping("/internal/vectors/{collection}")
+public class VectorShardController {
+
+    private final VectorDatabasePort localVectorDatabase;
+
+    public VectorShardController(@Qualifier("localVectorDatabase") VectorDatabasePort localVectorDatabase) {
+        this.localVectorDatabase = localVectorDatabase;
+    }
+
+    @PutMapping("/embeddings/{id}")
+    public ResponseEntity<Void> store(@PathVariable String collection, @PathVariable String id,
+                                      @RequestBody StoreRequest request) {
+        target(collection).storeEmbedding(id, request.embedding(),
+            request.metadata() != null ? request.metadata() : Map.of());
+        return ResponseEntity.noContent().build();
+    }
+
+    @PostMapping("/embeddings")
+    public ResponseEntity<Void> storeAll(@PathVariable String collection,
+                                         @RequestBody Map<String, EmbeddingData> embeddings) {
+        target(collection).storeEmbeddings(embeddings);
+        return ResponseEntity.noContent().build();
+    }
+
+    @GetMapping("/embeddings/{id}")
+    public ResponseEntity<EmbeddingData> get(@PathVariable String collection, @PathVariable String id) {
+        EmbeddingData data = existing(collection).map(target -> target.getEmbedding(id)).orElse(null);
+        return data != null ? ResponseEntity.ok(data) : ResponseEntity.notFound().build();
+    }
+
+    @DeleteMapping("/embeddings/{id}")
+    public ResponseEntity<Void> delete(@PathVariable String collection, @PathVariable String id) {
+        existing(collection).ifPresent(target -> target.deleteEmbedding(id));
+        return ResponseEntity.noContent().build();
+    }
+
+    @DeleteMapping("/embeddings")
+    public ResponseEntity<Void> deleteAll(@PathVariable String collection) {
+        existing(collection).ifPresent(VectorDatabasePort::deleteAll);
+        return ResponseEntity.noContent().build();
+    }
+
+    @GetMapping("/count")
+    public long count(@PathVariable String collection) {
+        return existing(collection).map(VectorDatabasePort::count).orElse(0L);
+    }
+
+    @PostMapping("/search")
+    public List<SimilarityResult> search(@PathVariable String collection, @RequestBody SearchRequest request) {
+        VectorDatabasePort target = existing(collection).orElse(null);
+        if (target == null) {
+            return List.of();
+        }
+        if (request.minSimilarity() != null) {
+            return target.findWithinThreshold(request.query(), request.minSimilarity(), request.limit());
+        }
+        return target.findSimilar(request.query(), request.limit(),
+            request.filter() != null ? request.filter() : Map.of());
+    }
+
+    @PostMapping("/search/batch")
+    public List<List<SimilarityResult>> searchBatch(@PathVariable String collection,
+                                                    @RequestBody BatchSearchRequest request) {
+        Optional<VectorDatabasePort> target = existing(collection);
+        if (target.isEmpty()) {
+            return Collections.nCopies(request.queries().length, List.<SimilarityResult>of());
+        }
+        return target.get().findSimilarBatch(request.queries(), request.limit(),
+            request.filter() != null ? request.filter() : Map.of());
+    }
+
+    private VectorDatabasePort target(String collection) {
+        return DistributedVectorDatabase.ALL_COLLECTIONS.equals(collection)
+            ? localVectorDatabase
+            : localVectorDatabase.collection(collection);
+    }
+
+    private Optional<VectorDatabasePort> existing(String collection) {
+        return DistributedVectorDatabase.ALL_COLLECTIONS.equals(collection)
+            ? Optional.of(localVectorDatabase)
+            : localVectorDatabase.findCollection(collection);
+    }
+}
@@ -0,0 +1,14 @@
+package com.techisthoughts.ia.movieclassification.presentation.dto;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Request body for batched vector search
+ */
+public record BatchSearchRequest(
+    List<String> queries,
+    Integer limit,
+    Map<String, Object> filter,
+    String collection
+) {}
@@ -0,0 +1,48 @@
+package com.techisthoughts.ia.movieclassification.infrastructure.adapter;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import com.techisthoughts.ia.movieclassification.domain.port.LexicalIndexPort.LexicalMatch;
+
+class Bm25LexicalIndexTest {
+
+	private final Bm25LexicalIndex index = new Bm25LexicalIndex();
+
+	@Test
+	void rarerAndMoreFrequentTermsRankHigher() {
+		index.index("movie:Inception", "Inception\nSci-Fi\nDreams within dreams", Map.of("type", "movie"));
+		index.index("movie:Amelie", "Am\u00e9lie\nRomance\nA whimsical story about Paris", Map.of("type", "movie"));
+		index.index("chunk-1", "Sci-Fi movies about space and dreams", Map.of("type", "chunk"));
+
+		List<LexicalMatch> matches = index.search("dreams", 10, Map.of());
+
+		assertEquals(List.of("movie:Inception", "chunk-1"), matches.stream().map(LexicalMatch::id).toList());
+		assertTrue(matches.get(0).score() > matches.get(1).score());
+		assertEquals("movie:Amelie", index.search("AMELIE paris", 10, Map.of()).get(0).id());
+		assertEquals(List.of("chunk-1"),
+			index.search("dreams", 10, Map.of("type", "chunk")).stream().map(LexicalMatch::id).toList());
+	}
+
+	@Test
+	void reindexAndRemoveReplaceOldPostings() {
+		index.index("doc", "heist thriller", Map.of());
+		index.index("doc", "romantic comedy", Map.of());
+
+		assertTrue(index.search("heist", 10, Map.of()).isEmpty());
+		assertEquals("doc", index.search("comedy", 10, Map.of()).get(0).id());
+
+		for (int i = 0; i < 3000; i++) {
+			index.index("filler-" + i, "comedy number " + i, Map.of());
+		}
+		for (int i = 0; i < 3000; i++) {
+			index.remove("filler-" + i);
+		}
+
+		assertEquals(1, index.count());
+		assertEquals(List.of("doc"), index.search("comedy", 10, Map.of()).stream().map(LexicalMatch::id).toList());
+	}
+}
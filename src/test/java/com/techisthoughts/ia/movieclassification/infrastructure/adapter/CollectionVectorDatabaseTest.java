@@ -0,0 +1,69 @@
+package com.techisthoughts.ia.movieclassification.infrastructure.adapter;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+import com.techisthoughts.ia.movieclassification.domain.port.VectorDatabasePort.SimilarityResult;
+
+class CollectionVectorDatabaseTest {
+
+	private final CollectionVectorDatabase database = new CollectionVectorDatabase(name -> new InMemoryVectorDatabase());
+
+	@Test
+	void collectionSearchOnlyScansThatCollection() {
+		database.collection("chunks").storeEmbedding("chunk", new float[] {1f, 0f, 0f}, Map.of());
+		database.collection("questions").storeEmbedding("question", new float[] {0.9f, 0.1f, 0f}, Map.of());
+
+		List<SimilarityResult> questions = database.collection("questions").findSimilar(new float[] {1f, 0f, 0f}, 10);
+		List<SimilarityResult> all = database.findSimilar(new float[] {1f, 0f, 0f}, 10);
+
+		assertEquals(List.of("question"), questions.stream().map(SimilarityResult::id).toList());
+		assertEquals(List.of("chunk", "question"), all.stream().map(SimilarityResult::id).toList());
+		assertEquals(Set.of("default", "chunks", "questions"), database.collectionNames());
+		assertEquals(2, database.count());
+	}
+
+	@Test
+	void collectionsKeepTheirOwnDimension() {
+		database.collection("wide").storeEmbedding("w", new float[] {1f, 0f, 0f}, Map.of());
+		database.collection("narrow").storeEmbedding("n", new float[] {0f, 1f}, Map.of());
+
+		assertEquals("n", database.findSimilar(new float[] {0f, 1f}, 10).get(0).id());
+		assertEquals("w", database.getEmbedding("w").id());
+
+		database.deleteAll();
+		assertEquals(0, database.count());
+	}
+
+	@Test
+	void existingCollectionsAreOpenedAtStartup() {
+		InMemoryVectorDatabase persisted = new InMemoryVectorDatabase();
+		persisted.storeEmbedding("question", new float[] {1f, 0f}, Map.of());
+		CollectionVectorDatabase reopened = new CollectionVectorDatabase(
+			name -> "questions".equals(name) ? persisted : new InMemoryVectorDatabase(), List.of("questions", "../escape"));
+
+		assertEquals(Set.of("default", "questions"), reopened.collectionNames());
+		assertEquals(1, reopened.count());
+		assertEquals("question", reopened.findSimilar(new float[] {1f, 0f}, 10).get(0).id());
+	}
+
+	@Test
+	void lookupsDoNotCreateCollections() {
+		database.collection("questions").storeEmbedding("question", new float[] {1f, 0f}, Map.of());
+
+		assertTrue(database.findCollection("questions").isPresent());
+		assertTrue(database.findCollection("missing").isEmpty());
+		assertEquals(Set.of("default", "questions"), database.collectionNames());
+	}
+
+	@Test
+	void rejectsUnsafeCollectionNames() {
+		assertThrows(IllegalArgumentException.class, () -> database.collection("../escape"));
+		assertThrows(IllegalArgumentException.class, () -> database.findCollection("../escape"));
+	}
+}
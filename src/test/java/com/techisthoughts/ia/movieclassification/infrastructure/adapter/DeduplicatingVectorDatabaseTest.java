@@ -0,0 +1,113 @@
+package com.techisthoughts.ia.movieclassification.infrastructure.adapter;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+import com.techisthoughts.ia.movieclassification.domain.port.VectorDatabasePort.EmbeddingData;
+
+class DeduplicatingVectorDatabaseTest {
+
+	private static final int DIMENSION = 64;
+
+	@Test
+	void flagModeStoresDuplicatesWithTheirCanonicalId() {
+		DeduplicatingVectorDatabase database =
+			new DeduplicatingVectorDatabase(new InMemoryVectorDatabase(), "flag", 0.97, 8, 12);
+		Random random = new Random(3);
+		float[] original = randomVector(random);
+		database.storeEmbedding("original", original, Map.of("type", "chunk"));
+		database.storeEmbedding("copy", perturb(original, random, 0.01f), Map.of("type", "chunk"));
+		database.storeEmbedding("unrelated", randomVector(random), Map.of("type", "chunk"));
+
+		assertEquals(3, database.count());
+		assertEquals("original", database.getEmbedding("copy").metadata().get("duplicateOf"));
+		assertFalse(database.getEmbedding("unrelated").metadata().containsKey("duplicateOf"));
+
+		Map<String, Object> report = database.duplicateReport(10);
+		assertEquals(1, report.get("knownDuplicates"));
+		assertEquals(List.of(Map.of("canonical", "original", "duplicates", List.of("copy"))), report.get("groups"));
+	}
+
+	@Test
+	void mergeModeAliasesDuplicatesToTheStoredEmbedding() {
+		DeduplicatingVectorDatabase database =
+			new DeduplicatingVectorDatabase(new InMemoryVectorDatabase(), "merge", 0.97, 8, 12);
+		Random random = new Random(5);
+		float[] original = randomVector(random);
+		database.storeEmbedding("original", original, Map.of("type", "chunk"));
+		database.storeEmbedding("copy-1", perturb(original, random, 0.01f), Map.of("type", "chunk"));
+		database.storeEmbedding("copy-2", original.clone(), Map.of("type", "chunk"));
+
+		assertEquals(1, database.count());
+		assertEquals("copy-1", database.getEmbedding("copy-1").id());
+		assertEquals(database.getEmbedding("original").embedding(), database.getEmbedding("copy-1").embedding());
+		assertEquals(1, database.findSimilar(original, 5, Map.of()).size());
+
+		database.deleteEmbedding("copy-2");
+		assertNull(database.getEmbedding("copy-2"));
+		assertEquals(1, database.count());
+
+		database.deleteEmbedding("original");
+		assertNull(database.getEmbedding("copy-1"));
+		assertEquals(0, database.count());
+		assertEquals(0, database.duplicateReport(10).get("knownDuplicates"));
+	}
+
+	@Test
+	void batchesAreForwardedWholeAndSeeTheirOwnDuplicates() {
+		AtomicInteger batches = new AtomicInteger();
+		InMemoryVectorDatabase backend = new InMemoryVectorDatabase() {
+			@Override
+			public void storeEmbeddings(Map<String, EmbeddingData> embeddings) {
+				batches.incrementAndGet();
+				super.storeEmbeddings(embeddings);
+			}
+		};
+		DeduplicatingVectorDatabase database = new DeduplicatingVectorDatabase(backend, "flag", 0.97, 8, 12);
+		Random random = new Random(7);
+		float[] original = randomVector(random);
+		Map<String, EmbeddingData> batch = new LinkedHashMap<>();
+		batch.put("original", new EmbeddingData("original", toList(original), Map.of("type", "chunk")));
+		batch.put("copy", new EmbeddingData("copy", toList(perturb(original, random, 0.01f)), Map.of("type", "chunk")));
+		batch.put("unrelated", new EmbeddingData("unrelated", toList(randomVector(random)), Map.of("type", "chunk")));
+
+		database.storeEmbeddings(batch);
+
+		assertEquals(1, batches.get());
+		assertEquals(3, database.count());
+		assertEquals("original", database.getEmbedding("copy").metadata().get("duplicateOf"));
+		assertFalse(database.getEmbedding("unrelated").metadata().containsKey("duplicateOf"));
+	}
+
+	private static List<Double> toList(float[] vector) {
+		List<Double> values = new ArrayList<>(vector.length);
+		for (float value : vector) {
+			values.add((double) value);
+		}
+		return values;
+	}
+
+	private static float[] randomVector(Random random) {
+		float[] vector = new float[DIMENSION];
+		for (int i = 0; i < vector.length; i++) {
+			vector[i] = (float) random.nextGaussian();
+		}
+		return vector;
+	}
+
+	private static float[] perturb(float[] vector, Random random, float scale) {
+		float[] copy = vector.clone();
+		for (int i = 0; i < copy.length; i++) {
+			copy[i] += (float) (scale * random.nextGaussian());
+		}
+		return copy;
+	}
+}
@@ -0,0 +1,100 @@
+package com.techisthoughts.ia.movieclassification.infrastructure.adapter;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.client.RestClient;
+import com.techisthoughts.ia.movieclassification.domain.port.VectorDatabasePort.SimilarityResult;
+import com.techisthoughts.ia.movieclassification.infrastructure.vector.ConsistentHashRing;
+
+class DistributedVectorDatabaseTest {
+
+	private static final String SELF = "http://localhost:8585";
+	private static final String UNREACHABLE = "http://127.0.0.1:9";
+	private static final List<String> NODES = List.of(SELF, UNREACHABLE);
+
+	private final CollectionVectorDatabase local = new CollectionVectorDatabase(name -> new InMemoryVectorDatabase());
+	private DistributedVectorDatabase database;
+
+	@AfterEach
+	void shutdown() {
+		database.shutdown();
+		local.shutdown();
+	}
+
+	@Test
+	void searchMergesTheShardsThatAnswered() {
+		database = new DistributedVectorDatabase(NODES, SELF, local, RestClient.create(), 16, 1000, false);
+		List<String> ownedBySelf = idsOwnedBy(0, 3);
+		database.storeEmbedding(ownedBySelf.get(0), new float[] {1f, 0f}, Map.of());
+		database.storeEmbedding(ownedBySelf.get(1), new float[] {0.8f, 0.6f}, Map.of());
+		database.storeEmbedding(ownedBySelf.get(2), new float[] {0f, 1f}, Map.of());
+
+		List<SimilarityResult> results = database.findSimilar(new float[] {1f, 0f}, 2, Map.of());
+
+		assertEquals(List.of(ownedBySelf.get(0), ownedBySelf.get(1)), results.stream().map(SimilarityResult::id).toList());
+		assertEquals(3, local.count());
+		assertEquals(1L, database.getStatistics().get("partialFanOuts"));
+	}
+
+	@Test
+	void requireAllShardsFailsPartialSearches() {
+		database = new DistributedVectorDatabase(NODES, SELF, local, RestClient.create(), 16, 1000, true);
+		database.storeEmbedding(idsOwnedBy(0, 1).get(0), new float[] {1f, 0f}, Map.of());
+
+		assertThrows(IllegalStateException.class, () -> database.findSimilar(new float[] {1f, 0f}, 2, Map.of()));
+	}
+
+	@Test
+	void deleteAllFailsUnlessEveryShardWasWiped() {
+		database = new DistributedVectorDatabase(NODES, SELF, local, RestClient.create(), 16, 1000, false);
+		database.storeEmbedding(idsOwnedBy(0, 1).get(0), new float[] {1f, 0f}, Map.of());
+
+		assertThrows(IllegalStateException.class, () -> database.deleteAll());
+		assertEquals(0, local.count());
+	}
+
+	@Test
+	void diverseSearchSelectsOverThePooledCandidates() {
+		database = new DistributedVectorDatabase(NODES, SELF, local, RestClient.create(), 16, 1000, false);
+		List<String> ownedBySelf = idsOwnedBy(0, 3);
+		database.storeEmbedding(ownedBySelf.get(0), new float[] {1f, 0f}, Map.of());
+		database.storeEmbedding(ownedBySelf.get(1), new float[] {0.999f, 0.04f}, Map.of());
+		database.storeEmbedding(ownedBySelf.get(2), new float[] {0.8f, -0.6f}, Map.of());
+
+		List<SimilarityResult> results = database.findDiverse(new float[] {1f, 0f}, 0.5, 2, 3, 0.3);
+
+		assertEquals(List.of(ownedBySelf.get(0), ownedBySelf.get(2)), results.stream().map(SimilarityResult::id).toList());
+	}
+
+	@Test
+	void collectionReadsDoNotCreateTheLocalCollection() {
+		database = new DistributedVectorDatabase(NODES, SELF, local, RestClient.create(), 16, 1000, false);
+
+		assertTrue(database.findCollection("missing").isEmpty());
+		// The local collection is not queried, so the unreachable node is the only shard asked
+		assertThrows(IllegalStateException.class,
+			() -> database.collection("questions").findSimilar(new float[] {1f, 0f}, 2, Map.of()));
+		assertEquals(Set.of("default"), local.collectionNames());
+
+		database.collection("questions").storeEmbedding(idsOwnedBy(0, 1).get(0), new float[] {1f, 0f}, Map.of());
+		assertEquals(Set.of("default", "questions"), local.collectionNames());
+		assertTrue(database.findCollection("questions").isPresent());
+	}
+
+	private static List<String> idsOwnedBy(int node, int count) {
+		ConsistentHashRing ring = new ConsistentHashRing(NODES, 16);
+		return IntStream.range(0, 1000)
+			.mapToObj(i -> "id-" + i)
+			.filter(id -> ring.nodeFor(id) == node)
+			.limit(count)
+			.toList();
+	}
+}
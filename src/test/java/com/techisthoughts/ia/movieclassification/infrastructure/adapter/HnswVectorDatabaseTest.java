@@ -0,0 +1,138 @@
+package com.techisthoughts.ia.movieclassification.infrastructure.adapter;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Test;
+import com.techisthoughts.ia.movieclassification.domain.port.VectorDatabasePort.SimilarityResult;
+import com.techisthoughts.ia.movieclassification.infrastructure.vector.FilteredSearchPlanner;
+
+class HnswVectorDatabaseTest {
+
+	private static final int DIMENSION = 32;
+
+	@Test
+	void approximateSearchMatchesExactSearch() {
+		HnswVectorDatabase hnsw = new HnswVectorDatabase(16, 100, 64, 0);
+		InMemoryVectorDatabase exact = new InMemoryVectorDatabase();
+		Random random = new Random(7);
+		IntStream.range(0, 2000).forEach(i -> {
+			float[] vector = randomVector(random);
+			hnsw.storeEmbedding("id" + i, vector, Map.of());
+			exact.storeEmbedding("id" + i, vector, Map.of());
+		});
+
+		double recall = 0;
+		for (int q = 0; q < 50; q++) {
+			float[] query = randomVector(random);
+			Set<String> expected = exact.findSimilar(query, 10).stream()
+				.map(SimilarityResult::id)
+				.collect(Collectors.toSet());
+			recall += hnsw.findSimilar(query, 10).stream().filter(r -> expected.contains(r.id())).count() / 10.0;
+		}
+
+		assertTrue(recall / 50 > 0.9, "recall@10 was " + recall / 50);
+	}
+
+	@Test
+	void concurrentInsertsAndDeletesAreVisible() {
+		HnswVectorDatabase hnsw = new HnswVectorDatabase(8, 50, 32, 0);
+		Random random = new Random(11);
+		List<float[]> vectors = IntStream.range(0, 500).mapToObj(i -> randomVector(random)).toList();
+		IntStream.range(0, vectors.size()).parallel()
+			.forEach(i -> hnsw.storeEmbedding("id" + i, vectors.get(i), Map.of("type", i % 2 == 0 ? "chunk" : "question")));
+
+		hnsw.deleteEmbedding("id3");
+
+		assertEquals(499, hnsw.count());
+		assertTrue(hnsw.findSimilar(vectors.get(3), 5).stream().noneMatch(r -> r.id().equals("id3")));
+		assertEquals("id4", hnsw.findSimilar(vectors.get(4), 1, Map.of("type", "chunk")).get(0).id());
+	}
+
+	@Test
+	void filteredSearchesArePlannedBySelectivity() {
+		HnswVectorDatabase hnsw = new HnswVectorDatabase(8, 50, 32, 0);
+		Random random = new Random(13);
+		IntStream.range(0, 3000).forEach(i -> hnsw.storeEmbedding("id" + i, randomVector(random), Map.of(
+			"type", i % 10 == 0 ? "question" : "chunk",
+			"genre", i % 100 == 0 ? "documentary" : i % 5 < 2 ? "drama" : "other")));
+		float[] query = randomVector(random);
+
+		assertPlan(hnsw, "ann", hnsw.findSimilar(query, 5, Map.of()));
+		assertPlan(hnsw, "brute-force", hnsw.findSimilar(query, 5, Map.of("genre", "documentary")));
+		assertPlan(hnsw, "filtered-traversal", hnsw.findSimilar(query, 5, Map.of("genre", "drama")));
+		assertPlan(hnsw, "post-filter", hnsw.findSimilar(query, 5, Map.of("type", "chunk")));
+		assertTrue(hnsw.findSimilar(query, 5, Map.of("genre", "drama")).stream()
+			.allMatch(r -> "drama".equals(r.metadata().get("genre")) && !r.metadata().containsKey("searchPlan")));
+	}
+
+	@Test
+	void compactionDropsTombstonesAndReplaysConcurrentWrites() throws InterruptedException {
+		HnswVectorDatabase hnsw = new HnswVectorDatabase(8, 50, 64, 0, 0.2, 100,
+			FilteredSearchPlanner.DEFAULT_POST_FILTER_SELECTIVITY);
+		InMemoryVectorDatabase exact = new InMemoryVectorDatabase();
+		Random random = new Random(17);
+		for (int i = 0; i < 3000; i++) {
+			float[] vector = randomVector(random);
+			hnsw.storeEmbedding("id" + i, vector, Map.of());
+			exact.storeEmbedding("id" + i, vector, Map.of());
+		}
+		// Crossing the tombstone fraction schedules a rebuild; the writes after it race with the
+		// copy and the graph build and must come through the journal
+		for (int i = 0; i < 3000; i += 4) {
+			hnsw.deleteEmbedding("id" + i);
+			exact.deleteEmbedding("id" + i);
+		}
+		float[][] late = new float[300][];
+		for (int i = 0; i < late.length; i++) {
+			late[i] = randomVector(random);
+			hnsw.storeEmbedding("late" + i, late[i], Map.of());
+			exact.storeEmbedding("late" + i, late[i], Map.of());
+			hnsw.deleteEmbedding("id" + (4 * i + 1));
+			exact.deleteEmbedding("id" + (4 * i + 1));
+		}
+		long deadline = System.currentTimeMillis() + 30_000;
+		while (((Number) hnsw.getStatistics().get("compactions")).longValue() == 0) {
+			assertTrue(System.currentTimeMillis() < deadline, "HNSW index was not compacted in time");
+			Thread.sleep(10);
+		}
+
+		assertEquals(exact.count(), hnsw.count());
+		assertTrue(((Number) hnsw.getStatistics().get("tombstones")).intValue() <= 450);
+		for (int i = 0; i < late.length; i++) {
+			assertEquals("late" + i, hnsw.findSimilar(late[i], 1).get(0).id());
+		}
+		double recall = 0;
+		for (int q = 0; q < 30; q++) {
+			float[] query = randomVector(random);
+			Set<String> expected = exact.findSimilar(query, 10).stream()
+				.map(SimilarityResult::id)
+				.collect(Collectors.toSet());
+			List<SimilarityResult> results = hnsw.findSimilar(query, 10);
+			assertTrue(results.stream().allMatch(r -> exact.getEmbedding(r.id()) != null));
+			recall += results.stream().filter(r -> expected.contains(r.id())).count() / 10.0;
+		}
+		assertTrue(recall / 30 > 0.9, "recall@10 after compaction was " + recall / 30);
+		hnsw.shutdown();
+	}
+
+	private static void assertPlan(HnswVectorDatabase hnsw, String plan, List<SimilarityResult> results) {
+		assertEquals(5, results.size());
+		assertEquals(plan, ((Map<?, ?>) hnsw.getStatistics().get("planner")).get("lastPlan"));
+	}
+
+	private static float[] randomVector(Random random) {
+		float[] vector = new float[DIMENSION];
+		for (int i = 0; i < DIMENSION; i++) {
+			vector[i] = (float) random.nextGaussian();
+		}
+		return vector;
+	}
+
+}
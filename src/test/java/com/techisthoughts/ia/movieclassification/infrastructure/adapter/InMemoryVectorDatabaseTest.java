@@ -0,0 +1,414 @@
+package com.techisthoughts.ia.movieclassification.infrastructure.adapter;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import com.techisthoughts.ia.movieclassification.domain.port.VectorDatabasePort.SimilarityResult;
+import com.techisthoughts.ia.movieclassification.infrastructure.vector.MetadataIndex;
+import com.techisthoughts.ia.movieclassification.infrastructure.vector.Quantization;
+import com.techisthoughts.ia.movieclassification.infrastructure.vector.ScanParallelism;
+import com.techisthoughts.ia.movieclassification.infrastructure.vector.VectorPrecision;
+
+class InMemoryVectorDatabaseTest {
+
+	private final InMemoryVectorDatabase database = new InMemoryVectorDatabase();
+
+	@Test
+	void findSimilarRanksByCosineSimilarity() {
+		database.storeEmbedding("a", new float[] {1f, 0f, 0f}, Map.of("type", "chunk"));
+		database.storeEmbedding("b", List.of(0.7, 0.7, 0.0), Map.of("type", "question"));
+		database.storeEmbedding("c", new float[] {0f, 0f, 1f}, Map.of("type", "chunk"));
+
+		List<SimilarityResult> results = database.findSimilar(new float[] {1f, 0.1f, 0f}, 2);
+
+		assertEquals(2, results.size());
+		assertEquals("a", results.get(0).id());
+		assertEquals("b", results.get(1).id());
+	}
+
+	@Test
+	void findSimilarAppliesMetadataFilter() {
+		database.storeEmbedding("a", new float[] {1f, 0f}, Map.of("type", "chunk"));
+		database.storeEmbedding("b", new float[] {1f, 0.1f}, Map.of("type", "question"));
+
+		List<SimilarityResult> results = database.findSimilar(List.of(1.0, 0.0), 10, Map.of("type", "question"));
+
+		assertEquals(1, results.size());
+		assertEquals("b", results.get(0).id());
+	}
+
+	@Test
+	void hugeLimitsAreBoundedByTheStoredRows() {
+		database.storeEmbedding("a", new float[] {1f, 0f}, Map.of());
+		database.storeEmbedding("b", new float[] {0f, 1f}, Map.of());
+		int limit = 1_000_000_000;
+
+		assertEquals(2, database.findSimilar(new float[] {1f, 0f}, limit).size());
+		assertEquals(2, database.findSimilar(new float[] {1f, 0f}, limit, Map.of()).size());
+		assertEquals(2, database.findWithinThreshold(new float[] {1f, 0f}, -1.0, limit).size());
+		assertEquals(2, database.findSimilarBatch(new float[][] {{1f, 0f}, {0f, 1f}}, limit, Map.of()).get(1).size());
+	}
+
+	@Test
+	void metadataFilterFollowsOverwritesAndDeletes() {
+		database.storeEmbedding("a", new float[] {1f, 0f}, Map.of("type", "chunk", "genre", "Drama"));
+		database.storeEmbedding("b", new float[] {1f, 0.1f}, Map.of("type", "chunk", "genre", "Drama"));
+		database.storeEmbedding("c", new float[] {1f, 0.2f}, Map.of("type", "question", "genre", "Drama"));
+		database.storeEmbedding("a", new float[] {1f, 0f}, Map.of("type", "chunk", "genre", "Comedy"));
+		database.deleteEmbedding("b");
+
+		Map<String, Object> dramaChunks = Map.of("type", "chunk", "genre", "Drama");
+		assertEquals(List.of(), database.findSimilar(new float[] {1f, 0f}, 10, dramaChunks));
+		assertEquals("a", database.findSimilar(new float[] {1f, 0f}, 10, Map.of("genre", "Comedy")).get(0).id());
+		assertEquals(List.of(), database.findSimilar(new float[] {1f, 0f}, 10, Map.of("genre", "Horror")));
+	}
+
+	@Test
+	void deletedSlotsAreReusedAndOverwritesKeepCount() {
+		database.storeEmbedding("a", new float[] {1f, 0f}, Map.of());
+		database.storeEmbedding("b", new float[] {0f, 1f}, Map.of());
+		database.storeEmbedding("a", new float[] {0.5f, 0.5f}, Map.of());
+		database.deleteEmbedding("b");
+		database.storeEmbedding("c", new float[] {0f, 2f}, Map.of());
+
+		assertEquals(2, database.count());
+		assertNull(database.getEmbedding("b"));
+		assertEquals(List.of(0.5, 0.5), database.getEmbedding("a").embedding());
+		assertEquals("c", database.findSimilar(new float[] {0f, 1f}, 1).get(0).id());
+	}
+
+	@Test
+	void findDiverseSkipsNearDuplicates() {
+		database.storeEmbedding("chunk", new float[] {1f, 0.2f, 0f}, Map.of("type", "chunk"));
+		database.storeEmbedding("question", new float[] {1f, 0.21f, 0f}, Map.of("type", "question"));
+		database.storeEmbedding("other", new float[] {1f, -0.4f, 0.3f}, Map.of("type", "chunk"));
+
+		List<SimilarityResult> plain = database.findWithinThreshold(new float[] {1f, 0f, 0f}, 0.5, 2);
+		List<SimilarityResult> diverse = database.findDiverse(new float[] {1f, 0f, 0f}, 0.5, 2, 10, 0.5);
+
+		assertEquals(List.of("chunk", "question"), plain.stream().map(SimilarityResult::id).toList());
+		assertEquals(List.of("chunk", "other"), diverse.stream().map(SimilarityResult::id).toList());
+	}
+
+	@Test
+	void streamSimilarEndsWithTheFullScanResults() {
+		Random random = new Random(7);
+		for (int i = 0; i < 40_000; i++) {
+			float[] vector = new float[16];
+			for (int d = 0; d < vector.length; d++) {
+				vector[d] = (float) random.nextGaussian();
+			}
+			database.storeEmbedding("v" + i, vector, Map.of());
+		}
+		float[] query = new float[16];
+		query[0] = 1f;
+		List<List<SimilarityResult>> snapshots = new ArrayList<>();
+
+		database.streamSimilar(query, 5, Map.of(), (results, complete) -> snapshots.add(results));
+
+		assertEquals(database.findSimilar(query, 5), snapshots.get(snapshots.size() - 1));
+	}
+
+	@Test
+	void streamSimilarStopsWhenTheListenerCancels() {
+		for (int i = 0; i < 40_000; i++) {
+			database.storeEmbedding("v" + i, new float[] {i, 1f}, Map.of());
+		}
+		List<List<SimilarityResult>> snapshots = new ArrayList<>();
+
+		database.streamSimilar(new float[] {1f, 0f}, 5, Map.of(), (results, complete) -> {
+			snapshots.add(results);
+			return false;
+		});
+
+		assertEquals(1, snapshots.size());
+	}
+
+	@Test
+	void int8CandidatesAreRerankedToTheExactRanking() {
+		assertQuantizedRecall(Quantization.INT8, 0.95);
+	}
+
+	@Test
+	void binaryCandidatesAreRerankedToTheExactRanking() {
+		assertQuantizedRecall(Quantization.BINARY, 0.7);
+	}
+
+	@Test
+	void quantizedQueriesAreSampledForRecallInTheBackground() throws InterruptedException {
+		InMemoryVectorDatabase quantized = new InMemoryVectorDatabase(Quantization.INT8, 4);
+		Random random = new Random(17);
+		for (int i = 0; i < 1000; i++) {
+			quantized.storeEmbedding("id" + i, randomVector(random, 32), Map.of("type", "chunk"));
+		}
+		for (int q = 0; q < 64; q++) {
+			quantized.findSimilar(randomVector(random, 32), 10, Map.of());
+		}
+
+		long deadline = System.currentTimeMillis() + 5000;
+		while ((long) quantized.getStatistics().get("recallSamples") == 0 && System.currentTimeMillis() < deadline) {
+			Thread.sleep(10);
+		}
+		assertTrue((long) quantized.getStatistics().get("recallSamples") > 0);
+		assertTrue((double) quantized.getStatistics().get("measuredRecall") >= 0.9);
+		quantized.shutdown();
+	}
+
+	@Test
+	void batchSearchMatchesPerQuerySearch() {
+		InMemoryVectorDatabase quantized = new InMemoryVectorDatabase(Quantization.INT8, 4);
+		Random random = new Random(29);
+		for (int i = 0; i < 1500; i++) {
+			float[] vector = randomVector(random, 24);
+			Map<String, Object> metadata = Map.of("type", i % 3 == 0 ? "question" : "chunk");
+			database.storeEmbedding("id" + i, vector, metadata);
+			quantized.storeEmbedding("id" + i, vector, metadata);
+		}
+		float[][] queries = new float[70][];
+		for (int q = 0; q < queries.length; q++) {
+			queries[q] = randomVector(random, 24);
+		}
+
+		for (InMemoryVectorDatabase target : List.of(database, quantized)) {
+			for (Map<String, Object> filter : List.<Map<String, Object>>of(Map.of(), Map.of("type", "question"))) {
+				List<List<SimilarityResult>> batch = target.findSimilarBatch(queries, 10, filter);
+				assertEquals(queries.length, batch.size());
+				for (int q = 0; q < queries.length; q++) {
+					assertEquals(target.findSimilar(queries[q], 10, filter), batch.get(q), "query " + q + " " + filter);
+				}
+			}
+		}
+		quantized.shutdown();
+	}
+
+	@Test
+	void shardedScanMatchesSingleShardScan() {
+		ScanParallelism sharded = ScanParallelism.create(4, 16);
+		ScanParallelism single = ScanParallelism.create(1, 1);
+		InMemoryVectorDatabase parallel = new InMemoryVectorDatabase(Quantization.NONE, 4, null, 0, 0, sharded);
+		InMemoryVectorDatabase sequential = new InMemoryVectorDatabase(Quantization.NONE, 4, null, 0, 0, single);
+		Random random = new Random(31);
+		// Above the parallel scan threshold, with some slots freed so shards hold uneven live counts
+		for (int i = 0; i < 40_000; i++) {
+			float[] vector = randomVector(random, 16);
+			parallel.storeEmbedding("id" + i, vector, Map.of());
+			sequential.storeEmbedding("id" + i, vector, Map.of());
+		}
+		for (int i = 0; i < 40_000; i += 7) {
+			parallel.deleteEmbedding("id" + i);
+			sequential.deleteEmbedding("id" + i);
+		}
+
+		float[][] queries = new float[8][];
+		for (int q = 0; q < queries.length; q++) {
+			queries[q] = randomVector(random, 16);
+			assertEquals(sequential.findSimilar(queries[q], 20, Map.of()), parallel.findSimilar(queries[q], 20, Map.of()));
+		}
+		assertEquals(sequential.findSimilarBatch(queries, 20, Map.of()), parallel.findSimilarBatch(queries, 20, Map.of()));
+		parallel.shutdown();
+		sequential.shutdown();
+		sharded.shutdown();
+		single.shutdown();
+	}
+
+	@Test
+	void thresholdSearchNeverDropsATrueMatch() {
+		InMemoryVectorDatabase half = new InMemoryVectorDatabase(Quantization.NONE, 4, null, 0, 0,
+			ScanParallelism.common(), VectorPrecision.FLOAT16);
+		Random random = new Random(37);
+		List<float[]> stored = new ArrayList<>();
+		for (int i = 0; i < 3000; i++) {
+			// Energy concentrated in the leading dimensions, as in Matryoshka-trained embeddings,
+			// so the tail bound prunes most rows
+			float[] vector = new float[48];
+			for (int d = 0; d < vector.length; d++) {
+				vector[d] = (float) (random.nextGaussian() * Math.pow(0.9, d));
+			}
+			stored.add(vector);
+			database.storeEmbedding("id" + i, vector, Map.of());
+			half.storeEmbedding("id" + i, vector, Map.of());
+		}
+
+		for (InMemoryVectorDatabase target : List.of(database, half)) {
+			for (int q = 0; q < 30; q++) {
+				// Perturbed copies of stored rows put many matches close to the threshold
+				float[] query = stored.get(q * 97).clone();
+				for (int d = 0; d < query.length; d++) {
+					query[d] += (float) (0.3 * random.nextGaussian());
+				}
+				double threshold = 0.6;
+				List<SimilarityResult> exact = target.findSimilar(query, 3000, Map.of());
+				List<SimilarityResult> within = target.findWithinThreshold(query, threshold, 3000);
+
+				List<String> withinIds = within.stream().map(SimilarityResult::id).toList();
+				for (SimilarityResult match : exact) {
+					if (match.similarity() >= threshold + 1e-5) {
+						assertTrue(withinIds.contains(match.id()), "dropped " + match.id() + " at " + match.similarity());
+					}
+				}
+				assertTrue(within.stream().allMatch(r -> r.similarity() >= threshold));
+
+				List<SimilarityResult> top = target.findWithinThreshold(query, threshold, 5);
+				List<String> expectedTop = exact.stream().filter(r -> r.similarity() >= threshold).limit(5)
+					.map(SimilarityResult::id).toList();
+				assertEquals(expectedTop, top.stream().map(SimilarityResult::id).toList());
+			}
+		}
+	}
+
+	@Test
+	void rejectsMismatchedDimensions() {
+		database.storeEmbedding("a", new float[] {1f, 0f}, Map.of());
+
+		assertThrows(IllegalArgumentException.class,
+			() -> database.storeEmbedding("b", new float[] {1f, 0f, 0f}, Map.of()));
+	}
+
+	@Test
+	void statisticsFollowInsertsOverwritesAndDeletes() {
+		database.storeEmbedding("a", new float[] {1f, 0f}, Map.of("type", "chunk", "genre", "Drama"));
+		database.storeEmbedding("b", new float[] {0f, 1f}, Map.of("type", "chunk", "genre", "Comedy"));
+		database.storeEmbedding("c", new float[] {1f, 1f}, Map.of("type", "question"));
+		database.storeEmbedding("b", new float[] {0f, 1f}, Map.of("type", "question"));
+		database.deleteEmbedding("a");
+
+		Map<String, Object> stats = database.getStatistics();
+
+		assertEquals(Map.of("question", 2L), stats.get("byType"));
+		assertEquals(Map.of("unknown", 2L), stats.get("byGenre"));
+		assertEquals(Map.of(2, 2L), stats.get("dimensionHistogram"));
+		assertEquals(2.0, stats.get("averageDimension"));
+		assertEquals(16L, stats.get("liveVectorBytes"));
+		assertEquals(3L, stats.get("inserts"));
+		assertEquals(1L, stats.get("updates"));
+		assertEquals(1L, stats.get("deletes"));
+		assertEquals(3 / 60.0, stats.get("insertsPerSecond"));
+		assertEquals(1 / 60.0, stats.get("updatesPerSecond"));
+
+		database.deleteAll();
+		assertEquals(Map.of(), database.getStatistics().get("byType"));
+		assertEquals(0L, database.getStatistics().get("liveVectorBytes"));
+	}
+
+	@Test
+	void overflowedValuesStayInOtherUntilTheirRowsAreGone() {
+		for (int i = 0; i < MetadataIndex.MAX_CARDINALITY; i++) {
+			database.storeEmbedding("g" + i, new float[] {1f, i}, Map.of("genre", "genre-" + i));
+		}
+		database.storeEmbedding("late-1", new float[] {1f, 0f}, Map.of("genre", "late"));
+		database.deleteEmbedding("g0");
+		database.storeEmbedding("late-2", new float[] {1f, 0f}, Map.of("genre", "late"));
+
+		Map<?, ?> byGenre = (Map<?, ?>) database.getStatistics().get("byGenre");
+		assertEquals(2L, byGenre.get("other"));
+		assertNull(byGenre.get("late"));
+		assertNull(byGenre.get("genre-0"));
+
+		database.deleteEmbedding("late-1");
+		database.deleteEmbedding("late-2");
+		byGenre = (Map<?, ?>) database.getStatistics().get("byGenre");
+		assertNull(byGenre.get("other"));
+		assertEquals(MetadataIndex.MAX_CARDINALITY - 1, byGenre.size());
+
+		database.storeEmbedding("late-3", new float[] {1f, 0f}, Map.of("genre", "late"));
+		assertEquals(1L, ((Map<?, ?>) database.getStatistics().get("byGenre")).get("late"));
+	}
+
+	@Test
+	void float16StorageHalvesVectorBytesAndKeepsTheRanking() {
+		InMemoryVectorDatabase half = new InMemoryVectorDatabase(Quantization.NONE, 4, null, 0, 0,
+			ScanParallelism.common(), VectorPrecision.FLOAT16);
+		Random random = new Random(11);
+		for (int i = 0; i < 2000; i++) {
+			float[] vector = new float[64];
+			for (int d = 0; d < vector.length; d++) {
+				vector[d] = (float) random.nextGaussian();
+			}
+			database.storeEmbedding("v" + i, vector, Map.of());
+			half.storeEmbedding("v" + i, vector, Map.of());
+		}
+
+		int overlap = 0;
+		for (int q = 0; q < 20; q++) {
+			float[] query = new float[64];
+			for (int d = 0; d < query.length; d++) {
+				query[d] = (float) random.nextGaussian();
+			}
+			List<String> expected = database.findSimilar(query, 10).stream().map(SimilarityResult::id).toList();
+			List<SimilarityResult> actual = half.findSimilar(query, 10);
+			overlap += (int) actual.stream().filter(r -> expected.contains(r.id())).count();
+		}
+
+		assertTrue(overlap >= 190, "float16 top-10 overlap " + overlap + "/200");
+		assertEquals(256, database.getStatistics().get("bytesPerVector"));
+		assertEquals(128, half.getStatistics().get("bytesPerVector"));
+		float[] outOfRange = new float[64];
+		outOfRange[0] = 1e6f;
+		assertThrows(IllegalArgumentException.class, () -> half.storeEmbedding("big", outOfRange, Map.of()));
+	}
+
+	@Test
+	void writeAheadLogRecoversAcrossCheckpoint(@TempDir Path directory) throws Exception {
+		InMemoryVectorDatabase durable = new InMemoryVectorDatabase(Quantization.NONE, 4, directory, 0, Long.MAX_VALUE);
+		durable.storeEmbedding("a", new float[] {1f, 0f}, Map.of("type", "chunk"));
+		durable.storeEmbedding("b", new float[] {0f, 1f}, Map.of("type", "question"));
+		durable.checkpoint();
+		durable.deleteEmbedding("a");
+		durable.storeEmbedding("c", new float[] {1f, 1f}, Map.of("type", "chunk"));
+		durable.shutdown();
+
+		InMemoryVectorDatabase recovered = new InMemoryVectorDatabase(Quantization.NONE, 4, directory, 0, Long.MAX_VALUE);
+
+		assertEquals(2, recovered.count());
+		assertNull(recovered.getEmbedding("a"));
+		assertEquals("c", recovered.findSimilar(new float[] {1f, 0f}, 10, Map.of("type", "chunk")).get(0).id());
+		recovered.shutdown();
+	}
+
+	/**
+	 * Top-10 of the quantized path against the exact scan; shared ids must carry the exact similarity
+	 */
+	private void assertQuantizedRecall(Quantization quantization, double minRecall) {
+		InMemoryVectorDatabase quantized = new InMemoryVectorDatabase(quantization, 4);
+		Random random = new Random(23);
+		for (int i = 0; i < 2000; i++) {
+			float[] vector = randomVector(random, 64);
+			database.storeEmbedding("id" + i, vector, Map.of());
+			quantized.storeEmbedding("id" + i, vector, Map.of());
+		}
+
+		int hits = 0;
+		for (int q = 0; q < 50; q++) {
+			float[] query = randomVector(random, 64);
+			Map<String, Double> expected = new HashMap<>();
+			database.findSimilar(query, 10).forEach(r -> expected.put(r.id(), r.similarity()));
+			for (SimilarityResult result : quantized.findSimilar(query, 10)) {
+				if (expected.containsKey(result.id())) {
+					hits++;
+					assertEquals(expected.get(result.id()), result.similarity(), 1e-6);
+				}
+			}
+		}
+
+		assertTrue(hits / 500.0 >= minRecall, quantization + " recall@10 was " + hits / 500.0);
+		quantized.shutdown();
+	}
+
+	private static float[] randomVector(Random random, int dimension) {
+		float[] vector = new float[dimension];
+		for (int d = 0; d < dimension; d++) {
+			vector[d] = (float) random.nextGaussian();
+		}
+		return vector;
+	}
+}
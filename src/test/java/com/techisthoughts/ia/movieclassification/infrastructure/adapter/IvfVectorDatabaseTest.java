@@ -0,0 +1,107 @@
+package com.techisthoughts.ia.movieclassification.infrastructure.adapter;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Test;
+import com.techisthoughts.ia.movieclassification.domain.port.VectorDatabasePort.SimilarityResult;
+
+class IvfVectorDatabaseTest {
+
+	private static final int DIMENSION = 16;
+	private static final int LISTS = 16;
+
+	@Test
+	void probingEveryListMatchesExactSearch() throws InterruptedException {
+		IvfVectorDatabase ivf = new IvfVectorDatabase(LISTS, LISTS, 1000, 100.0, 2000);
+		InMemoryVectorDatabase exact = new InMemoryVectorDatabase();
+		Random random = new Random(3);
+		for (int i = 0; i < 2000; i++) {
+			float[] vector = randomVector(random);
+			ivf.storeEmbedding("id" + i, vector, Map.of());
+			exact.storeEmbedding("id" + i, vector, Map.of());
+		}
+		awaitTraining(ivf);
+
+		for (int q = 0; q < 20; q++) {
+			float[] query = randomVector(random);
+			assertEquals(ids(exact.findSimilar(query, 10)), ids(ivf.findSimilar(query, 10)));
+		}
+		ivf.shutdown();
+	}
+
+	@Test
+	void probingSomeListsKeepsMostOfTheExactTopK() throws InterruptedException {
+		IvfVectorDatabase ivf = new IvfVectorDatabase(LISTS, 6, 1000, 100.0, 2000);
+		InMemoryVectorDatabase exact = new InMemoryVectorDatabase();
+		Random random = new Random(5);
+		for (int i = 0; i < 2000; i++) {
+			float[] vector = randomVector(random);
+			ivf.storeEmbedding("id" + i, vector, Map.of());
+			exact.storeEmbedding("id" + i, vector, Map.of());
+		}
+		awaitTraining(ivf);
+
+		double recall = 0;
+		for (int q = 0; q < 50; q++) {
+			float[] query = randomVector(random);
+			Set<String> expected = Set.copyOf(ids(exact.findSimilar(query, 10)));
+			recall += ivf.findSimilar(query, 10).stream().filter(r -> expected.contains(r.id())).count() / 10.0;
+		}
+
+		assertTrue(recall / 50 > 0.7, "recall@10 was " + recall / 50);
+		ivf.shutdown();
+	}
+
+	@Test
+	void writesDuringTrainingAreReplayedIntoTheSwappedIndex() throws InterruptedException {
+		IvfVectorDatabase ivf = new IvfVectorDatabase(LISTS, LISTS, 2000, 100.0, 4000);
+		Random random = new Random(9);
+		for (int i = 0; i < 4000; i++) {
+			ivf.storeEmbedding("id" + i, randomVector(random), Map.of());
+		}
+		// Training was scheduled by the last insert; writes that land while it runs go to the journal
+		float[][] late = new float[200][];
+		for (int i = 0; i < late.length; i++) {
+			late[i] = randomVector(random);
+			ivf.storeEmbedding("late" + i, late[i], Map.of());
+			ivf.deleteEmbedding("id" + i);
+		}
+		awaitTraining(ivf);
+
+		assertEquals(4000L, ivf.count());
+		for (int i = 0; i < late.length; i++) {
+			assertEquals("late" + i, ivf.findSimilar(late[i], 1).get(0).id());
+		}
+		Set<String> deleted = IntStream.range(0, late.length).mapToObj(i -> "id" + i).collect(Collectors.toSet());
+		assertTrue(ivf.findSimilar(randomVector(random), 4000).stream().noneMatch(r -> deleted.contains(r.id())));
+		ivf.shutdown();
+	}
+
+	private static void awaitTraining(IvfVectorDatabase ivf) throws InterruptedException {
+		long deadline = System.currentTimeMillis() + 30_000;
+		while (!(Boolean.TRUE.equals(ivf.getStatistics().get("trained"))
+				&& Boolean.FALSE.equals(ivf.getStatistics().get("trainingInProgress")))) {
+			assertTrue(System.currentTimeMillis() < deadline, "IVF index was not trained in time");
+			Thread.sleep(10);
+		}
+	}
+
+	private static List<String> ids(List<SimilarityResult> results) {
+		return results.stream().map(SimilarityResult::id).collect(Collectors.toList());
+	}
+
+	private static float[] randomVector(Random random) {
+		float[] vector = new float[DIMENSION];
+		for (int i = 0; i < DIMENSION; i++) {
+			vector[i] = (float) random.nextGaussian();
+		}
+		return vector;
+	}
+}
@@ -0,0 +1,74 @@
+package com.techisthoughts.ia.movieclassification.infrastructure.adapter;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import com.techisthoughts.ia.movieclassification.domain.port.VectorDatabasePort.SimilarityResult;
+
+class MappedVectorDatabaseTest {
+
+	@TempDir
+	Path directory;
+
+	@Test
+	void sealedSegmentsSurviveRestart() throws Exception {
+		MappedVectorDatabase database = new MappedVectorDatabase(directory, 1024, 0);
+		database.storeEmbedding("a", new float[] {1f, 0f, 0f}, Map.of("type", "chunk", "movieCount", 3));
+		database.storeEmbedding("b", new float[] {0.7f, 0.7f, 0f}, Map.of("type", "question"));
+		database.storeEmbedding("c", new float[] {0f, 0f, 1f}, Map.of("type", "chunk"));
+		database.flush();
+		database.deleteEmbedding("c");
+		database.storeEmbedding("a", new float[] {0f, 1f, 0f}, Map.of("type", "chunk", "movieCount", 4));
+		database.shutdown();
+
+		MappedVectorDatabase reopened = new MappedVectorDatabase(directory, 1024, 0);
+
+		assertEquals(2, reopened.count());
+		assertNull(reopened.getEmbedding("c"));
+		assertEquals(List.of(0.0, 1.0, 0.0), reopened.getEmbedding("a").embedding());
+		List<SimilarityResult> results = reopened.findSimilar(new float[] {0f, 1f, 0f}, 10, Map.of("type", "chunk"));
+		assertEquals(1, results.size());
+		assertEquals("a", results.get(0).id());
+		assertEquals(4, results.get(0).metadata().get("movieCount"));
+		reopened.shutdown();
+	}
+
+	@Test
+	void compactionKeepsLiveRowsAcrossRestart() throws Exception {
+		MappedVectorDatabase database = new MappedVectorDatabase(directory, 4, 0, 0.3);
+		for (int i = 0; i < 12; i++) {
+			database.storeEmbedding("v" + i, new float[] {i, 1f}, Map.of("i", i));
+		}
+		database.flush();
+		for (int i = 0; i < 8; i++) {
+			database.deleteEmbedding("v" + i);
+		}
+		database.flush();
+		database.shutdown();
+
+		MappedVectorDatabase reopened = new MappedVectorDatabase(directory, 4, 0, 0.3);
+
+		assertEquals(4, reopened.count());
+		assertNull(reopened.getEmbedding("v3"));
+		assertEquals(List.of(11.0, 1.0), reopened.getEmbedding("v11").embedding());
+		assertEquals(11, reopened.getEmbedding("v11").metadata().get("i"));
+		reopened.shutdown();
+	}
+
+	@Test
+	void unflushedWritesAreSearchable() {
+		MappedVectorDatabase database = new MappedVectorDatabase(directory, 1024, 0);
+		database.storeEmbedding("a", new float[] {1f, 0f}, Map.of());
+		database.storeEmbedding("b", new float[] {0f, 1f}, Map.of());
+
+		assertEquals("b", database.findSimilar(new float[] {0.1f, 1f}, 1).get(0).id());
+		database.deleteAll();
+		assertEquals(0, database.count());
+		database.shutdown();
+	}
+}
@@ -0,0 +1,77 @@
+package com.techisthoughts.ia.movieclassification.infrastructure.adapter;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.Test;
+import com.techisthoughts.ia.movieclassification.domain.port.VectorDatabasePort.SimilarityResult;
+
+class PqVectorDatabaseTest {
+
+	private static final int DIMENSION = 32;
+
+	@Test
+	void adcSearchKeepsMostOfTheExactTopK() throws InterruptedException {
+		PqVectorDatabase pq = new PqVectorDatabase(8, 2000, 2000);
+		InMemoryVectorDatabase exact = new InMemoryVectorDatabase();
+		Random random = new Random(13);
+		for (int i = 0; i < 3000; i++) {
+			float[] vector = randomVector(random);
+			pq.storeEmbedding("id" + i, vector, Map.of());
+			exact.storeEmbedding("id" + i, vector, Map.of());
+		}
+		awaitTraining(pq);
+
+		double recall = 0;
+		for (int q = 0; q < 50; q++) {
+			float[] query = randomVector(random);
+			Set<String> expected = exact.findSimilar(query, 10).stream()
+				.map(SimilarityResult::id)
+				.collect(Collectors.toSet());
+			recall += pq.findSimilar(query, 10).stream().filter(r -> expected.contains(r.id())).count() / 10.0;
+		}
+
+		assertTrue(recall / 50 > 0.5, "recall@10 was " + recall / 50);
+		assertEquals(12, pq.getStatistics().get("bytesPerVector"));
+		pq.shutdown();
+	}
+
+	@Test
+	void vectorsStoredAfterTrainingAreEncodedAndFound() throws InterruptedException {
+		PqVectorDatabase pq = new PqVectorDatabase(8, 1000, 1000);
+		Random random = new Random(17);
+		for (int i = 0; i < 1000; i++) {
+			pq.storeEmbedding("id" + i, randomVector(random), Map.of());
+		}
+		awaitTraining(pq);
+		float[] late = randomVector(random);
+		pq.storeEmbedding("late", late, Map.of());
+		pq.deleteEmbedding("id0");
+
+		assertEquals(1000L, pq.count());
+		assertEquals("late", pq.findSimilar(late, 1).get(0).id());
+		assertTrue(pq.findSimilar(late, 1000).stream().noneMatch(r -> r.id().equals("id0")));
+		pq.shutdown();
+	}
+
+	private static void awaitTraining(PqVectorDatabase pq) throws InterruptedException {
+		long deadline = System.currentTimeMillis() + 60_000;
+		while (!(Boolean.TRUE.equals(pq.getStatistics().get("trained"))
+				&& Boolean.FALSE.equals(pq.getStatistics().get("trainingInProgress")))) {
+			assertTrue(System.currentTimeMillis() < deadline, "PQ codebooks were not trained in time");
+			Thread.sleep(10);
+		}
+	}
+
+	private static float[] randomVector(Random random) {
+		float[] vector = new float[DIMENSION];
+		for (int i = 0; i < DIMENSION; i++) {
+			vector[i] = (float) random.nextGaussian();
+		}
+		return vector;
+	}
+}
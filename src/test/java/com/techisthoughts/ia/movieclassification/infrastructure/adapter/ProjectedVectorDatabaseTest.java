@@ -0,0 +1,109 @@
+package com.techisthoughts.ia.movieclassification.infrastructure.adapter;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import com.techisthoughts.ia.movieclassification.domain.port.VectorDatabasePort.SimilarityResult;
+
+class ProjectedVectorDatabaseTest {
+
+	@TempDir
+	Path directory;
+
+	private ProjectedVectorDatabase database;
+
+	@AfterEach
+	void shutdown() {
+		database.shutdown();
+	}
+
+	@Test
+	void truncatedSearchReranksOnFullVectors() {
+		database = new ProjectedVectorDatabase(new InMemoryVectorDatabase(), directory.resolve("full.f32"),
+			"truncate", 2, 0, 4);
+		database.storeEmbedding("prefix-only", new float[] {1f, 0f, 0f, 0f}, Map.of("type", "chunk"));
+		database.storeEmbedding("exact", new float[] {1f, 0f, 1f, 0f}, Map.of("type", "chunk"));
+
+		List<SimilarityResult> results = database.findSimilar(new float[] {1f, 0f, 1f, 0f}, 1, Map.of());
+
+		assertEquals("exact", results.get(0).id());
+		assertEquals(1.0, results.get(0).similarity(), 1e-6);
+		assertEquals(List.of(1.0, 0.0, 1.0, 0.0), database.getEmbedding("exact").embedding());
+		assertEquals(4, database.dimension());
+		assertEquals(2, database.getStatistics().get("reducedDimension"));
+	}
+
+	@Test
+	void pcaIsFittedInTheBackgroundAndKeepsNeighbours() throws Exception {
+		database = new ProjectedVectorDatabase(new InMemoryVectorDatabase(), directory.resolve("full.f32"),
+			"pca", 8, 200, 4);
+		Random random = new Random(7);
+		float[][] basis = new float[4][32];
+		for (float[] axis : basis) {
+			for (int j = 0; j < axis.length; j++) {
+				axis[j] = (float) random.nextGaussian();
+			}
+		}
+		for (int i = 0; i < 400; i++) {
+			float[] vector = new float[32];
+			for (float[] axis : basis) {
+				double weight = random.nextGaussian();
+				for (int j = 0; j < vector.length; j++) {
+					vector[j] += (float) (weight * axis[j]);
+				}
+			}
+			database.storeEmbedding("v" + i, vector, Map.of());
+		}
+
+		for (int attempt = 0; attempt < 100 && !(Boolean) database.getStatistics().get("projectionActive"); attempt++) {
+			Thread.sleep(50);
+		}
+		assertTrue((Boolean) database.getStatistics().get("projectionActive"));
+		assertEquals(8, database.getStatistics().get("reducedDimension"));
+
+		for (int i = 0; i < 400; i += 40) {
+			float[] query = toFloats(database.getEmbedding("v" + i).embedding());
+			assertEquals("v" + i, database.findSimilar(query, 1, Map.of()).get(0).id());
+		}
+		assertEquals(400, database.count());
+	}
+
+	@Test
+	void reducedQueriesAreSampledForRecallInTheBackground() throws InterruptedException {
+		database = new ProjectedVectorDatabase(new InMemoryVectorDatabase(), directory.resolve("full.f32"),
+			"truncate", 24, 0, 8);
+		Random random = new Random(19);
+		for (int i = 0; i < 500; i++) {
+			float[] vector = new float[32];
+			for (int j = 0; j < vector.length; j++) {
+				vector[j] = (float) (random.nextGaussian() * (j < 24 ? 1.0 : 0.1));
+			}
+			database.storeEmbedding("v" + i, vector, Map.of());
+		}
+		for (int q = 0; q < 64; q++) {
+			database.findSimilar(toFloats(database.getEmbedding("v" + q).embedding()), 5, Map.of());
+		}
+
+		long deadline = System.currentTimeMillis() + 5000;
+		while ((long) database.getStatistics().get("recallSamples") == 0 && System.currentTimeMillis() < deadline) {
+			Thread.sleep(10);
+		}
+		assertTrue((long) database.getStatistics().get("recallSamples") > 0);
+		assertTrue((double) database.getStatistics().get("measuredRecall") >= 0.8);
+	}
+
+	private static float[] toFloats(List<Double> values) {
+		float[] vector = new float[values.size()];
+		for (int i = 0; i < vector.length; i++) {
+			vector[i] = values.get(i).floatValue();
+		}
+		return vector;
+	}
+}
@@ -0,0 +1,70 @@
+package com.techisthoughts.ia.movieclassification.infrastructure.vector;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import org.junit.jupiter.api.Test;
+
+class ProductQuantizerTest {
+
+	private static final int ROWS = 2000;
+
+	@Test
+	void adcScoreIsTheInnerProductWithTheDecodedVector() {
+		int dimension = 30;
+		float[] data = randomRows(new Random(1), ROWS, dimension);
+		// 30 components over 8 subspaces: the first six take four, the last two take three
+		ProductQuantizer quantizer = ProductQuantizer.train(data, ROWS, dimension, 8, 8, 1L, ForkJoinPool.commonPool());
+		byte[] codes = new byte[ROWS * 8];
+		for (int row = 0; row < ROWS; row++) {
+			quantizer.encode(data, row * dimension, codes, row * 8);
+		}
+
+		float[] query = randomRows(new Random(2), 1, dimension);
+		float[] table = quantizer.innerProductTable(query);
+		for (int row = 0; row < ROWS; row += 97) {
+			float[] decoded = quantizer.decode(codes, row * 8);
+			assertEquals(dimension, decoded.length);
+			assertEquals(VectorMath.dot(query, decoded, 0, dimension), ProductQuantizer.score(table, codes, row * 8, 8), 1e-4f);
+		}
+	}
+
+	@Test
+	void encodingPicksTheNearestCentroidOfEachSubspace() {
+		int dimension = 16;
+		float[] data = randomRows(new Random(3), ROWS, dimension);
+		ProductQuantizer quantizer = ProductQuantizer.train(data, ROWS, dimension, 4, 8, 1L, ForkJoinPool.commonPool());
+		byte[] code = new byte[4];
+		byte[] other = new byte[4];
+
+		for (int row = 0; row < ROWS; row += 101) {
+			quantizer.encode(data, row * dimension, code, 0);
+			double error = squaredError(data, row * dimension, quantizer.decode(code, 0));
+			// Moving any one subspace to another centroid can only increase the reconstruction error
+			for (int j = 0; j < 4; j++) {
+				System.arraycopy(code, 0, other, 0, 4);
+				other[j] = (byte) (code[j] + 1);
+				assertTrue(squaredError(data, row * dimension, quantizer.decode(other, 0)) >= error - 1e-5);
+			}
+		}
+	}
+
+	private static double squaredError(float[] data, int offset, float[] decoded) {
+		double sum = 0;
+		for (int d = 0; d < decoded.length; d++) {
+			double diff = data[offset + d] - decoded[d];
+			sum += diff * diff;
+		}
+		return sum;
+	}
+
+	private static float[] randomRows(Random random, int rows, int dimension) {
+		float[] data = new float[rows * dimension];
+		for (int i = 0; i < data.length; i++) {
+			data[i] = (float) random.nextGaussian();
+		}
+		return data;
+	}
+}
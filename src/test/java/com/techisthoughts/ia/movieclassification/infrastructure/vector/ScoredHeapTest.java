@@ -0,0 +1,89 @@
+package com.techisthoughts.ia.movieclassification.infrastructure.vector;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Test;
+
+class ScoredHeapTest {
+
+	@Test
+	void boundedMinHeapKeepsTheTopKOfAFullSort() {
+		Random random = new Random(1);
+		float[] scores = new float[5000];
+		for (int i = 0; i < scores.length; i++) {
+			// Few distinct values so that ties cross the k-th position
+			scores[i] = random.nextInt(200) / 200f;
+		}
+		ScoredHeap heap = ScoredHeap.min(10);
+		for (int slot = 0; slot < scores.length; slot++) {
+			heap.offer(scores[slot], slot, 10);
+		}
+
+		List<Float> sorted = IntStream.range(0, scores.length).mapToObj(i -> scores[i])
+			.sorted(Comparator.reverseOrder()).limit(10).toList();
+		List<Float> kept = new ArrayList<>();
+		while (!heap.isEmpty()) {
+			kept.add(0, heap.topScore());
+			assertEquals(heap.topScore(), scores[heap.topSlot()]);
+			heap.pop();
+		}
+		assertEquals(sorted, kept);
+	}
+
+	@Test
+	void maxHeapPopsBestFirst() {
+		Random random = new Random(2);
+		ScoredHeap heap = ScoredHeap.max(4);
+		List<Float> pushed = new ArrayList<>();
+		for (int slot = 0; slot < 1000; slot++) {
+			float score = (float) random.nextGaussian();
+			heap.push(score, slot);
+			pushed.add(score);
+		}
+
+		pushed.sort(Comparator.reverseOrder());
+		for (float expected : pushed) {
+			assertEquals(expected, heap.topScore());
+			heap.pop();
+		}
+		assertEquals(0, heap.size());
+	}
+
+	@Test
+	void mergingPerWorkerHeapsMatchesOneHeap() {
+		Random random = new Random(3);
+		ScoredHeap whole = ScoredHeap.min(10);
+		ScoredHeap merged = ScoredHeap.min(10);
+		ScoredHeap[] parts = {ScoredHeap.min(10), ScoredHeap.min(10), ScoredHeap.min(10)};
+		for (int slot = 0; slot < 3000; slot++) {
+			float score = random.nextFloat();
+			whole.offer(score, slot, 10);
+			parts[slot % parts.length].offer(score, slot, 10);
+		}
+		for (ScoredHeap part : parts) {
+			merged.offerAll(part, 10);
+		}
+
+		assertEquals(drain(whole), drain(merged));
+	}
+
+	@Test
+	void zeroLimitKeepsNothing() {
+		ScoredHeap heap = ScoredHeap.min(4);
+		heap.offer(1f, 0, 0);
+		assertEquals(0, heap.size());
+	}
+
+	private static List<Integer> drain(ScoredHeap heap) {
+		List<Integer> slots = new ArrayList<>();
+		while (!heap.isEmpty()) {
+			slots.add(heap.pop());
+		}
+		return slots;
+	}
+}
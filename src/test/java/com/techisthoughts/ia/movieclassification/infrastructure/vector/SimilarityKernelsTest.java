@@ -0,0 +1,89 @@
+package com.techisthoughts.ia.movieclassification.infrastructure.vector;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+class SimilarityKernelsTest {
+
+	private static final int MAX_LENGTH = 70;
+
+	private final SimilarityKernel scalar = new ScalarSimilarityKernel();
+	private final SimilarityKernel simd = new VectorApiSimilarityKernel();
+
+	@Test
+	void vectorApiKernelIsPickedWhenTheModuleIsResolved() {
+		boolean resolved = ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent();
+		assertEquals(resolved, SimilarityKernels.get().name().startsWith("vector-api"));
+	}
+
+	@Test
+	void simdMatchesScalarForEveryTailLengthAndOffset() {
+		Random random = new Random(1);
+		float[] a = randomFloats(random, MAX_LENGTH + 3);
+		float[] b = randomFloats(random, MAX_LENGTH + 3);
+		for (int length = 0; length <= MAX_LENGTH; length++) {
+			for (int offset = 0; offset <= 3; offset++) {
+				float tolerance = tolerance(a, offset, b, 3 - offset, length);
+				String at = "length " + length + ", offset " + offset;
+				assertEquals(scalar.dot(a, offset, b, 3 - offset, length), simd.dot(a, offset, b, 3 - offset, length),
+					tolerance, at);
+				assertEquals(scalar.squaredDistance(a, offset, b, 3 - offset, length),
+					simd.squaredDistance(a, offset, b, 3 - offset, length), 4 * tolerance, at);
+				assertEquals(scalar.cosine(a, offset, b, 3 - offset, length), simd.cosine(a, offset, b, 3 - offset, length),
+					1e-5f, at);
+			}
+		}
+	}
+
+	@Test
+	void simdMatchesScalarOnHalfPrecisionRows() {
+		Random random = new Random(2);
+		float[] a = randomFloats(random, MAX_LENGTH + 1);
+		short[] halfA = toHalf(randomFloats(random, MAX_LENGTH + 1));
+		short[] halfB = toHalf(randomFloats(random, MAX_LENGTH + 1));
+		for (int length = 0; length <= MAX_LENGTH; length++) {
+			String at = "length " + length;
+			assertEquals(scalar.dot(a, 1, halfB, 0, length), simd.dot(a, 1, halfB, 0, length), 1e-3f, at);
+			assertEquals(scalar.dot(halfA, 0, halfB, 1, length), simd.dot(halfA, 0, halfB, 1, length), 1e-3f, at);
+		}
+	}
+
+	@Test
+	void cosineOfAZeroRowIsZero() {
+		float[] zero = new float[17];
+		float[] row = randomFloats(new Random(3), 17);
+		assertEquals(0f, scalar.cosine(zero, 0, row, 0, 17));
+		assertEquals(0f, simd.cosine(zero, 0, row, 0, 17));
+		assertTrue(simd.cosine(row, 0, row, 0, 17) > 0.9999f);
+	}
+
+	/**
+	 * Summation order differs between the kernels; allow rounding relative to the magnitudes summed
+	 */
+	private static float tolerance(float[] a, int aOffset, float[] b, int bOffset, int length) {
+		float magnitude = 0f;
+		for (int i = 0; i < length; i++) {
+			magnitude += Math.abs(a[aOffset + i] * b[bOffset + i]);
+		}
+		return 1e-5f * Math.max(1f, magnitude);
+	}
+
+	private static float[] randomFloats(Random random, int length) {
+		float[] values = new float[length];
+		for (int i = 0; i < length; i++) {
+			values[i] = (float) random.nextGaussian();
+		}
+		return values;
+	}
+
+	private static short[] toHalf(float[] values) {
+		short[] halves = new short[values.length];
+		for (int i = 0; i < values.length; i++) {
+			halves[i] = Float.floatToFloat16(values[i]);
+		}
+		return halves;
+	}
+}